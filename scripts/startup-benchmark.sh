@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+#
+# Compares time-to-first-request of the plain fat jar against the startup-optimized
+# layout (extracted layers + CDS archive + Spring AOT), the same way the Dockerfile runs it.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#
+# The clock starts when the JVM is launched and stops at the first HTTP response from
+# /actuator/health (any status, so no database is required). Extra JVM options, e.g. a
+# datasource URL, can be passed through JAVA_OPTS.
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/startup-benchmark"
+JAR_NAME="cleaner-booking-system-0.0.1-SNAPSHOT.jar"
+JAVA_OPTS="${JAVA_OPTS:-}"
+MVN="${MVN:-sh ./mvnw}"
+
+now_ms() { date +%s%3N; }
+
+# Starts the application with the given arguments and prints the ms until the first response.
+time_to_first_request() {
+    local dir="$1"; shift
+    local start pid
+    start=$(now_ms)
+    (cd "$dir" && exec java $JAVA_OPTS -Dserver.port="$PORT" "$@" -jar application.jar) >"$WORK/last-run.log" 2>&1 &
+    pid=$!
+    until curl -s -o /dev/null "http://localhost:$PORT/actuator/health"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited during startup, see $WORK/last-run.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    echo $(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+# Runs a variant RUNS times and prints its median.
+measure() {
+    local label="$1" dir="$2"; shift 2
+    local samples=()
+    for _ in $(seq "$RUNS"); do
+        samples+=("$(time_to_first_request "$dir" "$@")")
+    done
+    local median
+    median=$(printf '%s\n' "${samples[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")
+    printf '%-22s median %6d ms   runs: %s\n' "$label" "$median" "${samples[*]}"
+}
+
+echo "Building plain jar..."
+(cd "$ROOT" && $MVN -B -q -DskipTests clean package)
+mkdir -p "$WORK/fat" "$WORK/optimized"
+cp "$ROOT/target/$JAR_NAME" "$WORK/fat/application.jar"
+
+echo "Building fast-startup jar..."
+(cd "$ROOT" && $MVN -B -q -DskipTests -Pfast-startup package)
+(cd "$WORK" && java -Djarmode=tools -jar "$ROOT/target/$JAR_NAME" extract --layers --application-filename application.jar --destination extracted)
+for layer in dependencies spring-boot-loader snapshot-dependencies application; do
+    cp -r "$WORK/extracted/$layer/." "$WORK/optimized/"
+done
+
+echo "Training CDS archive..."
+(cd "$WORK/optimized" && java -XX:ArchiveClassesAtExit=application.jsa \
+    -Dspring.context.exit=onRefresh -Dspring.aot.enabled=true \
+    -jar application.jar >"$WORK/training.log" 2>&1)
+
+echo "Measuring ($RUNS runs each)..."
+measure "fat jar" "$WORK/fat"
+measure "extracted + CDS + AOT" "$WORK/optimized" \
+    -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
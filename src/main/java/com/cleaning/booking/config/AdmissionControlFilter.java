@@ -0,0 +1,233 @@
+package com.cleaning.booking.config;
+
+import com.cleaning.booking.dto.ApiErrorResponse;
+import com.cleaning.booking.service.AdmissionLoad;
+import com.cleaning.booking.util.TokenBucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sheds excess API load before it reaches a controller.
+ *
+ * <ul>
+ *   <li>Rate limit: one token bucket per (API key, endpoint group) for the booking and
+ *       availability APIs. The key is the {@code X-API-Key} header, or the client
+ *       address when the header is missing. Behind a proxy the address comes from
+ *       {@code X-Forwarded-For}/{@code Forwarded}: {@code server.forward-headers-strategy=framework}
+ *       registers Spring's {@code ForwardedHeaderFilter} ahead of this filter.</li>
+ *   <li>Concurrency limit: at most {@code admission.concurrency.max} API requests in
+ *       flight. The last {@code booking-reserve} permits are kept for {@code POST /api/bookings},
+ *       so polling traffic cannot starve booking writes of threads and connections.
+ *       An async request (e.g. a streamed export) holds its permit until the async
+ *       cycle completes, not just until the container thread is handed back.</li>
+ * </ul>
+ *
+ * <p>Rejected requests get 429 with {@code Retry-After} and are counted in the
+ * {@code admission.shed} metric, tagged by group and reason.</p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter implements AdmissionLoad {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    static final String GROUP_BOOKING = "booking";
+    static final String GROUP_AVAILABILITY = "availability";
+    static final String GROUP_OTHER = "other";
+
+    static final String REASON_RATE = "rate";
+    static final String REASON_CONCURRENCY = "concurrency";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final double bookingRate;
+    private final int bookingBurst;
+    private final double availabilityRate;
+    private final int availabilityBurst;
+    private final int maxConcurrent;
+    private final int bookingReserve;
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, Counter> shedCounters = new HashMap<>();
+
+    public AdmissionControlFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.rate.booking.permits-per-second:5}") double bookingRate,
+            @Value("${admission.rate.booking.burst:10}") int bookingBurst,
+            @Value("${admission.rate.availability.permits-per-second:20}") double availabilityRate,
+            @Value("${admission.rate.availability.burst:40}") int availabilityBurst,
+            @Value("${admission.concurrency.max:100}") int maxConcurrent,
+            @Value("${admission.concurrency.booking-reserve:20}") int bookingReserve
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.bookingRate = bookingRate;
+        this.bookingBurst = bookingBurst;
+        this.availabilityRate = availabilityRate;
+        this.availabilityBurst = availabilityBurst;
+        this.maxConcurrent = maxConcurrent;
+        this.bookingReserve = bookingReserve;
+
+        Gauge.builder("admission.inflight", inFlight, AtomicInteger::get)
+                .description("API requests currently admitted")
+                .register(meterRegistry);
+        for (String group : List.of(GROUP_BOOKING, GROUP_AVAILABILITY, GROUP_OTHER)) {
+            for (String reason : List.of(REASON_RATE, REASON_CONCURRENCY)) {
+                shedCounters.put(group + "|" + reason, Counter.builder("admission.shed")
+                        .description("API requests rejected by admission control")
+                        .tag("group", group)
+                        .tag("reason", reason)
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI();
+        String group = path.startsWith("/api/bookings") ? GROUP_BOOKING
+                : path.startsWith("/api/availability") ? GROUP_AVAILABILITY
+                : GROUP_OTHER;
+
+        if (!GROUP_OTHER.equals(group)) {
+            long now = System.nanoTime();
+            long waitNanos = bucketFor(group, clientKey(request)).tryAcquire(now);
+            if (waitNanos > 0) {
+                shed(response, group, REASON_RATE, Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+                return;
+            }
+        }
+
+        boolean bookingWrite = GROUP_BOOKING.equals(group) && "POST".equals(request.getMethod());
+        int limit = bookingWrite ? maxConcurrent : maxConcurrent - bookingReserve;
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            shed(response, group, REASON_CONCURRENCY, 1L);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /** Drops buckets that have refilled completely, so idle clients do not accumulate. */
+    @Scheduled(fixedDelayString = "${admission.bucket-eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        log.debug("Evicted {} idle rate-limit buckets", before - buckets.size());
+    }
+
+    @Override
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private TokenBucket bucketFor(String group, String client) {
+        return buckets.computeIfAbsent(group + "|" + client, k -> GROUP_BOOKING.equals(group)
+                ? new TokenBucket(bookingRate, bookingBurst, System.nanoTime())
+                : new TokenBucket(availabilityRate, availabilityBurst, System.nanoTime()));
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && !apiKey.isBlank() ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private void shed(HttpServletResponse response, String group, String reason, long retryAfterSeconds)
+            throws IOException {
+
+        shedCounters.get(group + "|" + reason).increment();
+
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiErrorResponse(
+                "Too many requests (" + reason + " limit), retry later",
+                status.value(),
+                LocalDateTime.now(),
+                null
+        ));
+    }
+
+    /**
+     * Returns the permit of an async request once its async cycle ends. The container
+     * always calls {@code onComplete}, also after a timeout or error.
+     */
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.cleaning.booking.config;
+
+import com.cleaning.booking.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Circuit breakers around database reads that can be served from a snapshot.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreaker availabilityCircuitBreaker(
+            @Value("${availability.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${availability.breaker.slow-call-ms:1000}") long slowCallMillis,
+            @Value("${availability.breaker.open-ms:10000}") long openMillis
+    ) {
+        return new CircuitBreaker("availability", failureThreshold, slowCallMillis, openMillis);
+    }
+}
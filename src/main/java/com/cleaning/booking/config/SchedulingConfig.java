@@ -0,0 +1,12 @@
+package com.cleaning.booking.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background maintenance jobs (e.g. idempotency key purging).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,28 @@
+package com.cleaning.booking.config;
+
+import com.cleaning.booking.util.SlotTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Bookable durations, start step and break, compiled once at startup.
+ */
+@Slf4j
+@Configuration
+public class SlotTemplateConfig {
+
+    @Bean
+    public SlotTemplate slotTemplate(
+            @Value("${booking.slots.step-minutes:30}") int stepMinutes,
+            @Value("${booking.slots.durations:120,240}") List<Integer> durations,
+            @Value("${booking.slots.break-minutes:30}") int breakMinutes
+    ) {
+        SlotTemplate template = new SlotTemplate(stepMinutes, durations, breakMinutes);
+        log.info("Bookable slots: {}", template);
+        return template;
+    }
+}
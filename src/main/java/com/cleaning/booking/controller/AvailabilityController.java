@@ -2,9 +2,21 @@ package com.cleaning.booking.controller;
 
 import com.cleaning.booking.dto.AvailabilityRequest;
 import com.cleaning.booking.dto.AvailabilityResponse;
+import com.cleaning.booking.dto.BulkAvailabilityRequest;
+import com.cleaning.booking.dto.BulkAvailabilityResponse;
+import com.cleaning.booking.dto.CompactAvailabilityResponse;
+import com.cleaning.booking.dto.NextAvailableRequest;
+import com.cleaning.booking.dto.NextAvailableResponse;
+import com.cleaning.booking.service.AvailabilityBroadcaster;
+import com.cleaning.booking.service.AvailabilityPayloadCache;
 import com.cleaning.booking.service.AvailabilityService;
+import com.cleaning.booking.service.DataVersionService;
+import com.cleaning.booking.util.CachedPayload;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
@@ -12,11 +24,27 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * Controller for availability queries.
+ *
+ * <p>Single-date availability answers are served from {@link AvailabilityPayloadCache}
+ * as ready-made JSON (or gzip) bytes, so unchanged results skip Jackson entirely.
+ * Clients that send {@code Accept: application/vnd.cleaning.availability.v2+json} get the
+ * compact bitmask format instead of slot strings.</p>
  */
 @Slf4j
 @RestController
@@ -25,14 +53,197 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Availability", description = "Cleaner availability checking")
 public class AvailabilityController {
 
+    static final String V2_MEDIA_TYPE = "application/vnd.cleaning.availability.v2+json";
+
     private final AvailabilityService availabilityService;
+    private final DataVersionService dataVersionService;
+    private final AvailabilityPayloadCache availabilityPayloadCache;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+
+    /**
+     * Cacheable variant of the availability check. The strong ETag changes whenever the
+     * roster or the date's bookings change, so polling clients get 304 without a DB read.
+     */
+    @GetMapping
+    @Operation(summary = "Check cleaner availability (cacheable, supports If-None-Match)")
+    @ApiResponse(responseCode = "200", content = @Content(
+            mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = AvailabilityResponse.class)))
+    public ResponseEntity<byte[]> getAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+            @RequestParam(required = false) Integer durationMinutes,
+            @RequestParam(required = false) String region,
+            WebRequest webRequest
+    ) {
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        // Each content-encoding is a distinct representation and needs its own strong tag
+        String etag = dataVersionService.cacheable() ? dataVersionService.availabilityTag(date) + (gzip ? "-gz" : "") : null;
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        log.info("API: Checking availability for date={} start={} duration={} region={}",
+                date, startTime, durationMinutes, region);
+
+        AvailabilityRequest request = new AvailabilityRequest(date, startTime, durationMinutes, region);
+        return payloadResponse(request, etag, gzip);
+    }
 
     @PostMapping
     @Operation(summary = "Check cleaner availability for a date or specific time slot")
-    public ResponseEntity<AvailabilityResponse> checkAvailability(
-            @Valid @RequestBody AvailabilityRequest request
+    @ApiResponse(responseCode = "200", content = @Content(
+            mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = AvailabilityResponse.class)))
+    public ResponseEntity<byte[]> checkAvailability(
+            @Valid @RequestBody AvailabilityRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
         log.info("API: Checking availability for: {}", request);
-        return ResponseEntity.ok(availabilityService.checkAvailability(request));
+        return payloadResponse(request, null, acceptsGzip(acceptEncoding));
+    }
+
+    @GetMapping(produces = V2_MEDIA_TYPE)
+    @Operation(summary = "Check cleaner availability, compact v2 format (cacheable, supports If-None-Match)")
+    public ResponseEntity<CompactAvailabilityResponse> getCompactAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+            @RequestParam(required = false) Integer durationMinutes,
+            @RequestParam(required = false) String region,
+            WebRequest webRequest
+    ) {
+        String etag = dataVersionService.cacheable() ? dataVersionService.availabilityTag(date) + "-v2" : null;
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        log.info("API: Checking compact availability for date={} start={} duration={} region={}",
+                date, startTime, durationMinutes, region);
+        CompactAvailabilityResponse response = availabilityService.checkCompactAvailability(
+                new AvailabilityRequest(date, startTime, durationMinutes, region));
+        return cacheHeaders(ResponseEntity.ok(), etag, response.stale())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(response);
+    }
+
+    @PostMapping(produces = V2_MEDIA_TYPE)
+    @Operation(summary = "Check cleaner availability for a date or specific time slot, compact v2 format")
+    public ResponseEntity<CompactAvailabilityResponse> checkCompactAvailability(
+            @Valid @RequestBody AvailabilityRequest request
+    ) {
+        log.info("API: Checking compact availability for: {}", request);
+        return ResponseEntity.ok(availabilityService.checkCompactAvailability(request));
+    }
+
+    @PostMapping("/next-available")
+    @Operation(summary = "Find the earliest bookable slots from a date, within a horizon")
+    public ResponseEntity<NextAvailableResponse> findNextAvailable(
+            @Valid @RequestBody NextAvailableRequest request
+    ) {
+        log.info("API: Searching next available slots for: {}", request);
+        return ResponseEntity.ok(availabilityService.findNextAvailable(request));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Check many (date, start, duration, cleaner count) slots in one call; results keep request order")
+    public ResponseEntity<BulkAvailabilityResponse> checkBulkAvailability(
+            @Valid @RequestBody BulkAvailabilityRequest request
+    ) {
+        log.info("API: Checking bulk availability for {} queries", request.queries().size());
+        return ResponseEntity.ok(availabilityService.checkBulkAvailability(request));
+    }
+
+    /**
+     * Server-sent events for the given dates of a region: a {@code snapshot} per date
+     * (compact v2 format), then a {@code delta} whenever bookings change its start slots.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to availability changes for one or more dates (server-sent events)")
+    public SseEmitter streamAvailability(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Set<LocalDate> dates,
+            @RequestParam(required = false) String region
+    ) {
+        log.info("API: Availability stream for {} {}", region, dates);
+        return availabilityBroadcaster.subscribe(region, dates);
+    }
+
+    /**
+     * A degraded-mode snapshot gets its own tag and no-store, so it is never
+     * revalidated as current once the database recovers. Without a tag (the version
+     * counters cannot be trusted) the response is no-store as well.
+     */
+    private static ResponseEntity.BodyBuilder cacheHeaders(ResponseEntity.BodyBuilder builder, String etag, boolean stale) {
+        if (etag == null) {
+            return builder.cacheControl(CacheControl.noStore());
+        }
+        if (stale) {
+            return builder.eTag(etag + "-stale").cacheControl(CacheControl.noStore());
+        }
+        return builder.eTag(etag).cacheControl(CacheControl.noCache().cachePublic());
+    }
+
+    /**
+     * Writes the cached bytes for a request; the key carries the date's data version.
+     * While the versions cannot be trusted the payload is rendered without the cache.
+     */
+    private ResponseEntity<byte[]> payloadResponse(
+            AvailabilityRequest request,
+            String etag,
+            boolean gzip
+    ) {
+        CachedPayload payload;
+        if (dataVersionService.cacheable()) {
+            String key = AvailabilityPayloadCache.key(dataVersionService.availabilityTag(request.date()), request);
+            payload = availabilityPayloadCache.get(key, () -> availabilityService.checkAvailability(request));
+        } else {
+            payload = availabilityPayloadCache.render(availabilityService.checkAvailability(request));
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        cacheHeaders(builder, etag, payload.stale());
+
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return builder.body(payload.json());
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        return availabilityPayloadCache.gzipEnabled()
+                && acceptEncoding != null
+                && gzipQuality(acceptEncoding) > 0;
+    }
+
+    /**
+     * Quality the client gives gzip in an Accept-Encoding header: that of a {@code gzip}
+     * (or {@code x-gzip}) coding if listed, else that of {@code *}, else 0. A malformed
+     * q-value counts as 0.
+     */
+    private static double gzipQuality(String acceptEncoding) {
+        double wildcard = 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("*")) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (!coding.equals("*")) {
+                return quality;
+            }
+            wildcard = quality;
+        }
+        return wildcard;
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,12 @@ package com.cleaning.booking.controller;
 
 import com.cleaning.booking.dto.BookingRequest;
 import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.dto.JournalReceipt;
+import com.cleaning.booking.dto.JournalState;
+import com.cleaning.booking.dto.RecurringBookingRequest;
+import com.cleaning.booking.dto.RecurringBookingResponse;
+import com.cleaning.booking.exception.EntityNotFoundException;
+import com.cleaning.booking.service.BookingJournalService;
 import com.cleaning.booking.service.BookingService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,13 +30,19 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Booking", description = "Operations related to booking creation and updates")
 public class BookingController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final BookingService bookingService;
+    private final BookingJournalService bookingJournalService;
 
     @PostMapping
-    @Operation(summary = "Create a new booking")
-    public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody BookingRequest request) {
-        log.info("API: Creating booking: {}", request);
-        BookingResponse response = bookingService.createBooking(request);
+    @Operation(summary = "Create a new booking (retries with the same Idempotency-Key return the original result)")
+    public ResponseEntity<BookingResponse> createBooking(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BookingRequest request
+    ) {
+        log.info("API: Creating booking: {} (Idempotency-Key={})", request, idempotencyKey);
+        BookingResponse response = bookingService.createBooking(request, idempotencyKey);
         return ResponseEntity.status(201).body(response);
     }
 
@@ -44,4 +56,35 @@ public class BookingController {
         BookingResponse response = bookingService.updateBooking(id, request);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/recurring")
+    @Operation(summary = "Create a recurring booking; occurrences that cannot be booked are listed as conflicts")
+    public ResponseEntity<RecurringBookingResponse> createRecurringBooking(
+            @Valid @RequestBody RecurringBookingRequest request
+    ) {
+        log.info("API: Creating recurring booking: {}", request);
+        RecurringBookingResponse response = bookingService.createRecurringBooking(request);
+        int status = response.bookings().isEmpty() ? 409 : 201;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/journal")
+    @Operation(summary = "Create a booking through the local journal: 202 once durable, written to the database in the background")
+    public ResponseEntity<JournalReceipt> submitJournaledBooking(@Valid @RequestBody BookingRequest request) {
+        log.info("API: Journaling booking: {}", request);
+        JournalReceipt receipt = bookingJournalService.submit(request);
+        int status = receipt.state() == JournalState.ACCEPTED ? 202 : 201;
+        return ResponseEntity.status(status).body(receipt);
+    }
+
+    @GetMapping("/journal/{seq}")
+    @Operation(summary = "Status of a journaled booking (ACCEPTED, BOOKED or REJECTED)")
+    public ResponseEntity<JournalReceipt> getJournaledBooking(
+            @PathVariable long seq,
+            @RequestParam(required = false) String journal
+    ) {
+        return bookingJournalService.status(journal, seq)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new EntityNotFoundException("Journal entry not found"));
+    }
+}
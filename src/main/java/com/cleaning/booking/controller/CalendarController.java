@@ -0,0 +1,52 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.dto.CalendarRuleRequest;
+import com.cleaning.booking.dto.CalendarRuleResponse;
+import com.cleaning.booking.service.WorkingCalendarService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller for working-calendar rules: holidays, per-region working hours and
+ * cleaners' days off. Changes apply to availability and booking right away.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/calendar/rules")
+@RequiredArgsConstructor
+@Tag(name = "Calendar", description = "Working calendar API")
+public class CalendarController {
+
+    private final WorkingCalendarService workingCalendarService;
+
+    @GetMapping
+    @Operation(summary = "List working-calendar rules")
+    public ResponseEntity<List<CalendarRuleResponse>> getRules() {
+        return ResponseEntity.ok(workingCalendarService.getRules());
+    }
+
+    @PostMapping
+    @Operation(summary = "Add a working-calendar rule")
+    public ResponseEntity<CalendarRuleResponse> createRule(@Valid @RequestBody CalendarRuleRequest request) {
+        log.info("API: Add calendar rule {}", request);
+        return ResponseEntity.status(201).body(workingCalendarService.createRule(request));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Remove a working-calendar rule")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        log.info("API: Remove calendar rule {}", id);
+        workingCalendarService.deleteRule(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.dto.ChangeFeedResponse;
+import com.cleaning.booking.service.BookingOutboxService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for the booking change feed.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+@Tag(name = "Changes", description = "Booking change feed API")
+public class ChangeFeedController {
+
+    private final BookingOutboxService bookingOutboxService;
+
+    /**
+     * Returns booking events after a sequence number. Store the returned {@code nextSeq}
+     * and pass it as {@code after} to resume; start from 0.
+     */
+    @GetMapping
+    @Operation(summary = "Read booking changes after a sequence number")
+    public ResponseEntity<ChangeFeedResponse> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        log.debug("API: Changes after {} (limit={})", after, limit);
+        return ResponseEntity.ok(bookingOutboxService.changes(after, limit));
+    }
+}
@@ -0,0 +1,46 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.dto.CleanerScheduleResponse;
+import com.cleaning.booking.service.CleanerScheduleService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Controller for cleaner-centric reads.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/cleaners")
+@RequiredArgsConstructor
+@Tag(name = "Cleaners", description = "Cleaner schedule API")
+public class CleanerController {
+
+    private final CleanerScheduleService cleanerScheduleService;
+
+    /**
+     * Returns one page of a cleaner's bookings. Pass the returned {@code nextCursor}
+     * as {@code cursor} to read the following page.
+     */
+    @GetMapping("/{id}/bookings")
+    @Operation(summary = "Get a cleaner's bookings in a date range (keyset pagination)")
+    public ResponseEntity<CleanerScheduleResponse> getSchedule(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        log.info("API: Schedule for cleaner {} from {} to {} (cursor={}, limit={})", id, from, to, cursor, limit);
+        return ResponseEntity.ok(cleanerScheduleService.getSchedule(id, from, to, cursor, limit));
+    }
+}
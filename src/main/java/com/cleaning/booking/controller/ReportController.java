@@ -0,0 +1,91 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.dto.ExportFormat;
+import com.cleaning.booking.dto.UtilizationReport;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.service.BookingExportService;
+import com.cleaning.booking.service.UtilizationService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.LocalDate;
+
+/**
+ * Controller for reporting exports.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "Reports", description = "Booking exports and analytics")
+public class ReportController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final BookingExportService bookingExportService;
+    private final UtilizationService utilizationService;
+    private final long exportTimeoutMs;
+
+    public ReportController(
+            BookingExportService bookingExportService,
+            UtilizationService utilizationService,
+            @Value("${reports.export.timeout-ms:600000}") long exportTimeoutMs
+    ) {
+        this.bookingExportService = bookingExportService;
+        this.utilizationService = utilizationService;
+        this.exportTimeoutMs = exportTimeoutMs;
+    }
+
+    /**
+     * Streams the export on an async thread. Exports run far longer than ordinary
+     * async requests, so the task carries its own {@code reports.export.timeout-ms}
+     * instead of raising the application-wide async timeout.
+     */
+    @GetMapping("/bookings/export")
+    @Operation(summary = "Stream bookings in a date range as CSV or NDJSON")
+    public WebAsyncTask<Void> exportBookings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            HttpServletResponse response
+    ) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'.");
+        }
+        log.info("API: Exporting bookings {} to {} as {}", from, to, format);
+
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        response.setContentType((format == ExportFormat.CSV ? new MediaType("text", "csv") : NDJSON).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("bookings-" + from + "-" + to + "." + extension)
+                .build().toString());
+
+        return new WebAsyncTask<>(exportTimeoutMs, () -> {
+            bookingExportService.export(from, to, format, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    @GetMapping("/utilization")
+    @Operation(summary = "Utilization per cleaner, per vehicle and per 30-minute slot over a date range")
+    public UtilizationReport utilization(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.info("API: Utilization report {} to {}", from, to);
+        return utilizationService.utilization(from, to);
+    }
+}
@@ -4,12 +4,15 @@ import com.cleaning.booking.dto.CleanerCreateRequest;
 import com.cleaning.booking.dto.CleanerResponse;
 import com.cleaning.booking.dto.VehicleCreateRequest;
 import com.cleaning.booking.dto.VehicleResponse;
+import com.cleaning.booking.service.DataVersionService;
 import com.cleaning.booking.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,7 +27,9 @@ import java.util.List;
  *   <li>Fetch a single vehicle with cleaners</li>
  * </ul>
  *
- * <p>All responses follow standardized DTOs and are documented using Swagger/OpenAPI.</p>
+ * <p>All responses follow standardized DTOs and are documented using Swagger/OpenAPI.
+ * Read endpoints carry a strong ETag derived from the roster version, so
+ * conditional requests are answered with 304 without touching the database.</p>
  */
 @RestController
 @RequestMapping("/api/vehicles")
@@ -32,9 +37,11 @@ import java.util.List;
 public class VehicleController {
 
     private final VehicleService vehicleService;
+    private final DataVersionService dataVersionService;
 
-    public VehicleController(VehicleService vehicleService) {
+    public VehicleController(VehicleService vehicleService, DataVersionService dataVersionService) {
         this.vehicleService = vehicleService;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -68,25 +75,54 @@ public class VehicleController {
     }
 
     /**
-     * Retrieves all vehicles with assigned cleaners.
+     * Retrieves all vehicles with assigned cleaners, or those of one region.
      *
-     * @return List of vehicle responses.
+     * @param region Optional service region filter.
+     * @param webRequest Used to evaluate If-None-Match.
+     * @return List of vehicle responses, or 304 when the client copy is current.
      */
     @GetMapping
-    @Operation(summary = "List all vehicles with assigned cleaners")
-    public List<VehicleResponse> getVehicles() {
-        return vehicleService.getAllVehicles();
+    @Operation(summary = "List all vehicles with assigned cleaners (optionally of one region)")
+    public ResponseEntity<List<VehicleResponse>> getVehicles(
+            @RequestParam(required = false) String region,
+            WebRequest webRequest) {
+        if (!dataVersionService.cacheable()) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(region == null ? vehicleService.getAllVehicles() : vehicleService.getVehicles(region));
+        }
+        String etag = dataVersionService.rosterTag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(region == null ? vehicleService.getAllVehicles() : vehicleService.getVehicles(region));
     }
 
     /**
      * Retrieves a single vehicle with assigned cleaners.
      *
      * @param id Vehicle ID.
-     * @return Vehicle response DTO.
+     * @param webRequest Used to evaluate If-None-Match.
+     * @return Vehicle response DTO, or 304 when the client copy is current.
      */
     @GetMapping("/{id}")
     @Operation(summary = "Fetch a specific vehicle by ID")
-    public VehicleResponse getVehicle(@PathVariable Long id) {
-        return vehicleService.getVehicle(id);
+    public ResponseEntity<VehicleResponse> getVehicle(@PathVariable Long id, WebRequest webRequest) {
+        if (!dataVersionService.cacheable()) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(vehicleService.getVehicle(id));
+        }
+        String etag = dataVersionService.rosterTag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(vehicleService.getVehicle(id));
     }
 }
@@ -0,0 +1,28 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Change to a date's compact start-slot masks, pushed on the availability stream.
+ * Apply as {@code mask = (mask & ~taken) | freed} per duration; bit {@code i} is the start
+ * {@code dayStart + i * slotMinutes} of the date's snapshot.
+ */
+@Schema(description = "Availability change for one date")
+public record AvailabilityDelta(
+
+        @Schema(description = "Date of the availability", example = "2025-11-17")
+        LocalDate date,
+
+        @Schema(description = "Slot length in minutes", example = "15")
+        int slotMinutes,
+
+        @Schema(description = "Start slots per duration that are no longer bookable", example = "{\"120\": 4096}")
+        Map<Integer, Long> taken,
+
+        @Schema(description = "Start slots per duration that became bookable", example = "{\"240\": 5}")
+        Map<Integer, Long> freed
+
+) {}
@@ -1,5 +1,6 @@
 package com.cleaning.booking.dto;
 
+import com.cleaning.booking.util.Regions;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 
@@ -20,6 +21,19 @@ public record AvailabilityRequest(
         LocalTime startTime,
 
         @Schema(description = "Service duration (optional)", example = "120")
-        Integer durationMinutes
+        Integer durationMinutes,
 
-) {}
\ No newline at end of file
+        @Size(max = Regions.MAX_LENGTH)
+        @Schema(description = "Service region (defaults to \"default\")", example = "berlin")
+        String region
+
+) {
+
+    public AvailabilityRequest {
+        region = Regions.orDefault(region);
+    }
+
+    public AvailabilityRequest(LocalDate date, LocalTime startTime, Integer durationMinutes) {
+        this(date, startTime, durationMinutes, null);
+    }
+}
@@ -1,5 +1,6 @@
 package com.cleaning.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
@@ -14,6 +15,19 @@ public record AvailabilityResponse(
         List<Long> availableCleanerIds,
 
         @Schema(description = "List of available time windows for the day")
-        List<String> availableTimeSlots
+        List<String> availableTimeSlots,
 
-) {}
\ No newline at end of file
+        @Schema(description = "Present and true when served from the last snapshot while the database is degraded")
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+        boolean stale
+
+) {
+
+    public AvailabilityResponse(List<Long> availableCleanerIds, List<String> availableTimeSlots) {
+        this(availableCleanerIds, availableTimeSlots, false);
+    }
+
+    public AvailabilityResponse asStale() {
+        return new AvailabilityResponse(availableCleanerIds, availableTimeSlots, true);
+    }
+}
\ No newline at end of file
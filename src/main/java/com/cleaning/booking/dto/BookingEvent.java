@@ -0,0 +1,45 @@
+package com.cleaning.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * One entry of the booking change feed, as published to outbox sinks.
+ */
+@Schema(description = "Booking change event")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookingEvent(
+
+        @Schema(description = "Feed sequence number, increasing in commit order", example = "42")
+        long seq,
+
+        @Schema(description = "Kind of change", example = "CREATED")
+        BookingEventType type,
+
+        @Schema(description = "Booking ID", example = "101")
+        Long bookingId,
+
+        @Schema(description = "Booking replaced by an update", example = "97")
+        Long previousBookingId,
+
+        @Schema(description = "Date of booking", example = "2025-11-17")
+        LocalDate date,
+
+        @Schema(description = "Start time", example = "10:00")
+        LocalTime startTime,
+
+        @Schema(description = "End time", example = "12:00")
+        LocalTime endTime,
+
+        @Schema(description = "Assigned cleaner IDs")
+        List<Long> cleanerIds,
+
+        @Schema(description = "When the change was written")
+        LocalDateTime occurredAt
+
+) {}
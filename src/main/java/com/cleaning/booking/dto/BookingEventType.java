@@ -0,0 +1,11 @@
+package com.cleaning.booking.dto;
+
+/**
+ * Kind of change recorded in the booking outbox.
+ */
+public enum BookingEventType {
+    /** A booking was made. */
+    CREATED,
+    /** A booking was moved; it replaces {@code previousBookingId}, which no longer exists. */
+    UPDATED
+}
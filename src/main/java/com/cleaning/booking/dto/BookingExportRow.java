@@ -0,0 +1,27 @@
+package com.cleaning.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Flat projection of a booking row for reporting exports (no entities involved).
+ *
+ * @param bookingId Booking row ID.
+ * @param date Date of the appointment.
+ * @param startTime Start time of the appointment.
+ * @param endTime End time of the appointment.
+ * @param cleanerId Assigned cleaner ID.
+ * @param cleanerName Assigned cleaner name.
+ * @param vehicleId Vehicle of the cleaner.
+ * @param vehicleName Vehicle name.
+ */
+public record BookingExportRow(
+        Long bookingId,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        Long cleanerId,
+        String cleanerName,
+        Long vehicleId,
+        String vehicleName
+) {}
@@ -1,5 +1,6 @@
 package com.cleaning.booking.dto;
 
+import com.cleaning.booking.util.Regions;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 
@@ -20,13 +21,26 @@ public record BookingRequest(
         @Schema(description = "Start time (must be between 08:00-22:00)", example = "10:00")
         LocalTime startTime,
 
-        @Schema(description = "Service duration in minutes (120 or 240)", example = "120")
-        @Min(value = 120, message = "Duration must be 120 or 240 minutes")
-        @Max(value = 240, message = "Duration must be 120 or 240 minutes")
+        @Schema(description = "Service duration in minutes, one of booking.slots.durations (default 120 or 240)", example = "120")
+        @Min(value = 15, message = "Duration must be at least 15 minutes")
+        @Max(value = 840, message = "Duration must be at most 840 minutes")
         int durationMinutes,
 
         @Schema(description = "Number of cleaners required (1-3)")
         @Min(1) @Max(3)
-        int cleanerCount
+        int cleanerCount,
 
-) {}
+        @Size(max = Regions.MAX_LENGTH)
+        @Schema(description = "Service region (defaults to \"default\")", example = "berlin")
+        String region
+
+) {
+
+    public BookingRequest {
+        region = Regions.orDefault(region);
+    }
+
+    public BookingRequest(LocalDate date, LocalTime startTime, int durationMinutes, int cleanerCount) {
+        this(date, startTime, durationMinutes, cleanerCount, null);
+    }
+}
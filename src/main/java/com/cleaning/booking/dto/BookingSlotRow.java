@@ -0,0 +1,19 @@
+package com.cleaning.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Flat projection of a booking's cleaner and time window, for building occupancy masks.
+ *
+ * @param date Date of the booking.
+ * @param cleanerId Cleaner ID.
+ * @param startTime Start time of the booking.
+ * @param endTime End time of the booking.
+ */
+public record BookingSlotRow(
+        LocalDate date,
+        Long cleanerId,
+        LocalTime startTime,
+        LocalTime endTime
+) {}
@@ -0,0 +1,35 @@
+package com.cleaning.booking.dto;
+
+import com.cleaning.booking.util.Regions;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request object for checking many slots in one call.
+ */
+@Schema(description = "Bulk availability request")
+public record BulkAvailabilityRequest(
+
+        @NotEmpty(message = "At least one query is required")
+        @Size(max = 100, message = "At most 100 queries per request")
+        @Schema(description = "Slot queries, answered in the same order")
+        List<@Valid SlotQuery> queries,
+
+        @Size(max = Regions.MAX_LENGTH)
+        @Schema(description = "Service region of every query in the batch (defaults to \"default\")", example = "berlin")
+        String region
+
+) {
+
+    public BulkAvailabilityRequest {
+        region = Regions.orDefault(region);
+    }
+
+    public BulkAvailabilityRequest(List<SlotQuery> queries) {
+        this(queries, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Response for a bulk availability query.
+ */
+@Schema(description = "Bulk availability response")
+public record BulkAvailabilityResponse(
+
+        @Schema(description = "One result per query, in request order")
+        List<SlotQueryResult> results
+
+) {}
@@ -0,0 +1,48 @@
+package com.cleaning.booking.dto;
+
+import com.cleaning.booking.util.Regions;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Request payload for adding a working-calendar rule.
+ */
+@Schema(description = "Working-calendar rule")
+public record CalendarRuleRequest(
+
+        @NotNull(message = "Type is required")
+        @Schema(description = "CLOSED, HOURS or DAY_OFF", example = "CLOSED")
+        CalendarRuleType type,
+
+        @Size(max = Regions.MAX_LENGTH)
+        @Schema(description = "Region of a CLOSED or HOURS rule; every region when omitted", example = "berlin")
+        String region,
+
+        @Schema(description = "Cleaner of a DAY_OFF rule", example = "3")
+        Long cleanerId,
+
+        @Schema(description = "First matching day (inclusive)", example = "2025-12-25")
+        LocalDate dateFrom,
+
+        @Schema(description = "Last matching day (inclusive)", example = "2025-12-26")
+        LocalDate dateTo,
+
+        @Schema(description = "Only days of this weekday match", example = "SATURDAY")
+        DayOfWeek dayOfWeek,
+
+        @Schema(description = "Opening time of an HOURS rule, on a 15-minute boundary", example = "09:00")
+        LocalTime openTime,
+
+        @Schema(description = "Closing time of an HOURS rule, on a 15-minute boundary", example = "17:00")
+        LocalTime closeTime,
+
+        @Size(max = 100)
+        @Schema(description = "Free text, e.g. the holiday's name", example = "Christmas")
+        String description
+
+) {}
@@ -0,0 +1,21 @@
+package com.cleaning.booking.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A stored working-calendar rule.
+ */
+public record CalendarRuleResponse(
+        Long id,
+        CalendarRuleType type,
+        String region,
+        Long cleanerId,
+        LocalDate dateFrom,
+        LocalDate dateTo,
+        DayOfWeek dayOfWeek,
+        LocalTime openTime,
+        LocalTime closeTime,
+        String description
+) {}
@@ -0,0 +1,13 @@
+package com.cleaning.booking.dto;
+
+/**
+ * Kind of working-calendar rule. Rules only ever take working time away.
+ */
+public enum CalendarRuleType {
+    /** The region (or every region) does not work on the matching days, e.g. a public holiday. */
+    CLOSED,
+    /** The region (or every region) only works between {@code openTime} and {@code closeTime} on the matching days. */
+    HOURS,
+    /** The cleaner does not work on the matching days. */
+    DAY_OFF
+}
@@ -0,0 +1,19 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * One page of the booking change feed.
+ */
+@Schema(description = "Booking change feed page")
+public record ChangeFeedResponse(
+
+        @Schema(description = "Events after the requested sequence, oldest first")
+        List<BookingEvent> events,
+
+        @Schema(description = "Sequence to pass as `after` for the next page (unchanged when there is nothing new)", example = "42")
+        long nextSeq
+
+) {}
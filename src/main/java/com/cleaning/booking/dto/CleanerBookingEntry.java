@@ -0,0 +1,26 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One entry of a cleaner's schedule (projection read from the schedule index).
+ */
+@Schema(description = "Cleaner schedule entry")
+public record CleanerBookingEntry(
+
+        @Schema(description = "Booking row ID", example = "42")
+        Long bookingId,
+
+        @Schema(description = "Date of the appointment", example = "2025-11-17")
+        LocalDate date,
+
+        @Schema(description = "Start time", example = "10:00")
+        LocalTime startTime,
+
+        @Schema(description = "End time", example = "12:00")
+        LocalTime endTime
+
+) {}
@@ -0,0 +1,22 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * One page of a cleaner's schedule.
+ */
+@Schema(description = "Cleaner schedule page")
+public record CleanerScheduleResponse(
+
+        @Schema(description = "Cleaner ID", example = "3")
+        Long cleanerId,
+
+        @Schema(description = "Bookings ordered by date, start time and ID")
+        List<CleanerBookingEntry> bookings,
+
+        @Schema(description = "Opaque cursor for the next page; null on the last page")
+        String nextCursor
+
+) {}
@@ -0,0 +1,18 @@
+package com.cleaning.booking.dto;
+
+import java.time.LocalTime;
+
+/**
+ * Grouped projection: number of bookings of one cleaner with the same time window.
+ *
+ * @param cleanerId Cleaner ID.
+ * @param startTime Start time of the grouped bookings.
+ * @param endTime End time of the grouped bookings.
+ * @param count Number of bookings in the group.
+ */
+public record CleanerSlotUsage(
+        Long cleanerId,
+        LocalTime startTime,
+        LocalTime endTime,
+        Long count
+) {}
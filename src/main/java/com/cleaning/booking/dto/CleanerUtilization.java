@@ -0,0 +1,26 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Booked time of one cleaner over a reporting period.
+ */
+@Schema(description = "Cleaner utilization")
+public record CleanerUtilization(
+
+        @Schema(description = "Cleaner ID", example = "3")
+        Long cleanerId,
+
+        @Schema(description = "Cleaner name", example = "Jane")
+        String cleanerName,
+
+        @Schema(description = "Vehicle of the cleaner", example = "1")
+        Long vehicleId,
+
+        @Schema(description = "Booked minutes in the period", example = "5400")
+        long bookedMinutes,
+
+        @Schema(description = "Booked share of working time (0..1)", example = "0.321")
+        double utilization
+
+) {}
@@ -0,0 +1,51 @@
+package com.cleaning.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact (v2) availability response.
+ *
+ * <p>Instead of "HH:mm - HH:mm" strings, each allowed duration maps to a bitmask of
+ * possible start slots: bit {@code i} set means a job of that duration can start at
+ * {@code dayStart + i * slotMinutes} with at least one cleaner free.</p>
+ */
+@Schema(description = "Compact availability response (media type application/vnd.cleaning.availability.v2+json)")
+public record CompactAvailabilityResponse(
+
+        @Schema(description = "Date of the availability", example = "2025-11-17")
+        LocalDate date,
+
+        @Schema(description = "Time of slot 0", example = "08:00")
+        LocalTime dayStart,
+
+        @Schema(description = "Slot length in minutes", example = "15")
+        int slotMinutes,
+
+        @Schema(description = "Available cleaner IDs for the requested time (slot queries only)")
+        List<Long> availableCleanerIds,
+
+        @Schema(description = "Start-slot bitmask per duration in minutes (daily queries only)",
+                example = "{\"120\": 375299968947541, \"240\": 1466015503701}")
+        Map<Integer, Long> startMasks,
+
+        @Schema(description = "Present and true when served from the last snapshot while the database is degraded")
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+        boolean stale
+
+) {
+
+    public CompactAvailabilityResponse(LocalDate date, LocalTime dayStart, int slotMinutes,
+                                       List<Long> availableCleanerIds, Map<Integer, Long> startMasks) {
+        this(date, dayStart, slotMinutes, availableCleanerIds, startMasks, false);
+    }
+
+    public CompactAvailabilityResponse asStale() {
+        return new CompactAvailabilityResponse(date, dayStart, slotMinutes, availableCleanerIds, startMasks, true);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cleaning.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Grouped projection: number of bookings on one date with the same time window.
+ *
+ * @param date Date of the grouped bookings.
+ * @param startTime Start time of the grouped bookings.
+ * @param endTime End time of the grouped bookings.
+ * @param count Number of bookings in the group.
+ */
+public record DailySlotUsage(
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        Long count
+) {}
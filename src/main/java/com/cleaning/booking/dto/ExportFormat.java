@@ -0,0 +1,9 @@
+package com.cleaning.booking.dto;
+
+/**
+ * Output formats supported by reporting exports.
+ */
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
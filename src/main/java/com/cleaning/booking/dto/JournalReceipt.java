@@ -0,0 +1,51 @@
+package com.cleaning.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Answer to a journaled booking submission, and its later status.
+ */
+@Schema(description = "Journaled booking receipt")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JournalReceipt(
+
+        @Schema(description = "Journal sequence number, used to look up the status; absent when booked synchronously", example = "42")
+        Long seq,
+
+        @Schema(description = "Id of the journal holding the entry, to look up its status on another node", example = "3f2c9a7e01b84d6c9e5a1b2c3d4e5f60")
+        String journal,
+
+        @Schema(description = "ACCEPTED (durable, being written), BOOKED or REJECTED")
+        JournalState state,
+
+        @Schema(description = "Cleaners reserved for the booking")
+        List<Long> assignedCleaners,
+
+        @Schema(description = "The stored booking, once BOOKED")
+        BookingResponse booking,
+
+        @Schema(description = "Why the booking was REJECTED")
+        String reason
+
+) {
+
+    public static JournalReceipt accepted(String journal, long seq, List<Long> cleanerIds) {
+        return new JournalReceipt(seq, journal, JournalState.ACCEPTED, cleanerIds, null, null);
+    }
+
+    /** A booking made synchronously, without a journal entry. */
+    public static JournalReceipt booked(BookingResponse booking) {
+        return new JournalReceipt(null, null, JournalState.BOOKED, booking.assignedCleaners(), booking, null);
+    }
+
+    public static JournalReceipt booked(String journal, long seq, BookingResponse booking) {
+        return new JournalReceipt(seq, journal, JournalState.BOOKED, booking.assignedCleaners(), booking, null);
+    }
+
+    public static JournalReceipt rejected(String journal, long seq, List<Long> cleanerIds, String reason) {
+        return new JournalReceipt(seq, journal, JournalState.REJECTED, cleanerIds, null, reason);
+    }
+}
@@ -0,0 +1,13 @@
+package com.cleaning.booking.dto;
+
+/**
+ * Lifecycle of a journaled booking.
+ */
+public enum JournalState {
+    /** Durable in the journal, cleaners reserved, not yet in the booking table. */
+    ACCEPTED,
+    /** Written to the booking table. */
+    BOOKED,
+    /** Could not be written when drained (e.g. another node took the cleaners, or it kept failing). */
+    REJECTED
+}
@@ -0,0 +1,49 @@
+package com.cleaning.booking.dto;
+
+import com.cleaning.booking.util.Regions;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+
+import java.time.LocalDate;
+
+/**
+ * Request object for finding the earliest bookable slots across dates.
+ */
+@Schema(description = "Earliest available slot search request")
+public record NextAvailableRequest(
+
+        @NotNull(message = "From date is required")
+        @Schema(description = "First date to search", example = "2025-11-17")
+        LocalDate fromDate,
+
+        @Schema(description = "Service duration in minutes, one of booking.slots.durations (default 120 or 240)", example = "240")
+        @Min(value = 15, message = "Duration must be at least 15 minutes")
+        @Max(value = 840, message = "Duration must be at most 840 minutes")
+        int durationMinutes,
+
+        @Schema(description = "Number of cleaners required (1-3)", example = "3")
+        @Min(1) @Max(3)
+        int cleanerCount,
+
+        @Schema(description = "Number of options to return (1-20)", example = "5")
+        @Min(1) @Max(20)
+        int limit,
+
+        @Schema(description = "How many days ahead to search (1-90)", example = "30")
+        @Min(1) @Max(90)
+        int horizonDays,
+
+        @Size(max = Regions.MAX_LENGTH)
+        @Schema(description = "Service region (defaults to \"default\")", example = "berlin")
+        String region
+
+) {
+
+    public NextAvailableRequest {
+        region = Regions.orDefault(region);
+    }
+
+    public NextAvailableRequest(LocalDate fromDate, int durationMinutes, int cleanerCount, int limit, int horizonDays) {
+        this(fromDate, durationMinutes, cleanerCount, limit, horizonDays, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Response for the earliest available slot search.
+ */
+@Schema(description = "Earliest available slot search response")
+public record NextAvailableResponse(
+
+        @Schema(description = "Earliest bookable options, ordered by date, start time and vehicle")
+        List<SlotOption> options
+
+) {}
@@ -0,0 +1,22 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+/**
+ * An occurrence of a recurring booking that could not be booked.
+ *
+ * @param date Date of the occurrence.
+ * @param reason Why the occurrence was skipped.
+ */
+@Schema(description = "Recurring booking occurrence that was not booked")
+public record OccurrenceConflict(
+
+        @Schema(description = "Date of the occurrence", example = "2025-11-21")
+        LocalDate date,
+
+        @Schema(description = "Reason the occurrence was not booked", example = "Friday is not a working day.")
+        String reason
+
+) {}
@@ -0,0 +1,55 @@
+package com.cleaning.booking.dto;
+
+import com.cleaning.booking.util.Regions;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Request payload for a recurring booking (e.g. weekly for 26 weeks).
+ */
+@Schema(description = "Recurring booking creation request")
+public record RecurringBookingRequest(
+
+        @NotNull(message = "Start date is required")
+        @Schema(description = "Date of the first occurrence", example = "2025-11-17")
+        LocalDate startDate,
+
+        @NotNull(message = "Start time is required")
+        @Schema(description = "Start time (must be between 08:00-22:00)", example = "10:00")
+        LocalTime startTime,
+
+        @Schema(description = "Service duration in minutes, one of booking.slots.durations (default 120 or 240)", example = "120")
+        @Min(value = 15, message = "Duration must be at least 15 minutes")
+        @Max(value = 840, message = "Duration must be at most 840 minutes")
+        int durationMinutes,
+
+        @Schema(description = "Number of cleaners required (1-3)")
+        @Min(1) @Max(3)
+        int cleanerCount,
+
+        @Schema(description = "Weeks between occurrences (1 = weekly, 2 = biweekly)", example = "1")
+        @Min(1) @Max(4)
+        int intervalWeeks,
+
+        @Schema(description = "Number of occurrences to book (1-52)", example = "26")
+        @Min(1) @Max(52)
+        int occurrences,
+
+        @Size(max = Regions.MAX_LENGTH)
+        @Schema(description = "Service region (defaults to \"default\")", example = "berlin")
+        String region
+
+) {
+
+    public RecurringBookingRequest {
+        region = Regions.orDefault(region);
+    }
+
+    public RecurringBookingRequest(LocalDate startDate, LocalTime startTime, int durationMinutes, int cleanerCount,
+                                   int intervalWeeks, int occurrences) {
+        this(startDate, startTime, durationMinutes, cleanerCount, intervalWeeks, occurrences, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Response payload returned after recurring booking creation.
+ */
+@Schema(description = "Recurring booking response")
+public record RecurringBookingResponse(
+
+        @Schema(description = "Occurrences that were booked")
+        List<BookingResponse> bookings,
+
+        @Schema(description = "Occurrences that were skipped, with the reason")
+        List<OccurrenceConflict> conflicts
+
+) {}
@@ -0,0 +1,30 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * A bookable (date, start, vehicle) option.
+ */
+@Schema(description = "Bookable slot option")
+public record SlotOption(
+
+        @Schema(description = "Date of the slot", example = "2025-11-17")
+        LocalDate date,
+
+        @Schema(description = "Start time", example = "10:00")
+        LocalTime startTime,
+
+        @Schema(description = "End time", example = "14:00")
+        LocalTime endTime,
+
+        @Schema(description = "Vehicle that can serve the slot", example = "1")
+        Long vehicleId,
+
+        @Schema(description = "Cleaners of the vehicle that are free for the slot")
+        List<Long> availableCleanerIds
+
+) {}
@@ -0,0 +1,30 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One (date, startTime, duration, cleanerCount) combination of a bulk availability query.
+ */
+@Schema(description = "Single slot query")
+public record SlotQuery(
+
+        @NotNull(message = "Date is required")
+        @Schema(description = "Date of the slot", example = "2025-11-17")
+        LocalDate date,
+
+        @NotNull(message = "Start time is required")
+        @Schema(description = "Start time", example = "10:00")
+        LocalTime startTime,
+
+        @Schema(description = "Service duration in minutes, one of booking.slots.durations (default 120 or 240)", example = "120")
+        int durationMinutes,
+
+        @Schema(description = "Number of cleaners required (1-3)", example = "2")
+        @Min(1) @Max(3)
+        int cleanerCount
+
+) {}
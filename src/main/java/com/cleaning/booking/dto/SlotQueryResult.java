@@ -0,0 +1,33 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Result of one slot query in a bulk availability response.
+ */
+@Schema(description = "Single slot query result")
+public record SlotQueryResult(
+
+        @Schema(description = "Date of the slot", example = "2025-11-17")
+        LocalDate date,
+
+        @Schema(description = "Start time", example = "10:00")
+        LocalTime startTime,
+
+        @Schema(description = "End time", example = "12:00")
+        LocalTime endTime,
+
+        @Schema(description = "Whether one vehicle has enough free cleaners for the slot")
+        boolean bookable,
+
+        @Schema(description = "Cleaners free for the slot (break rule applied)")
+        List<Long> availableCleanerIds,
+
+        @Schema(description = "Why the query could not be evaluated, if invalid", example = "Friday is not a working day.")
+        String error
+
+) {}
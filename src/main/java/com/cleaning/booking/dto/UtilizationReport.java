@@ -0,0 +1,51 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilization of the fleet over a date range.
+ *
+ * <p>Slot arrays are indexed like availability bitmasks: entry {@code i} is the slot
+ * starting at {@code dayStart + i * slotMinutes}. Capacity is the current roster
+ * working every non-Friday day of the range, 08:00–22:00.</p>
+ */
+@Schema(description = "Utilization report")
+public record UtilizationReport(
+
+        @Schema(description = "First date of the period", example = "2025-11-01")
+        LocalDate from,
+
+        @Schema(description = "Last date of the period", example = "2025-11-30")
+        LocalDate to,
+
+        @Schema(description = "Working days in the period", example = "26")
+        int workingDays,
+
+        @Schema(description = "Time of slot 0", example = "08:00")
+        LocalTime dayStart,
+
+        @Schema(description = "Slot length in minutes", example = "30")
+        int slotMinutes,
+
+        @Schema(description = "Booked share of the whole fleet's working time (0..1)", example = "0.38")
+        double overallUtilization,
+
+        @Schema(description = "Per-cleaner utilization, busiest first")
+        List<CleanerUtilization> cleaners,
+
+        @Schema(description = "Per-vehicle utilization, busiest first")
+        List<VehicleUtilization> vehicles,
+
+        @Schema(description = "Share of cleaners booked in each slot, over all working days")
+        double[] slotUtilization,
+
+        @Schema(description = "Share of cleaners booked in each slot, per day of week")
+        Map<DayOfWeek, double[]> heatmap
+
+) {}
@@ -1,8 +1,24 @@
 package com.cleaning.booking.dto;
 
+import com.cleaning.booking.util.Regions;
+import jakarta.validation.constraints.Size;
+
 /**
  * Request payload for creating a new vehicle.
  *
  * @param name The display name of the vehicle (e.g., "Van A").
+ * @param region Service region the vehicle works in; {@code "default"} when omitted.
  */
-public record VehicleCreateRequest(String name) {}
+public record VehicleCreateRequest(
+        String name,
+        @Size(max = Regions.MAX_LENGTH) String region
+) {
+
+    public VehicleCreateRequest {
+        region = Regions.orDefault(region);
+    }
+
+    public VehicleCreateRequest(String name) {
+        this(name, null);
+    }
+}
@@ -7,11 +7,12 @@ import java.util.List;
  *
  * @param id Unique identifier of the vehicle.
  * @param name Display name of the vehicle.
+ * @param region Service region the vehicle works in.
  * @param cleaners List of cleaners currently assigned to the vehicle.
  */
 public record VehicleResponse(
         Long id,
         String name,
+        String region,
         List<CleanerResponse> cleaners
 ) {}
-
@@ -0,0 +1,26 @@
+package com.cleaning.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Booked time of all cleaners of one vehicle over a reporting period.
+ */
+@Schema(description = "Vehicle utilization")
+public record VehicleUtilization(
+
+        @Schema(description = "Vehicle ID", example = "1")
+        Long vehicleId,
+
+        @Schema(description = "Vehicle name", example = "Van-1")
+        String vehicleName,
+
+        @Schema(description = "Cleaners currently on the vehicle", example = "5")
+        int cleanerCount,
+
+        @Schema(description = "Booked minutes of the vehicle's cleaners in the period", example = "27000")
+        long bookedMinutes,
+
+        @Schema(description = "Booked share of the vehicle's working time (0..1)", example = "0.402")
+        double utilization
+
+) {}
@@ -16,7 +16,10 @@ import java.time.LocalTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "booking")
+@Table(name = "booking", indexes = {
+        @Index(name = "idx_booking_date", columnList = "date"),
+        @Index(name = "idx_booking_cleaner_schedule", columnList = "cleaner_id, date, start_time, id, end_time")
+})
 public class Booking {
 
     @Id
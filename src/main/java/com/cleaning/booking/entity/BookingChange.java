@@ -0,0 +1,35 @@
+package com.cleaning.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One row per date whose bookings changed in a transaction.
+ * The sequence gives in-memory occupancy state a watermark to replay from.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "booking_change", indexes = {
+        @Index(name = "idx_booking_change_created_at", columnList = "created_at")
+})
+public class BookingChange {
+
+    /** Monotonically increasing change sequence */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    /** Date whose bookings changed */
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
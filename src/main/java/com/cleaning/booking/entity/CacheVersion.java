@@ -0,0 +1,43 @@
+package com.cleaning.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version of one cache scope (a stripe of a date's bookings, or the roster), bumped in
+ * every transaction that changes it. Nodes poll recently updated rows to invalidate
+ * their in-process caches.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "cache_version", indexes = {
+        @Index(name = "idx_cache_version_updated_at", columnList = "updated_at")
+})
+public class CacheVersion {
+
+    /** {@code roster} or {@code date:yyyy-MM-dd#stripe} */
+    @Id
+    @Column(length = 32)
+    private String scope;
+
+    @Column(nullable = false)
+    private long version;
+
+    /** Cleaners changed by the last bump, comma separated; empty when unknown */
+    @Column(nullable = false)
+    private String cleanerIds;
+
+    /** Node that made the last bump */
+    @Column(nullable = false, length = 36)
+    private String origin;
+
+    /** Database time of the last bump */
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,56 @@
+package com.cleaning.booking.entity;
+
+import com.cleaning.booking.dto.CalendarRuleType;
+import com.cleaning.booking.util.Regions;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Working-calendar rule. It matches the days between {@code dateFrom} and
+ * {@code dateTo} (both inclusive, open-ended when missing) that fall on
+ * {@code dayOfWeek} (every day when missing).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "calendar_rule")
+public class CalendarRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CalendarRuleType type;
+
+    /** Region of CLOSED and HOURS rules; every region when null */
+    @Column(length = Regions.MAX_LENGTH)
+    private String region;
+
+    /** Cleaner of a DAY_OFF rule */
+    private Long cleanerId;
+
+    private LocalDate dateFrom;
+
+    private LocalDate dateTo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 9)
+    private DayOfWeek dayOfWeek;
+
+    /** Working hours of an HOURS rule */
+    private LocalTime openTime;
+
+    private LocalTime closeTime;
+
+    @Column(length = 100)
+    private String description;
+}
@@ -0,0 +1,76 @@
+package com.cleaning.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Result of a booking creation stored under the client's Idempotency-Key,
+ * so a retried request can be answered without re-running the booking.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "booking_idempotency")
+public class IdempotencyRecord implements Persistable<String> {
+
+    /** Client supplied Idempotency-Key header value */
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String key;
+
+    /** Hex SHA-256 of the original request, to reject key reuse with another payload */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    /** First booking row created for the request */
+    @Column(nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private LocalTime endTime;
+
+    /** Assigned cleaner ids, comma separated */
+    @Column(nullable = false)
+    private String cleanerIds;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Keys are client assigned, so new records must be INSERTed (never merged)
+     * for a concurrent duplicate to fail on the primary key.
+     */
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
@@ -0,0 +1,57 @@
+package com.cleaning.booking.entity;
+
+import com.cleaning.booking.dto.JournalState;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Final state of a journaled booking (BOOKED or REJECTED), so its status survives a
+ * restart and can be read on any node. Written again when an entry is replayed, so
+ * rows are merged rather than inserted.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "booking_journal_outcome", indexes = {
+        @Index(name = "idx_booking_journal_outcome_created_at", columnList = "created_at")
+})
+public class JournalOutcome {
+
+    /** Key of the journal entry: {@code journal-<journal id>-<seq>} */
+    @Id
+    @Column(name = "entry_key", length = 64)
+    private String key;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JournalState state;
+
+    /** First booking row, once BOOKED */
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private LocalTime endTime;
+
+    /** Assigned (or released) cleaner ids, comma separated */
+    @Column(nullable = false)
+    private String cleanerIds;
+
+    /** Why the booking was REJECTED */
+    private String reason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package com.cleaning.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last outbox sequence delivered to a sink. Shared by all nodes, so each sink
+ * receives every event once per cluster (at least once across crashes). A node claims
+ * the cursor for a while before delivering, so nodes take turns per sink.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "booking_outbox_cursor")
+public class OutboxCursor {
+
+    /** Sink name */
+    @Id
+    @Column(length = 64)
+    private String sink;
+
+    /** Highest sequence delivered */
+    @Column(nullable = false)
+    private long seq;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /** Node relaying the next batch, while {@link #claimedUntil} is in the future */
+    @Column(length = 36)
+    private String claimedBy;
+
+    private LocalDateTime claimedUntil;
+}
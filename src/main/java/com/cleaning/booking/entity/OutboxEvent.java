@@ -0,0 +1,57 @@
+package com.cleaning.booking.entity;
+
+import com.cleaning.booking.dto.BookingEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Booking change written in the same transaction as the booking rows, so the change
+ * feed and the relay see exactly the committed changes.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "booking_outbox", indexes = {
+        @Index(name = "idx_booking_outbox_created_at", columnList = "created_at")
+})
+public class OutboxEvent {
+
+    /** Feed sequence */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private BookingEventType type;
+
+    /** First booking row of the booking */
+    @Column(nullable = false)
+    private Long bookingId;
+
+    /** Booking replaced by an update */
+    private Long previousBookingId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private LocalTime endTime;
+
+    /** Assigned cleaner ids, comma separated */
+    @Column(nullable = false)
+    private String cleanerIds;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,6 @@
 package com.cleaning.booking.entity;
 
+import com.cleaning.booking.util.Regions;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -27,6 +28,11 @@ public class Vehicle {
     @Column(nullable = false, unique = true)
     private String name;
 
+    /** Service region (city) the vehicle works in; bookings never mix regions. */
+    @Builder.Default
+    @Column(nullable = false, length = Regions.MAX_LENGTH)
+    private String region = Regions.DEFAULT;
+
     /**
      * Cleaners assigned to this vehicle.
      * LAZY loaded to avoid unnecessary fetching.
@@ -0,0 +1,18 @@
+package com.cleaning.booking.event;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published by the booking service whenever booking rows are created or removed.
+ * Listeners that care about committed data should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener}.
+ *
+ * @param dates Dates whose bookings changed.
+ * @param cleanerIds Cleaners whose schedules changed.
+ */
+public record BookingChangedEvent(
+        Set<LocalDate> dates,
+        List<Long> cleanerIds
+) {}
@@ -0,0 +1,18 @@
+package com.cleaning.booking.event;
+
+import com.cleaning.booking.dto.BookingEventType;
+import com.cleaning.booking.dto.BookingResponse;
+
+/**
+ * Published by the booking service, inside its transaction, for every booking made
+ * or moved. The outbox records it in the same transaction.
+ *
+ * @param type Kind of change.
+ * @param booking The booking as it is now.
+ * @param previousBookingId Booking replaced by an update, otherwise {@code null}.
+ */
+public record BookingLifecycleEvent(
+        BookingEventType type,
+        BookingResponse booking,
+        Long previousBookingId
+) {}
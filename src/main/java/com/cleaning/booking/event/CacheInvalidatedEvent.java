@@ -0,0 +1,19 @@
+package com.cleaning.booking.event;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data changed on another node. Published by the cache invalidation bus, outside any
+ * transaction, so in-process caches can drop or reload what they hold.
+ *
+ * @param dates Dates whose bookings changed.
+ * @param cleanerIds Cleaners whose schedules changed; empty when not known (treat as all).
+ * @param roster Whether vehicles or cleaners changed.
+ */
+public record CacheInvalidatedEvent(
+        Set<LocalDate> dates,
+        List<Long> cleanerIds,
+        boolean roster
+) {}
@@ -0,0 +1,9 @@
+package com.cleaning.booking.event;
+
+/**
+ * Published when vehicles or cleaners are added or changed, or when working-calendar
+ * rules change who can work when.
+ *
+ * @param vehicleId Vehicle that changed; {@code null} for calendar rules.
+ */
+public record RosterChangedEvent(Long vehicleId) {}
@@ -2,7 +2,9 @@ package com.cleaning.booking.exception;
 
 import com.cleaning.booking.dto.ApiErrorResponse;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -56,6 +58,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(build(HttpStatus.CONFLICT, ex.getMessage(), null));
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ApiErrorResponse> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(build(HttpStatus.CONFLICT, ex.getMessage(), null));
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiErrorResponse> handleUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(build(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), null));
+    }
+
+    /**
+     * Sends the client to the node that serves the region. 307 keeps the method and body,
+     * so a client that follows redirects repeats the same request there.
+     */
+    @ExceptionHandler(RegionNotLocalException.class)
+    public ResponseEntity<ApiErrorResponse> handleRegionNotLocal(RegionNotLocalException ex, HttpServletRequest request) {
+        String query = request.getQueryString();
+        String location = ex.getOwnerUrl() + request.getRequestURI() + (query == null ? "" : "?" + query);
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .header(HttpHeaders.LOCATION, location)
+                .body(build(HttpStatus.TEMPORARY_REDIRECT, ex.getMessage(), null));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorResponse> handleUnknown(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,19 @@
+package com.cleaning.booking.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a request names a region that another node serves.
+ */
+@Getter
+public class RegionNotLocalException extends RuntimeException {
+
+    private final String region;
+    private final String ownerUrl;
+
+    public RegionNotLocalException(String region, String ownerUrl) {
+        super("Region '" + region + "' is served by " + ownerUrl + ".");
+        this.region = region;
+        this.ownerUrl = ownerUrl;
+    }
+}
@@ -0,0 +1,40 @@
+package com.cleaning.booking.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one availability computation (cache misses only; cached payloads never get here).
+ */
+@Name("com.cleaning.booking.AvailabilityComputation")
+@Label("Availability Computation")
+@Category({"Cleaning Booking", "Availability"})
+@StackTrace(false)
+public class AvailabilityComputationEvent extends Event {
+
+    @Label("Mode")
+    @Description("DAILY, SLOT, COMPACT_DAILY, COMPACT_SLOT, NEXT_AVAILABLE or BULK")
+    public String mode;
+
+    @Label("Cleaners")
+    public int cleaners;
+
+    @Label("Bookings Loaded")
+    public int bookingsLoaded;
+
+    @Label("Slots Produced")
+    @Description("Time slots, start positions, options or query results returned")
+    public int slotsProduced;
+
+    @Label("Stale")
+    @Description("Served from the degraded-mode snapshot")
+    public boolean stale;
+
+    public AvailabilityComputationEvent(String mode) {
+        this.mode = mode;
+    }
+}
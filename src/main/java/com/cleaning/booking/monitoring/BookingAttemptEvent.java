@@ -0,0 +1,46 @@
+package com.cleaning.booking.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one booking attempt, from validation to the last inserted row.
+ */
+@Name("com.cleaning.booking.BookingAttempt")
+@Label("Booking Attempt")
+@Category({"Cleaning Booking", "Booking"})
+@Description("One POST /api/bookings attempt with its assignment and locking costs")
+@StackTrace(false)
+public class BookingAttemptEvent extends Event {
+
+    @Label("Date")
+    public String date;
+
+    @Label("Cleaners Requested")
+    public int cleanersRequested;
+
+    @Label("Candidates Scanned")
+    @Description("Cleaners checked for availability")
+    public int candidatesScanned;
+
+    @Label("Vehicle Chosen")
+    public long vehicleId;
+
+    @Label("Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+
+    @Label("Overlap Recheck")
+    @Description("Time spent re-checking overlaps under the pessimistic lock")
+    @Timespan(Timespan.NANOSECONDS)
+    public long overlapRecheck;
+
+    @Label("Outcome")
+    @Description("BOOKED, or the simple name of the exception that rejected the attempt")
+    public String outcome;
+}
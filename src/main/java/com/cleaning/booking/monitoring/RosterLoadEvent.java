@@ -0,0 +1,39 @@
+package com.cleaning.booking.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * JFR event for a full roster read (all cleaners with their vehicles).
+ */
+@Name("com.cleaning.booking.RosterLoad")
+@Label("Roster Load")
+@Category({"Cleaning Booking", "Database"})
+@StackTrace(false)
+public class RosterLoadEvent extends Event {
+
+    @Label("Caller")
+    public String caller;
+
+    @Label("Cleaners")
+    public int cleaners;
+
+    /** Runs the roster query inside a RosterLoad event. */
+    public static <T> List<T> record(String caller, Supplier<List<T>> loader) {
+        RosterLoadEvent event = new RosterLoadEvent();
+        event.begin();
+        List<T> roster = loader.get();
+        if (event.shouldCommit()) {
+            event.caller = caller;
+            event.cleaners = roster.size();
+            event.commit();
+        }
+        return roster;
+    }
+}
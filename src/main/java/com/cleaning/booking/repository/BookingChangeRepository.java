@@ -0,0 +1,47 @@
+package com.cleaning.booking.repository;
+
+import com.cleaning.booking.entity.BookingChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the booking change log.
+ */
+@Repository
+public interface BookingChangeRepository extends JpaRepository<BookingChange, Long> {
+
+    /**
+     * Changes after a sequence number, oldest first.
+     */
+    @Query("""
+                SELECT c FROM BookingChange c
+                WHERE c.seq > :afterSeq
+                ORDER BY c.seq
+            """)
+    List<BookingChange> findAfter(long afterSeq, Limit limit);
+
+    /**
+     * Highest sequence number written so far (0 when the log is empty).
+     */
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM BookingChange c")
+    long findMaxSeq();
+
+    /**
+     * Highest sequence number written before a time (0 when there is none).
+     */
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM BookingChange c WHERE c.createdAt < :before")
+    long findMaxSeqBefore(LocalDateTime before);
+
+    /**
+     * Remove changes older than the retention cut-off.
+     */
+    @Modifying
+    @Query("DELETE FROM BookingChange c WHERE c.createdAt < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
@@ -1,12 +1,22 @@
 package com.cleaning.booking.repository;
 
+import com.cleaning.booking.dto.BookingExportRow;
+import com.cleaning.booking.dto.BookingSlotRow;
+import com.cleaning.booking.dto.CleanerBookingEntry;
+import com.cleaning.booking.dto.CleanerSlotUsage;
+import com.cleaning.booking.dto.DailySlotUsage;
 import com.cleaning.booking.entity.Booking;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,6 +26,12 @@ import java.util.List;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    /**
+     * Statement timeout (ms) of read-only queries that no booking write runs. Queries
+     * shared with booking writes carry none; availability times them per call.
+     */
+    String READ_TIMEOUT_MS = "2000";
+
     /**
      * Fetch bookings for a cleaner on a specific date (prevents lazy loading issues).
      */
@@ -27,6 +43,138 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             """)
     List<Booking> findBookingsForCleaner(Long cleanerId, LocalDate date);
 
+    /**
+     * Fetch all bookings on a date (one query for the whole roster).
+     */
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_QUERY_TIMEOUT, value = READ_TIMEOUT_MS))
+    List<Booking> findByDate(LocalDate date);
+
+    /**
+     * Fetch the bookings of one region's cleaners on a date.
+     */
+    @Query("""
+                SELECT b FROM Booking b
+                WHERE b.date = :date
+                  AND b.cleaner.vehicle.region = :region
+            """)
+    List<Booking> findByDateInRegion(LocalDate date, String region);
+
+    /**
+     * Fetch all bookings within a date range (used for chunked multi-day scans).
+     */
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_QUERY_TIMEOUT, value = READ_TIMEOUT_MS))
+    @Query("""
+                SELECT b FROM Booking b
+                WHERE b.date BETWEEN :from AND :to
+            """)
+    List<Booking> findBookingsBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Fetch the bookings of one region's cleaners within a date range.
+     */
+    @Query("""
+                SELECT b FROM Booking b
+                WHERE b.date BETWEEN :from AND :to
+                  AND b.cleaner.vehicle.region = :region
+            """)
+    List<Booking> findBookingsBetweenInRegion(LocalDate from, LocalDate to, String region);
+
+    /**
+     * Fetch all bookings of a vehicle's cleaners within a date range (one query per vehicle).
+     */
+    @Query("""
+                SELECT b FROM Booking b
+                WHERE b.cleaner.vehicle.id = :vehicleId
+                  AND b.date BETWEEN :from AND :to
+            """)
+    List<Booking> findBookingsForVehicleBetween(Long vehicleId, LocalDate from, LocalDate to);
+
+    /**
+     * Next chunk of export rows after a (date, id) keyset position, as a flat projection.
+     * Served by the (date) index, whose entries are implicitly ordered by id.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+                SELECT new com.cleaning.booking.dto.BookingExportRow(
+                       b.id, b.date, b.startTime, b.endTime, c.id, c.name, v.id, v.name)
+                FROM Booking b
+                JOIN b.cleaner c
+                JOIN c.vehicle v
+                WHERE b.date <= :to
+                  AND (b.date > :afterDate OR (b.date = :afterDate AND b.id > :afterId))
+                ORDER BY b.date, b.id
+            """)
+    List<BookingExportRow> findExportChunk(LocalDate afterDate, Long afterId, LocalDate to, Limit limit);
+
+    /**
+     * Next page of a cleaner's schedule after a (date, start time, id) keyset position.
+     * Only indexed columns are read, so the page is served from idx_booking_cleaner_schedule
+     * with the same cost however deep it is.
+     */
+    @Query("""
+                SELECT new com.cleaning.booking.dto.CleanerBookingEntry(
+                       b.id, b.date, b.startTime, b.endTime)
+                FROM Booking b
+                WHERE b.cleaner.id = :cleanerId
+                  AND b.date <= :to
+                  AND (b.date > :afterDate
+                       OR (b.date = :afterDate
+                           AND (b.startTime > :afterStart
+                                OR (b.startTime = :afterStart AND b.id > :afterId))))
+                ORDER BY b.date, b.startTime, b.id
+            """)
+    List<CleanerBookingEntry> findSchedulePage(Long cleanerId, LocalDate afterDate, LocalTime afterStart,
+                                               Long afterId, LocalDate to, Limit limit);
+
+    /**
+     * Booking counts per (cleaner, start, end) in a date range; the database collapses
+     * the rows to at most a few hundred groups per cleaner.
+     */
+    @Query("""
+                SELECT new com.cleaning.booking.dto.CleanerSlotUsage(
+                       b.cleaner.id, b.startTime, b.endTime, COUNT(b))
+                FROM Booking b
+                WHERE b.date BETWEEN :from AND :to
+                GROUP BY b.cleaner.id, b.startTime, b.endTime
+            """)
+    List<CleanerSlotUsage> countByCleanerAndWindow(LocalDate from, LocalDate to);
+
+    /**
+     * Booking counts per (date, start, end) in a date range.
+     */
+    @Query("""
+                SELECT new com.cleaning.booking.dto.DailySlotUsage(
+                       b.date, b.startTime, b.endTime, COUNT(b))
+                FROM Booking b
+                WHERE b.date BETWEEN :from AND :to
+                GROUP BY b.date, b.startTime, b.endTime
+            """)
+    List<DailySlotUsage> countByDateAndWindow(LocalDate from, LocalDate to);
+
+    /**
+     * Cleaner and time window of every booking in a date range, as a flat projection
+     * (no entities or cleaner joins), for rebuilding occupancy masks.
+     */
+    @Query("""
+                SELECT new com.cleaning.booking.dto.BookingSlotRow(
+                       b.date, b.cleaner.id, b.startTime, b.endTime)
+                FROM Booking b
+                WHERE b.date BETWEEN :from AND :to
+            """)
+    List<BookingSlotRow> findSlotRowsBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Same rows as {@link #findSlotRowsBetween}, limited to the cleaners of the given regions.
+     */
+    @Query("""
+                SELECT new com.cleaning.booking.dto.BookingSlotRow(
+                       b.date, b.cleaner.id, b.startTime, b.endTime)
+                FROM Booking b
+                WHERE b.date BETWEEN :from AND :to
+                  AND b.cleaner.vehicle.region IN :regions
+            """)
+    List<BookingSlotRow> findSlotRowsBetweenInRegions(LocalDate from, LocalDate to, Collection<String> regions);
+
     /**
      * Check whether overlapping bookings exist for a cleaner.
      */
@@ -0,0 +1,64 @@
+package com.cleaning.booking.repository;
+
+import com.cleaning.booking.entity.CacheVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for per-scope cache versions.
+ */
+@Repository
+public interface CacheVersionRepository extends JpaRepository<CacheVersion, String> {
+
+    /**
+     * Increments a scope's version, stamped with the database clock so all nodes compare
+     * against the same time. Returns 0 when the scope has no row yet (see {@link #create}).
+     */
+    @Modifying
+    @Query(value = """
+                UPDATE cache_version
+                SET version = version + 1, cleaner_ids = :cleanerIds, origin = :origin,
+                    updated_at = LOCALTIMESTAMP(3)
+                WHERE scope = :scope
+            """, nativeQuery = true)
+    int bump(String scope, String cleanerIds, String origin);
+
+    /**
+     * Inserts a scope at version 0. Fails with a duplicate key when another node created
+     * it first, so callers run it in a transaction of its own.
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO cache_version (scope, version, cleaner_ids, origin, updated_at)
+                VALUES (:scope, 0, '', :origin, LOCALTIMESTAMP(3))
+            """, nativeQuery = true)
+    int create(String scope, String origin);
+
+    /**
+     * Removes date scopes before a cut-off scope ({@code date:yyyy-MM-dd}, compared as
+     * text) that have not been bumped since a database time.
+     */
+    @Modifying
+    @Query("""
+                DELETE FROM CacheVersion v
+                WHERE v.scope LIKE 'date:%' AND v.scope < :beforeScope AND v.updatedAt < :updatedBefore
+            """)
+    int deleteDatesBefore(String beforeScope, LocalDateTime updatedBefore);
+
+    /**
+     * Scopes bumped at or after a database time.
+     */
+    @Query("SELECT v FROM CacheVersion v WHERE v.updatedAt >= :since")
+    List<CacheVersion> findUpdatedSince(LocalDateTime since);
+
+    /**
+     * Current database time, on the same clock as {@link #bump}.
+     */
+    @Query(value = "SELECT LOCALTIMESTAMP(3)", nativeQuery = true)
+    LocalDateTime currentTime();
+}
@@ -0,0 +1,17 @@
+package com.cleaning.booking.repository;
+
+import com.cleaning.booking.entity.CalendarRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Set;
+
+public interface CalendarRuleRepository extends JpaRepository<CalendarRule, Long> {
+
+    /**
+     * Ids of every stored rule; rules are never updated, so new and removed ids are
+     * the whole difference to a compiled calendar.
+     */
+    @Query("SELECT r.id FROM CalendarRule r")
+    Set<Long> findAllIds();
+}
@@ -2,6 +2,8 @@ package com.cleaning.booking.repository;
 
 import com.cleaning.booking.entity.CleanerProfessional;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -18,10 +20,19 @@ public interface CleanerRepository extends JpaRepository<CleanerProfessional, Lo
     /**
      * Load all cleaners with their vehicles (prevents N+1).
      */
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_QUERY_TIMEOUT, value = BookingRepository.READ_TIMEOUT_MS))
     @EntityGraph(attributePaths = {"vehicle"})
     @Query("SELECT c FROM CleanerProfessional c")
     List<CleanerProfessional> findAllWithVehicle();
 
+    /**
+     * Load the cleaners of one region with their vehicles; request paths read only
+     * their region's roster.
+     */
+    @EntityGraph(attributePaths = {"vehicle"})
+    @Query("SELECT c FROM CleanerProfessional c WHERE c.vehicle.region = :region")
+    List<CleanerProfessional> findAllWithVehicleInRegion(String region);
+
     /**
      * Fetch all cleaners that belong to a specific vehicle.
      */
@@ -48,4 +59,4 @@ public interface CleanerRepository extends JpaRepository<CleanerProfessional, Lo
           )
     """)
     boolean isCleanerAvailable(Long cleanerId, LocalDate date, LocalTime startTime, LocalTime endTime);
-}
\ No newline at end of file
+}
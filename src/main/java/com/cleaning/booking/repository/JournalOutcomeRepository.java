@@ -0,0 +1,23 @@
+package com.cleaning.booking.repository;
+
+import com.cleaning.booking.entity.JournalOutcome;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for the outcomes of drained journal entries.
+ */
+@Repository
+public interface JournalOutcomeRepository extends JpaRepository<JournalOutcome, String> {
+
+    /**
+     * Remove outcomes older than the retention cut-off.
+     */
+    @Modifying
+    @Query("DELETE FROM JournalOutcome o WHERE o.createdAt < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
@@ -0,0 +1,49 @@
+package com.cleaning.booking.repository;
+
+import com.cleaning.booking.entity.OutboxCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for per-sink outbox delivery cursors.
+ */
+@Repository
+public interface OutboxCursorRepository extends JpaRepository<OutboxCursor, String> {
+
+    /**
+     * Claim a sink's cursor until {@code until}, unless another node holds an unexpired claim.
+     *
+     * @return 1 if this node now holds the claim.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+                UPDATE OutboxCursor c SET c.claimedBy = :node, c.claimedUntil = :until
+                WHERE c.sink = :sink
+                  AND (c.claimedUntil IS NULL OR c.claimedUntil < :now OR c.claimedBy = :node)
+            """)
+    int claim(String sink, String node, LocalDateTime now, LocalDateTime until);
+
+    /**
+     * Move the cursor past a delivered batch and drop the claim, only if it is still
+     * where the batch started.
+     *
+     * @return 0 if another node moved the cursor meanwhile.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+                UPDATE OutboxCursor c SET c.seq = :toSeq, c.updatedAt = :now, c.claimedBy = NULL, c.claimedUntil = NULL
+                WHERE c.sink = :sink AND c.seq = :fromSeq
+            """)
+    int advance(String sink, long fromSeq, long toSeq, LocalDateTime now);
+
+    /**
+     * Drop this node's claim without moving the cursor.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxCursor c SET c.claimedBy = NULL, c.claimedUntil = NULL WHERE c.sink = :sink AND c.claimedBy = :node")
+    int release(String sink, String node);
+}
@@ -0,0 +1,35 @@
+package com.cleaning.booking.repository;
+
+import com.cleaning.booking.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the booking outbox.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Events after a sequence number, oldest first.
+     */
+    @Query("""
+                SELECT e FROM OutboxEvent e
+                WHERE e.seq > :afterSeq
+                ORDER BY e.seq
+            """)
+    List<OutboxEvent> findAfter(long afterSeq, Limit limit);
+
+    /**
+     * Remove events up to a sequence that are older than the retention cut-off.
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.seq <= :maxSeq AND e.createdAt < :cutoff")
+    int deleteDeliveredBefore(long maxSeq, LocalDateTime cutoff);
+}
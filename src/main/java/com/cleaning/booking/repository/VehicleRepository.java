@@ -16,6 +16,13 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.cleaners")
     List<Vehicle> findAllWithCleaners();
 
+    @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.cleaners WHERE v.region = :region")
+    List<Vehicle> findAllWithCleanersInRegion(String region);
+
     @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.cleaners WHERE v.id = :id")
     Optional<Vehicle> findByIdWithCleaners(Long id);
+
+    /** Distinct regions of the fleet. */
+    @Query("SELECT DISTINCT v.region FROM Vehicle v ORDER BY v.region")
+    List<String> findRegions();
 }
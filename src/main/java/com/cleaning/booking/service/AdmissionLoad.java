@@ -0,0 +1,11 @@
+package com.cleaning.booking.service;
+
+/**
+ * Current API load as seen by admission control, for background work that should
+ * give way to live traffic.
+ */
+public interface AdmissionLoad {
+
+    /** API requests currently admitted and not yet completed. */
+    int inFlight();
+}
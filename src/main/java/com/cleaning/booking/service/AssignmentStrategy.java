@@ -0,0 +1,31 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.util.TimeWindow;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which cleaners get a booking once the available candidates are known.
+ * All chosen cleaners must belong to the same vehicle.
+ */
+public interface AssignmentStrategy {
+
+    /**
+     * Picks {@code count} cleaners from the same vehicle.
+     *
+     * @param available cleaners that are free for the requested window
+     * @param count number of cleaners required
+     * @param window requested time window
+     * @param occupancy slot bitmask per cleaner id for the booking date (see {@link com.cleaning.booking.util.SlotMask});
+     *                  cleaners without bookings may be missing from the map
+     * @return chosen cleaners, or an empty list when no vehicle can serve the request
+     */
+    List<CleanerProfessional> pick(
+            List<CleanerProfessional> available,
+            int count,
+            TimeWindow window,
+            Map<Long, Long> occupancy
+    );
+}
@@ -0,0 +1,18 @@
+package com.cleaning.booking.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Pushes availability changes to subscribed clients as server-sent events.
+ */
+public interface AvailabilityBroadcaster {
+
+    /**
+     * Subscribes to the given dates of a region. The stream starts with one
+     * {@code snapshot} event per date followed by {@code delta} events as bookings commit.
+     */
+    SseEmitter subscribe(String region, Set<LocalDate> dates);
+}
@@ -0,0 +1,27 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.AvailabilityRequest;
+import com.cleaning.booking.dto.AvailabilityResponse;
+import com.cleaning.booking.util.CachedPayload;
+
+import java.util.function.Supplier;
+
+public interface AvailabilityPayloadCache {
+
+    /**
+     * Returns the serialized payload for a versioned key, computing and
+     * serializing the response only on a miss.
+     */
+    CachedPayload get(String key, Supplier<AvailabilityResponse> loader);
+
+    /** Serializes a response without caching it. */
+    CachedPayload render(AvailabilityResponse response);
+
+    /** Whether cached payloads carry a gzip encoding. */
+    boolean gzipEnabled();
+
+    /** Cache key of a request under the date's availability tag (see {@link DataVersionService}). */
+    static String key(String availabilityTag, AvailabilityRequest request) {
+        return availabilityTag + "|" + request.region() + "|" + request.startTime() + "|" + request.durationMinutes();
+    }
+}
@@ -2,8 +2,19 @@ package com.cleaning.booking.service;
 
 import com.cleaning.booking.dto.AvailabilityRequest;
 import com.cleaning.booking.dto.AvailabilityResponse;
+import com.cleaning.booking.dto.BulkAvailabilityRequest;
+import com.cleaning.booking.dto.BulkAvailabilityResponse;
+import com.cleaning.booking.dto.CompactAvailabilityResponse;
+import com.cleaning.booking.dto.NextAvailableRequest;
+import com.cleaning.booking.dto.NextAvailableResponse;
 
 public interface AvailabilityService {
 
     AvailabilityResponse checkAvailability(AvailabilityRequest request);
+
+    CompactAvailabilityResponse checkCompactAvailability(AvailabilityRequest request);
+
+    NextAvailableResponse findNextAvailable(NextAvailableRequest request);
+
+    BulkAvailabilityResponse checkBulkAvailability(BulkAvailabilityRequest request);
 }
@@ -0,0 +1,14 @@
+package com.cleaning.booking.service;
+
+/**
+ * Precomputes availability for the upcoming working days in the background, so user
+ * reads of those dates find it in the {@link AvailabilityPayloadCache}.
+ */
+public interface AvailabilityWarmer {
+
+    /** Queues every upcoming working day of the regions this node serves. */
+    void warmUpcoming();
+
+    /** Warm-ups queued and not yet finished. */
+    int pending();
+}
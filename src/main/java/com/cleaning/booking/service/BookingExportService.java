@@ -0,0 +1,17 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface BookingExportService {
+
+    /**
+     * Streams all bookings in {@code [from, to]} to {@code out}.
+     *
+     * @return number of rows written
+     */
+    long export(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,26 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.dto.JournalReceipt;
+
+import java.util.Optional;
+
+/**
+ * Low-latency booking intake: bookings are acknowledged once durable in a local
+ * journal and written to the booking table in the background.
+ */
+public interface BookingJournalService {
+
+    /**
+     * Reserves cleaners for the request and journals it. Falls back to a synchronous
+     * booking (state {@code BOOKED}) when journaling is disabled or not possible.
+     */
+    JournalReceipt submit(BookingRequest request);
+
+    /**
+     * Current state of a journaled booking, while it is pending or its outcome is retained.
+     *
+     * @param journal Journal that accepted the entry; {@code null} for this node's journal.
+     */
+    Optional<JournalReceipt> status(String journal, long seq);
+}
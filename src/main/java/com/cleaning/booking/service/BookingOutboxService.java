@@ -0,0 +1,14 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.ChangeFeedResponse;
+
+/**
+ * Booking change feed backed by the transactional outbox.
+ */
+public interface BookingOutboxService {
+
+    /**
+     * Settled events after {@code afterSeq}, oldest first.
+     */
+    ChangeFeedResponse changes(long afterSeq, int limit);
+}
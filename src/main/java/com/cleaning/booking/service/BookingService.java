@@ -2,10 +2,20 @@ package com.cleaning.booking.service;
 
 import com.cleaning.booking.dto.BookingRequest;
 import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.dto.RecurringBookingRequest;
+import com.cleaning.booking.dto.RecurringBookingResponse;
+
+import java.util.List;
 
 public interface BookingService {
 
     BookingResponse createBooking(BookingRequest request);
 
+    BookingResponse createBooking(BookingRequest request, String idempotencyKey);
+
+    BookingResponse createReservedBooking(BookingRequest request, List<Long> cleanerIds, String idempotencyKey);
+
     BookingResponse updateBooking(Long bookingId, BookingRequest request);
+
+    RecurringBookingResponse createRecurringBooking(RecurringBookingRequest request);
 }
\ No newline at end of file
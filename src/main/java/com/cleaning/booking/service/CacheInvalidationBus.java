@@ -0,0 +1,23 @@
+package com.cleaning.booking.service;
+
+import java.time.Duration;
+
+/**
+ * Keeps in-process caches coherent across nodes.
+ *
+ * <p>Local booking and roster changes are announced through an
+ * {@link InvalidationTransport}; changes announced by other nodes are republished here
+ * as {@link com.cleaning.booking.event.CacheInvalidatedEvent}s.</p>
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Whether other nodes' changes are known up to {@link #maxStaleness()}: while true,
+     * every change committed elsewhere more than that long ago has been delivered.
+     * Callers must not serve cached state while this is false.
+     */
+    boolean isCoherent();
+
+    /** Staleness bound behind {@link #isCoherent()}. */
+    Duration maxStaleness();
+}
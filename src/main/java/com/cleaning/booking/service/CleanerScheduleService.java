@@ -0,0 +1,15 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.CleanerScheduleResponse;
+
+import java.time.LocalDate;
+
+public interface CleanerScheduleService {
+
+    /**
+     * Reads one page of a cleaner's bookings in {@code [from, to]}.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     */
+    CleanerScheduleResponse getSchedule(Long cleanerId, LocalDate from, LocalDate to, String cursor, int limit);
+}
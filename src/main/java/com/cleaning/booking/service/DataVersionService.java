@@ -0,0 +1,26 @@
+package com.cleaning.booking.service;
+
+import java.time.LocalDate;
+
+/**
+ * Version counters for roster and per-date booking data, used to build
+ * HTTP validators and cache keys without reading the database.
+ */
+public interface DataVersionService {
+
+    long rosterVersion();
+
+    long bookingVersion(LocalDate date);
+
+    /** Strong ETag for vehicle/cleaner reads. */
+    String rosterTag();
+
+    /** Strong ETag for availability reads of a date. */
+    String availabilityTag(LocalDate date);
+
+    /**
+     * Whether the tags can be trusted. While other nodes' changes may be missing, no
+     * response should be cached, served from a cache or answered with 304.
+     */
+    boolean cacheable();
+}
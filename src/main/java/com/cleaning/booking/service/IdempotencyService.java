@@ -0,0 +1,13 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.dto.BookingResponse;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+
+    Optional<BookingResponse> find(String key, BookingRequest request);
+
+    void remember(String key, BookingRequest request, BookingResponse response);
+}
@@ -0,0 +1,25 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+
+import java.util.List;
+
+/**
+ * Carries cache invalidations between nodes for the {@link CacheInvalidationBus}.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Announces a local change. Called inside the changing transaction when there is
+     * one; the change must become visible to other nodes no later than its commit.
+     */
+    void publish(CacheInvalidatedEvent invalidation);
+
+    /**
+     * Changes announced by other nodes since the previous call. Everything committed
+     * before the call started must be included.
+     *
+     * @throws RuntimeException if the transport cannot be read; the caller retries.
+     */
+    List<CacheInvalidatedEvent> poll();
+}
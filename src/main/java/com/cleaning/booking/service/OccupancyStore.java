@@ -0,0 +1,19 @@
+package com.cleaning.booking.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * In-memory per-cleaner occupancy masks for the upcoming booking horizon.
+ */
+public interface OccupancyStore {
+
+    /**
+     * Slot masks of a date by cleaner id (cleaners without bookings are absent), holding
+     * at least the cleaners of {@code region}, or {@code null} when the caller should read
+     * the database instead: the region is served by another node, the date is outside
+     * the loaded horizon, or other nodes' changes may be older than the
+     * {@link CacheInvalidationBus} staleness bound.
+     */
+    Map<Long, Long> occupancy(String region, LocalDate date);
+}
@@ -0,0 +1,20 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.BookingEvent;
+
+import java.util.List;
+
+/**
+ * Destination the outbox relay delivers booking events to.
+ */
+public interface OutboxSink {
+
+    /** Stable name; the relay keeps one delivery cursor per name. */
+    String name();
+
+    /**
+     * Delivers a batch, oldest first. Throwing leaves the cursor where it was, so the
+     * same batch is offered again on the next run: sinks must tolerate redelivery.
+     */
+    void publish(List<BookingEvent> events);
+}
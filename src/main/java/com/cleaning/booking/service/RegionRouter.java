@@ -0,0 +1,24 @@
+package com.cleaning.booking.service;
+
+import java.util.List;
+
+/**
+ * Decides which node serves each service region.
+ */
+public interface RegionRouter {
+
+    /** Whether this node serves the region. */
+    boolean isLocal(String region);
+
+    /** Whether this node serves every region (a single node, or no ring configured). */
+    boolean ownsAll();
+
+    /** Regions of the current fleet that this node serves. */
+    List<String> localRegions();
+
+    /**
+     * @throws com.cleaning.booking.exception.RegionNotLocalException naming the owner's
+     *         base URL when another node serves the region.
+     */
+    void requireLocal(String region);
+}
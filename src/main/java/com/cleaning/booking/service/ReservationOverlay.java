@@ -0,0 +1,33 @@
+package com.cleaning.booking.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cleaner time claimed on this node but not yet committed to the {@code booking} table:
+ * journaled bookings waiting to be drained, and bookings whose transaction is still open.
+ *
+ * <p>Every booking path claims its cleaners here before writing, and availability adds
+ * the claimed slots to the committed occupancy, so a journaled booking that was
+ * acknowledged cannot be taken by ordinary traffic on the same node.</p>
+ */
+public interface ReservationOverlay {
+
+    /**
+     * Claimed slot masks of a date by cleaner id; empty when nothing is claimed.
+     */
+    Map<Long, Long> reserved(String region, LocalDate date);
+
+    /**
+     * Claims the window for the cleaners under {@code key}, unless a claim under another
+     * key on the same date leaves one of them less than the configured break. Claiming
+     * again under the same key replaces the earlier claim.
+     *
+     * @return whether the claim was made.
+     */
+    boolean tryReserve(String key, String region, LocalDate date, long windowMask, List<Long> cleanerIds);
+
+    /** Drops the claim made under {@code key}, if any. */
+    void release(String key);
+}
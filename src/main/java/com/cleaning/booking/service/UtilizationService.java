@@ -0,0 +1,10 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.UtilizationReport;
+
+import java.time.LocalDate;
+
+public interface UtilizationService {
+
+    UtilizationReport utilization(LocalDate from, LocalDate to);
+}
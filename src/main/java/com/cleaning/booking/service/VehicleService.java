@@ -14,5 +14,7 @@ public interface VehicleService {
 
     List<VehicleResponse> getAllVehicles();
 
+    List<VehicleResponse> getVehicles(String region);
+
     VehicleResponse getVehicle(Long id);
 }
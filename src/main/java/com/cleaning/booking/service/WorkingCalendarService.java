@@ -0,0 +1,36 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.CalendarRuleRequest;
+import com.cleaning.booking.dto.CalendarRuleResponse;
+import com.cleaning.booking.util.TimeWindow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Working calendar: closed weekdays, holidays, per-region working hours and cleaners'
+ * days off. Lookups are answered from compiled tables and cost O(1).
+ */
+public interface WorkingCalendarService {
+
+    /** Whether the region works on the date. */
+    boolean isWorkingDay(String region, LocalDate date);
+
+    /** Slots the region works on the date, as a {@link com.cleaning.booking.util.SlotMask}; 0 when closed. */
+    long openSlots(String region, LocalDate date);
+
+    /** Slots the cleaner works on the date: the region's open slots, or 0 on a day off. */
+    long cleanerSlots(String region, Long cleanerId, LocalDate date);
+
+    /**
+     * Why nothing can be booked in the region on the date (or in {@code window} when
+     * given), or {@code null} when the calendar allows it.
+     */
+    String closedReason(String region, LocalDate date, TimeWindow window);
+
+    List<CalendarRuleResponse> getRules();
+
+    CalendarRuleResponse createRule(CalendarRuleRequest request);
+
+    void deleteRule(Long id);
+}
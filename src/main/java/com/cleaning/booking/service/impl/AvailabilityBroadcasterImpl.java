@@ -0,0 +1,295 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.AvailabilityDelta;
+import com.cleaning.booking.dto.AvailabilityRequest;
+import com.cleaning.booking.dto.CompactAvailabilityResponse;
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.ServiceUnavailableException;
+import com.cleaning.booking.service.AvailabilityBroadcaster;
+import com.cleaning.booking.service.AvailabilityService;
+import com.cleaning.booking.service.RegionRouter;
+import com.cleaning.booking.util.Regions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent availability deltas, fanned out from one shared broadcaster.
+ *
+ * <p>Subscriptions are async {@link SseEmitter}s: an idle subscriber holds no thread.
+ * All availability reads and diffs run one at a time on a single broadcast thread, which
+ * keeps the last masks sent per region and date and turns each change into one
+ * {@link AvailabilityDelta} shared by every subscriber of that region and date. Events are queued
+ * per subscriber and written by short-lived virtual threads, so a slow client only
+ * delays itself; one that falls {@code availability.stream.max-pending} events behind
+ * is disconnected and resynchronises from a new snapshot when it reconnects.</p>
+ *
+ * <p>Local commits are pushed right away and other nodes' as soon as the cache
+ * invalidation bus delivers them. Subscribed dates are also re-read every
+ * {@code availability.stream.resync-ms} as a backstop.</p>
+ */
+@Slf4j
+@Service
+public class AvailabilityBroadcasterImpl implements AvailabilityBroadcaster {
+
+    static final int MAX_DATES = 31;
+
+    private final AvailabilityService availabilityService;
+    private final RegionRouter regionRouter;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final int maxPending;
+
+    private final ExecutorService broadcaster = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("availability-broadcast").factory());
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("availability-stream-", 0).factory());
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /** Masks last sent per subscribed region and date; only touched on the broadcast thread. */
+    private final Map<Watch, Map<Integer, Long>> lastMasks = new HashMap<>();
+
+    public AvailabilityBroadcasterImpl(
+            AvailabilityService availabilityService,
+            RegionRouter regionRouter,
+            MeterRegistry meterRegistry,
+            @Value("${availability.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${availability.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${availability.stream.max-pending:64}") int maxPending
+    ) {
+        this.availabilityService = availabilityService;
+        this.regionRouter = regionRouter;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPending = maxPending;
+        Gauge.builder("availability.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(String region, Set<LocalDate> dates) {
+        if (dates == null || dates.isEmpty() || dates.size() > MAX_DATES) {
+            throw new BadRequestException("Subscribe to between 1 and " + MAX_DATES + " dates.");
+        }
+        regionRouter.requireLocal(region);
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many availability subscribers, try again later.");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, Regions.orDefault(region), Set.copyOf(dates));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // The first read of each date on the broadcast thread queues its snapshot
+        broadcaster.execute(() -> subscriber.dates.forEach(date -> refresh(new Watch(subscriber.region, date))));
+        log.debug("Availability subscriber added for {} {} ({} open)",
+                subscriber.region, subscriber.dates, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Pushes the changes of a committed booking transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        push(event.dates());
+    }
+
+    /**
+     * Pushes changes made on other nodes as soon as the invalidation bus delivers them.
+     */
+    @EventListener
+    public void onRemoteChange(CacheInvalidatedEvent event) {
+        if (event.roster()) {
+            Set<Watch> watched = subscribedWatches();
+            broadcaster.execute(() -> watched.forEach(this::refresh));
+        } else {
+            push(event.dates());
+        }
+    }
+
+    /**
+     * Re-reads every subscribed date, as a backstop for changes that were not pushed,
+     * and forgets dates nobody watches anymore.
+     */
+    @Scheduled(fixedDelayString = "${availability.stream.resync-ms:5000}")
+    public void resync() {
+        Set<Watch> watched = subscribedWatches();
+        broadcaster.execute(() -> {
+            lastMasks.keySet().retainAll(watched);
+            watched.forEach(this::refresh);
+        });
+    }
+
+    /**
+     * Comment line that keeps proxies from closing idle streams and detects dead clients.
+     */
+    @Scheduled(fixedDelayString = "${availability.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(s -> s.offer(SseEmitter.event().comment("keep-alive")));
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(s -> s.emitter.complete());
+        broadcaster.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    /**
+     * Reads the region's current masks for the date and sends the difference to the last
+     * ones to its subscribers. A subscriber that has no snapshot of the date yet gets the
+     * current masks as its snapshot instead, so it never sees a delta before its snapshot.
+     * Runs on the broadcast thread only.
+     */
+    private void refresh(Watch watch) {
+        LocalDate date = watch.date();
+        CompactAvailabilityResponse current;
+        try {
+            current = availabilityService.checkCompactAvailability(new AvailabilityRequest(date, null, null, watch.region()));
+        } catch (RuntimeException ex) {
+            log.warn("Availability for {} {} could not be read for subscribers: {}", watch.region(), date, ex.getMessage());
+            return;
+        }
+        AvailabilityDelta delta = current.stale() ? null : diff(watch, current);
+
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.region.equals(watch.region()) || !subscriber.dates.contains(date)) {
+                continue;
+            }
+            if (!subscriber.synced.contains(date)) {
+                subscriber.offer(SseEmitter.event().name("snapshot").data(current, MediaType.APPLICATION_JSON));
+                // A stale snapshot is followed by a fresh one once the date can be read again
+                if (!current.stale()) {
+                    subscriber.synced.add(date);
+                }
+            } else if (delta != null) {
+                subscriber.offer(SseEmitter.event().name("delta").data(delta, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    /**
+     * Records the current masks of the date and returns what changed since the last ones,
+     * or {@code null} if nothing did.
+     */
+    private AvailabilityDelta diff(Watch watch, CompactAvailabilityResponse current) {
+        Map<Integer, Long> previous = lastMasks.put(watch, current.startMasks());
+        if (previous == null) {
+            return null;
+        }
+
+        Map<Integer, Long> taken = new HashMap<>();
+        Map<Integer, Long> freed = new HashMap<>();
+        for (Map.Entry<Integer, Long> entry : current.startMasks().entrySet()) {
+            long before = previous.getOrDefault(entry.getKey(), 0L);
+            long now = entry.getValue();
+            if ((before & ~now) != 0) {
+                taken.put(entry.getKey(), before & ~now);
+            }
+            if ((now & ~before) != 0) {
+                freed.put(entry.getKey(), now & ~before);
+            }
+        }
+        if (taken.isEmpty() && freed.isEmpty()) {
+            return null;
+        }
+        log.debug("Availability delta for {} {}: taken={} freed={}", watch.region(), watch.date(), taken, freed);
+        return new AvailabilityDelta(watch.date(), current.slotMinutes(), taken, freed);
+    }
+
+    private void push(Set<LocalDate> dates) {
+        Set<Watch> watched = subscribedWatches();
+        watched.removeIf(w -> !dates.contains(w.date()));
+        if (!watched.isEmpty()) {
+            broadcaster.execute(() -> watched.forEach(this::refresh));
+        }
+    }
+
+    private Set<Watch> subscribedWatches() {
+        Set<Watch> watches = new HashSet<>();
+        subscribers.forEach(s -> s.dates.forEach(date -> watches.add(new Watch(s.region, date))));
+        return watches;
+    }
+
+    /** A subscribed date of one region. */
+    private record Watch(String region, LocalDate date) {}
+
+    /**
+     * One open stream. Events are written in order by at most one writer at a time.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String region;
+        private final Set<LocalDate> dates;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        /** Dates whose snapshot has been queued; only touched on the broadcast thread. */
+        private final Set<LocalDate> synced = new HashSet<>();
+
+        Subscriber(SseEmitter emitter, String region, Set<LocalDate> dates) {
+            this.emitter = emitter;
+            this.region = region;
+            this.dates = dates;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (pending.incrementAndGet() > maxPending) {
+                log.debug("Availability subscriber for {} is too slow, disconnecting", dates);
+                subscribers.remove(this);
+                emitter.complete();
+                return;
+            }
+            queue.add(event);
+            if (writing.compareAndSet(false, true)) {
+                writers.execute(this::write);
+            }
+        }
+
+        private void write() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    pending.decrementAndGet();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException ex) {
+                        subscribers.remove(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                writing.set(false);
+            } while (!queue.isEmpty() && writing.compareAndSet(false, true));
+        }
+    }
+}
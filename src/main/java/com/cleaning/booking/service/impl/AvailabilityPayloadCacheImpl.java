@@ -0,0 +1,93 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.AvailabilityResponse;
+import com.cleaning.booking.service.AvailabilityPayloadCache;
+import com.cleaning.booking.util.CachedPayload;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded LRU of pre-serialized availability payloads.
+ *
+ * <p>Keys embed the roster and booking versions of the date, so an entry is
+ * never stale: a data change produces a new key and the old entry ages out.</p>
+ */
+@Slf4j
+@Service
+public class AvailabilityPayloadCacheImpl implements AvailabilityPayloadCache {
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+    private final Map<String, CachedPayload> cache;
+
+    public AvailabilityPayloadCacheImpl(
+            ObjectMapper objectMapper,
+            @Value("${availability.payload-cache.size:1000}") int size,
+            @Value("${availability.payload-cache.gzip:true}") boolean gzipEnabled
+    ) {
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPayload> eldest) {
+                return size() > size;
+            }
+        });
+    }
+
+    @Override
+    public CachedPayload get(String key, Supplier<AvailabilityResponse> loader) {
+        CachedPayload cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Rendered outside the lock; concurrent misses may render twice, which is harmless
+        AvailabilityResponse response = loader.get();
+        CachedPayload rendered = render(response);
+        if (response.stale()) {
+            // A degraded-mode snapshot must not outlive the outage under a current version key
+            return rendered;
+        }
+        cache.put(key, rendered);
+        log.debug("Availability payload cached for {} ({} bytes)", key, rendered.json().length);
+        return rendered;
+    }
+
+    @Override
+    public boolean gzipEnabled() {
+        return gzipEnabled;
+    }
+
+    @Override
+    public CachedPayload render(AvailabilityResponse response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            return new CachedPayload(json, gzipEnabled ? gzip(json) : null, response.stale());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize availability response", ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 32);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
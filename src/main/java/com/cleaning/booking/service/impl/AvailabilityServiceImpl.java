@@ -2,66 +2,283 @@ package com.cleaning.booking.service.impl;
 
 import com.cleaning.booking.dto.AvailabilityRequest;
 import com.cleaning.booking.dto.AvailabilityResponse;
+import com.cleaning.booking.dto.BulkAvailabilityRequest;
+import com.cleaning.booking.dto.BulkAvailabilityResponse;
+import com.cleaning.booking.dto.CompactAvailabilityResponse;
+import com.cleaning.booking.dto.NextAvailableRequest;
+import com.cleaning.booking.dto.NextAvailableResponse;
+import com.cleaning.booking.dto.SlotOption;
+import com.cleaning.booking.dto.SlotQuery;
+import com.cleaning.booking.dto.SlotQueryResult;
 import com.cleaning.booking.entity.Booking;
 import com.cleaning.booking.entity.CleanerProfessional;
 import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.ServiceUnavailableException;
+import com.cleaning.booking.monitoring.AvailabilityComputationEvent;
+import com.cleaning.booking.monitoring.RosterLoadEvent;
 import com.cleaning.booking.repository.BookingRepository;
 import com.cleaning.booking.repository.CleanerRepository;
 import com.cleaning.booking.service.AvailabilityService;
+import com.cleaning.booking.service.OccupancyStore;
+import com.cleaning.booking.service.RegionRouter;
+import com.cleaning.booking.service.ReservationOverlay;
+import com.cleaning.booking.service.WorkingCalendarService;
 import com.cleaning.booking.util.AvailabilityUtil;
+import com.cleaning.booking.util.CircuitBreaker;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
 import com.cleaning.booking.util.TimeWindow;
 import com.cleaning.booking.util.WorkHoursValidator;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.PersistenceException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+/**
+ * Availability reads.
+ *
+ * <p>All database work runs through the availability circuit breaker. Each successful
+ * single-date answer is kept as a snapshot. While the breaker is open, or a read fails,
+ * that snapshot is returned with {@code stale = true}, so availability traffic stops
+ * holding connections that booking writes need. Reads run in a read-only transaction
+ * with a {@value #READ_TIMEOUT_SECONDS} s timeout, which Spring applies to every query in
+ * it; booking writes run the same repository queries without one.</p>
+ *
+ * <p>Every read is scoped to the request's region: only that region's roster and
+ * bookings are loaded, so its cost follows the region's fleet, not the whole fleet.
+ * Regions served by another node are rejected with the owner's address.</p>
+ *
+ * <p>Closed days, working hours and days off come from the {@link WorkingCalendarService};
+ * each is a table lookup, so they do not add to the cost of range scans. Bookable
+ * durations, start step and break come from the {@link SlotTemplate}.</p>
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AvailabilityServiceImpl implements AvailabilityService {
 
+    /** Days of bookings loaded per query by the next-available search. */
+    static final int SEARCH_CHUNK_DAYS = 7;
+
+    /** Last good answers kept for degraded mode, per request. */
+    static final int SNAPSHOT_SIZE = 1000;
+
+    /**
+     * Time budget of one availability read, so a slow database fails it fast (and the
+     * snapshot is served) instead of piling up pooled connections.
+     */
+    static final int READ_TIMEOUT_SECONDS = 2;
+
     private final CleanerRepository cleanerRepository;
     private final BookingRepository bookingRepository;
+    private final OccupancyStore occupancyStore;
+    private final CircuitBreaker availabilityCircuitBreaker;
+    private final RegionRouter regionRouter;
+    private final WorkingCalendarService workingCalendar;
+    private final SlotTemplate slotTemplate;
+    private final ReservationOverlay reservationOverlay;
+    private final TransactionTemplate readTx;
+
+    private final Map<AvailabilityRequest, AvailabilityResponse> snapshots = snapshotMap();
+    private final Map<AvailabilityRequest, CompactAvailabilityResponse> compactSnapshots = snapshotMap();
+
+    public AvailabilityServiceImpl(
+            CleanerRepository cleanerRepository,
+            BookingRepository bookingRepository,
+            OccupancyStore occupancyStore,
+            CircuitBreaker availabilityCircuitBreaker,
+            RegionRouter regionRouter,
+            WorkingCalendarService workingCalendar,
+            SlotTemplate slotTemplate,
+            ReservationOverlay reservationOverlay,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.cleanerRepository = cleanerRepository;
+        this.bookingRepository = bookingRepository;
+        this.occupancyStore = occupancyStore;
+        this.availabilityCircuitBreaker = availabilityCircuitBreaker;
+        this.regionRouter = regionRouter;
+        this.workingCalendar = workingCalendar;
+        this.slotTemplate = slotTemplate;
+        this.reservationOverlay = reservationOverlay;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.readTx.setTimeout(READ_TIMEOUT_SECONDS);
+    }
 
     @Override
     public AvailabilityResponse checkAvailability(AvailabilityRequest req) {
 
-        if (!WorkHoursValidator.isWorkingDay(req.date())) {
-            throw new BadRequestException("Friday is not a working day.");
+        regionRouter.requireLocal(req.region());
+
+        String closed = workingCalendar.closedReason(req.region(), req.date(), null);
+        if (closed != null) {
+            throw new BadRequestException(closed);
+        }
+
+        boolean daily = req.startTime() == null && req.durationMinutes() == null;
+        AvailabilityComputationEvent event = new AvailabilityComputationEvent(daily ? "DAILY" : "SLOT");
+        event.begin();
+        try {
+            AvailabilityResponse response = withSnapshot(req, snapshots, AvailabilityResponse::asStale, () -> {
+                // CASE 1: Date only → return available slots
+                if (daily) {
+                    return generateDailyAvailability(req.date(), req.region(), event);
+                }
+
+                // CASE 2: Specific slot → return available cleaner IDs
+                return getCleanersForRequestedSlot(req, event);
+            });
+            if (event.shouldCommit()) {
+                event.stale = response.stale();
+                event.slotsProduced = daily ? response.availableTimeSlots().size() : response.availableCleanerIds().size();
+            }
+            return response;
+        } finally {
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Compact (v2) availability: per-duration start-slot bitmasks instead of strings.
+     *
+     * <p>Per-cleaner slot masks come from the occupancy store (or one query outside its
+     * horizon), and every duration is answered with a few shifts and ANDs per cleaner.</p>
+     */
+    @Override
+    public CompactAvailabilityResponse checkCompactAvailability(AvailabilityRequest req) {
+
+        regionRouter.requireLocal(req.region());
+
+        String closed = workingCalendar.closedReason(req.region(), req.date(), null);
+        if (closed != null) {
+            throw new BadRequestException(closed);
+        }
+
+        boolean daily = req.startTime() == null || req.durationMinutes() == null;
+        AvailabilityComputationEvent event = new AvailabilityComputationEvent(daily ? "COMPACT_DAILY" : "COMPACT_SLOT");
+        event.begin();
+        try {
+            CompactAvailabilityResponse response = withSnapshot(req, compactSnapshots,
+                    CompactAvailabilityResponse::asStale, () -> computeCompact(req, event));
+            if (event.shouldCommit()) {
+                event.stale = response.stale();
+                event.slotsProduced = response.availableCleanerIds().size()
+                        + response.startMasks().values().stream().mapToInt(Long::bitCount).sum();
+            }
+            return response;
+        } finally {
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    private CompactAvailabilityResponse computeCompact(AvailabilityRequest req, AvailabilityComputationEvent event) {
+
+        List<CleanerProfessional> cleaners = roster(req.region());
+        Map<Long, Long> occupancy = dayOccupancy(req.region(), req.date(), event);
+        event.cleaners = cleaners.size();
+
+        // Slot query → cleaners only
+        if (req.startTime() != null && req.durationMinutes() != null) {
+            long window = SlotMask.of(new TimeWindow(req.startTime(), req.startTime().plusMinutes(req.durationMinutes())));
+            List<Long> available = cleaners.stream()
+                    .filter(c -> slotTemplate.fits(occupancy.getOrDefault(c.getId(), 0L),
+                            workingCalendar.cleanerSlots(req.region(), c.getId(), req.date()), window))
+                    .map(CleanerProfessional::getId)
+                    .toList();
+            return new CompactAvailabilityResponse(req.date(), SlotMask.slotStart(0), SlotMask.SLOT_MINUTES, available, Map.of());
         }
 
-        // CASE 1: Date only → return available slots
-        if (req.startTime() == null && req.durationMinutes() == null) {
-            return generateDailyAvailability(req.date());
+        // Daily query → union of start masks over all cleaners
+        Map<Integer, Long> startMasks = new TreeMap<>();
+        for (int duration : slotTemplate.durations()) {
+            long mask = 0L;
+            for (CleanerProfessional c : cleaners) {
+                mask |= slotTemplate.startMask(occupancy.getOrDefault(c.getId(), 0L),
+                        workingCalendar.cleanerSlots(req.region(), c.getId(), req.date()), duration);
+            }
+            startMasks.put(duration, mask);
         }
 
-        // CASE 2: Specific slot → return available cleaner IDs
-        return getCleanersForRequestedSlot(req);
+        return new CompactAvailabilityResponse(req.date(), SlotMask.slotStart(0), SlotMask.SLOT_MINUTES, List.of(), startMasks);
+    }
+
+    /**
+     * Occupancy masks of a date: from the in-memory store inside its horizon, else one query,
+     * plus the slots reserved but not yet booked.
+     */
+    private Map<Long, Long> dayOccupancy(String region, LocalDate date, AvailabilityComputationEvent event) {
+        Map<Long, Long> occupancy = occupancyStore.occupancy(region, date);
+        if (occupancy == null) {
+            List<Booking> bookings = bookingRepository.findByDateInRegion(date, region);
+            event.bookingsLoaded = bookings.size();
+            occupancy = SlotMask.occupancyByCleaner(bookings);
+        }
+        return withReservations(region, date, occupancy);
+    }
+
+    /** The committed occupancy with the {@link ReservationOverlay}'s claims added; the same map when there are none. */
+    private Map<Long, Long> withReservations(String region, LocalDate date, Map<Long, Long> occupancy) {
+        Map<Long, Long> reserved = reservationOverlay.reserved(region, date);
+        if (reserved.isEmpty()) {
+            return occupancy;
+        }
+        Map<Long, Long> merged = new HashMap<>(occupancy);
+        reserved.forEach((cleanerId, mask) -> merged.merge(cleanerId, mask, (x, y) -> x | y));
+        return merged;
     }
 
     /**
      * Returns all available time slots for the entire day (08:00–22:00)
      */
-    private AvailabilityResponse generateDailyAvailability(LocalDate date) {
+    private AvailabilityResponse generateDailyAvailability(LocalDate date, String region, AvailabilityComputationEvent event) {
 
-        List<CleanerProfessional> cleaners = cleanerRepository.findAllWithVehicle();
+        List<CleanerProfessional> cleaners = roster(region);
+        event.cleaners = cleaners.size();
 
         List<String> allSlots = new ArrayList<>();
+        Map<Long, Long> reserved = reservationOverlay.reserved(region, date);
 
         for (CleanerProfessional cleaner : cleaners) {
 
+            long open = workingCalendar.cleanerSlots(region, cleaner.getId(), date);
+            if (open == 0L) {
+                continue;
+            }
+
             List<Booking> bookings = bookingRepository.findBookingsForCleaner(
                     cleaner.getId(),
                     date
             );
+            event.bookingsLoaded += bookings.size();
 
             // helper to compute daily free windows
-            List<String> cleanerFreeSlots = AvailabilityUtil.generateAvailableSlots(bookings);
+            List<String> cleanerFreeSlots = reserved.containsKey(cleaner.getId())
+                    ? slotTemplate.availableSlots(SlotMask.occupancy(bookings) | reserved.get(cleaner.getId()), open)
+                    : AvailabilityUtil.generateAvailableSlots(bookings, open, slotTemplate);
 
             allSlots.addAll(cleanerFreeSlots);
         }
@@ -78,15 +295,20 @@ public class AvailabilityServiceImpl implements AvailabilityService {
         );
     }
 
-    private AvailabilityResponse getCleanersForRequestedSlot(AvailabilityRequest req) {
+    private AvailabilityResponse getCleanersForRequestedSlot(AvailabilityRequest req, AvailabilityComputationEvent event) {
 
         LocalTime end = req.startTime().plusMinutes(req.durationMinutes());
         TimeWindow window = new TimeWindow(req.startTime(), end);
 
-        List<CleanerProfessional> all = cleanerRepository.findAllWithVehicle();
+        List<CleanerProfessional> all = roster(req.region());
+        event.cleaners = all.size();
+        long windowMask = SlotMask.of(window);
+        Map<Long, Long> reserved = reservationOverlay.reserved(req.region(), req.date());
 
         List<Long> available = all.stream()
-                .filter(c -> cleanerRepository.isCleanerAvailable(
+                .filter(c -> SlotMask.within(workingCalendar.cleanerSlots(req.region(), c.getId(), req.date()), windowMask)
+                        && slotTemplate.fits(reserved.getOrDefault(c.getId(), 0L), windowMask)
+                        && cleanerRepository.isCleanerAvailable(
                         c.getId(),
                         req.date(),
                         window.start(),
@@ -97,4 +319,279 @@ public class AvailabilityServiceImpl implements AvailabilityService {
 
         return new AvailabilityResponse(available, List.of());
     }
-}
\ No newline at end of file
+
+    /**
+     * Scans forward from {@code fromDate} for the first bookable (date, start, vehicle) options.
+     *
+     * <p>Bookings are loaded one {@value #SEARCH_CHUNK_DAYS}-day chunk at a time and the whole
+     * search is a lazy stream, so it stops reading as soon as {@code limit} options are found.</p>
+     */
+    @Override
+    public NextAvailableResponse findNextAvailable(NextAvailableRequest req) {
+
+        regionRouter.requireLocal(req.region());
+
+        if (!slotTemplate.allows(req.durationMinutes())) {
+            throw new BadRequestException("Duration must be " + slotTemplate.durationsText() + " minutes.");
+        }
+
+        AvailabilityComputationEvent event = new AvailabilityComputationEvent("NEXT_AVAILABLE");
+        event.begin();
+        try {
+            NextAvailableResponse response = guarded(() -> searchNextAvailable(req, event));
+            if (event.shouldCommit()) {
+                event.slotsProduced = response.options().size();
+            }
+            return response;
+        } finally {
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    private NextAvailableResponse searchNextAvailable(NextAvailableRequest req, AvailabilityComputationEvent event) {
+
+        // Only vehicles that could ever field enough cleaners are worth scanning
+        List<CleanerProfessional> roster = roster(req.region());
+        event.cleaners = roster.size();
+        Map<Long, List<CleanerProfessional>> byVehicle = roster.stream()
+                .collect(Collectors.groupingBy(c -> c.getVehicle().getId(), TreeMap::new, Collectors.toList()));
+        byVehicle.values().removeIf(cleaners -> cleaners.size() < req.cleanerCount());
+
+        if (byVehicle.isEmpty()) {
+            return new NextAvailableResponse(List.of());
+        }
+
+        LocalDate lastDate = req.fromDate().plusDays(req.horizonDays() - 1L);
+        int durationSlots = req.durationMinutes() / SlotMask.SLOT_MINUTES;
+        long starts = slotTemplate.starts(req.durationMinutes());
+
+        List<SlotOption> options = Stream
+                .iterate(req.fromDate(), d -> !d.isAfter(lastDate), d -> d.plusDays(SEARCH_CHUNK_DAYS))
+                .flatMap(chunkStart -> {
+                    LocalDate chunkEnd = chunkStart.plusDays(SEARCH_CHUNK_DAYS - 1L);
+                    if (chunkEnd.isAfter(lastDate)) {
+                        chunkEnd = lastDate;
+                    }
+                    log.debug("Next-available: loading bookings {} to {}", chunkStart, chunkEnd);
+                    List<Booking> bookings = bookingRepository.findBookingsBetweenInRegion(chunkStart, chunkEnd, req.region());
+                    event.bookingsLoaded += bookings.size();
+                    Map<LocalDate, Map<Long, Long>> occupancy = SlotMask.occupancyByDate(bookings);
+
+                    return chunkStart.datesUntil(chunkEnd.plusDays(1))
+                            .filter(date -> workingCalendar.isWorkingDay(req.region(), date))
+                            .flatMap(date -> slotOptions(req.region(), date,
+                                    withReservations(req.region(), date, occupancy.getOrDefault(date, Map.of())),
+                                    byVehicle, starts, durationSlots, req.cleanerCount()));
+                })
+                .limit(req.limit())
+                .toList();
+
+        return new NextAvailableResponse(options);
+    }
+
+    /** Lazily lists the options of one day, ordered by start time and vehicle. */
+    private Stream<SlotOption> slotOptions(
+            String region,
+            LocalDate date,
+            Map<Long, Long> occupancy,
+            Map<Long, List<CleanerProfessional>> byVehicle,
+            long starts,
+            int durationSlots,
+            int cleanerCount
+    ) {
+        return IntStream.range(0, SlotMask.SLOTS_PER_DAY)
+                .filter(startSlot -> (starts & (1L << startSlot)) != 0)
+                .boxed()
+                .flatMap(startSlot -> {
+                    long window = SlotMask.range(startSlot, startSlot + durationSlots);
+                    return byVehicle.entrySet().stream()
+                            .map(e -> {
+                                List<Long> free = e.getValue().stream()
+                                        .filter(c -> slotTemplate.fits(occupancy.getOrDefault(c.getId(), 0L),
+                                                workingCalendar.cleanerSlots(region, c.getId(), date), window))
+                                        .map(CleanerProfessional::getId)
+                                        .toList();
+                                if (free.size() < cleanerCount) {
+                                    return null;
+                                }
+                                return new SlotOption(
+                                        date,
+                                        SlotMask.slotStart(startSlot),
+                                        SlotMask.slotStart(startSlot + durationSlots),
+                                        e.getKey(),
+                                        free
+                                );
+                            })
+                            .filter(Objects::nonNull);
+                });
+    }
+
+    /**
+     * Answers many slot queries in one call.
+     *
+     * <p>The roster is read once and each distinct date's bookings are read once;
+     * the queries are then evaluated in parallel against the in-memory slot masks
+     * and returned in request order. Invalid queries get an {@code error} instead
+     * of failing the whole batch.</p>
+     */
+    @Override
+    public BulkAvailabilityResponse checkBulkAvailability(BulkAvailabilityRequest req) {
+
+        regionRouter.requireLocal(req.region());
+
+        AvailabilityComputationEvent event = new AvailabilityComputationEvent("BULK");
+        event.begin();
+
+        List<SlotQuery> queries = req.queries();
+        List<CleanerProfessional> cleaners = guarded(() -> roster(req.region()));
+
+        // Load each distinct working date once
+        Map<LocalDate, Map<Long, Long>> occupancyByDate = guarded(() -> {
+            Map<LocalDate, Map<Long, Long>> loaded = new HashMap<>();
+            for (SlotQuery q : queries) {
+                if (workingCalendar.isWorkingDay(req.region(), q.date()) && !loaded.containsKey(q.date())) {
+                    List<Booking> bookings = bookingRepository.findByDateInRegion(q.date(), req.region());
+                    event.bookingsLoaded += bookings.size();
+                    loaded.put(q.date(), withReservations(req.region(), q.date(), SlotMask.occupancyByCleaner(bookings)));
+                }
+            }
+            return loaded;
+        });
+
+        log.debug("Bulk availability: {} queries over {} dates", queries.size(), occupancyByDate.size());
+
+        // Evaluation is CPU-only from here on; parallel streams keep encounter order
+        List<SlotQueryResult> results = queries.parallelStream()
+                .map(q -> evaluateSlot(req.region(), q, cleaners, occupancyByDate))
+                .toList();
+
+        if (event.shouldCommit()) {
+            event.cleaners = cleaners.size();
+            event.slotsProduced = results.size();
+            event.commit();
+        }
+        return new BulkAvailabilityResponse(results);
+    }
+
+    private SlotQueryResult evaluateSlot(
+            String region,
+            SlotQuery q,
+            List<CleanerProfessional> cleaners,
+            Map<LocalDate, Map<Long, Long>> occupancyByDate
+    ) {
+        LocalTime end = q.startTime().plusMinutes(q.durationMinutes());
+
+        String error = validateSlot(region, q, end);
+        if (error != null) {
+            return new SlotQueryResult(q.date(), q.startTime(), end, false, List.of(), error);
+        }
+
+        long window = SlotMask.of(new TimeWindow(q.startTime(), end));
+        Map<Long, Long> occupancy = occupancyByDate.get(q.date());
+
+        List<CleanerProfessional> free = cleaners.stream()
+                .filter(c -> slotTemplate.fits(occupancy.getOrDefault(c.getId(), 0L),
+                        workingCalendar.cleanerSlots(region, c.getId(), q.date()), window))
+                .toList();
+
+        boolean bookable = free.stream()
+                .collect(Collectors.groupingBy(c -> c.getVehicle().getId(), Collectors.counting()))
+                .values().stream()
+                .anyMatch(n -> n >= q.cleanerCount());
+
+        return new SlotQueryResult(
+                q.date(),
+                q.startTime(),
+                end,
+                bookable,
+                free.stream().map(CleanerProfessional::getId).toList(),
+                null
+        );
+    }
+
+    /** Same rules as booking creation, reported as a message instead of an exception */
+    private String validateSlot(String region, SlotQuery q, LocalTime end) {
+        String closed = workingCalendar.closedReason(region, q.date(), null);
+        if (closed != null) {
+            return closed;
+        }
+        if (!WorkHoursValidator.isValidStartTime(q.startTime())) {
+            return "Start time must be >= 08:00";
+        }
+        if (!WorkHoursValidator.isValidEndTime(end)) {
+            return "Booking must end before 22:00";
+        }
+        if (!slotTemplate.allows(q.durationMinutes())) {
+            return "Duration must be " + slotTemplate.durationsText() + " minutes.";
+        }
+        if (!slotTemplate.startsAt(q.startTime(), q.durationMinutes())) {
+            return slotTemplate.startsText();
+        }
+        return workingCalendar.closedReason(region, q.date(), new TimeWindow(q.startTime(), end));
+    }
+
+    private List<CleanerProfessional> roster(String region) {
+        return RosterLoadEvent.record("availability", () -> cleanerRepository.findAllWithVehicleInRegion(region));
+    }
+
+    /**
+     * Runs a single-date read through the breaker and records it as the snapshot;
+     * falls back to the snapshot, marked stale, when the breaker is open or the read fails.
+     */
+    private <T> T withSnapshot(
+            AvailabilityRequest key,
+            Map<AvailabilityRequest, T> store,
+            UnaryOperator<T> asStale,
+            Supplier<T> compute
+    ) {
+        try {
+            T result = availabilityCircuitBreaker.call(() -> timed(compute));
+            store.put(key, result);
+            return result;
+        } catch (CircuitBreaker.OpenException | DataAccessException | PersistenceException ex) {
+            T snapshot = store.get(key);
+            if (snapshot == null) {
+                throw unavailable(ex);
+            }
+            log.warn("Serving stale availability for {}: {}", key, ex.getMessage());
+            return asStale.apply(snapshot);
+        }
+    }
+
+    /** Multi-date reads have no snapshot; they fail fast while the database is degraded. */
+    private <T> T guarded(Supplier<T> compute) {
+        try {
+            return availabilityCircuitBreaker.call(() -> timed(compute));
+        } catch (CircuitBreaker.OpenException | DataAccessException | PersistenceException ex) {
+            throw unavailable(ex);
+        }
+    }
+
+    /**
+     * Runs a read within the read timeout. A timed-out transaction is reported like a
+     * timed-out query, so the breaker and the snapshot fallback treat both alike.
+     */
+    private <T> T timed(Supplier<T> read) {
+        try {
+            return readTx.execute(status -> read.get());
+        } catch (TransactionTimedOutException ex) {
+            throw new QueryTimeoutException(ex.getMessage(), ex);
+        }
+    }
+
+    private static ServiceUnavailableException unavailable(RuntimeException cause) {
+        log.warn("Availability unavailable: {}", cause.getMessage());
+        return new ServiceUnavailableException("Availability is temporarily unavailable, please retry shortly.");
+    }
+
+    private static <V> Map<AvailabilityRequest, V> snapshotMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AvailabilityRequest, V> eldest) {
+                return size() > SNAPSHOT_SIZE;
+            }
+        });
+    }
+}
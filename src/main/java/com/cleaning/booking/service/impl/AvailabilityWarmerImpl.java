@@ -0,0 +1,277 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.AvailabilityRequest;
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.event.RosterChangedEvent;
+import com.cleaning.booking.service.AdmissionLoad;
+import com.cleaning.booking.service.AvailabilityPayloadCache;
+import com.cleaning.booking.service.AvailabilityService;
+import com.cleaning.booking.service.AvailabilityWarmer;
+import com.cleaning.booking.service.CacheInvalidationBus;
+import com.cleaning.booking.service.DataVersionService;
+import com.cleaning.booking.service.RegionRouter;
+import com.cleaning.booking.service.WorkingCalendarService;
+import com.cleaning.booking.util.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background warm-up of daily availability for the next {@code availability.warmup.days}
+ * working days of every region this node serves.
+ *
+ * <p>Answers go into the {@link AvailabilityPayloadCache} under the same versioned keys
+ * the controller reads, so the first user read of a date is a cache hit. Dates are
+ * queued again {@code availability.warmup.refresh-delay-ms} after a booking, roster or
+ * remote change invalidates them (the delay also folds bursts of changes into one
+ * recompute), and the whole range is re-planned every {@code availability.warmup.interval-ms}.</p>
+ *
+ * <p>Live traffic goes first: the work runs on {@code availability.warmup.threads}
+ * threads, each queued date waits while {@code availability.warmup.max-inflight} or more
+ * API requests are in flight ({@link AdmissionLoad}) or the availability breaker is open,
+ * and at most {@code availability.warmup.max-queued} dates wait at a time (further ones
+ * are dropped until the next plan). Nothing is warmed while the cache invalidation bus is not
+ * coherent, since availability is then never served from the cache.</p>
+ */
+@Slf4j
+@Service
+public class AvailabilityWarmerImpl implements AvailabilityWarmer {
+
+    /** Calendar days scanned for working days, per region. */
+    static final int MAX_SCAN_DAYS = 366;
+
+    private final AvailabilityService availabilityService;
+    private final AvailabilityPayloadCache availabilityPayloadCache;
+    private final DataVersionService dataVersionService;
+    private final RegionRouter regionRouter;
+    private final WorkingCalendarService workingCalendar;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final CircuitBreaker availabilityCircuitBreaker;
+    private final AdmissionLoad admissionLoad;
+    private final boolean enabled;
+    private final int days;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final long refreshDelayMs;
+    private final long pauseMs;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Set<Warmup> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean replanQueued = new AtomicBoolean();
+    private volatile List<String> regions = List.of();
+
+    private final Counter warmed;
+    private final Counter failed;
+    private final Counter dropped;
+
+    public AvailabilityWarmerImpl(
+            AvailabilityService availabilityService,
+            AvailabilityPayloadCache availabilityPayloadCache,
+            DataVersionService dataVersionService,
+            RegionRouter regionRouter,
+            WorkingCalendarService workingCalendar,
+            CacheInvalidationBus cacheInvalidationBus,
+            CircuitBreaker availabilityCircuitBreaker,
+            AdmissionLoad admissionLoad,
+            MeterRegistry meterRegistry,
+            @Value("${availability.warmup.enabled:true}") boolean enabled,
+            @Value("${availability.warmup.days:14}") int days,
+            @Value("${availability.warmup.threads:1}") int threads,
+            @Value("${availability.warmup.max-inflight:8}") int maxInFlight,
+            @Value("${availability.warmup.max-queued:1000}") int maxQueued,
+            @Value("${availability.warmup.refresh-delay-ms:1000}") long refreshDelayMs,
+            @Value("${availability.warmup.pause-ms:200}") long pauseMs
+    ) {
+        this.availabilityService = availabilityService;
+        this.availabilityPayloadCache = availabilityPayloadCache;
+        this.dataVersionService = dataVersionService;
+        this.regionRouter = regionRouter;
+        this.workingCalendar = workingCalendar;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.availabilityCircuitBreaker = availabilityCircuitBreaker;
+        this.admissionLoad = admissionLoad;
+        this.enabled = enabled;
+        this.days = days;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.refreshDelayMs = refreshDelayMs;
+        this.pauseMs = pauseMs;
+
+        this.executor = new ScheduledThreadPoolExecutor(threads, Thread.ofPlatform()
+                .name("availability-warmup-", 0)
+                .daemon(true)
+                .factory());
+        this.executor.setRemoveOnCancelPolicy(true);
+
+        this.warmed = Counter.builder("availability.warmup").tag("outcome", "warmed").register(meterRegistry);
+        this.failed = Counter.builder("availability.warmup").tag("outcome", "failed").register(meterRegistry);
+        this.dropped = Counter.builder("availability.warmup").tag("outcome", "dropped").register(meterRegistry);
+        Gauge.builder("availability.warmup.pending", queued, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Plans the warm-up of every upcoming working day. Runs on the warm-up threads, since
+     * reading the regions of the fleet is a query.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${availability.warmup.interval-ms:600000}",
+            initialDelayString = "${availability.warmup.initial-delay-ms:5000}")
+    public void warmUpcoming() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            executor.execute(this::plan);
+        } catch (RejectedExecutionException ex) {
+            log.debug("Availability warm-up not planned, executor is shut down");
+        }
+    }
+
+    @Override
+    public int pending() {
+        return queued.size();
+    }
+
+    /** Recomputes the dates a committed booking transaction changed. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        refresh(event.dates());
+    }
+
+    /** A roster or calendar change touches every date. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRosterChanged(RosterChangedEvent event) {
+        replan();
+    }
+
+    /** Recomputes what other nodes changed, once the invalidation bus delivers it. */
+    @EventListener
+    public void onRemoteChange(CacheInvalidatedEvent event) {
+        if (event.roster()) {
+            replan();
+        } else {
+            refresh(event.dates());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void plan() {
+        List<String> local = regionRouter.localRegions();
+        regions = local;
+        LocalDate today = LocalDate.now();
+        int queuedBefore = queued.size();
+        for (String region : local) {
+            int found = 0;
+            for (int d = 0; d < MAX_SCAN_DAYS && found < days; d++) {
+                LocalDate date = today.plusDays(d);
+                if (workingCalendar.isWorkingDay(region, date)) {
+                    enqueue(new Warmup(region, date), 0);
+                    found++;
+                }
+            }
+        }
+        log.debug("Availability warm-up planned for {} regions, {} dates queued", local.size(), queued.size() - queuedBefore);
+    }
+
+    /**
+     * Plans every date again {@code refreshDelayMs} from now, after the roster version the
+     * plan is keyed by has been bumped. A burst of roster changes shares one plan.
+     */
+    private void replan() {
+        if (!enabled || !replanQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.schedule(() -> {
+                replanQueued.set(false);
+                plan();
+            }, refreshDelayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            replanQueued.set(false);
+        }
+    }
+
+    private void refresh(Collection<LocalDate> dates) {
+        if (!enabled) {
+            return;
+        }
+        // Availability tags are per date, so a change re-keys every region's entry
+        LocalDate today = LocalDate.now();
+        LocalDate last = today.plusDays(MAX_SCAN_DAYS);
+        for (LocalDate date : dates) {
+            if (date.isBefore(today) || date.isAfter(last)) {
+                continue;
+            }
+            for (String region : regions) {
+                enqueue(new Warmup(region, date), refreshDelayMs);
+            }
+        }
+    }
+
+    private void enqueue(Warmup warmup, long delayMs) {
+        if (queued.size() >= maxQueued) {
+            dropped.increment();
+            return;
+        }
+        if (!queued.add(warmup)) {
+            return;
+        }
+        try {
+            executor.schedule(() -> run(warmup), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            queued.remove(warmup);
+        }
+    }
+
+    private void run(Warmup warmup) {
+        if (busy()) {
+            executor.schedule(() -> run(warmup), pauseMs, TimeUnit.MILLISECONDS);
+            return;
+        }
+        // Dequeued before computing, so a change that lands meanwhile queues the date again
+        queued.remove(warmup);
+
+        if (!cacheInvalidationBus.isCoherent() || !regionRouter.isLocal(warmup.region())
+                || !workingCalendar.isWorkingDay(warmup.region(), warmup.date())) {
+            return;
+        }
+        AvailabilityRequest request = new AvailabilityRequest(warmup.date(), null, null, warmup.region());
+        try {
+            String key = AvailabilityPayloadCache.key(dataVersionService.availabilityTag(warmup.date()), request);
+            availabilityPayloadCache.get(key, () -> availabilityService.checkAvailability(request));
+            warmed.increment();
+        } catch (RuntimeException ex) {
+            failed.increment();
+            log.debug("Availability warm-up failed for {} {}: {}", warmup.region(), warmup.date(), ex.getMessage());
+        }
+    }
+
+    /** Whether live traffic should go first. */
+    private boolean busy() {
+        return availabilityCircuitBreaker.isOpen() || admissionLoad.inFlight() >= maxInFlight;
+    }
+
+    private record Warmup(String region, LocalDate date) {}
+}
@@ -0,0 +1,109 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.service.AssignmentStrategy;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
+import com.cleaning.booking.util.TimeWindow;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fragmentation-minimizing assignment.
+ *
+ * <p>Each cleaner is scored by the free run the window would be cut from: the tighter
+ * the fit the better, and a leftover gap too short for the shortest offered job (after
+ * the configured breaks) is penalised as stranded time. Vehicles are then scored by the
+ * sum of their chosen cleaners' costs plus the number of free cleaners they would
+ * have left over, so partially used vehicles fill up first and idle vehicles stay
+ * whole for later multi-cleaner requests.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "booking.assignment.strategy", havingValue = "best-fit", matchIfMissing = true)
+public class BestFitAssignmentStrategy implements AssignmentStrategy {
+
+    /** One stranded slot weighs more than one stranded cleaner. */
+    private static final int GAP_WEIGHT = 8;
+
+    private final int breakSlots;
+    private final int shortestJobSlots;
+
+    public BestFitAssignmentStrategy(SlotTemplate slotTemplate) {
+        this.breakSlots = slotTemplate.breakMinutes() / SlotMask.SLOT_MINUTES;
+        this.shortestJobSlots = slotTemplate.durations().get(0) / SlotMask.SLOT_MINUTES;
+    }
+
+    @Override
+    public List<CleanerProfessional> pick(
+            List<CleanerProfessional> available,
+            int count,
+            TimeWindow window,
+            Map<Long, Long> occupancy
+    ) {
+        int startSlot = SlotMask.slotIndex(window.start());
+        int endSlot = SlotMask.slotIndexCeil(window.end());
+
+        // Vehicle id order keeps ties deterministic.
+        Map<Long, List<Candidate>> byVehicle = new TreeMap<>();
+        for (CleanerProfessional c : available) {
+            // Candidates already keep the configured break to their bookings
+            long occ = occupancy.getOrDefault(c.getId(), 0L);
+            int cost = fitCost(occ, startSlot, endSlot);
+            byVehicle.computeIfAbsent(c.getVehicle().getId(), k -> new ArrayList<>())
+                    .add(new Candidate(c, cost, Long.bitCount(occ)));
+        }
+
+        List<Candidate> best = null;
+        int bestScore = Integer.MAX_VALUE;
+
+        for (List<Candidate> candidates : byVehicle.values()) {
+            if (candidates.size() < count) {
+                continue;
+            }
+            candidates.sort(Comparator
+                    .comparingInt(Candidate::cost)
+                    .thenComparing(Comparator.comparingInt(Candidate::busySlots).reversed())
+                    .thenComparing(x -> x.cleaner().getId()));
+
+            int score = candidates.size() - count;
+            for (int i = 0; i < count; i++) {
+                score += candidates.get(i).cost();
+            }
+            if (score < bestScore) {
+                bestScore = score;
+                best = candidates;
+            }
+        }
+
+        if (best == null) {
+            return List.of();
+        }
+        return best.subList(0, count).stream().map(Candidate::cleaner).toList();
+    }
+
+    /** Slack around the window for one cleaner, with stranded slots weighted up. */
+    int fitCost(long occupancy, int startSlot, int endSlot) {
+        int before = SlotMask.freeBefore(occupancy, startSlot);
+        int after = SlotMask.freeAfter(occupancy, endSlot);
+        boolean bookedBefore = before < startSlot;
+        boolean bookedAfter = endSlot + after < SlotMask.SLOTS_PER_DAY;
+        int stranded = waste(before, bookedBefore) + waste(after, bookedAfter);
+        return GAP_WEIGHT * stranded + before + after;
+    }
+
+    private int waste(int gap, boolean boundedByBooking) {
+        if (gap == 0) {
+            return 0;
+        }
+        int usable = gap - breakSlots - (boundedByBooking ? breakSlots : 0);
+        return usable > 0 && usable < shortestJobSlots ? usable : 0;
+    }
+
+    private record Candidate(CleanerProfessional cleaner, int cost, int busySlots) {}
+}
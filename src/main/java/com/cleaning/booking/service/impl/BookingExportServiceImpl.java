@@ -0,0 +1,125 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.BookingExportRow;
+import com.cleaning.booking.dto.ExportFormat;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.service.BookingExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Streams booking history for reporting.
+ *
+ * <p>Rows are read as flat projections in keyset-ordered chunks of
+ * {@code reports.export.chunk-size}, each in its own short read-only transaction.
+ * A chunk is written out only after its transaction ends, so memory stays at one
+ * chunk and no connection is held while a slow client drains the response.</p>
+ */
+@Slf4j
+@Service
+public class BookingExportServiceImpl implements BookingExportService {
+
+    private static final String CSV_HEADER =
+            "booking_id,date,start_time,end_time,cleaner_id,cleaner_name,vehicle_id,vehicle_name\n";
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public BookingExportServiceImpl(
+            BookingRepository bookingRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${reports.export.chunk-size:5000}") int chunkSize
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public long export(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting bookings {} to {} as {}", from, to, format);
+
+        OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        LocalDate afterDate = from;
+        long afterId = 0L;
+        long total = 0L;
+
+        while (true) {
+            LocalDate keyDate = afterDate;
+            long keyId = afterId;
+            List<BookingExportRow> chunk = readOnlyTx.execute(status ->
+                    bookingRepository.findExportChunk(keyDate, keyId, to, Limit.of(chunkSize)));
+
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+
+            for (BookingExportRow row : chunk) {
+                if (format == ExportFormat.CSV) {
+                    buffered.write(toCsv(row).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    buffered.write(objectMapper.writeValueAsBytes(row));
+                    buffered.write('\n');
+                }
+            }
+            buffered.flush();
+
+            total += chunk.size();
+            BookingExportRow last = chunk.get(chunk.size() - 1);
+            afterDate = last.date();
+            afterId = last.bookingId();
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        buffered.flush();
+        log.info("Exported {} booking rows", total);
+        return total;
+    }
+
+    private static String toCsv(BookingExportRow row) {
+        return row.bookingId() + ","
+                + row.date() + ","
+                + row.startTime() + ","
+                + row.endTime() + ","
+                + row.cleanerId() + ","
+                + csvText(row.cleanerName()) + ","
+                + row.vehicleId() + ","
+                + csvText(row.vehicleName()) + "\n";
+    }
+
+    /** Quotes free text and neutralises spreadsheet formula prefixes. */
+    private static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+        String safe = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (safe.contains(",") || safe.contains("\"") || safe.contains("\n") || safe.contains("\r")) {
+            return "\"" + safe.replace("\"", "\"\"") + "\"";
+        }
+        return safe;
+    }
+}
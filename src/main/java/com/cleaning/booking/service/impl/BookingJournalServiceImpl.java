@@ -0,0 +1,500 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.dto.JournalReceipt;
+import com.cleaning.booking.dto.JournalState;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.JournalOutcome;
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.EntityNotFoundException;
+import com.cleaning.booking.exception.OverlapException;
+import com.cleaning.booking.exception.RegionNotLocalException;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.JournalOutcomeRepository;
+import com.cleaning.booking.service.AssignmentStrategy;
+import com.cleaning.booking.service.BookingJournalService;
+import com.cleaning.booking.service.BookingService;
+import com.cleaning.booking.service.DataVersionService;
+import com.cleaning.booking.service.OccupancyStore;
+import com.cleaning.booking.service.ReservationOverlay;
+import com.cleaning.booking.service.WorkingCalendarService;
+import com.cleaning.booking.util.BookingJournal;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
+import com.cleaning.booking.util.TimeWindow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Journaled booking intake (optional durability mode, {@code booking.journal.enabled}).
+ *
+ * <p>A request is assigned cleaners in memory, against the occupancy store plus the
+ * {@link ReservationOverlay}, appended to the {@link BookingJournal} and acknowledged as
+ * soon as the group commit has forced it to disk. No database lock or INSERT is on the
+ * request path. The cleaners stay claimed in the overlay until the entry is drained, so
+ * synchronous bookings and availability on this node treat them as taken.</p>
+ *
+ * <p>A background stage drains the journal in order, {@code booking.journal.batch-size}
+ * entries per transaction, through {@link BookingService#createReservedBooking}. Each
+ * entry carries an idempotency key derived from the journal id and sequence, so entries
+ * replayed after a crash between the database commit and the journal checkpoint are not
+ * booked twice. If a batch fails, its entries are retried one by one; an entry that can
+ * no longer be booked at all (including a region that moved to another node) is marked
+ * REJECTED, and its dates announced as changed since its claim is dropped. Other errors
+ * stop the drain at that entry until the next run; while the database is unreachable
+ * this goes on indefinitely, otherwise the entry is rejected after
+ * {@code booking.journal.max-attempts} failed runs so it cannot block the entries behind it.</p>
+ *
+ * <p>Outcomes are stored in {@code booking_journal_outcome} with the booking (or the
+ * rejection), for {@code booking.journal.outcome-ttl-hours}, so {@link #status} answers
+ * after a restart and on every node.</p>
+ *
+ * <p>Other nodes do not see the overlay, so the mode is meant for a node that is the
+ * main writer for the dates it accepts.</p>
+ */
+@Slf4j
+@Service
+public class BookingJournalServiceImpl implements BookingJournalService {
+
+    /** Outcomes of this node's journal kept in memory for status lookups. */
+    static final int OUTCOME_CACHE_SIZE = 10_000;
+
+    /** Longest stored rejection reason. */
+    static final int MAX_REASON_LENGTH = 255;
+
+    /** Picks tried when concurrent synchronous bookings keep claiming the chosen cleaners. */
+    static final int RESERVE_ATTEMPTS = 3;
+
+    private final BookingService bookingService;
+    private final CleanerRepository cleanerRepository;
+    private final JournalOutcomeRepository outcomeRepository;
+    private final OccupancyStore occupancyStore;
+    private final ReservationOverlay reservationOverlay;
+    private final AssignmentStrategy assignmentStrategy;
+    private final WorkingCalendarService workingCalendar;
+    private final SlotTemplate slotTemplate;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate tx;
+    private final BookingJournal journal;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int outcomeTtlHours;
+
+    private final Deque<BookingJournal.Entry> pending = new ArrayDeque<>();
+    private final Map<Long, JournalReceipt> outcomes = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, JournalReceipt> eldest) {
+                    return size() > OUTCOME_CACHE_SIZE;
+                }
+            });
+    /** Failed drain runs per entry; only touched by the drain. */
+    private final Map<Long, Integer> failures = new HashMap<>();
+
+    private final Counter booked;
+    private final Counter rejected;
+
+    private final Map<String, List<CleanerProfessional>> rosters = new HashMap<>();
+    private long rosterVersion = -1;
+
+    public BookingJournalServiceImpl(
+            BookingService bookingService,
+            CleanerRepository cleanerRepository,
+            JournalOutcomeRepository outcomeRepository,
+            OccupancyStore occupancyStore,
+            ReservationOverlay reservationOverlay,
+            AssignmentStrategy assignmentStrategy,
+            WorkingCalendarService workingCalendar,
+            SlotTemplate slotTemplate,
+            DataVersionService dataVersionService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${booking.journal.enabled:false}") boolean enabled,
+            @Value("${booking.journal.path:data/booking.journal}") String path,
+            @Value("${booking.journal.capacity-mb:64}") int capacityMb,
+            @Value("${booking.journal.batch-size:100}") int batchSize,
+            @Value("${booking.journal.max-attempts:5}") int maxAttempts,
+            @Value("${booking.journal.outcome-ttl-hours:168}") int outcomeTtlHours
+    ) {
+        this.bookingService = bookingService;
+        this.cleanerRepository = cleanerRepository;
+        this.outcomeRepository = outcomeRepository;
+        this.occupancyStore = occupancyStore;
+        this.reservationOverlay = reservationOverlay;
+        this.assignmentStrategy = assignmentStrategy;
+        this.workingCalendar = workingCalendar;
+        this.slotTemplate = slotTemplate;
+        this.dataVersionService = dataVersionService;
+        this.eventPublisher = eventPublisher;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.outcomeTtlHours = outcomeTtlHours;
+        this.booked = Counter.builder("booking.journal.drained").tag("outcome", "booked").register(meterRegistry);
+        this.rejected = Counter.builder("booking.journal.drained").tag("outcome", "rejected").register(meterRegistry);
+        Gauge.builder("booking.journal.pending", pending, p -> pendingCount()).register(meterRegistry);
+
+        if (!enabled) {
+            this.journal = null;
+            return;
+        }
+        try {
+            this.journal = BookingJournal.open(Path.of(path), (long) capacityMb * 1024 * 1024);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open booking journal " + path, ex);
+        }
+        pending.addAll(journal.undrained());
+        for (BookingJournal.Entry entry : pending) {
+            BookingRequest request = entry.request();
+            reservationOverlay.tryReserve(idempotencyKey(entry.seq()), request.region(), request.date(),
+                    SlotMask.of(window(request)), entry.cleanerIds());
+        }
+        log.info("Booking journal {} opened, {} undrained entries to replay", path, pending.size());
+    }
+
+    @Override
+    public JournalReceipt submit(BookingRequest request) {
+        if (journal == null) {
+            return JournalReceipt.booked(bookingService.createBooking(request));
+        }
+
+        BookingServiceImpl.validateRequest(request, workingCalendar, slotTemplate);
+
+        BookingJournal.Entry entry;
+        try {
+            entry = reserve(request);
+        } catch (BookingJournal.FullException ex) {
+            log.warn("Booking journal is full, booking synchronously");
+            entry = null;
+        }
+        if (entry == null) {
+            return JournalReceipt.booked(bookingService.createBooking(request));
+        }
+
+        journal.awaitDurable(entry.seq());
+        log.info("Journaled booking {} for cleaners {}", entry.seq(), entry.cleanerIds());
+        return JournalReceipt.accepted(journal.id(), entry.seq(), entry.cleanerIds());
+    }
+
+    @Override
+    public Optional<JournalReceipt> status(String journalId, long seq) {
+        boolean local = journal != null && (journalId == null || journalId.equals(journal.id()));
+        if (local) {
+            JournalReceipt known = outcomes.get(seq);
+            if (known == null) {
+                known = pendingStatus(seq);
+            }
+            if (known != null) {
+                return Optional.of(known);
+            }
+        }
+        String id = local ? journal.id() : journalId;
+        if (id == null) {
+            return Optional.empty();
+        }
+        return outcomeRepository.findById(entryKey(id, seq)).map(outcome -> toReceipt(id, seq, outcome));
+    }
+
+    /** Drops outcomes past their retention; the in-memory ones age out on their own. */
+    @Scheduled(fixedDelayString = "${booking.journal.purge-interval-ms:3600000}")
+    public void purgeOutcomes() {
+        Integer removed = tx.execute(status ->
+                outcomeRepository.deleteOlderThan(LocalDateTime.now().minusHours(outcomeTtlHours)));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} journaled booking outcomes", removed);
+        }
+    }
+
+    /**
+     * Writes the oldest journaled bookings to the database.
+     */
+    @Scheduled(fixedDelayString = "${booking.journal.drain-interval-ms:50}")
+    public void drain() {
+        if (journal == null) {
+            return;
+        }
+
+        List<BookingJournal.Entry> batch;
+        synchronized (this) {
+            batch = pending.stream().limit(batchSize).toList();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<JournalReceipt> results;
+        try {
+            results = tx.execute(status -> batch.stream().map(this::book).toList());
+        } catch (RuntimeException ex) {
+            // The entry that failed logs the stack trace
+            log.warn("Journal batch {}-{} failed ({}), draining entries one by one",
+                    batch.get(0).seq(), batch.get(batch.size() - 1).seq(), ex.toString());
+            results = drainOneByOne(batch);
+        }
+        if (results == null || results.isEmpty()) {
+            return;
+        }
+
+        journal.markDrained(results.get(results.size() - 1).seq());
+        synchronized (this) {
+            for (JournalReceipt result : results) {
+                pending.removeFirst();
+                outcomes.put(result.seq(), result);
+                failures.remove(result.seq());
+            }
+        }
+
+        // Booked entries are committed (and in the occupancy store) by now; rejected ones free their cleaners
+        Set<LocalDate> freed = new HashSet<>();
+        List<Long> freedCleaners = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            JournalReceipt result = results.get(i);
+            reservationOverlay.release(idempotencyKey(result.seq()));
+            if (result.booking() != null) {
+                booked.increment();
+            } else {
+                rejected.increment();
+                freed.add(batch.get(i).request().date());
+                freedCleaners.addAll(batch.get(i).cleanerIds());
+            }
+        }
+        if (!freed.isEmpty()) {
+            eventPublisher.publishEvent(new BookingChangedEvent(freed, freedCleaners));
+        }
+        log.debug("Drained {} journaled bookings up to {}", results.size(), results.get(results.size() - 1).seq());
+    }
+
+    /**
+     * Drains entries in their own transactions. Bookings that cannot be made are
+     * rejected; any other failure stops at that entry, which is rejected once it has
+     * failed {@code maxAttempts} runs (unless the database is unreachable).
+     */
+    private List<JournalReceipt> drainOneByOne(List<BookingJournal.Entry> batch) {
+        List<JournalReceipt> results = new ArrayList<>();
+        for (BookingJournal.Entry entry : batch) {
+            JournalReceipt result;
+            try {
+                result = tx.execute(status -> book(entry));
+            } catch (BadRequestException | OverlapException | EntityNotFoundException | RegionNotLocalException ex) {
+                log.warn("Journaled booking {} rejected: {}", entry.seq(), ex.getMessage());
+                result = reject(entry, ex.getMessage());
+            } catch (RuntimeException ex) {
+                if (unavailable(ex)) {
+                    log.warn("Journaled booking {} not drained, database unavailable: {}", entry.seq(), ex.getMessage());
+                    break;
+                }
+                int attempts = failures.merge(entry.seq(), 1, Integer::sum);
+                if (attempts < maxAttempts) {
+                    if (attempts == 1) {
+                        log.warn("Journaled booking {} could not be drained, retrying later", entry.seq(), ex);
+                    } else {
+                        log.debug("Journaled booking {} failed again ({} of {} attempts): {}",
+                                entry.seq(), attempts, maxAttempts, ex.getMessage());
+                    }
+                    break;
+                }
+                log.error("Journaled booking {} failed {} times, rejecting it", entry.seq(), attempts, ex);
+                result = reject(entry, "Could not be stored: " + ex.getMessage());
+            }
+            if (result == null) {
+                break;
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /** Books an entry and stores its outcome, in the caller's transaction. */
+    private JournalReceipt book(BookingJournal.Entry entry) {
+        BookingResponse response = bookingService.createReservedBooking(
+                entry.request(), entry.cleanerIds(), idempotencyKey(entry.seq()));
+        JournalReceipt receipt = JournalReceipt.booked(journal.id(), entry.seq(), response);
+        outcomeRepository.save(toOutcome(entry, receipt));
+        return receipt;
+    }
+
+    /**
+     * Stores the rejection of an entry.
+     *
+     * @return the receipt, or {@code null} if it could not be stored (the entry is retried).
+     */
+    private JournalReceipt reject(BookingJournal.Entry entry, String reason) {
+        String stored = reason == null || reason.length() <= MAX_REASON_LENGTH ? reason : reason.substring(0, MAX_REASON_LENGTH);
+        JournalReceipt receipt = JournalReceipt.rejected(journal.id(), entry.seq(), entry.cleanerIds(), stored);
+        try {
+            tx.executeWithoutResult(status -> outcomeRepository.save(toOutcome(entry, receipt)));
+            return receipt;
+        } catch (RuntimeException ex) {
+            log.warn("Rejection of journaled booking {} not stored, retrying later: {}", entry.seq(), ex.getMessage());
+            return null;
+        }
+    }
+
+    /** Whether the failure is the database being unreachable rather than the entry. */
+    private static boolean unavailable(RuntimeException ex) {
+        return ex instanceof DataAccessResourceFailureException
+                || ex instanceof TransientDataAccessException
+                || ex instanceof CannotCreateTransactionException;
+    }
+
+    /**
+     * Assigns cleaners against committed plus journaled occupancy and appends the entry.
+     *
+     * @return the entry, or {@code null} when the date is outside the occupancy store
+     *         (or the region is served by another node).
+     */
+    private synchronized BookingJournal.Entry reserve(BookingRequest request) {
+        // A synchronous booking may claim cleaners between reading the overlay and claiming; pick again then
+        for (int attempt = 0; attempt < RESERVE_ATTEMPTS; attempt++) {
+            Map<Long, Long> committed = occupancyStore.occupancy(request.region(), request.date());
+            if (committed == null) {
+                return null;
+            }
+
+            Map<Long, Long> occupancy = new HashMap<>(committed);
+            reservationOverlay.reserved(request.region(), request.date())
+                    .forEach((cleanerId, mask) -> occupancy.merge(cleanerId, mask, (x, y) -> x | y));
+
+            TimeWindow window = window(request);
+            long windowMask = SlotMask.of(window);
+            List<CleanerProfessional> available = roster(request.region()).stream()
+                    .filter(c -> slotTemplate.fits(occupancy.getOrDefault(c.getId(), 0L),
+                            workingCalendar.cleanerSlots(request.region(), c.getId(), request.date()), windowMask))
+                    .toList();
+
+            if (available.size() < request.cleanerCount()) {
+                throw new BadRequestException("Not enough cleaners available for this slot.");
+            }
+
+            List<CleanerProfessional> chosen = assignmentStrategy.pick(available, request.cleanerCount(), window, occupancy);
+            if (chosen.isEmpty()) {
+                throw new BadRequestException("No vehicle has enough available cleaners.");
+            }
+
+            List<Long> ids = chosen.stream().map(CleanerProfessional::getId).toList();
+            String key = idempotencyKey(journal.nextSeq());
+            if (!reservationOverlay.tryReserve(key, request.region(), request.date(), windowMask, ids)) {
+                continue;
+            }
+
+            BookingJournal.Entry entry;
+            try {
+                entry = journal.append(request, ids);
+            } catch (RuntimeException ex) {
+                reservationOverlay.release(key);
+                throw ex;
+            }
+            pending.addLast(entry);
+            return entry;
+        }
+        throw new OverlapException("Cleaners for this slot were just taken, please retry.");
+    }
+
+    /** The region's roster, re-read only when the roster version moved. */
+    private List<CleanerProfessional> roster(String region) {
+        long version = dataVersionService.rosterVersion();
+        if (version != rosterVersion) {
+            rosters.clear();
+            rosterVersion = version;
+        }
+        List<CleanerProfessional> roster = rosters.get(region);
+        if (roster == null) {
+            roster = cleanerRepository.findAllWithVehicleInRegion(region);
+            // Only real regions are kept; request-supplied names must not grow the map
+            if (!roster.isEmpty()) {
+                rosters.put(region, roster);
+            }
+        }
+        return roster;
+    }
+
+    private synchronized JournalReceipt pendingStatus(long seq) {
+        return pending.stream()
+                .filter(e -> e.seq() == seq)
+                .findFirst()
+                .map(e -> JournalReceipt.accepted(journal.id(), e.seq(), e.cleanerIds()))
+                .orElse(null);
+    }
+
+    private synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Idempotency key of an entry, also the key of its claim in the {@link ReservationOverlay}
+     * and of its stored outcome.
+     */
+    private String idempotencyKey(long seq) {
+        return entryKey(journal.id(), seq);
+    }
+
+    private static String entryKey(String journalId, long seq) {
+        return "journal-" + journalId + "-" + seq;
+    }
+
+    private JournalOutcome toOutcome(BookingJournal.Entry entry, JournalReceipt receipt) {
+        BookingRequest request = entry.request();
+        return JournalOutcome.builder()
+                .key(idempotencyKey(entry.seq()))
+                .state(receipt.state())
+                .bookingId(receipt.booking() != null ? receipt.booking().bookingId() : null)
+                .date(request.date())
+                .startTime(request.startTime())
+                .endTime(request.startTime().plusMinutes(request.durationMinutes()))
+                .cleanerIds(receipt.assignedCleaners().stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(",")))
+                .reason(receipt.reason())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static JournalReceipt toReceipt(String journalId, long seq, JournalOutcome outcome) {
+        List<Long> cleanerIds = Arrays.stream(outcome.getCleanerIds().split(","))
+                .map(Long::valueOf)
+                .toList();
+        if (outcome.getState() == JournalState.BOOKED) {
+            return JournalReceipt.booked(journalId, seq, new BookingResponse(outcome.getBookingId(),
+                    outcome.getDate(), outcome.getStartTime(), outcome.getEndTime(), cleanerIds));
+        }
+        return JournalReceipt.rejected(journalId, seq, cleanerIds, outcome.getReason());
+    }
+
+    private static TimeWindow window(BookingRequest request) {
+        return new TimeWindow(request.startTime(), request.startTime().plusMinutes(request.durationMinutes()));
+    }
+}
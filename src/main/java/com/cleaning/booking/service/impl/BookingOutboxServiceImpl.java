@@ -0,0 +1,249 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.BookingEvent;
+import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.dto.ChangeFeedResponse;
+import com.cleaning.booking.entity.OutboxCursor;
+import com.cleaning.booking.entity.OutboxEvent;
+import com.cleaning.booking.event.BookingLifecycleEvent;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.repository.OutboxCursorRepository;
+import com.cleaning.booking.repository.OutboxEventRepository;
+import com.cleaning.booking.service.BookingOutboxService;
+import com.cleaning.booking.service.OutboxSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for booking changes.
+ *
+ * <p>Every booking made or moved is written to {@code booking_outbox} by a listener that
+ * runs inside the booking transaction, so an event exists exactly when its booking rows
+ * were committed. Consumers either read the change feed by sequence or receive batches
+ * from the relay, which delivers to each {@link OutboxSink} from its own cursor in
+ * {@code booking_outbox_cursor}. Delivery is at least once.</p>
+ *
+ * <p>A batch is claimed and read in one short transaction, published with no transaction
+ * (or connection) held, and the cursor then advanced in a second one if it is still where
+ * the batch started. The claim lasts {@code outbox.relay.claim-ms}; a node that stalls
+ * longer than that may see another node deliver the same batch.</p>
+ *
+ * <p>Sequences are allocated at insert time but become visible at commit. Both the feed
+ * and the relay stop before a gap in the sequence until the event after it is older than
+ * {@code outbox.commit-grace-seconds}, so a reader that resumes from a sequence never
+ * skips an event that committed late.</p>
+ */
+@Slf4j
+@Service
+public class BookingOutboxServiceImpl implements BookingOutboxService {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final OutboxEventRepository eventRepository;
+    private final OutboxCursorRepository cursorRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final Duration commitGrace;
+    private final int retentionHours;
+    private final Duration claim;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public BookingOutboxServiceImpl(
+            OutboxEventRepository eventRepository,
+            OutboxCursorRepository cursorRepository,
+            List<OutboxSink> sinks,
+            PlatformTransactionManager transactionManager,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.commit-grace-seconds:30}") int commitGraceSeconds,
+            @Value("${outbox.retention-hours:168}") int retentionHours,
+            @Value("${outbox.relay.claim-ms:60000}") long claimMs
+    ) {
+        this.eventRepository = eventRepository;
+        this.cursorRepository = cursorRepository;
+        this.sinks = sinks;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.commitGrace = Duration.ofSeconds(commitGraceSeconds);
+        this.retentionHours = retentionHours;
+        this.claim = Duration.ofMillis(claimMs);
+        log.info("Outbox relay sinks: {}", sinks.stream().map(OutboxSink::name).toList());
+    }
+
+    /**
+     * Writes the outbox row. Runs synchronously in the booking transaction.
+     */
+    @EventListener
+    public void record(BookingLifecycleEvent event) {
+        BookingResponse booking = event.booking();
+        eventRepository.save(OutboxEvent.builder()
+                .type(event.type())
+                .bookingId(booking.bookingId())
+                .previousBookingId(event.previousBookingId())
+                .date(booking.date())
+                .startTime(booking.startTime())
+                .endTime(booking.endTime())
+                .cleanerIds(booking.assignedCleaners().stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(",")))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse changes(long afterSeq, int limit) {
+        if (afterSeq < 0) {
+            throw new BadRequestException("after must not be negative.");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        List<BookingEvent> events = settled(eventRepository.findAfter(afterSeq, Limit.of(limit)), afterSeq);
+        long nextSeq = events.isEmpty() ? afterSeq : events.get(events.size() - 1).seq();
+        return new ChangeFeedResponse(events, nextSeq);
+    }
+
+    /**
+     * Delivers pending events to every sink, one batch at a time. A failing sink is
+     * retried on the next run and does not hold back the others.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        for (OutboxSink sink : sinks) {
+            try {
+                int delivered;
+                do {
+                    delivered = relayBatch(sink);
+                } while (delivered == batchSize);
+            } catch (RuntimeException ex) {
+                log.warn("Outbox relay to {} failed, retrying later: {}", sink.name(), ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes events older than the retention period that every sink has received.
+     */
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        List<String> names = sinks.stream().map(OutboxSink::name).toList();
+        List<OutboxCursor> cursors = cursorRepository.findAllById(names);
+        if (cursors.size() < names.size()) {
+            return;
+        }
+        long delivered = cursors.stream().mapToLong(OutboxCursor::getSeq).min().orElse(Long.MAX_VALUE);
+
+        int removed = eventRepository.deleteDeliveredBefore(delivered, LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.info("Purged {} outbox events", removed);
+        }
+    }
+
+    /**
+     * Delivers the next batch to one sink. The cursor only moves if the sink accepted
+     * the batch and no other node moved it meanwhile.
+     */
+    private int relayBatch(OutboxSink sink) {
+        Batch batch = tx.execute(status -> claimBatch(sink));
+        if (batch == null) {
+            return 0;
+        }
+
+        try {
+            sink.publish(batch.events());
+        } catch (RuntimeException ex) {
+            try {
+                tx.executeWithoutResult(status -> cursorRepository.release(sink.name(), nodeId));
+            } catch (RuntimeException releaseEx) {
+                ex.addSuppressed(releaseEx);
+            }
+            throw ex;
+        }
+
+        long toSeq = batch.events().get(batch.events().size() - 1).seq();
+        Integer moved = tx.execute(status ->
+                cursorRepository.advance(sink.name(), batch.fromSeq(), toSeq, LocalDateTime.now()));
+        if (moved == null || moved == 0) {
+            log.warn("Outbox cursor of {} moved while relaying {}-{}, another node delivered them too",
+                    sink.name(), batch.events().get(0).seq(), toSeq);
+            return 0;
+        }
+        log.debug("Relayed outbox events {}-{} to {}", batch.events().get(0).seq(), toSeq, sink.name());
+        return batch.events().size();
+    }
+
+    /**
+     * Claims a sink's cursor and reads the batch after it.
+     *
+     * @return the batch, or {@code null} when another node holds the claim or nothing is pending.
+     */
+    private Batch claimBatch(OutboxSink sink) {
+        LocalDateTime now = LocalDateTime.now();
+        if (cursorRepository.claim(sink.name(), nodeId, now, now.plus(claim)) == 0) {
+            if (cursorRepository.existsById(sink.name())) {
+                return null;
+            }
+            cursorRepository.saveAndFlush(OutboxCursor.builder()
+                    .sink(sink.name())
+                    .seq(0L)
+                    .updatedAt(now)
+                    .claimedBy(nodeId)
+                    .claimedUntil(now.plus(claim))
+                    .build());
+        }
+
+        long fromSeq = cursorRepository.findById(sink.name()).map(OutboxCursor::getSeq).orElse(0L);
+        List<BookingEvent> events = settled(eventRepository.findAfter(fromSeq, Limit.of(batchSize)), fromSeq);
+        if (events.isEmpty()) {
+            cursorRepository.release(sink.name(), nodeId);
+            return null;
+        }
+        return new Batch(fromSeq, events);
+    }
+
+    /**
+     * Cuts the page at the first sequence gap that may still be an uncommitted
+     * transaction. Gaps followed by an event older than the grace period are taken
+     * to be rollbacks.
+     */
+    private List<BookingEvent> settled(List<OutboxEvent> rows, long afterSeq) {
+        LocalDateTime settledBefore = LocalDateTime.now().minus(commitGrace);
+        long expected = afterSeq + 1;
+        int count = 0;
+        for (OutboxEvent row : rows) {
+            if (row.getSeq() != expected && row.getCreatedAt().isAfter(settledBefore)) {
+                break;
+            }
+            expected = row.getSeq() + 1;
+            count++;
+        }
+        return rows.subList(0, count).stream().map(BookingOutboxServiceImpl::toEvent).toList();
+    }
+
+    private static BookingEvent toEvent(OutboxEvent row) {
+        List<Long> cleanerIds = Arrays.stream(row.getCleanerIds().split(","))
+                .map(Long::valueOf)
+                .toList();
+        return new BookingEvent(row.getSeq(), row.getType(), row.getBookingId(), row.getPreviousBookingId(),
+                row.getDate(), row.getStartTime(), row.getEndTime(), cleanerIds, row.getCreatedAt());
+    }
+
+    private record Batch(long fromSeq, List<BookingEvent> events) {}
+}
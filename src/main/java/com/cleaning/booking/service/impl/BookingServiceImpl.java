@@ -1,23 +1,49 @@
 package com.cleaning.booking.service.impl;
 
+import com.cleaning.booking.dto.BookingEventType;
 import com.cleaning.booking.dto.BookingRequest;
 import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.dto.OccurrenceConflict;
+import com.cleaning.booking.dto.RecurringBookingRequest;
+import com.cleaning.booking.dto.RecurringBookingResponse;
 import com.cleaning.booking.entity.Booking;
 import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.event.BookingLifecycleEvent;
 import com.cleaning.booking.exception.*;
+import com.cleaning.booking.monitoring.BookingAttemptEvent;
+import com.cleaning.booking.monitoring.RosterLoadEvent;
 import com.cleaning.booking.repository.BookingRepository;
 import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.service.AssignmentStrategy;
 import com.cleaning.booking.service.BookingService;
+import com.cleaning.booking.service.IdempotencyService;
+import com.cleaning.booking.service.RegionRouter;
+import com.cleaning.booking.service.ReservationOverlay;
+import com.cleaning.booking.service.WorkingCalendarService;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
 import com.cleaning.booking.util.TimeWindow;
 import com.cleaning.booking.util.WorkHoursValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,22 +53,60 @@ public class BookingServiceImpl implements BookingService {
 
     private final CleanerRepository cleanerRepository;
     private final BookingRepository bookingRepository;
+    private final AssignmentStrategy assignmentStrategy;
+    private final IdempotencyService idempotencyService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RegionRouter regionRouter;
+    private final WorkingCalendarService workingCalendar;
+    private final SlotTemplate slotTemplate;
+    private final ReservationOverlay reservationOverlay;
 
     @Override
     @Transactional
     public BookingResponse createBooking(BookingRequest request) {
+        BookingResponse response = bookAndRecordAttempt(request);
+        eventPublisher.publishEvent(new BookingLifecycleEvent(BookingEventType.CREATED, response, null));
+        return response;
+    }
+
+    /** Books the request and commits a {@link BookingAttemptEvent} describing the attempt. */
+    private BookingResponse bookAndRecordAttempt(BookingRequest request) {
+        BookingAttemptEvent attempt = new BookingAttemptEvent();
+        attempt.begin();
+        try {
+            BookingResponse response = book(request, attempt);
+            attempt.outcome = "BOOKED";
+            return response;
+        } catch (RuntimeException ex) {
+            attempt.outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            if (attempt.shouldCommit()) {
+                attempt.date = String.valueOf(request.date());
+                attempt.cleanersRequested = request.cleanerCount();
+                attempt.commit();
+            }
+        }
+    }
+
+    private BookingResponse book(BookingRequest request, BookingAttemptEvent attempt) {
         log.info("Creating booking: {}", request);
 
-        validateRequest(request);
+        regionRouter.requireLocal(request.region());
+        validateRequest(request, workingCalendar, slotTemplate);
 
         LocalTime endTime = request.startTime().plusMinutes(request.durationMinutes());
         TimeWindow window = new TimeWindow(request.startTime(), endTime);
+        long windowMask = SlotMask.of(window);
 
-        // Get all cleaners sorted by vehicle grouping.
-        List<CleanerProfessional> allCleaners = cleanerRepository.findAllWithVehicle();
+        // Get the region's cleaners sorted by vehicle grouping.
+        List<CleanerProfessional> allCleaners = RosterLoadEvent.record("booking",
+                () -> cleanerRepository.findAllWithVehicleInRegion(request.region()));
+        attempt.candidatesScanned = allCleaners.size();
 
-        // Filter cleaners by availability
+        // Filter cleaners by working calendar and availability
         List<CleanerProfessional> available = allCleaners.stream()
+                .filter(c -> SlotMask.within(workingCalendar.cleanerSlots(request.region(), c.getId(), request.date()), windowMask))
                 .filter(c -> cleanerRepository.isCleanerAvailable(
                         c.getId(),
                         request.date(),
@@ -55,34 +119,76 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Not enough cleaners available for this slot.");
         }
 
-        // Pick cleaners from SAME vehicle
-        List<CleanerProfessional> chosen = pickCleanersFromSameVehicle(available, request.cleanerCount());
+        // Pick cleaners from SAME vehicle, using the day's occupancy to avoid fragmenting schedules
+        // (and to keep the configured break, which the overlap query does not check). Slots reserved
+        // by journaled bookings count as occupied.
+        Map<Long, Long> occupancy = SlotMask.occupancyByCleaner(
+                bookingRepository.findByDateInRegion(request.date(), request.region()));
+        reservationOverlay.reserved(request.region(), request.date())
+                .forEach((cleanerId, mask) -> occupancy.merge(cleanerId, mask, (x, y) -> x | y));
+        List<CleanerProfessional> rested = available.stream()
+                .filter(c -> slotTemplate.fits(occupancy.getOrDefault(c.getId(), 0L), windowMask))
+                .toList();
+        List<CleanerProfessional> chosen = assignmentStrategy.pick(rested, request.cleanerCount(), window, occupancy);
 
         if (chosen.isEmpty()) {
             throw new BadRequestException("No vehicle has enough available cleaners.");
         }
+        attempt.vehicleId = chosen.get(0).getVehicle().getId();
 
-        // PESSIMISTIC LOCK BEFORE COMMITTING
         List<Long> ids = chosen.stream().map(CleanerProfessional::getId).toList();
+        return bookCleaners(request, window, ids, attempt, null);
+    }
+
+    /**
+     * Locks the chosen cleaners, re-checks them for overlaps, claims them in the
+     * {@link ReservationOverlay} and inserts one row per cleaner.
+     *
+     * @param reservationKey key the cleaners are already reserved under (a journaled
+     *                       booking), or {@code null} to claim them until the transaction ends.
+     */
+    private BookingResponse bookCleaners(BookingRequest request, TimeWindow window, List<Long> ids,
+                                         BookingAttemptEvent attempt, String reservationKey) {
+
+        // PESSIMISTIC LOCK BEFORE COMMITTING
+        long lockStart = System.nanoTime();
         List<CleanerProfessional> lockedCleaners = cleanerRepository.lockCleanersForUpdate(ids);
+        long recheckStart = System.nanoTime();
+        attempt.lockWait = recheckStart - lockStart;
 
         log.info("Locked cleaners for update: {}", ids);
 
-        // Double-check overlap under lock (race condition safety)
+        if (lockedCleaners.size() != ids.size()) {
+            throw new OverlapException("Cleaners " + ids + " are no longer all on the roster.");
+        }
+
+        // Double-check overlap under lock (race condition safety), keeping the configured break
         for (CleanerProfessional locked : lockedCleaners) {
             boolean overlap = bookingRepository.hasOverlap(
                     locked.getId(),
                     request.date(),
-                    window.start().minusMinutes(30),
-                    window.end().plusMinutes(30)
+                    window.start().minusMinutes(slotTemplate.breakMinutes()),
+                    window.end().plusMinutes(slotTemplate.breakMinutes())
             );
             if (overlap) {
+                attempt.overlapRecheck = System.nanoTime() - recheckStart;
                 log.warn("Cleaner {} has conflict within this TimeWindow [{}-{}]", locked.getId(), window.start(), window.end());
                 throw new OverlapException(
                         "Cleaner "+locked.getId()+" has conflict within this TimeWindow ["+window.start()+"-"+window.end()+"]."
                 );
             }
         }
+        attempt.overlapRecheck = System.nanoTime() - recheckStart;
+
+        // Journaled bookings hold their cleaners without a row; claiming is atomic with their reservations
+        String claim = reservationKey != null ? reservationKey : "booking-" + UUID.randomUUID();
+        if (!reservationOverlay.tryReserve(claim, request.region(), request.date(), SlotMask.of(window), ids)) {
+            throw new OverlapException("Cleaners " + ids + " are reserved by a pending booking in this TimeWindow ["
+                    + window.start() + "-" + window.end() + "].");
+        }
+        if (reservationKey == null) {
+            releaseAfterCompletion(claim);
+        }
 
         // Create booking for each cleaner
         List<Long> createdIds = new ArrayList<>();
@@ -102,64 +208,312 @@ public class BookingServiceImpl implements BookingService {
 
         log.info("Booking created successfully for cleaners: {} {}", ids, createdIds);
 
+        eventPublisher.publishEvent(new BookingChangedEvent(Set.of(request.date()), ids));
+
         return new BookingResponse(
                 createdIds.get(0),
                 request.date(),
                 request.startTime(),
-                endTime,
+                window.end(),
                 ids
         );
     }
 
+    /**
+     * Creates a booking once per Idempotency-Key; a replayed key returns the
+     * stored response without locking or re-checking any cleaner.
+     */
+    @Override
+    @Transactional
+    public BookingResponse createBooking(BookingRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createBooking(request);
+        }
+
+        Optional<BookingResponse> replay = idempotencyService.find(idempotencyKey, request);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        BookingResponse response = createBooking(request);
+        idempotencyService.remember(idempotencyKey, request, response);
+        return response;
+    }
+
+    /**
+     * Books a journaled request on the cleaners reserved for it when it was accepted.
+     * If one of them was taken in the meantime (e.g. by another node) or got the day off,
+     * cleaners are assigned again as for a normal booking. Replays of the same key return
+     * the stored result.
+     */
+    @Override
+    @Transactional
+    public BookingResponse createReservedBooking(BookingRequest request, List<Long> cleanerIds, String idempotencyKey) {
+        Optional<BookingResponse> replay = idempotencyService.find(idempotencyKey, request);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        validateRequest(request, workingCalendar, slotTemplate);
+        TimeWindow window = new TimeWindow(request.startTime(), request.startTime().plusMinutes(request.durationMinutes()));
+
+        BookingResponse response;
+        try {
+            requireWorking(request, window, cleanerIds);
+            response = bookCleaners(request, window, cleanerIds, new BookingAttemptEvent(), idempotencyKey);
+            eventPublisher.publishEvent(new BookingLifecycleEvent(BookingEventType.CREATED, response, null));
+        } catch (OverlapException ex) {
+            log.warn("Reserved cleaners {} are no longer free on {}, assigning again", cleanerIds, request.date());
+            response = createBooking(request);
+        }
+
+        idempotencyService.remember(idempotencyKey, request, response);
+        return response;
+    }
+
     @Override
     @Transactional
     public BookingResponse updateBooking(Long bookingId, BookingRequest request) {
         log.info("Updating booking {} with payload {}", bookingId, request);
 
-        validateRequest(request);
+        regionRouter.requireLocal(request.region());
+        validateRequest(request, workingCalendar, slotTemplate);
 
         Booking existing = bookingRepository.lockBookingForUpdate(bookingId);
         if (existing == null) throw new EntityNotFoundException("Booking not found");
 
+        // A booking is served by its own region's fleet and cannot move to another region
+        if (existing.getCleaner() != null) {
+            String region = existing.getCleaner().getVehicle().getRegion();
+            if (!region.equals(request.region())) {
+                throw new BadRequestException("Booking " + bookingId + " belongs to region " + region
+                        + " and cannot be moved to " + request.region() + ".");
+            }
+        }
+
         // Remove previous booking and re-create new one
         bookingRepository.delete(existing);
 
-        return createBooking(request);
+        eventPublisher.publishEvent(new BookingChangedEvent(
+                Set.of(existing.getDate()),
+                existing.getCleaner() == null ? List.of() : List.of(existing.getCleaner().getId())
+        ));
+
+        BookingResponse response = bookAndRecordAttempt(request);
+        eventPublisher.publishEvent(new BookingLifecycleEvent(BookingEventType.UPDATED, response, bookingId));
+        return response;
     }
 
-    /** Validate working hours, Friday rules, business constraints */
-    private void validateRequest(BookingRequest req) {
+    /**
+     * Books every occurrence of a weekly/biweekly rule in one transaction.
+     *
+     * <p>Days the working calendar closes are skipped. Conflicts are checked with one date-range query per
+     * candidate vehicle instead of one booking flow per occurrence, and all rows
+     * are inserted together. Occurrences that cannot be served are returned
+     * individually as conflicts.</p>
+     */
+    @Override
+    @Transactional
+    public RecurringBookingResponse createRecurringBooking(RecurringBookingRequest request) {
+        log.info("Creating recurring booking: {}", request);
+
+        regionRouter.requireLocal(request.region());
+        validateTimes(request.startTime(), request.durationMinutes(), slotTemplate);
 
-        if (!WorkHoursValidator.isWorkingDay(req.date())) {
-            throw new BadRequestException("Friday is not a working day.");
+        LocalTime endTime = request.startTime().plusMinutes(request.durationMinutes());
+        TimeWindow window = new TimeWindow(request.startTime(), endTime);
+        long windowMask = SlotMask.of(window);
+
+        // Expand the rule, skipping non-working days and hours
+        List<LocalDate> dates = new ArrayList<>();
+        List<OccurrenceConflict> conflicts = new ArrayList<>();
+
+        for (int i = 0; i < request.occurrences(); i++) {
+            LocalDate date = request.startDate().plusWeeks((long) i * request.intervalWeeks());
+            String closed = workingCalendar.closedReason(request.region(), date, window);
+            if (closed == null) {
+                dates.add(date);
+            } else {
+                conflicts.add(new OccurrenceConflict(date, closed));
+            }
         }
 
-        if (!WorkHoursValidator.isValidStartTime(req.startTime())) {
+        if (dates.isEmpty()) {
+            return new RecurringBookingResponse(List.of(), conflicts);
+        }
+
+        // Candidate vehicles are those with enough cleaners; lock them for the whole series
+        List<CleanerProfessional> roster = RosterLoadEvent.record("recurring",
+                () -> cleanerRepository.findAllWithVehicleInRegion(request.region()));
+        Map<Long, List<CleanerProfessional>> byVehicle = roster.stream()
+                .collect(Collectors.groupingBy(c -> c.getVehicle().getId(), TreeMap::new, Collectors.toList()));
+
+        List<Long> candidateVehicleIds = byVehicle.entrySet().stream()
+                .filter(e -> e.getValue().size() >= request.cleanerCount())
+                .map(Map.Entry::getKey)
+                .toList();
+
+        List<Long> candidateCleanerIds = candidateVehicleIds.stream()
+                .flatMap(v -> byVehicle.get(v).stream())
+                .map(CleanerProfessional::getId)
+                .toList();
+
+        List<CleanerProfessional> lockedCleaners = candidateCleanerIds.isEmpty()
+                ? List.of()
+                : cleanerRepository.lockCleanersForUpdate(candidateCleanerIds);
+
+        log.info("Locked cleaners for recurring booking: {}", candidateCleanerIds);
+
+        // One range query per candidate vehicle, folded into per-date occupancy masks
+        LocalDate from = dates.get(0);
+        LocalDate to = dates.get(dates.size() - 1);
+
+        List<Booking> existing = new ArrayList<>();
+        for (Long vehicleId : candidateVehicleIds) {
+            existing.addAll(bookingRepository.findBookingsForVehicleBetween(vehicleId, from, to));
+        }
+
+        Map<LocalDate, Map<Long, Long>> occupancyByDate = SlotMask.occupancyByDate(existing);
+        String series = "recurring-" + UUID.randomUUID() + "-";
+
+        // Assign every occurrence in memory
+        List<Booking> rows = new ArrayList<>();
+        List<LocalDate> bookedDates = new ArrayList<>();
+        List<List<Long>> bookedCleaners = new ArrayList<>();
+
+        for (LocalDate date : dates) {
+            Map<Long, Long> occupancy = new HashMap<>(occupancyByDate.getOrDefault(date, Map.of()));
+            reservationOverlay.reserved(request.region(), date)
+                    .forEach((cleanerId, mask) -> occupancy.merge(cleanerId, mask, (x, y) -> x | y));
+
+            List<CleanerProfessional> available = lockedCleaners.stream()
+                    .filter(c -> slotTemplate.fits(occupancy.getOrDefault(c.getId(), 0L),
+                            workingCalendar.cleanerSlots(request.region(), c.getId(), date), windowMask))
+                    .toList();
+
+            List<CleanerProfessional> chosen = assignmentStrategy.pick(available, request.cleanerCount(), window, occupancy);
+
+            if (chosen.isEmpty()) {
+                log.warn("Recurring occurrence {} has no vehicle with enough available cleaners", date);
+                conflicts.add(new OccurrenceConflict(date, "No vehicle has enough available cleaners."));
+                continue;
+            }
+
+            List<Long> chosenIds = chosen.stream().map(CleanerProfessional::getId).toList();
+            if (!reservationOverlay.tryReserve(series + date, request.region(), date, windowMask, chosenIds)) {
+                log.warn("Recurring occurrence {} lost its cleaners to a journaled booking", date);
+                conflicts.add(new OccurrenceConflict(date, "No vehicle has enough available cleaners."));
+                continue;
+            }
+            releaseAfterCompletion(series + date);
+
+            for (CleanerProfessional cleaner : chosen) {
+                rows.add(Booking.builder()
+                        .cleaner(cleaner)
+                        .date(date)
+                        .startTime(window.start())
+                        .endTime(window.end())
+                        .build());
+            }
+            bookedDates.add(date);
+            bookedCleaners.add(chosenIds);
+        }
+
+        // Insert all rows of the series together
+        List<Booking> saved = bookingRepository.saveAll(rows);
+
+        List<BookingResponse> bookings = new ArrayList<>();
+        int row = 0;
+        for (int i = 0; i < bookedDates.size(); i++) {
+            bookings.add(new BookingResponse(
+                    saved.get(row).getId(),
+                    bookedDates.get(i),
+                    window.start(),
+                    window.end(),
+                    bookedCleaners.get(i)
+            ));
+            row += bookedCleaners.get(i).size();
+        }
+        bookings.forEach(b -> eventPublisher.publishEvent(new BookingLifecycleEvent(BookingEventType.CREATED, b, null)));
+
+        if (!bookedDates.isEmpty()) {
+            eventPublisher.publishEvent(new BookingChangedEvent(
+                    Set.copyOf(bookedDates),
+                    bookedCleaners.stream().flatMap(List::stream).distinct().toList()
+            ));
+        }
+
+        conflicts.sort(Comparator.comparing(OccurrenceConflict::date));
+
+        log.info("Recurring booking created {} occurrences, {} conflicts", bookings.size(), conflicts.size());
+
+        return new RecurringBookingResponse(bookings, conflicts);
+    }
+
+    /**
+     * Drops a claim in the {@link ReservationOverlay} once the booking transaction has
+     * completed; after a commit, its committed listeners have updated the occupancy store
+     * by then. Without a transaction the claim is dropped right away.
+     */
+    private void releaseAfterCompletion(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reservationOverlay.release(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                reservationOverlay.release(key);
+            }
+        });
+    }
+
+    /** Validate working calendar, working hours, business constraints */
+    static void validateRequest(BookingRequest req, WorkingCalendarService calendar, SlotTemplate template) {
+
+        String closed = calendar.closedReason(req.region(), req.date(), null);
+        if (closed != null) {
+            throw new BadRequestException(closed);
+        }
+
+        validateTimes(req.startTime(), req.durationMinutes(), template);
+
+        String outside = calendar.closedReason(req.region(), req.date(),
+                new TimeWindow(req.startTime(), req.startTime().plusMinutes(req.durationMinutes())));
+        if (outside != null) {
+            throw new BadRequestException(outside);
+        }
+    }
+
+    /** Fails when a reserved cleaner no longer works during the window. */
+    private void requireWorking(BookingRequest request, TimeWindow window, List<Long> cleanerIds) {
+        long windowMask = SlotMask.of(window);
+        for (Long id : cleanerIds) {
+            if (!SlotMask.within(workingCalendar.cleanerSlots(request.region(), id, request.date()), windowMask)) {
+                throw new OverlapException("Cleaner " + id + " is not working on " + request.date() + " at that time.");
+            }
+        }
+    }
+
+    /** Validate working hours, duration and start step */
+    private static void validateTimes(LocalTime startTime, int durationMinutes, SlotTemplate template) {
+
+        if (!WorkHoursValidator.isValidStartTime(startTime)) {
             throw new BadRequestException("Start time must be >= 08:00");
         }
 
-        LocalTime end = req.startTime().plusMinutes(req.durationMinutes());
+        LocalTime end = startTime.plusMinutes(durationMinutes);
 
         if (!WorkHoursValidator.isValidEndTime(end)) {
             throw new BadRequestException("Booking must end before 22:00");
         }
 
-        if (!WorkHoursValidator.isValidDuration(req.durationMinutes())) {
-            throw new BadRequestException("Duration must be 120 or 240 minutes.");
+        if (!template.allows(durationMinutes)) {
+            throw new BadRequestException("Duration must be " + template.durationsText() + " minutes.");
         }
-    }
 
-    /** Find N cleaners from same vehicle */
-    private List<CleanerProfessional> pickCleanersFromSameVehicle(
-            List<CleanerProfessional> cleaners,
-            int count
-    ) {
-        return cleaners.stream()
-                .collect(Collectors.groupingBy(c -> c.getVehicle().getId()))
-                .values().stream()
-                .filter(list -> list.size() >= count)
-                .map(list -> list.subList(0, count))
-                .findFirst()
-                .orElse(List.of());
+        if (!template.startsAt(startTime, durationMinutes)) {
+            throw new BadRequestException(template.startsText());
+        }
     }
 }
\ No newline at end of file
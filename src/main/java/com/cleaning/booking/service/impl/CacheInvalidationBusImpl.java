@@ -0,0 +1,100 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.event.RosterChangedEvent;
+import com.cleaning.booking.service.CacheInvalidationBus;
+import com.cleaning.booking.service.InvalidationTransport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cache invalidation bus over a pluggable {@link InvalidationTransport}
+ * ({@code cache.bus.transport}, default {@code db}).
+ *
+ * <p>Local changes are handed to the transport inside their transaction. Every
+ * {@code cache.bus.poll-ms} the transport is polled and other nodes' changes are
+ * republished as {@link CacheInvalidatedEvent}s. A successful poll proves that every
+ * change committed before it started has been delivered, so the bus is coherent while
+ * the last successful poll started less than {@code cache.bus.max-staleness-ms} ago.</p>
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBusImpl implements CacheInvalidationBus {
+
+    private final InvalidationTransport transport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration maxStaleness;
+
+    private volatile long lastPollStarted;
+    private boolean reportedIncoherent;
+
+    public CacheInvalidationBusImpl(
+            InvalidationTransport transport,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${cache.bus.max-staleness-ms:5000}") long maxStalenessMs
+    ) {
+        this.transport = transport;
+        this.eventPublisher = eventPublisher;
+        this.maxStaleness = Duration.ofMillis(maxStalenessMs);
+    }
+
+    @Override
+    public boolean isCoherent() {
+        long last = lastPollStarted;
+        return last != 0 && System.currentTimeMillis() - last <= maxStaleness.toMillis();
+    }
+
+    @Override
+    public Duration maxStaleness() {
+        return maxStaleness;
+    }
+
+    /** Announces a booking change in the booking transaction. */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        transport.publish(new CacheInvalidatedEvent(event.dates(), event.cleanerIds(), false));
+    }
+
+    /** Announces a roster change in the roster transaction. */
+    @EventListener
+    public void onRosterChanged(RosterChangedEvent event) {
+        transport.publish(new CacheInvalidatedEvent(Set.of(), List.of(), true));
+    }
+
+    /**
+     * Delivers other nodes' changes to this node's caches.
+     */
+    @Scheduled(fixedDelayString = "${cache.bus.poll-ms:1000}")
+    public synchronized void poll() {
+        long started = System.currentTimeMillis();
+        List<CacheInvalidatedEvent> received;
+        try {
+            received = transport.poll();
+        } catch (RuntimeException ex) {
+            if (!isCoherent() && !reportedIncoherent) {
+                reportedIncoherent = true;
+                log.warn("Cache invalidation bus cannot be read, in-process caches are bypassed until it recovers", ex);
+            }
+            return;
+        }
+
+        received.forEach(eventPublisher::publishEvent);
+        lastPollStarted = started;
+        if (reportedIncoherent) {
+            reportedIncoherent = false;
+            log.info("Cache invalidation bus recovered");
+        }
+        if (!received.isEmpty()) {
+            log.debug("Applied {} invalidations from other nodes", received.size());
+        }
+    }
+}
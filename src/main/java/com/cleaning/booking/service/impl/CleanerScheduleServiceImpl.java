@@ -0,0 +1,92 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.CleanerBookingEntry;
+import com.cleaning.booking.dto.CleanerScheduleResponse;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.EntityNotFoundException;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.service.CleanerScheduleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset-paginated cleaner schedules.
+ *
+ * <p>The cursor encodes the (date, start time, id) of the last entry returned, so each
+ * page is a bounded index seek rather than an OFFSET scan over earlier rows.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CleanerScheduleServiceImpl implements CleanerScheduleService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final CleanerRepository cleanerRepository;
+    private final BookingRepository bookingRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CleanerScheduleResponse getSchedule(Long cleanerId, LocalDate from, LocalDate to, String cursor, int limit) {
+
+        if (to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'.");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        if (!cleanerRepository.existsById(cleanerId)) {
+            throw new EntityNotFoundException("Cleaner not found");
+        }
+
+        Position after = cursor == null ? new Position(from, LocalTime.MIN, 0L) : decode(cursor);
+        if (after.date().isBefore(from)) {
+            after = new Position(from, LocalTime.MIN, 0L);
+        }
+
+        // One extra row tells whether another page exists
+        List<CleanerBookingEntry> rows = bookingRepository.findSchedulePage(
+                cleanerId, after.date(), after.startTime(), after.id(), to, Limit.of(limit + 1));
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            CleanerBookingEntry last = rows.get(limit - 1);
+            nextCursor = encode(new Position(last.date(), last.startTime(), last.bookingId()));
+        }
+
+        log.info("Schedule page for cleaner {}: {} entries, more={}", cleanerId, rows.size(), nextCursor != null);
+        return new CleanerScheduleResponse(cleanerId, List.copyOf(rows), nextCursor);
+    }
+
+    private static String encode(Position position) {
+        String raw = position.date() + "|" + position.startTime() + "|" + position.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+            return new Position(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    private record Position(LocalDate date, LocalTime startTime, Long id) {}
+}
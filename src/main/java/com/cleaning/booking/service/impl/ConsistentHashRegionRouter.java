@@ -0,0 +1,93 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.exception.RegionNotLocalException;
+import com.cleaning.booking.repository.VehicleRepository;
+import com.cleaning.booking.service.RegionRouter;
+import com.cleaning.booking.util.ConsistentHashRing;
+import com.cleaning.booking.util.Regions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assigns regions to the nodes listed in {@code fleet.nodes} ({@code id=baseUrl,...})
+ * with a {@link ConsistentHashRing}, so adding a node moves only the regions it takes
+ * over. Without {@code fleet.nodes} this node serves every region.
+ *
+ * <p>Every node must be configured with the same list; each one knows from it which
+ * regions it serves and where to send requests for the others.</p>
+ */
+@Slf4j
+@Service
+public class ConsistentHashRegionRouter implements RegionRouter {
+
+    private final VehicleRepository vehicleRepository;
+    private final Node self;
+    private final ConsistentHashRing<Node> ring;
+    private final boolean ownsAll;
+
+    public ConsistentHashRegionRouter(
+            VehicleRepository vehicleRepository,
+            @Value("${fleet.node-id:local}") String nodeId,
+            @Value("${fleet.nodes:}") List<String> nodes,
+            @Value("${fleet.virtual-nodes:128}") int virtualNodes
+    ) {
+        this.vehicleRepository = vehicleRepository;
+
+        List<Node> members = new ArrayList<>();
+        for (String entry : nodes) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalStateException("fleet.nodes entries must be id=baseUrl, got '" + entry + "'");
+            }
+            members.add(new Node(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim()));
+        }
+
+        if (members.isEmpty()) {
+            this.self = new Node(nodeId, "");
+            members.add(self);
+        } else {
+            this.self = members.stream()
+                    .filter(n -> n.id().equals(nodeId))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("fleet.node-id '" + nodeId + "' is not in fleet.nodes"));
+        }
+        this.ring = new ConsistentHashRing<>(members, Node::id, virtualNodes);
+        this.ownsAll = members.size() == 1;
+        log.info("Region routing: node {} of {}", nodeId, members.stream().map(Node::id).toList());
+    }
+
+    @Override
+    public boolean isLocal(String region) {
+        return ownsAll || owner(region).equals(self);
+    }
+
+    @Override
+    public boolean ownsAll() {
+        return ownsAll;
+    }
+
+    @Override
+    public List<String> localRegions() {
+        return vehicleRepository.findRegions().stream().filter(this::isLocal).toList();
+    }
+
+    @Override
+    public void requireLocal(String region) {
+        if (!isLocal(region)) {
+            throw new RegionNotLocalException(Regions.orDefault(region), owner(region).baseUrl());
+        }
+    }
+
+    private Node owner(String region) {
+        return ring.nodeFor(Regions.orDefault(region));
+    }
+
+    private record Node(String id, String baseUrl) {}
+}
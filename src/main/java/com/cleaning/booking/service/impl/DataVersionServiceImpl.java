@@ -0,0 +1,90 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.event.RosterChangedEvent;
+import com.cleaning.booking.service.CacheInvalidationBus;
+import com.cleaning.booking.service.DataVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process version counters.
+ *
+ * <p>Counters are bumped only after the changing transaction commits, so a
+ * validator is never newer than the data it describes. Tags include a boot
+ * epoch so validators issued before a restart never match. Other nodes' changes
+ * bump the counters when the {@link CacheInvalidationBus} delivers them; while the
+ * bus is not coherent the tags are not {@link #cacheable()} and callers bypass their
+ * caches, which keep their entries for when the bus recovers.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataVersionServiceImpl implements DataVersionService {
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong roster = new AtomicLong();
+    private final ConcurrentMap<LocalDate, AtomicLong> bookings = new ConcurrentHashMap<>();
+
+    @Override
+    public long rosterVersion() {
+        return roster.get();
+    }
+
+    @Override
+    public long bookingVersion(LocalDate date) {
+        AtomicLong version = bookings.get(date);
+        return version == null ? 0L : version.get();
+    }
+
+    @Override
+    public String rosterTag() {
+        return "r" + epoch + "-" + rosterVersion();
+    }
+
+    @Override
+    public String availabilityTag(LocalDate date) {
+        return "a" + epoch + "-" + rosterVersion() + "-" + date + "-" + bookingVersion(date);
+    }
+
+    @Override
+    public boolean cacheable() {
+        return cacheInvalidationBus.isCoherent();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        for (LocalDate date : event.dates()) {
+            bookings.computeIfAbsent(date, d -> new AtomicLong()).incrementAndGet();
+        }
+        log.debug("Booking versions bumped for {}", event.dates());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRosterChanged(RosterChangedEvent event) {
+        roster.incrementAndGet();
+        log.debug("Roster version bumped by vehicle {}", event.vehicleId());
+    }
+
+    @EventListener
+    public void onRemoteChange(CacheInvalidatedEvent event) {
+        for (LocalDate date : event.dates()) {
+            bookings.computeIfAbsent(date, d -> new AtomicLong()).incrementAndGet();
+        }
+        if (event.roster()) {
+            roster.incrementAndGet();
+        }
+        log.debug("Versions bumped by another node for {} (roster: {})", event.dates(), event.roster());
+    }
+}
@@ -0,0 +1,215 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.entity.CacheVersion;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.repository.CacheVersionRepository;
+import com.cleaning.booking.service.InvalidationTransport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Invalidation transport over the {@code cache_version} table; needs nothing but the
+ * database.
+ *
+ * <p>A transaction that changes bookings bumps one row per changed date (and the
+ * {@code roster} row for roster changes) just before it commits, in scope order, so
+ * concurrent transactions cannot deadlock on them. Each date has
+ * {@code cache.bus.date-stripes} rows and a transaction bumps a random one, so
+ * bookings for a busy date rarely wait on each other's row lock. Other nodes poll the
+ * rows bumped since their previous poll, re-reading {@code cache.bus.poll-overlap-ms}
+ * of history to cover transactions that stamped a row just before that poll and
+ * committed after it. Timestamps come from the database clock, so node clocks do not
+ * matter.</p>
+ *
+ * <p>Rows for past dates that have not changed for {@code cache.bus.retention-hours}
+ * are purged; no availability is served for them and every node has long seen their
+ * last bump.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cache.bus.transport", havingValue = "db", matchIfMissing = true)
+public class DbPollingInvalidationTransport implements InvalidationTransport {
+
+    static final String ROSTER_SCOPE = "roster";
+    static final String DATE_SCOPE_PREFIX = "date:";
+    static final char STRIPE_SEPARATOR = '#';
+    static final int MAX_CLEANER_IDS_LENGTH = 255;
+
+    private final CacheVersionRepository repository;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate createTx;
+    private final Duration overlap;
+    private final int dateStripes;
+    private final Duration retention;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** Last row seen per scope, while it can still show up in a poll. */
+    private final Map<String, CacheVersion> seen = new HashMap<>();
+    private LocalDateTime lastPoll;
+
+    public DbPollingInvalidationTransport(
+            CacheVersionRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${cache.bus.poll-overlap-ms:2000}") long overlapMs,
+            @Value("${cache.bus.date-stripes:8}") int dateStripes,
+            @Value("${cache.bus.retention-hours:24}") long retentionHours
+    ) {
+        this.repository = repository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.createTx = new TransactionTemplate(transactionManager);
+        this.createTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.overlap = Duration.ofMillis(overlapMs);
+        this.dateStripes = Math.max(1, dateStripes);
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @Override
+    public void publish(CacheInvalidatedEvent invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingBumps bumps = new PendingBumps();
+            bumps.add(invalidation);
+            tx.executeWithoutResult(status -> bumps.write());
+            return;
+        }
+
+        PendingBumps bumps = (PendingBumps) TransactionSynchronizationManager.getResource(this);
+        if (bumps == null) {
+            bumps = new PendingBumps();
+            TransactionSynchronizationManager.bindResource(this, bumps);
+            TransactionSynchronizationManager.registerSynchronization(bumps);
+        }
+        bumps.add(invalidation);
+    }
+
+    @Override
+    public synchronized List<CacheInvalidatedEvent> poll() {
+        return tx.execute(status -> {
+            LocalDateTime now = repository.currentTime();
+            LocalDateTime since = (lastPoll == null ? now : lastPoll).minus(overlap);
+
+            List<CacheInvalidatedEvent> received = new ArrayList<>();
+            for (CacheVersion row : repository.findUpdatedSince(since)) {
+                CacheVersion known = seen.get(row.getScope());
+                if (known != null && known.getVersion() >= row.getVersion()) {
+                    continue;
+                }
+                seen.put(row.getScope(), row);
+                boolean nextVersion = known != null && row.getVersion() == known.getVersion() + 1;
+                if (nextVersion && nodeId.equals(row.getOrigin())) {
+                    continue;
+                }
+                received.add(toEvent(row, nextVersion));
+            }
+
+            seen.values().removeIf(row -> row.getUpdatedAt().isBefore(since));
+            lastPoll = now;
+            return received;
+        });
+    }
+
+    /** Drops the rows of past dates once every node has had time to see them. */
+    @Scheduled(fixedDelayString = "${cache.bus.purge-interval-ms:3600000}")
+    public void purge() {
+        int removed = tx.execute(status -> {
+            LocalDateTime now = repository.currentTime();
+            return repository.deleteDatesBefore(DATE_SCOPE_PREFIX + now.toLocalDate(), now.minus(retention));
+        });
+        if (removed > 0) {
+            log.info("Purged {} cache versions of past dates", removed);
+        }
+    }
+
+    /**
+     * Bumps a scope, creating its row first if no node has bumped it yet. The row is
+     * created in a transaction of its own, so losing the race to another node does not
+     * fail the caller's transaction.
+     */
+    private void bump(String scope, String cleanerIds) {
+        if (repository.bump(scope, cleanerIds, nodeId) > 0) {
+            return;
+        }
+        try {
+            createTx.executeWithoutResult(status -> repository.create(scope, nodeId));
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Cache version {} was created by another node", scope);
+        }
+        repository.bump(scope, cleanerIds, nodeId);
+    }
+
+    /**
+     * Cleaner ids are only exact when this node saw the previous version; otherwise
+     * more changes were folded into the row and all cleaners are invalidated.
+     */
+    private static CacheInvalidatedEvent toEvent(CacheVersion row, boolean exact) {
+        List<Long> cleanerIds = !exact || row.getCleanerIds().isEmpty()
+                ? List.of()
+                : Arrays.stream(row.getCleanerIds().split(",")).map(Long::valueOf).toList();
+        if (ROSTER_SCOPE.equals(row.getScope())) {
+            return new CacheInvalidatedEvent(Set.of(), List.of(), true);
+        }
+        String scope = row.getScope();
+        int stripe = scope.indexOf(STRIPE_SEPARATOR);
+        LocalDate date = LocalDate.parse(scope.substring(DATE_SCOPE_PREFIX.length(), stripe < 0 ? scope.length() : stripe));
+        return new CacheInvalidatedEvent(Set.of(date), cleanerIds, false);
+    }
+
+    /**
+     * Scopes changed by one transaction, bumped together right before it commits.
+     */
+    private final class PendingBumps implements TransactionSynchronization {
+
+        private final Map<String, Set<Long>> scopes = new TreeMap<>();
+        private final int stripe = ThreadLocalRandom.current().nextInt(dateStripes);
+
+        void add(CacheInvalidatedEvent invalidation) {
+            if (invalidation.roster()) {
+                scopes.computeIfAbsent(ROSTER_SCOPE, s -> new TreeSet<>());
+            }
+            for (LocalDate date : invalidation.dates()) {
+                scopes.computeIfAbsent(DATE_SCOPE_PREFIX + date + STRIPE_SEPARATOR + stripe, s -> new TreeSet<>())
+                        .addAll(invalidation.cleanerIds());
+            }
+        }
+
+        void write() {
+            scopes.forEach((scope, cleanerIds) -> {
+                String ids = cleanerIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+                bump(scope, ids.length() > MAX_CLEANER_IDS_LENGTH ? "" : ids);
+            });
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DbPollingInvalidationTransport.this);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.BookingEvent;
+import com.cleaning.booking.service.OutboxSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed events to a local file, one JSON object per line. Each batch is
+ * forced to disk before the cursor moves; a crash in between repeats the batch.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.file.enabled", havingValue = "true")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxSink(
+            ObjectMapper objectMapper,
+            @Value("${outbox.sink.file.path:data/booking-events.jsonl}") String path
+    ) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<BookingEvent> events) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (BookingEvent event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize booking event", ex);
+        }
+
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append to " + path, ex);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.service.AssignmentStrategy;
+import com.cleaning.booking.util.TimeWindow;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Original assignment behaviour: the first vehicle (by id) with enough free
+ * cleaners wins, and its first N cleaners are taken.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.assignment.strategy", havingValue = "first-fit")
+public class FirstFitAssignmentStrategy implements AssignmentStrategy {
+
+    @Override
+    public List<CleanerProfessional> pick(
+            List<CleanerProfessional> available,
+            int count,
+            TimeWindow window,
+            Map<Long, Long> occupancy
+    ) {
+        return available.stream()
+                .collect(Collectors.groupingBy(c -> c.getVehicle().getId(), TreeMap::new, Collectors.toList()))
+                .values().stream()
+                .filter(list -> list.size() >= count)
+                .map(list -> list.subList(0, count))
+                .findFirst()
+                .orElse(List.of());
+    }
+}
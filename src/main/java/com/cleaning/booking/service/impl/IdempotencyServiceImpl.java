@@ -0,0 +1,185 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.entity.IdempotencyRecord;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.IdempotencyConflictException;
+import com.cleaning.booking.repository.IdempotencyRecordRepository;
+import com.cleaning.booking.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Stores booking results under client Idempotency-Keys.
+ *
+ * <p>Lookups hit a bounded in-memory LRU first and fall back to the
+ * {@code booking_idempotency} table, so replays never reach the cleaner locks.
+ * Entries are only cached after the booking transaction commits, and expire from the
+ * LRU after the same {@code ttl-hours} that rows are kept in the table.</p>
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyRecordRepository repository;
+    private final int ttlHours;
+    private final Map<String, CachedResponse> cache;
+
+    public IdempotencyServiceImpl(
+            IdempotencyRecordRepository repository,
+            @Value("${booking.idempotency.cache-size:10000}") int cacheSize,
+            @Value("${booking.idempotency.ttl-hours:24}") int ttlHours
+    ) {
+        this.repository = repository;
+        this.ttlHours = ttlHours;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Returns the stored response for a key, if the key was used before.
+     *
+     * @throws BadRequestException if the key is malformed or was used with a different request.
+     */
+    @Override
+    public Optional<BookingResponse> find(String key, BookingRequest request) {
+        validateKey(key);
+        String hash = fingerprint(request);
+        LocalDateTime expiredBefore = LocalDateTime.now().minusHours(ttlHours);
+
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.createdAt().isBefore(expiredBefore)) {
+            cache.remove(key);
+            cached = null;
+        }
+        if (cached == null) {
+            cached = repository.findById(key)
+                    .map(this::toCached)
+                    .orElse(null);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            if (!cached.createdAt().isBefore(expiredBefore)) {
+                cache.put(key, cached);
+            }
+        }
+
+        if (!cached.requestHash().equals(hash)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different request.");
+        }
+
+        log.info("Replaying booking {} for Idempotency-Key {}", cached.response().bookingId(), key);
+        return Optional.of(cached.response());
+    }
+
+    /**
+     * Stores the response in the current transaction.
+     *
+     * @throws IdempotencyConflictException if a concurrent request stored the same key first.
+     */
+    @Override
+    public void remember(String key, BookingRequest request, BookingResponse response) {
+        CachedResponse cached = new CachedResponse(fingerprint(request), response, LocalDateTime.now());
+
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .key(key)
+                .requestHash(cached.requestHash())
+                .bookingId(response.bookingId())
+                .date(response.date())
+                .startTime(response.startTime())
+                .endTime(response.endTime())
+                .cleanerIds(response.assignedCleaners().stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(",")))
+                .createdAt(cached.createdAt())
+                .build();
+
+        try {
+            repository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Concurrent request already stored Idempotency-Key {}", key);
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is already being processed.");
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(key, cached);
+                }
+            });
+        } else {
+            cache.put(key, cached);
+        }
+    }
+
+    /** Drops expired keys from the table; expired LRU entries are dropped on lookup. */
+    @Scheduled(fixedDelayString = "${booking.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = repository.deleteOlderThan(LocalDateTime.now().minusHours(ttlHours));
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency records", removed);
+        }
+    }
+
+    private void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters.");
+        }
+    }
+
+    /**
+     * SHA-256 over the canonical form of the request, hex encoded. Unlike a 32-bit
+     * hash, two different requests cannot plausibly share a fingerprint.
+     */
+    private static String fingerprint(BookingRequest request) {
+        String canonical = request.date() + "|" + request.startTime() + "|" + request.durationMinutes()
+                + "|" + request.cleanerCount() + "|" + request.region();
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private CachedResponse toCached(IdempotencyRecord record) {
+        List<Long> cleanerIds = Arrays.stream(record.getCleanerIds().split(","))
+                .map(Long::valueOf)
+                .toList();
+        return new CachedResponse(
+                record.getRequestHash(),
+                new BookingResponse(record.getBookingId(), record.getDate(), record.getStartTime(), record.getEndTime(), cleanerIds),
+                record.getCreatedAt()
+        );
+    }
+
+    private record CachedResponse(String requestHash, BookingResponse response, LocalDateTime createdAt) {}
+}
@@ -0,0 +1,33 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.BookingEvent;
+import com.cleaning.booking.service.OutboxSink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes relayed events as {@link BookingEvent} application events, for
+ * {@code @EventListener} methods in this application. Each event reaches the
+ * listeners of the node that relayed it, once per cluster.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.sink.in-process.enabled", havingValue = "true", matchIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<BookingEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
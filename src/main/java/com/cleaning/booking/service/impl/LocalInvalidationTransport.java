@@ -0,0 +1,26 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.service.InvalidationTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Transport for a single node ({@code cache.bus.transport=local}): there is nobody
+ * to tell and nothing to receive.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.bus.transport", havingValue = "local")
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    @Override
+    public void publish(CacheInvalidatedEvent invalidation) {
+    }
+
+    @Override
+    public List<CacheInvalidatedEvent> poll() {
+        return List.of();
+    }
+}
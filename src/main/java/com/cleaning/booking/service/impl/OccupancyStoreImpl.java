@@ -0,0 +1,396 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.BookingSlotRow;
+import com.cleaning.booking.entity.BookingChange;
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.repository.BookingChangeRepository;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.service.CacheInvalidationBus;
+import com.cleaning.booking.service.OccupancyStore;
+import com.cleaning.booking.service.RegionRouter;
+import com.cleaning.booking.util.OccupancySnapshot;
+import com.cleaning.booking.util.SlotMask;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-cleaner-day occupancy masks for the next {@code occupancy.horizon-days} days,
+ * kept in memory and checkpointed to a memory-mapped {@link OccupancySnapshot}.
+ *
+ * <p>Every booking transaction also writes one {@code booking_change} row per changed
+ * date. The store remembers a watermark into that log: on startup it maps the last
+ * snapshot and replays only the dates changed after the watermark, so readiness does
+ * not depend on history size. Local commits are applied right after they commit and
+ * other nodes' as soon as the {@link CacheInvalidationBus} delivers them; the same
+ * replay runs every {@code occupancy.catch-up-ms} as a backstop. While the bus is not
+ * coherent, reads are sent to the database.</p>
+ *
+ * <p>Only the cleaners of regions this node serves (see {@link RegionRouter}) are held;
+ * vehicles never change region, so a region's masks stay complete as the fleet grows.</p>
+ *
+ * <p>Change sequences are allocated at insert time but become visible at commit, so
+ * the watermark only moves past changes older than {@code occupancy.commit-grace-seconds};
+ * younger ones are replayed again until then.</p>
+ */
+@Slf4j
+@Service
+public class OccupancyStoreImpl implements OccupancyStore {
+
+    /** Change log rows read per query during replay. */
+    static final int CHANGE_BATCH = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final BookingChangeRepository changeRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final RegionRouter regionRouter;
+    private final TransactionTemplate readTx;
+    private final int horizonDays;
+    private final Duration commitGrace;
+    private final int retentionHours;
+    private final Path snapshotPath;
+
+    private final ConcurrentMap<LocalDate, Map<Long, Long>> days = new ConcurrentHashMap<>();
+    private final Set<Long> appliedAboveWatermark = new HashSet<>();
+    private volatile Horizon horizon;
+    private long watermark;
+
+    public OccupancyStoreImpl(
+            BookingRepository bookingRepository,
+            BookingChangeRepository changeRepository,
+            CacheInvalidationBus cacheInvalidationBus,
+            RegionRouter regionRouter,
+            PlatformTransactionManager transactionManager,
+            @Value("${occupancy.horizon-days:90}") int horizonDays,
+            @Value("${occupancy.commit-grace-seconds:30}") int commitGraceSeconds,
+            @Value("${occupancy.change-retention-hours:24}") int retentionHours,
+            @Value("${occupancy.snapshot.enabled:true}") boolean snapshotEnabled,
+            @Value("${occupancy.snapshot.path:data/occupancy.snapshot}") String snapshotPath
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.changeRepository = changeRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.regionRouter = regionRouter;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.horizonDays = horizonDays;
+        this.commitGrace = Duration.ofSeconds(commitGraceSeconds);
+        this.retentionHours = retentionHours;
+        this.snapshotPath = snapshotEnabled ? Path.of(snapshotPath) : null;
+    }
+
+    @Override
+    public Map<Long, Long> occupancy(String region, LocalDate date) {
+        Horizon current = horizon;
+        if (current == null || date.isBefore(current.from()) || date.isAfter(current.to())
+                || !cacheInvalidationBus.isCoherent() || !regionRouter.isLocal(region)) {
+            return null;
+        }
+        return days.getOrDefault(date, Map.of());
+    }
+
+    /** Highest change sequence fully reflected in memory. */
+    public synchronized long watermark() {
+        return watermark;
+    }
+
+    /**
+     * Loads the state before the application reports ready: from the snapshot plus the
+     * changes after its watermark when possible, otherwise by reading the whole horizon.
+     * A failure leaves the store empty (callers read the database) and is retried by
+     * {@link #catchUp()}.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public synchronized void warmStart() {
+        long started = System.nanoTime();
+        try {
+            long maxSeq = changeRepository.findMaxSeq();
+            OccupancySnapshot snapshot = readSnapshot()
+                    .filter(s -> isUsable(s, maxSeq))
+                    .orElse(null);
+
+            appliedAboveWatermark.clear();
+            if (snapshot != null) {
+                days.clear();
+                snapshot.days().forEach((date, masks) -> days.put(date, Map.copyOf(masks)));
+                watermark = snapshot.watermark();
+                horizon = new Horizon(snapshot.from(), snapshot.to());
+                rollHorizon();
+                int replayed = replayChanges();
+                log.info("Occupancy warm start from snapshot: watermark {}, {} dates replayed in {} ms",
+                        watermark, replayed, elapsedMillis(started));
+            } else {
+                // Like replayChanges: a change younger than the grace may sit above a seq that
+                // is still uncommitted, so only the settled part of the log counts as loaded
+                watermark = Math.min(maxSeq, changeRepository.findMaxSeqBefore(LocalDateTime.now().minus(commitGrace)));
+                horizon = null;
+                rollHorizon();
+                log.info("Occupancy rebuilt from bookings: {} days, watermark {} in {} ms",
+                        horizonDays, watermark, elapsedMillis(started));
+            }
+        } catch (DataAccessException ex) {
+            horizon = null;
+            log.warn("Occupancy warm start failed, availability reads use the database until it succeeds", ex);
+        }
+    }
+
+    /**
+     * Moves the horizon to today and replays changes after the watermark, including
+     * those committed by other nodes.
+     */
+    @Scheduled(fixedDelayString = "${occupancy.catch-up-ms:5000}", initialDelayString = "${occupancy.catch-up-ms:5000}")
+    public synchronized void catchUp() {
+        if (horizon == null) {
+            warmStart();
+            return;
+        }
+        rollHorizon();
+        int replayed = replayChanges();
+        if (replayed > 0) {
+            log.debug("Occupancy caught up {} dates, watermark {}", replayed, watermark);
+        }
+    }
+
+    /** Writes the current state and watermark to the snapshot file. */
+    @Scheduled(fixedDelayString = "${occupancy.snapshot.checkpoint-ms:60000}",
+            initialDelayString = "${occupancy.snapshot.checkpoint-ms:60000}")
+    @PreDestroy
+    public synchronized void checkpoint() {
+        Horizon current = horizon;
+        if (snapshotPath == null || current == null) {
+            return;
+        }
+        OccupancySnapshot snapshot = new OccupancySnapshot(
+                watermark, System.currentTimeMillis(), current.from(), current.to(), new HashMap<>(days));
+        try {
+            snapshot.write(snapshotPath);
+            log.debug("Occupancy checkpoint written at watermark {}", watermark);
+        } catch (IOException ex) {
+            log.warn("Could not write occupancy snapshot {}", snapshotPath, ex);
+        }
+    }
+
+    /** Records the changed dates in the booking transaction itself. */
+    @EventListener
+    public void recordChange(BookingChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        changeRepository.saveAll(event.dates().stream()
+                .map(date -> BookingChange.builder().date(date).createdAt(now).build())
+                .toList());
+    }
+
+    /**
+     * Applies a local change as soon as it commits, before version counters move, so a
+     * response computed under the new version never sees the old occupancy.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onBookingCommitted(BookingChangedEvent event) {
+        refresh(event.dates());
+    }
+
+    /** Applies another node's change as soon as the invalidation bus delivers it. */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRemoteChange(CacheInvalidatedEvent event) {
+        refresh(event.dates());
+    }
+
+    /** Drops change log rows older than the retention; older snapshots are rebuilt instead. */
+    @Scheduled(fixedDelayString = "${occupancy.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeChanges() {
+        int removed = changeRepository.deleteOlderThan(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.info("Purged {} booking change records", removed);
+        }
+    }
+
+    private synchronized void refresh(Set<LocalDate> dates) {
+        if (horizon == null || dates.isEmpty()) {
+            return;
+        }
+        try {
+            readTx.executeWithoutResult(status -> reload(dates));
+        } catch (DataAccessException ex) {
+            log.warn("Could not refresh occupancy for {}, the next catch-up retries", dates, ex);
+        }
+    }
+
+    private Optional<OccupancySnapshot> readSnapshot() {
+        if (snapshotPath == null) {
+            return Optional.empty();
+        }
+        try {
+            Optional<OccupancySnapshot> snapshot = OccupancySnapshot.read(snapshotPath);
+            if (snapshot.isEmpty()) {
+                log.info("No usable occupancy snapshot at {}", snapshotPath);
+            }
+            return snapshot;
+        } catch (IOException ex) {
+            log.warn("Could not read occupancy snapshot {}", snapshotPath, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A snapshot can be replayed only while every change after its watermark is still in
+     * the log, and only against the database it was taken from.
+     */
+    private boolean isUsable(OccupancySnapshot snapshot, long maxSeq) {
+        if (snapshot.watermark() > maxSeq) {
+            log.warn("Occupancy snapshot watermark {} is ahead of the change log ({}), rebuilding",
+                    snapshot.watermark(), maxSeq);
+            return false;
+        }
+        long oldestReplayable = System.currentTimeMillis() - Duration.ofHours(retentionHours).minus(commitGrace).toMillis();
+        if (snapshot.checkpointedAt() < oldestReplayable) {
+            log.info("Occupancy snapshot is older than the change retention, rebuilding");
+            return false;
+        }
+        return true;
+    }
+
+    /** Drops past dates and loads dates that entered the horizon. */
+    private void rollHorizon() {
+        LocalDate today = LocalDate.now();
+        LocalDate end = today.plusDays(horizonDays - 1L);
+        Horizon current = horizon;
+
+        if (current == null || current.to().isBefore(today)) {
+            horizon = null;
+            days.clear();
+            days.putAll(load(today, end));
+            horizon = new Horizon(today, end);
+            return;
+        }
+        if (current.from().isBefore(today)) {
+            horizon = current = new Horizon(today, current.to());
+            days.keySet().removeIf(date -> date.isBefore(today));
+        }
+        if (current.to().isBefore(end)) {
+            days.putAll(load(current.to().plusDays(1), end));
+            horizon = new Horizon(current.from(), end);
+        }
+    }
+
+    /**
+     * Reloads every date changed after the watermark that is not reloaded yet and moves
+     * the watermark past the settled prefix of the log.
+     *
+     * @return number of dates reloaded.
+     */
+    private int replayChanges() {
+        LocalDateTime settled = LocalDateTime.now().minus(commitGrace);
+        Set<LocalDate> dirty = new HashSet<>();
+        List<Long> replayed = new ArrayList<>();
+        long newWatermark = watermark;
+        boolean advancing = true;
+
+        long after = watermark;
+        List<BookingChange> batch;
+        do {
+            batch = changeRepository.findAfter(after, Limit.of(CHANGE_BATCH));
+            for (BookingChange change : batch) {
+                if (!appliedAboveWatermark.contains(change.getSeq())) {
+                    dirty.add(change.getDate());
+                    replayed.add(change.getSeq());
+                }
+                if (advancing && change.getCreatedAt().isBefore(settled)) {
+                    newWatermark = change.getSeq();
+                } else {
+                    advancing = false;
+                }
+                after = change.getSeq();
+            }
+        } while (batch.size() == CHANGE_BATCH);
+
+        reload(dirty);
+
+        appliedAboveWatermark.addAll(replayed);
+        long settledSeq = newWatermark;
+        appliedAboveWatermark.removeIf(seq -> seq <= settledSeq);
+        watermark = newWatermark;
+        return dirty.size();
+    }
+
+    /** Re-reads whole dates (within the horizon) with one range query. */
+    private void reload(Collection<LocalDate> dates) {
+        Horizon current = horizon;
+        List<LocalDate> inHorizon = dates.stream()
+                .filter(date -> current != null && !date.isBefore(current.from()) && !date.isAfter(current.to()))
+                .sorted()
+                .toList();
+        if (inHorizon.isEmpty()) {
+            return;
+        }
+
+        Map<LocalDate, Map<Long, Long>> loaded = load(inHorizon.get(0), inHorizon.get(inHorizon.size() - 1));
+        for (LocalDate date : inHorizon) {
+            Map<Long, Long> masks = loaded.get(date);
+            if (masks == null) {
+                days.remove(date);
+            } else {
+                days.put(date, masks);
+            }
+        }
+    }
+
+    /** Reads the masks of the regions this node serves. */
+    private Map<LocalDate, Map<Long, Long>> load(LocalDate from, LocalDate to) {
+        Map<LocalDate, Map<Long, Long>> masks = new HashMap<>();
+        List<BookingSlotRow> rows;
+        if (regionRouter.ownsAll()) {
+            rows = bookingRepository.findSlotRowsBetween(from, to);
+        } else {
+            List<String> regions = regionRouter.localRegions();
+            rows = regions.isEmpty() ? List.of() : bookingRepository.findSlotRowsBetweenInRegions(from, to, regions);
+        }
+        for (BookingSlotRow row : rows) {
+            long mask = SlotMask.range(SlotMask.slotIndex(row.startTime()), SlotMask.slotIndexCeil(row.endTime()));
+            masks.computeIfAbsent(row.date(), d -> new HashMap<>())
+                    .merge(row.cleanerId(), mask, (x, y) -> x | y);
+        }
+        masks.replaceAll((date, byCleaner) -> Collections.unmodifiableMap(byCleaner));
+        return masks;
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    /** Dates currently held in memory (inclusive). */
+    private record Horizon(LocalDate from, LocalDate to) {}
+}
@@ -0,0 +1,87 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.service.ReservationOverlay;
+import com.cleaning.booking.util.SlotTemplate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory {@link ReservationOverlay}. Claims are few (pending journal entries and open
+ * booking transactions), so they are kept per (region, date) in plain maps under one lock;
+ * reads of a date nobody claimed return without allocating.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationOverlayImpl implements ReservationOverlay {
+
+    private final SlotTemplate slotTemplate;
+
+    private final Map<String, Claim> byKey = new HashMap<>();
+    private final Map<Day, List<Claim>> byDay = new HashMap<>();
+    private volatile int claims;
+
+    @Override
+    public Map<Long, Long> reserved(String region, LocalDate date) {
+        if (claims == 0) {
+            return Map.of();
+        }
+        synchronized (this) {
+            List<Claim> day = byDay.get(new Day(region, date));
+            if (day == null) {
+                return Map.of();
+            }
+            Map<Long, Long> reserved = new HashMap<>();
+            for (Claim claim : day) {
+                for (Long cleanerId : claim.cleanerIds()) {
+                    reserved.merge(cleanerId, claim.windowMask(), (x, y) -> x | y);
+                }
+            }
+            return reserved;
+        }
+    }
+
+    @Override
+    public synchronized boolean tryReserve(String key, String region, LocalDate date, long windowMask, List<Long> cleanerIds) {
+        Day day = new Day(region, date);
+        for (Claim other : byDay.getOrDefault(day, List.of())) {
+            if (other.key().equals(key) || slotTemplate.fits(other.windowMask(), windowMask)) {
+                continue;
+            }
+            for (Long cleanerId : cleanerIds) {
+                if (other.cleanerIds().contains(cleanerId)) {
+                    return false;
+                }
+            }
+        }
+        release(key);
+        Claim claim = new Claim(key, day, windowMask, List.copyOf(cleanerIds));
+        byKey.put(key, claim);
+        byDay.computeIfAbsent(day, d -> new ArrayList<>()).add(claim);
+        claims = byKey.size();
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        Claim claim = byKey.remove(key);
+        if (claim == null) {
+            return;
+        }
+        List<Claim> day = byDay.get(claim.day());
+        day.remove(claim);
+        if (day.isEmpty()) {
+            byDay.remove(claim.day());
+        }
+        claims = byKey.size();
+    }
+
+    private record Day(String region, LocalDate date) {}
+
+    private record Claim(String key, Day day, long windowMask, List<Long> cleanerIds) {}
+}
@@ -0,0 +1,240 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.CleanerSlotUsage;
+import com.cleaning.booking.dto.CleanerUtilization;
+import com.cleaning.booking.dto.DailySlotUsage;
+import com.cleaning.booking.dto.UtilizationReport;
+import com.cleaning.booking.dto.VehicleUtilization;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.service.DataVersionService;
+import com.cleaning.booking.service.UtilizationService;
+import com.cleaning.booking.service.WorkingCalendarService;
+import com.cleaning.booking.util.Regions;
+import com.cleaning.booking.util.SlotMask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilization analytics over booking history.
+ *
+ * <p>The database does the heavy lifting: bookings are grouped by (cleaner, window)
+ * and (date, window), which collapses a period's rows into a few thousand groups.
+ * Those groups are then folded in parallel into primitive slot histograms.</p>
+ *
+ * <p>Reports for closed periods (ending before today) are cached. The key includes
+ * the roster and booking versions of the range, so a late edit still yields a fresh report.</p>
+ */
+@Slf4j
+@Service
+public class UtilizationServiceImpl implements UtilizationService {
+
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int DAYS_PER_WEEK = 7;
+
+    private final BookingRepository bookingRepository;
+    private final CleanerRepository cleanerRepository;
+    private final DataVersionService dataVersionService;
+    private final WorkingCalendarService workingCalendar;
+    private final Map<String, UtilizationReport> closedPeriods;
+
+    public UtilizationServiceImpl(
+            BookingRepository bookingRepository,
+            CleanerRepository cleanerRepository,
+            DataVersionService dataVersionService,
+            WorkingCalendarService workingCalendar,
+            @Value("${reports.utilization.cache-size:128}") int cacheSize
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.cleanerRepository = cleanerRepository;
+        this.dataVersionService = dataVersionService;
+        this.workingCalendar = workingCalendar;
+        this.closedPeriods = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UtilizationReport> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UtilizationReport utilization(LocalDate from, LocalDate to) {
+
+        if (to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Reporting period cannot exceed " + MAX_RANGE_DAYS + " days.");
+        }
+
+        if (!to.isBefore(LocalDate.now())) {
+            return compute(from, to);
+        }
+
+        String key = cacheKey(from, to);
+        UtilizationReport cached = closedPeriods.get(key);
+        if (cached != null) {
+            log.debug("Utilization report served from cache for {} to {}", from, to);
+            return cached;
+        }
+        UtilizationReport report = compute(from, to);
+        closedPeriods.put(key, report);
+        return report;
+    }
+
+    private String cacheKey(LocalDate from, LocalDate to) {
+        long bookingVersions = 0L;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            bookingVersions += dataVersionService.bookingVersion(d);
+        }
+        return from + "|" + to + "|" + dataVersionService.rosterVersion() + "|" + bookingVersions;
+    }
+
+    private UtilizationReport compute(LocalDate from, LocalDate to) {
+        log.info("Computing utilization report for {} to {}", from, to);
+
+        List<CleanerProfessional> roster = cleanerRepository.findAllWithVehicle();
+        Map<Long, Integer> cleanerIndex = new HashMap<>();
+        for (int i = 0; i < roster.size(); i++) {
+            cleanerIndex.put(roster.get(i).getId(), i);
+        }
+
+        int[] workingDaysByWeekday = new int[DAYS_PER_WEEK];
+        int workingDays = 0;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            if (workingCalendar.isWorkingDay(Regions.DEFAULT, d)) {
+                workingDaysByWeekday[d.getDayOfWeek().ordinal()]++;
+                workingDays++;
+            }
+        }
+
+        CleanerTally byCleaner = bookingRepository.countByCleanerAndWindow(from, to)
+                .parallelStream()
+                .collect(() -> new CleanerTally(roster.size()),
+                        (tally, row) -> tally.add(row, cleanerIndex),
+                        CleanerTally::merge);
+
+        long[] byWeekdaySlot = bookingRepository.countByDateAndWindow(from, to)
+                .parallelStream()
+                .collect(() -> new long[DAYS_PER_WEEK * SlotMask.SLOTS_PER_DAY],
+                        UtilizationServiceImpl::addDaily,
+                        UtilizationServiceImpl::mergeInto);
+
+        long slotsPerCleaner = (long) workingDays * SlotMask.SLOTS_PER_DAY;
+
+        List<CleanerUtilization> cleaners = new ArrayList<>(roster.size());
+        Map<Long, long[]> vehicleTotals = new LinkedHashMap<>();
+        Map<Long, String> vehicleNames = new HashMap<>();
+        for (int i = 0; i < roster.size(); i++) {
+            CleanerProfessional c = roster.get(i);
+            long booked = byCleaner.bookedSlots[i];
+            cleaners.add(new CleanerUtilization(c.getId(), c.getName(), c.getVehicle().getId(),
+                    booked * SlotMask.SLOT_MINUTES, ratio(booked, slotsPerCleaner)));
+
+            long[] totals = vehicleTotals.computeIfAbsent(c.getVehicle().getId(), id -> new long[2]);
+            totals[0]++;
+            totals[1] += booked;
+            vehicleNames.putIfAbsent(c.getVehicle().getId(), c.getVehicle().getName());
+        }
+        cleaners.sort(Comparator.comparingDouble(CleanerUtilization::utilization).reversed()
+                .thenComparing(CleanerUtilization::cleanerId));
+
+        List<VehicleUtilization> vehicles = new ArrayList<>(vehicleTotals.size());
+        vehicleTotals.forEach((vehicleId, totals) -> vehicles.add(new VehicleUtilization(
+                vehicleId, vehicleNames.get(vehicleId), (int) totals[0],
+                totals[1] * SlotMask.SLOT_MINUTES, ratio(totals[1], totals[0] * slotsPerCleaner))));
+        vehicles.sort(Comparator.comparingDouble(VehicleUtilization::utilization).reversed()
+                .thenComparing(VehicleUtilization::vehicleId));
+
+        double[] slotUtilization = new double[SlotMask.SLOTS_PER_DAY];
+        for (int s = 0; s < SlotMask.SLOTS_PER_DAY; s++) {
+            slotUtilization[s] = ratio(byCleaner.bookedBySlot[s], (long) roster.size() * workingDays);
+        }
+
+        Map<DayOfWeek, double[]> heatmap = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            int days = workingDaysByWeekday[day.ordinal()];
+            if (days == 0) {
+                continue;
+            }
+            double[] row = new double[SlotMask.SLOTS_PER_DAY];
+            for (int s = 0; s < SlotMask.SLOTS_PER_DAY; s++) {
+                row[s] = ratio(byWeekdaySlot[day.ordinal() * SlotMask.SLOTS_PER_DAY + s], (long) roster.size() * days);
+            }
+            heatmap.put(day, row);
+        }
+
+        long totalBooked = 0L;
+        for (long booked : byCleaner.bookedSlots) {
+            totalBooked += booked;
+        }
+
+        return new UtilizationReport(from, to, workingDays, LocalTime.of(8, 0), SlotMask.SLOT_MINUTES,
+                ratio(totalBooked, roster.size() * slotsPerCleaner), cleaners, vehicles, slotUtilization, heatmap);
+    }
+
+    private static void addDaily(long[] histogram, DailySlotUsage row) {
+        int offset = row.date().getDayOfWeek().ordinal() * SlotMask.SLOTS_PER_DAY;
+        long mask = SlotMask.range(SlotMask.slotIndex(row.startTime()), SlotMask.slotIndexCeil(row.endTime()));
+        for (long m = mask; m != 0; m &= m - 1) {
+            histogram[offset + Long.numberOfTrailingZeros(m)] += row.count();
+        }
+    }
+
+    private static void mergeInto(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    /** Rounded to three decimals; zero capacity reads as zero utilization. */
+    private static double ratio(long booked, long capacity) {
+        return capacity == 0 ? 0.0 : Math.round(booked * 1000.0 / capacity) / 1000.0;
+    }
+
+    /** Per-cleaner booked slots and per-slot booked cleaners, accumulated per thread. */
+    private static final class CleanerTally {
+
+        private final long[] bookedSlots;
+        private final long[] bookedBySlot = new long[SlotMask.SLOTS_PER_DAY];
+
+        private CleanerTally(int cleaners) {
+            this.bookedSlots = new long[cleaners];
+        }
+
+        private void add(CleanerSlotUsage row, Map<Long, Integer> cleanerIndex) {
+            Integer index = cleanerIndex.get(row.cleanerId());
+            if (index == null) {
+                return;
+            }
+            long mask = SlotMask.range(SlotMask.slotIndex(row.startTime()), SlotMask.slotIndexCeil(row.endTime()));
+            bookedSlots[index] += Long.bitCount(mask) * row.count();
+            for (long m = mask; m != 0; m &= m - 1) {
+                bookedBySlot[Long.numberOfTrailingZeros(m)] += row.count();
+            }
+        }
+
+        private void merge(CleanerTally other) {
+            mergeInto(bookedSlots, other.bookedSlots);
+            mergeInto(bookedBySlot, other.bookedBySlot);
+        }
+    }
+}
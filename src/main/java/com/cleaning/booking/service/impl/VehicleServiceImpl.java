@@ -6,6 +6,7 @@ import com.cleaning.booking.dto.VehicleCreateRequest;
 import com.cleaning.booking.dto.VehicleResponse;
 import com.cleaning.booking.entity.CleanerProfessional;
 import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.event.RosterChangedEvent;
 import com.cleaning.booking.exception.BadRequestException;
 import com.cleaning.booking.exception.EntityNotFoundException;
 import com.cleaning.booking.repository.CleanerRepository;
@@ -13,6 +14,7 @@ import com.cleaning.booking.repository.VehicleRepository;
 import com.cleaning.booking.service.VehicleService;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -36,27 +38,35 @@ import java.util.List;
 public class VehicleServiceImpl implements VehicleService {
     private final VehicleRepository vehicleRepository;
     private final CleanerRepository cleanerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public VehicleServiceImpl(VehicleRepository vehicleRepository, CleanerRepository cleanerRepository) {
+    public VehicleServiceImpl(
+            VehicleRepository vehicleRepository,
+            CleanerRepository cleanerRepository,
+            ApplicationEventPublisher eventPublisher
+    ) {
         this.vehicleRepository = vehicleRepository;
         this.cleanerRepository = cleanerRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Creates a new vehicle in the system.
      *
-     * @param request DTO containing the name of the vehicle.
+     * @param request DTO containing the name and region of the vehicle.
      * @return A response DTO representing the stored vehicle.
      */
     @Override
     public VehicleResponse createVehicle(VehicleCreateRequest request) {
-        log.info("Creating vehicle with name={}", request.name());
+        log.info("Creating vehicle with name={} in region={}", request.name(), request.region());
 
         Vehicle vehicle = new Vehicle();
         vehicle.setName(request.name());
+        vehicle.setRegion(request.region());
         vehicleRepository.save(vehicle);
 
         log.debug("Vehicle created with id={}", vehicle.getId());
+        eventPublisher.publishEvent(new RosterChangedEvent(vehicle.getId()));
         return toVehicleResponse(vehicle);
     }
 
@@ -93,6 +103,7 @@ public class VehicleServiceImpl implements VehicleService {
 
         log.debug("Cleaner '{}' added with id={} to vehicle={}",
                 request.name(), cleaner.getId(), vehicleId);
+        eventPublisher.publishEvent(new RosterChangedEvent(vehicleId));
 
         return new CleanerResponse(cleaner.getId(), cleaner.getName(), vehicleId);
     }
@@ -110,6 +121,20 @@ public class VehicleServiceImpl implements VehicleService {
                 .toList();
     }
 
+    /**
+     * Retrieves the vehicles of one region along with their assigned cleaners.
+     *
+     * @param region Service region.
+     * @return A list of vehicle response DTOs.
+     */
+    @Override
+    public List<VehicleResponse> getVehicles(String region) {
+        log.info("Fetching vehicles of region={}", region);
+        return vehicleRepository.findAllWithCleanersInRegion(region).stream()
+                .map(this::toVehicleResponse)
+                .toList();
+    }
+
     /**
      * Retrieves a single vehicle with all associated cleaners.
      *
@@ -138,13 +163,13 @@ public class VehicleServiceImpl implements VehicleService {
      */
     private VehicleResponse toVehicleResponse(Vehicle vehicle) {
         if(vehicle.getCleaners() == null) {
-            return new VehicleResponse(vehicle.getId(), vehicle.getName(), List.of());
+            return new VehicleResponse(vehicle.getId(), vehicle.getName(), vehicle.getRegion(), List.of());
         }
         List<CleanerResponse> cleaners = vehicle.getCleaners().stream()
                 .map(c -> new CleanerResponse(c.getId(), c.getName(), vehicle.getId()))
                 .toList();
 
-        return new VehicleResponse(vehicle.getId(), vehicle.getName(), cleaners);
+        return new VehicleResponse(vehicle.getId(), vehicle.getName(), vehicle.getRegion(), cleaners);
     }
 }
 
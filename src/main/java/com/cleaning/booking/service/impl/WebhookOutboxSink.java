@@ -0,0 +1,52 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.BookingEvent;
+import com.cleaning.booking.service.OutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * POSTs each relayed batch as a JSON array to {@code outbox.sink.webhook.url}. Any
+ * non-2xx answer or timeout fails the batch, which is sent again on the next run.
+ * Receivers should deduplicate by {@code seq}.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.webhook.url")
+public class WebhookOutboxSink implements OutboxSink {
+
+    private final RestClient restClient;
+
+    public WebhookOutboxSink(
+            RestClient.Builder restClientBuilder,
+            @Value("${outbox.sink.webhook.url}") String url,
+            @Value("${outbox.sink.webhook.timeout-ms:5000}") int timeoutMs
+    ) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        this.restClient = restClientBuilder
+                .baseUrl(url)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void publish(List<BookingEvent> events) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(events)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,310 @@
+package com.cleaning.booking.service.impl;
+
+import com.cleaning.booking.dto.CalendarRuleRequest;
+import com.cleaning.booking.dto.CalendarRuleResponse;
+import com.cleaning.booking.dto.CalendarRuleType;
+import com.cleaning.booking.entity.CalendarRule;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.event.RosterChangedEvent;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.EntityNotFoundException;
+import com.cleaning.booking.repository.CalendarRuleRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.service.WorkingCalendarService;
+import com.cleaning.booking.util.CompiledCalendar;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.TimeWindow;
+import com.cleaning.booking.util.WorkHoursValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Working calendar compiled from the {@code calendar_rule} table.
+ *
+ * <p>The weekdays in {@code calendar.closed-days} are never worked and the day spans
+ * 08:00–22:00; rules can only take time away from that. They are compiled into a
+ * {@link CompiledCalendar} covering {@code calendar.horizon-days} days from today, so
+ * availability and booking checks never evaluate rules on the request path. A rule
+ * change recompiles only the tables and days it matches once its transaction commits,
+ * then bumps the roster version, which invalidates cached availability here and,
+ * through the cache invalidation bus, on other nodes. Those read the rule ids, load
+ * only the rules they do not hold yet and recompile the days those match. The rules
+ * are also re-read every {@code calendar.refresh-ms}, which rolls the horizon forward.</p>
+ */
+@Slf4j
+@Service
+public class WorkingCalendarServiceImpl implements WorkingCalendarService {
+
+    private final CalendarRuleRepository ruleRepository;
+    private final CleanerRepository cleanerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<DayOfWeek> closedDays;
+    private final int horizonDays;
+
+    private volatile CompiledCalendar compiled;
+
+    public WorkingCalendarServiceImpl(
+            CalendarRuleRepository ruleRepository,
+            CleanerRepository cleanerRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${calendar.closed-days:FRIDAY}") Set<DayOfWeek> closedDays,
+            @Value("${calendar.horizon-days:366}") int horizonDays
+    ) {
+        this.ruleRepository = ruleRepository;
+        this.cleanerRepository = cleanerRepository;
+        this.eventPublisher = eventPublisher;
+        this.closedDays = closedDays;
+        this.horizonDays = horizonDays;
+        this.compiled = CompiledCalendar.compile(List.of(), closedDays, LocalDate.now(), horizonDays);
+    }
+
+    @Override
+    public boolean isWorkingDay(String region, LocalDate date) {
+        return compiled.openSlots(region, date) != 0L;
+    }
+
+    @Override
+    public long openSlots(String region, LocalDate date) {
+        return compiled.openSlots(region, date);
+    }
+
+    @Override
+    public long cleanerSlots(String region, Long cleanerId, LocalDate date) {
+        CompiledCalendar calendar = compiled;
+        return calendar.isDayOff(cleanerId, date) ? 0L : calendar.openSlots(region, date);
+    }
+
+    @Override
+    public String closedReason(String region, LocalDate date, TimeWindow window) {
+        CompiledCalendar calendar = compiled;
+        long open = calendar.openSlots(region, date);
+        if (open == 0L) {
+            String day = calendar.isClosedDay(date.getDayOfWeek())
+                    ? date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH)
+                    : date.toString();
+            return day + " is not a working day.";
+        }
+        if (window != null && !SlotMask.within(open, SlotMask.of(window))) {
+            int first = Long.numberOfTrailingZeros(open);
+            int end = Long.SIZE - Long.numberOfLeadingZeros(open);
+            return "Booking must be within working hours " + SlotMask.slotStart(first) + "-" + SlotMask.slotStart(end) + ".";
+        }
+        return null;
+    }
+
+    @Override
+    public List<CalendarRuleResponse> getRules() {
+        return compiled.rules().values().stream()
+                .sorted(Comparator.comparing(CalendarRule::getId))
+                .map(WorkingCalendarServiceImpl::toResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public CalendarRuleResponse createRule(CalendarRuleRequest request) {
+        validate(request);
+
+        CalendarRule rule = ruleRepository.save(CalendarRule.builder()
+                .type(request.type())
+                .region(regionOf(request))
+                .cleanerId(request.cleanerId())
+                .dateFrom(request.dateFrom())
+                .dateTo(request.dateTo())
+                .dayOfWeek(request.dayOfWeek())
+                .openTime(request.openTime())
+                .closeTime(request.closeTime())
+                .description(request.description())
+                .build());
+
+        log.info("Calendar rule {} added: {}", rule.getId(), request);
+        applyChange(rule, true);
+        return toResponse(rule);
+    }
+
+    @Override
+    @Transactional
+    public void deleteRule(Long id) {
+        CalendarRule rule = ruleRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Calendar rule not found"));
+        ruleRepository.delete(rule);
+
+        log.info("Calendar rule {} removed", id);
+        applyChange(rule, false);
+    }
+
+    /**
+     * Compiles the stored rules before the application reports ready. A failure keeps
+     * the built-in calendar until {@link #refresh()} succeeds.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        try {
+            refresh();
+        } catch (DataAccessException ex) {
+            log.warn("Calendar rules could not be loaded, using closed days {} only until they are", closedDays, ex);
+        }
+    }
+
+    /**
+     * Re-reads the rules and recompiles what changed; moves the horizon to today.
+     */
+    @Scheduled(fixedDelayString = "${calendar.refresh-ms:60000}", initialDelayString = "${calendar.refresh-ms:60000}")
+    public synchronized void refresh() {
+        LocalDate today = LocalDate.now();
+        if (today.equals(compiled.from())) {
+            applyStoredChanges();
+            return;
+        }
+        List<CalendarRule> rules = ruleRepository.findAll();
+        compiled = CompiledCalendar.compile(rules, closedDays, today, horizonDays);
+        log.debug("Calendar compiled for {} days from {} ({} rules)", horizonDays, today, rules.size());
+    }
+
+    /**
+     * Picks up rules changed on other nodes, recompiling only the days they match.
+     */
+    @EventListener
+    public void onRemoteChange(CacheInvalidatedEvent event) {
+        if (!event.roster()) {
+            return;
+        }
+        try {
+            applyStoredChanges();
+        } catch (DataAccessException ex) {
+            log.warn("Calendar rules changed elsewhere could not be read, retrying on the next refresh", ex);
+        }
+    }
+
+    /**
+     * Brings the compiled calendar in line with the stored rules: compares ids, loads
+     * only the rules added since and recompiles the days the added and removed ones match.
+     */
+    private synchronized void applyStoredChanges() {
+        CompiledCalendar current = compiled;
+        Set<Long> stored = ruleRepository.findAllIds();
+        Map<Long, CalendarRule> rules = new HashMap<>(current.rules());
+
+        List<CalendarRule> changed = new ArrayList<>();
+        for (CalendarRule rule : current.rules().values()) {
+            if (!stored.contains(rule.getId())) {
+                rules.remove(rule.getId());
+                changed.add(rule);
+            }
+        }
+        List<Long> added = stored.stream().filter(id -> !rules.containsKey(id)).toList();
+        if (!added.isEmpty()) {
+            for (CalendarRule rule : ruleRepository.findAllById(added)) {
+                rules.put(rule.getId(), rule);
+                changed.add(rule);
+            }
+        }
+        if (!changed.isEmpty()) {
+            compiled = current.withRules(rules.values(), changed);
+            log.debug("Calendar recompiled for {} changed rules", changed.size());
+        }
+    }
+
+    /**
+     * Recompiles the days a local change touches and tells every cache about it, once
+     * the change has committed. The recompile is registered first, so it runs before the
+     * after-commit listeners of the roster event bump the versions availability is
+     * cached under.
+     */
+    private void applyChange(CalendarRule rule, boolean added) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recompile(rule, added);
+                }
+            });
+        } else {
+            recompile(rule, added);
+        }
+        eventPublisher.publishEvent(new RosterChangedEvent(null));
+    }
+
+    private synchronized void recompile(CalendarRule rule, boolean added) {
+        CompiledCalendar current = compiled;
+        Map<Long, CalendarRule> rules = new HashMap<>(current.rules());
+        if (added) {
+            rules.put(rule.getId(), rule);
+        } else {
+            rules.remove(rule.getId());
+        }
+        compiled = current.withRules(rules.values(), List.of(rule));
+    }
+
+    private void validate(CalendarRuleRequest request) {
+        if (request.dateFrom() != null && request.dateTo() != null && request.dateTo().isBefore(request.dateFrom())) {
+            throw new BadRequestException("dateTo must not be before dateFrom.");
+        }
+
+        if (request.type() == CalendarRuleType.DAY_OFF) {
+            if (request.cleanerId() == null || regionOf(request) != null) {
+                throw new BadRequestException("A DAY_OFF rule needs a cleanerId and no region.");
+            }
+            if (!cleanerRepository.existsById(request.cleanerId())) {
+                throw new EntityNotFoundException("Cleaner not found");
+            }
+        } else if (request.cleanerId() != null) {
+            throw new BadRequestException("Only DAY_OFF rules name a cleaner.");
+        }
+
+        if (request.type() != CalendarRuleType.HOURS) {
+            if (request.openTime() != null || request.closeTime() != null) {
+                throw new BadRequestException("Only HOURS rules have opening times.");
+            }
+            if (request.dateFrom() == null && request.dateTo() == null && request.dayOfWeek() == null) {
+                throw new BadRequestException("A " + request.type() + " rule needs dates or a dayOfWeek.");
+            }
+            return;
+        }
+
+        LocalTime open = request.openTime();
+        LocalTime close = request.closeTime();
+        if (open == null || close == null || !open.isBefore(close)) {
+            throw new BadRequestException("An HOURS rule needs an openTime before its closeTime.");
+        }
+        if (!WorkHoursValidator.isValidStartTime(open) || !WorkHoursValidator.isValidEndTime(close)) {
+            throw new BadRequestException("Working hours must lie within 08:00-22:00.");
+        }
+        if (open.getMinute() % SlotMask.SLOT_MINUTES != 0 || close.getMinute() % SlotMask.SLOT_MINUTES != 0
+                || open.getSecond() != 0 || close.getSecond() != 0) {
+            throw new BadRequestException("Working hours must start and end on a quarter hour.");
+        }
+    }
+
+    /** Region of a rule; {@code null} stands for every region. */
+    private static String regionOf(CalendarRuleRequest request) {
+        return request.region() == null || request.region().isBlank() ? null : request.region().trim();
+    }
+
+    private static CalendarRuleResponse toResponse(CalendarRule rule) {
+        return new CalendarRuleResponse(rule.getId(), rule.getType(), rule.getRegion(), rule.getCleanerId(),
+                rule.getDateFrom(), rule.getDateTo(), rule.getDayOfWeek(), rule.getOpenTime(), rule.getCloseTime(),
+                rule.getDescription());
+    }
+}
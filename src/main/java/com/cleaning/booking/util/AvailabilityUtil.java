@@ -2,7 +2,6 @@ package com.cleaning.booking.util;
 
 import com.cleaning.booking.entity.Booking;
 
-import java.time.LocalTime;
 import java.util.*;
 
 /**
@@ -13,38 +12,27 @@ public final class AvailabilityUtil {
     private AvailabilityUtil() {}
 
     /**
-     * Generates available 2-hour or 4-hour slots for a given cleaner.
+     * Generates the free windows of the default {@link SlotTemplate} for a given cleaner.
      *
      * @param existing existing bookings for the date
      * @return list of available time windows
      */
     public static List<String> generateAvailableSlots(List<Booking> existing) {
+        return generateAvailableSlots(existing, SlotMask.FULL_DAY, SlotTemplate.DEFAULT);
+    }
 
-        // working hours: 08:00–22:00
-        LocalTime cursor = LocalTime.of(8, 0);
-        LocalTime endOfDay = LocalTime.of(22, 0);
-
-        List<String> available = new ArrayList<>();
-
-        while (cursor.plusHours(2).isBefore(endOfDay.plusSeconds(1))) {
-
-            TimeWindow twoHour = new TimeWindow(cursor, cursor.plusHours(2));
-            TimeWindow fourHour = new TimeWindow(cursor, cursor.plusHours(4));
-
-            boolean twoFree = isWindowFree(existing, twoHour);
-            boolean fourFree = isWindowFree(existing, fourHour);
-
-            if (twoFree) {
-                available.add(twoHour.start() + " - " + twoHour.end());
-            }
-            if (fourFree) {
-                available.add(fourHour.start() + " - " + fourHour.end());
-            }
-
-            cursor = cursor.plusMinutes(30);
-        }
-
-        return available;
+    /**
+     * Generates the free windows of a template for a given cleaner, keeping only windows
+     * inside the open slots. Bookings are folded into one occupancy mask, so each window
+     * costs one AND against the template's precompiled mask.
+     *
+     * @param existing existing bookings for the date
+     * @param open open slots of the day, see {@link SlotMask}
+     * @param template bookable durations, step and break
+     * @return list of available time windows
+     */
+    public static List<String> generateAvailableSlots(List<Booking> existing, long open, SlotTemplate template) {
+        return template.availableSlots(SlotMask.occupancy(existing), open);
     }
 
     /** Checks if window is conflict-free AND break-rule safe */
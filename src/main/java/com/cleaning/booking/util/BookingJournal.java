@@ -0,0 +1,310 @@
+package com.cleaning.booking.util;
+
+import com.cleaning.booking.dto.BookingRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of accepted bookings.
+ *
+ * <p>Layout: a 64-byte header (magic, format version, journal id, drained sequence)
+ * followed by records of {@code [payload length][CRC32 of payload][payload]}. A payload
+ * holds the sequence number, the booking request and the cleaners it was assigned,
+ * then the request's region. Recovery scans records until the first one that is
+ * truncated, fails its checksum or does not increase the sequence; everything after
+ * the drained sequence is undrained.</p>
+ *
+ * <p>Format 1 records have no region (their requests replay in the default region). A
+ * format 1 journal is still recovered, but takes no new entries until it has been
+ * drained; it is then rewritten as the current format.</p>
+ *
+ * <p>{@link #awaitDurable(long)} is a group commit: one caller forces the mapping to
+ * disk for every record appended so far while the others wait, so concurrent appends
+ * share a single fsync.</p>
+ */
+public final class BookingJournal {
+
+    static final int MAGIC = 0x424A4E31; // "BJN1"
+    static final int FORMAT_VERSION = 2;
+    /** Format without the request's region. */
+    static final int FORMAT_VERSION_NO_REGION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int DRAINED_OFFSET = 24;
+    static final int RECORD_HEADER_BYTES = 8;
+
+    /** One accepted booking. */
+    public record Entry(long seq, BookingRequest request, List<Long> cleanerIds) {}
+
+    /**
+     * Thrown when the journal has no room left until drained entries are reclaimed, or
+     * holds undrained entries of an older format.
+     */
+    public static class FullException extends RuntimeException {
+        public FullException() {
+            super("Booking journal is full");
+        }
+    }
+
+    private final MappedByteBuffer buffer;
+    private final String id;
+    private final List<Entry> undrained;
+    private int version;
+
+    private long lastSeq;
+    private long drainedSeq;
+    private int writePosition;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushed = flushLock.newCondition();
+    private boolean flushing;
+    private long durableSeq;
+
+    private BookingJournal(MappedByteBuffer buffer, String id, int version, long drainedSeq) {
+        this.buffer = buffer;
+        this.id = id;
+        this.version = version;
+        this.drainedSeq = drainedSeq;
+        this.undrained = new ArrayList<>();
+        recover();
+        if (version != FORMAT_VERSION && undrained.isEmpty()) {
+            upgrade();
+        }
+    }
+
+    /**
+     * Maps the journal file, creating it with the given capacity if missing.
+     *
+     * @throws IllegalArgumentException if the capacity exceeds one mapping (2 GB).
+     */
+    public static BookingJournal open(Path path, long capacityBytes) throws IOException {
+        if (capacityBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Booking journal capacity must be below 2048 MB, got "
+                    + capacityBytes / (1024 * 1024) + " MB");
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        boolean created = !Files.exists(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = created ? capacityBytes : Math.max(channel.size(), HEADER_BYTES);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            if (created) {
+                UUID uuid = UUID.randomUUID();
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, FORMAT_VERSION);
+                buffer.putLong(8, uuid.getMostSignificantBits());
+                buffer.putLong(16, uuid.getLeastSignificantBits());
+                buffer.putLong(DRAINED_OFFSET, 0L);
+                buffer.force();
+            } else if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a booking journal: " + path);
+            } else if (buffer.getInt(4) != FORMAT_VERSION && buffer.getInt(4) != FORMAT_VERSION_NO_REGION) {
+                throw new IOException("Unsupported booking journal format " + buffer.getInt(4) + ": " + path);
+            }
+
+            String id = new UUID(buffer.getLong(8), buffer.getLong(16)).toString().replace("-", "");
+            return new BookingJournal(buffer, id, buffer.getInt(4), buffer.getLong(DRAINED_OFFSET));
+        }
+    }
+
+    /** Random id of this journal file, stable across restarts. */
+    public String id() {
+        return id;
+    }
+
+    /** Entries that were appended but not drained before the journal was opened. */
+    public List<Entry> undrained() {
+        return List.copyOf(undrained);
+    }
+
+    /** Sequence number the next {@link #append} assigns. */
+    public synchronized long nextSeq() {
+        return lastSeq + 1;
+    }
+
+    /**
+     * Appends an entry. It is not durable until {@link #awaitDurable(long)} returns.
+     *
+     * @throws FullException if the entry does not fit.
+     */
+    public synchronized Entry append(BookingRequest request, List<Long> cleanerIds) {
+        if (version != FORMAT_VERSION) {
+            throw new FullException();
+        }
+        long seq = lastSeq + 1;
+        byte[] region = request.region().getBytes(StandardCharsets.UTF_8);
+        int payloadBytes = 8 + 4 * 5 + 8 * cleanerIds.size() + 2 + region.length;
+        if (writePosition + RECORD_HEADER_BYTES + payloadBytes > buffer.capacity()) {
+            throw new FullException();
+        }
+
+        ByteBuffer payload = buffer.slice(writePosition + RECORD_HEADER_BYTES, payloadBytes);
+        payload.putLong(seq);
+        payload.putInt((int) request.date().toEpochDay());
+        payload.putInt(request.startTime().toSecondOfDay() / 60);
+        payload.putInt(request.durationMinutes());
+        payload.putInt(request.cleanerCount());
+        payload.putInt(cleanerIds.size());
+        for (Long cleanerId : cleanerIds) {
+            payload.putLong(cleanerId);
+        }
+        payload.putShort((short) region.length);
+        payload.put(region);
+
+        buffer.putInt(writePosition, payloadBytes);
+        buffer.putInt(writePosition + 4, checksum(payload.flip()));
+        writePosition += RECORD_HEADER_BYTES + payloadBytes;
+        lastSeq = seq;
+        return new Entry(seq, request, List.copyOf(cleanerIds));
+    }
+
+    /**
+     * Blocks until the entry with {@code seq} (and everything before it) is on disk.
+     */
+    public void awaitDurable(long seq) {
+        flushLock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                flushing = true;
+                long target;
+                flushLock.unlock();
+                try {
+                    synchronized (this) {
+                        target = lastSeq;
+                    }
+                    buffer.force();
+                } finally {
+                    flushLock.lock();
+                    flushing = false;
+                }
+                durableSeq = Math.max(durableSeq, target);
+                flushed.signalAll();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Highest sequence known to be on disk. */
+    public long durableSeq() {
+        flushLock.lock();
+        try {
+            return durableSeq;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Records that every entry up to {@code seq} is in the database. Once the whole
+     * journal is drained and past half its capacity (or of an older format), writing
+     * starts over at the beginning.
+     */
+    public synchronized void markDrained(long seq) {
+        drainedSeq = seq;
+        buffer.putLong(DRAINED_OFFSET, seq);
+        if (seq == lastSeq && version != FORMAT_VERSION) {
+            upgrade();
+        } else if (seq == lastSeq && writePosition > buffer.capacity() / 2) {
+            writePosition = HEADER_BYTES;
+        }
+        buffer.force(0, HEADER_BYTES);
+    }
+
+    /** Format of the records, {@link #FORMAT_VERSION} once any older entries are drained. */
+    public synchronized int version() {
+        return version;
+    }
+
+    /** Bytes in use, including the header. */
+    public synchronized int size() {
+        return writePosition;
+    }
+
+    private void recover() {
+        int position = HEADER_BYTES;
+        long seq = drainedSeq;
+        long previous = 0L;
+
+        while (position + RECORD_HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(position + RECORD_HEADER_BYTES, length);
+            if (buffer.getInt(position + 4) != checksum(payload.duplicate())) {
+                break;
+            }
+            long recordSeq = payload.getLong();
+            if (recordSeq <= previous) {
+                break;
+            }
+            previous = recordSeq;
+            seq = Math.max(seq, recordSeq);
+
+            if (recordSeq > drainedSeq) {
+                LocalDate date = LocalDate.ofEpochDay(payload.getInt());
+                LocalTime start = LocalTime.ofSecondOfDay(payload.getInt() * 60L);
+                int duration = payload.getInt();
+                int cleanerCount = payload.getInt();
+                List<Long> cleanerIds = new ArrayList<>();
+                for (int i = payload.getInt(); i > 0; i--) {
+                    cleanerIds.add(payload.getLong());
+                }
+                String region = null;
+                if (version != FORMAT_VERSION_NO_REGION) {
+                    byte[] bytes = new byte[payload.getShort()];
+                    payload.get(bytes);
+                    region = new String(bytes, StandardCharsets.UTF_8);
+                }
+                undrained.add(new Entry(recordSeq,
+                        new BookingRequest(date, start, duration, cleanerCount, region), List.copyOf(cleanerIds)));
+            }
+            position += RECORD_HEADER_BYTES + length;
+        }
+
+        // A journal reset after a full drain keeps older records behind the new ones
+        writePosition = undrained.isEmpty() && position > buffer.capacity() / 2 ? HEADER_BYTES : position;
+        lastSeq = seq;
+        durableSeq = seq;
+    }
+
+    /**
+     * Switches a fully drained journal to the current format. Its old records stay
+     * behind the new ones, like after any reset, and are never parsed again since
+     * they are all drained.
+     */
+    private void upgrade() {
+        version = FORMAT_VERSION;
+        writePosition = HEADER_BYTES;
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.force(0, HEADER_BYTES);
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,11 @@
+package com.cleaning.booking.util;
+
+/**
+ * Ready-to-write response body: UTF-8 JSON and, optionally, its gzip encoding.
+ * {@code stale} marks a degraded-mode snapshot, which is never cached.
+ */
+public record CachedPayload(
+        byte[] json,
+        byte[] gzip,
+        boolean stale
+) { }
@@ -0,0 +1,115 @@
+package com.cleaning.booking.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import jakarta.persistence.PersistenceException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Minimal circuit breaker for database-backed reads.
+ *
+ * <p>A call counts as failed when it throws a data-access exception or takes longer
+ * than {@code slowCallMillis}; a slow call still returns its result. After
+ * {@code failureThreshold} consecutive failures the breaker opens for
+ * {@code openMillis}, then lets a single probe through: success closes it, failure
+ * re-opens it. Other exceptions (e.g. validation) leave the state unchanged.</p>
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    private final String name;
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /** 0 while closed, otherwise the clock value at which the breaker may half-open. */
+    private final AtomicLong openUntil = new AtomicLong();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    public CircuitBreaker(String name, int failureThreshold, long slowCallMillis, long openMillis) {
+        this(name, failureThreshold, slowCallMillis, openMillis, System::nanoTime);
+    }
+
+    public CircuitBreaker(String name, int failureThreshold, long slowCallMillis, long openMillis, LongSupplier clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCallMillis * 1_000_000L;
+        this.openNanos = openMillis * 1_000_000L;
+        this.clock = clock;
+    }
+
+    /** Thrown instead of running the call while the breaker is open. */
+    public static class OpenException extends RuntimeException {
+        public OpenException(String name) {
+            super("Circuit '" + name + "' is open");
+        }
+    }
+
+    /** True while open or half-open. */
+    public boolean isOpen() {
+        return openUntil.get() != 0;
+    }
+
+    public <T> T call(Supplier<T> action) {
+        boolean probe = acquirePermission();
+        long start = clock.getAsLong();
+        T result;
+        try {
+            result = action.get();
+        } catch (DataAccessException | PersistenceException ex) {
+            onFailure(probe);
+            throw ex;
+        } catch (RuntimeException ex) {
+            if (probe) {
+                probeInFlight.set(false);
+            }
+            throw ex;
+        }
+        if (clock.getAsLong() - start > slowCallNanos) {
+            onFailure(probe);
+        } else {
+            onSuccess();
+        }
+        return result;
+    }
+
+    private boolean acquirePermission() {
+        long until = openUntil.get();
+        if (until == 0) {
+            return false;
+        }
+        if (clock.getAsLong() - until < 0 || !probeInFlight.compareAndSet(false, true)) {
+            throw new OpenException(name);
+        }
+        return true;
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (openUntil.getAndSet(0) != 0) {
+            probeInFlight.set(false);
+            log.info("Circuit '{}' closed", name);
+        }
+    }
+
+    private void onFailure(boolean probe) {
+        if (probe) {
+            openUntil.set(clock.getAsLong() + openNanos);
+            probeInFlight.set(false);
+            log.warn("Circuit '{}' probe failed, open again", name);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && openUntil.get() == 0) {
+            openUntil.set(clock.getAsLong() + openNanos);
+            log.warn("Circuit '{}' opened after {} consecutive slow or failed calls", name, failureThreshold);
+        }
+    }
+}
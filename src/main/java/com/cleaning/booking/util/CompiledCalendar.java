@@ -0,0 +1,192 @@
+package com.cleaning.booking.util;
+
+import com.cleaning.booking.dto.CalendarRuleType;
+import com.cleaning.booking.entity.CalendarRule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Working-calendar rules compiled into per-day lookup tables for a rolling horizon.
+ *
+ * <p>For every day from {@code from} on, a table holds the open slots as a
+ * {@link SlotMask} ({@code 0} = not a working day), and a bitmap per cleaner marks
+ * the cleaner's days off, so a lookup is one array read or one bit test. Regions
+ * without rules of their own share one table. Days outside the horizon are evaluated
+ * from the rules.</p>
+ *
+ * <p>Instances are immutable. {@link #withRules} recompiles only the tables and the
+ * days that the changed rules can touch.</p>
+ */
+public final class CompiledCalendar {
+
+    private final Set<DayOfWeek> closedDays;
+    private final LocalDate from;
+    private final int days;
+
+    private final Map<Long, CalendarRule> rules;
+    private final List<CalendarRule> everyRegionRules = new ArrayList<>();
+    private final Map<String, List<CalendarRule>> regionRules = new HashMap<>();
+    private final Map<Long, List<CalendarRule>> cleanerRules = new HashMap<>();
+
+    private long[] everyRegion;
+    private final Map<String, long[]> byRegion = new HashMap<>();
+    private final Map<Long, BitSet> daysOff = new HashMap<>();
+
+    private CompiledCalendar(Collection<CalendarRule> rules, Set<DayOfWeek> closedDays, LocalDate from, int days) {
+        this.closedDays = Set.copyOf(closedDays);
+        this.from = from;
+        this.days = days;
+        this.rules = new HashMap<>();
+        for (CalendarRule rule : rules) {
+            this.rules.put(rule.getId(), rule);
+            if (rule.getType() == CalendarRuleType.DAY_OFF) {
+                cleanerRules.computeIfAbsent(rule.getCleanerId(), c -> new ArrayList<>()).add(rule);
+            } else if (rule.getRegion() == null) {
+                everyRegionRules.add(rule);
+            } else {
+                regionRules.computeIfAbsent(rule.getRegion(), r -> new ArrayList<>()).add(rule);
+            }
+        }
+    }
+
+    /** Compiles every table for {@code days} days from {@code from}. */
+    public static CompiledCalendar compile(Collection<CalendarRule> rules, Set<DayOfWeek> closedDays,
+                                           LocalDate from, int days) {
+        CompiledCalendar calendar = new CompiledCalendar(rules, closedDays, from, days);
+        calendar.everyRegion = calendar.openTable(null, null, 0, days);
+        calendar.regionRules.keySet().forEach(region ->
+                calendar.byRegion.put(region, calendar.openTable(region, null, 0, days)));
+        calendar.cleanerRules.keySet().forEach(cleanerId ->
+                calendar.daysOff.put(cleanerId, calendar.offBitmap(cleanerId, null, 0, days)));
+        return calendar;
+    }
+
+    /**
+     * The same horizon for a new rule set, reusing this calendar's tables except for
+     * the days the {@code changed} rules (added or removed) match.
+     */
+    public CompiledCalendar withRules(Collection<CalendarRule> rules, Collection<CalendarRule> changed) {
+        CompiledCalendar next = new CompiledCalendar(rules, closedDays, from, days);
+        next.everyRegion = everyRegion;
+        next.regionRules.keySet().forEach(region -> next.byRegion.put(region,
+                byRegion.containsKey(region) ? byRegion.get(region) : next.openTable(region, null, 0, days)));
+        next.cleanerRules.keySet().forEach(cleanerId -> next.daysOff.put(cleanerId,
+                daysOff.containsKey(cleanerId) ? daysOff.get(cleanerId) : next.offBitmap(cleanerId, null, 0, days)));
+
+        for (CalendarRule rule : changed) {
+            int lo = rule.getDateFrom() == null ? 0 : Math.max(0, dayIndex(rule.getDateFrom()));
+            int hi = rule.getDateTo() == null ? days : Math.min(days, dayIndex(rule.getDateTo()) + 1);
+            if (lo >= hi) {
+                continue;
+            }
+            if (rule.getType() == CalendarRuleType.DAY_OFF) {
+                next.daysOff.computeIfPresent(rule.getCleanerId(),
+                        (cleanerId, bitmap) -> next.offBitmap(cleanerId, bitmap, lo, hi));
+            } else if (rule.getRegion() == null) {
+                next.everyRegion = next.openTable(null, next.everyRegion, lo, hi);
+                next.byRegion.replaceAll((region, table) -> next.openTable(region, table, lo, hi));
+            } else {
+                next.byRegion.computeIfPresent(rule.getRegion(),
+                        (region, table) -> next.openTable(region, table, lo, hi));
+            }
+        }
+        return next;
+    }
+
+    /** First day of the horizon. */
+    public LocalDate from() {
+        return from;
+    }
+
+    /** Rules this calendar was compiled from, by id. */
+    public Map<Long, CalendarRule> rules() {
+        return Map.copyOf(rules);
+    }
+
+    /** Open slots of the region on the date; {@code 0} when it is not a working day. */
+    public long openSlots(String region, LocalDate date) {
+        int day = dayIndex(date);
+        if (day < 0 || day >= days) {
+            return evaluateOpen(region, date);
+        }
+        long[] table = byRegion.get(region);
+        return (table == null ? everyRegion : table)[day];
+    }
+
+    /** Whether the cleaner has the day off. */
+    public boolean isDayOff(Long cleanerId, LocalDate date) {
+        int day = dayIndex(date);
+        if (day < 0 || day >= days) {
+            return evaluateDayOff(cleanerId, date);
+        }
+        BitSet bitmap = daysOff.get(cleanerId);
+        return bitmap != null && bitmap.get(day);
+    }
+
+    /** Whether the weekday is closed everywhere regardless of rules. */
+    public boolean isClosedDay(DayOfWeek day) {
+        return closedDays.contains(day);
+    }
+
+    /** Copy of {@code table} (or a new one) with days {@code [lo, hi)} recompiled. */
+    private long[] openTable(String region, long[] table, int lo, int hi) {
+        long[] next = table == null ? new long[days] : table.clone();
+        for (int day = lo; day < hi; day++) {
+            next[day] = evaluateOpen(region, from.plusDays(day));
+        }
+        return next;
+    }
+
+    private BitSet offBitmap(Long cleanerId, BitSet bitmap, int lo, int hi) {
+        BitSet next = bitmap == null ? new BitSet(days) : (BitSet) bitmap.clone();
+        for (int day = lo; day < hi; day++) {
+            next.set(day, evaluateDayOff(cleanerId, from.plusDays(day)));
+        }
+        return next;
+    }
+
+    private long evaluateOpen(String region, LocalDate date) {
+        if (closedDays.contains(date.getDayOfWeek())) {
+            return 0L;
+        }
+        long open = restrict(SlotMask.FULL_DAY, everyRegionRules, date);
+        return region == null ? open : restrict(open, regionRules.getOrDefault(region, List.of()), date);
+    }
+
+    private static long restrict(long open, List<CalendarRule> rules, LocalDate date) {
+        // Indexed: this runs per cleaner for days outside the horizon, without an iterator
+        for (int i = 0; i < rules.size() && open != 0L; i++) {
+            CalendarRule rule = rules.get(i);
+            if (matches(rule, date)) {
+                open = rule.getType() == CalendarRuleType.CLOSED
+                        ? 0L
+                        : open & SlotMask.range(SlotMask.slotIndex(rule.getOpenTime()), SlotMask.slotIndexCeil(rule.getCloseTime()));
+            }
+        }
+        return open;
+    }
+
+    private boolean evaluateDayOff(Long cleanerId, LocalDate date) {
+        List<CalendarRule> own = cleanerRules.get(cleanerId);
+        return own != null && own.stream().anyMatch(rule -> matches(rule, date));
+    }
+
+    private static boolean matches(CalendarRule rule, LocalDate date) {
+        return (rule.getDateFrom() == null || !date.isBefore(rule.getDateFrom()))
+                && (rule.getDateTo() == null || !date.isAfter(rule.getDateTo()))
+                && (rule.getDayOfWeek() == null || rule.getDayOfWeek() == date.getDayOfWeek());
+    }
+
+    private int dayIndex(LocalDate date) {
+        long day = date.toEpochDay() - from.toEpochDay();
+        return (int) Math.max(-1, Math.min(days, day));
+    }
+}
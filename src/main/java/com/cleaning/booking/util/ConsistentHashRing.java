@@ -0,0 +1,57 @@
+package com.cleaning.booking.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Consistent-hash ring: each node is placed at {@code virtualNodes} points of a 64-bit
+ * ring and a key belongs to the first node point at or after the key's own hash.
+ *
+ * <p>Adding or removing a node only moves the keys between it and its neighbours,
+ * about {@code 1/n} of them, so the other nodes keep what they own. Hashes are the
+ * first 8 bytes of MD5, which every JVM provides and spreads short keys evenly.</p>
+ *
+ * @param <T> Node type.
+ */
+public final class ConsistentHashRing<T> {
+
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+
+    /**
+     * @param nodes        Nodes on the ring; must not be empty.
+     * @param id           Stable id of a node; points are derived from it, not from list order.
+     * @param virtualNodes Points per node; more points spread keys more evenly.
+     */
+    public ConsistentHashRing(Collection<T> nodes, Function<T, String> id, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A hash ring needs at least one node and one point per node");
+        }
+        for (T node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(id.apply(node) + "#" + i), node);
+            }
+        }
+    }
+
+    /** Node that owns the key. */
+    public T nodeFor(String key) {
+        Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("MD5 is not available", ex);
+        }
+    }
+}
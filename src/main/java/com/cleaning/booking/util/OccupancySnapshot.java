@@ -0,0 +1,138 @@
+package com.cleaning.booking.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoint of per-cleaner-day occupancy masks, stored as a compact memory-mapped file.
+ *
+ * <p>Layout: a 40-byte header (magic, format version, watermark, checkpoint time,
+ * covered date range, entry count, CRC32 of the entries) followed by one 20-byte entry
+ * per occupied cleaner-day: epoch day (int), slot mask (long), cleaner id (long).
+ * Files of another format version, e.g. version 1 with 30-minute slots in an int mask,
+ * are ignored and the store is rebuilt from the database.
+ * Files are written to a temporary sibling and atomically moved into place, so a
+ * reader never sees a half-written snapshot.</p>
+ *
+ * @param watermark Highest booking change sequence fully reflected in {@code days}.
+ * @param checkpointedAt Epoch millis when the snapshot was taken.
+ * @param from First date covered (dates without entries have no bookings).
+ * @param to Last date covered.
+ * @param days Occupancy masks per date and cleaner id.
+ */
+public record OccupancySnapshot(
+        long watermark,
+        long checkpointedAt,
+        LocalDate from,
+        LocalDate to,
+        Map<LocalDate, Map<Long, Long>> days
+) {
+
+    static final int MAGIC = 0x4F434331; // "OCC1"
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_BYTES = 40;
+    static final int ENTRY_BYTES = 20;
+
+    /**
+     * Writes the snapshot to {@code path}, replacing any previous file.
+     */
+    public void write(Path path) throws IOException {
+        int entries = days.values().stream().mapToInt(Map::size).sum();
+        long size = HEADER_BYTES + (long) entries * ENTRY_BYTES;
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = parent.resolve(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            buffer.position(HEADER_BYTES);
+            for (Map.Entry<LocalDate, Map<Long, Long>> day : days.entrySet()) {
+                int epochDay = (int) day.getKey().toEpochDay();
+                for (Map.Entry<Long, Long> cleaner : day.getValue().entrySet()) {
+                    buffer.putInt(epochDay);
+                    buffer.putLong(cleaner.getValue());
+                    buffer.putLong(cleaner.getKey());
+                }
+            }
+
+            buffer.position(0);
+            buffer.putInt(MAGIC);
+            buffer.putInt(FORMAT_VERSION);
+            buffer.putLong(watermark);
+            buffer.putLong(checkpointedAt);
+            buffer.putInt((int) from.toEpochDay());
+            buffer.putInt((int) to.toEpochDay());
+            buffer.putInt(entries);
+            buffer.putInt(checksum(buffer.slice(HEADER_BYTES, (int) (size - HEADER_BYTES))));
+
+            buffer.force();
+        }
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps and decodes a snapshot file.
+     *
+     * @return the snapshot, or empty when the file is missing, truncated, corrupt or
+     *         written by another format version.
+     */
+    public static Optional<OccupancySnapshot> read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            long watermark = buffer.getLong();
+            long checkpointedAt = buffer.getLong();
+            LocalDate from = LocalDate.ofEpochDay(buffer.getInt());
+            LocalDate to = LocalDate.ofEpochDay(buffer.getInt());
+            int entries = buffer.getInt();
+            int crc = buffer.getInt();
+
+            if (entries < 0 || size != HEADER_BYTES + (long) entries * ENTRY_BYTES
+                    || crc != checksum(buffer.slice(HEADER_BYTES, (int) (size - HEADER_BYTES)))) {
+                return Optional.empty();
+            }
+
+            Map<LocalDate, Map<Long, Long>> days = new HashMap<>();
+            for (int i = 0; i < entries; i++) {
+                LocalDate date = LocalDate.ofEpochDay(buffer.getInt());
+                long mask = buffer.getLong();
+                long cleanerId = buffer.getLong();
+                days.computeIfAbsent(date, d -> new HashMap<>()).put(cleanerId, mask);
+            }
+
+            return Optional.of(new OccupancySnapshot(watermark, checkpointedAt, from, to, days));
+        }
+    }
+
+    private static int checksum(ByteBuffer entries) {
+        CRC32 crc = new CRC32();
+        crc.update(entries);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,20 @@
+package com.cleaning.booking.util;
+
+/**
+ * Service region names. A fleet without explicit regions lives in {@link #DEFAULT}.
+ */
+public final class Regions {
+
+    /** Region of vehicles created without one, and of requests that do not name one. */
+    public static final String DEFAULT = "default";
+
+    /** Longest region name, as stored in {@code vehicle.region}. */
+    public static final int MAX_LENGTH = 32;
+
+    private Regions() {}
+
+    /** The region, or {@link #DEFAULT} when it is missing or blank. */
+    public static String orDefault(String region) {
+        return region == null || region.isBlank() ? DEFAULT : region.trim();
+    }
+}
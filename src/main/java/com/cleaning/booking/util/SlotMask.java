@@ -0,0 +1,122 @@
+package com.cleaning.booking.util;
+
+import com.cleaning.booking.entity.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bitmask helpers for a working day split into 15-minute slots.
+ *
+ * <p>Bit {@code i} stands for the slot starting at 08:00 + i * 15 minutes,
+ * so the whole 08:00–22:00 day fits into the low 56 bits of a {@code long}.
+ * Bookable starts, durations and breaks are whole slots; the {@link SlotTemplate}
+ * decides which of them are offered.</p>
+ */
+public final class SlotMask {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 56;
+    public static final long FULL_DAY = (1L << SLOTS_PER_DAY) - 1;
+
+    private static final int DAY_START_MINUTE = 8 * 60;
+
+    private SlotMask() {}
+
+    /** Slot index containing the given time, clamped to the working day. */
+    public static int slotIndex(LocalTime time) {
+        int slot = (time.getHour() * 60 + time.getMinute() - DAY_START_MINUTE) / SLOT_MINUTES;
+        return Math.max(0, Math.min(SLOTS_PER_DAY, slot));
+    }
+
+    /** First slot index at or after the given time, clamped to the working day. */
+    public static int slotIndexCeil(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute() - DAY_START_MINUTE;
+        int slot = (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        return Math.max(0, Math.min(SLOTS_PER_DAY, slot));
+    }
+
+    /** Start time of a slot index. */
+    public static LocalTime slotStart(int slot) {
+        return LocalTime.of(8, 0).plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    /** Mask with bits {@code [from, to)} set. */
+    public static long range(int from, int to) {
+        if (to <= from) {
+            return 0L;
+        }
+        return ((1L << (to - from)) - 1) << from;
+    }
+
+    /** Mask of the slots covered by a time window. */
+    public static long of(TimeWindow window) {
+        return range(slotIndex(window.start()), slotIndexCeil(window.end()));
+    }
+
+    /** Mask of the slots covered by a list of bookings. */
+    public static long occupancy(Collection<Booking> bookings) {
+        long mask = 0L;
+        for (Booking b : bookings) {
+            mask |= range(slotIndex(b.getStartTime()), slotIndexCeil(b.getEndTime()));
+        }
+        return mask;
+    }
+
+    /** Builds a per-cleaner occupancy mask from one day's bookings. */
+    public static Map<Long, Long> occupancyByCleaner(Collection<Booking> bookings) {
+        Map<Long, Long> masks = new HashMap<>();
+        for (Booking b : bookings) {
+            long mask = range(slotIndex(b.getStartTime()), slotIndexCeil(b.getEndTime()));
+            masks.merge(b.getCleaner().getId(), mask, (x, y) -> x | y);
+        }
+        return masks;
+    }
+
+    /** Builds per-date, per-cleaner occupancy masks from a multi-day booking list. */
+    public static Map<LocalDate, Map<Long, Long>> occupancyByDate(Collection<Booking> bookings) {
+        Map<LocalDate, Map<Long, Long>> masks = new HashMap<>();
+        for (Booking b : bookings) {
+            long mask = range(slotIndex(b.getStartTime()), slotIndexCeil(b.getEndTime()));
+            masks.computeIfAbsent(b.getDate(), d -> new HashMap<>())
+                    .merge(b.getCleaner().getId(), mask, (x, y) -> x | y);
+        }
+        return masks;
+    }
+
+    /** Grows every occupied run by {@code breakSlots} slots on each side. */
+    public static long withBreak(long occupancy, int breakSlots) {
+        long grown = occupancy;
+        for (int i = 1; i <= breakSlots; i++) {
+            grown |= (occupancy << i) | (occupancy >>> i);
+        }
+        return grown & FULL_DAY;
+    }
+
+    /** Checks whether a window lies inside the open slots. */
+    public static boolean within(long open, long window) {
+        return (window & ~open) == 0;
+    }
+
+    /** Number of consecutive free slots immediately before {@code slot}. */
+    public static int freeBefore(long occupancy, int slot) {
+        long below = occupancy & range(0, slot);
+        if (below == 0) {
+            return slot;
+        }
+        int lastBusy = 63 - Long.numberOfLeadingZeros(below);
+        return slot - lastBusy - 1;
+    }
+
+    /** Number of consecutive free slots starting at {@code slot}. */
+    public static int freeAfter(long occupancy, int slot) {
+        long above = occupancy & range(slot, SLOTS_PER_DAY);
+        if (above == 0) {
+            return SLOTS_PER_DAY - slot;
+        }
+        return Long.numberOfTrailingZeros(above) - slot;
+    }
+}
@@ -0,0 +1,193 @@
+package com.cleaning.booking.util;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Bookable windows of a working day (start step, allowed durations, break length)
+ * precompiled into {@link SlotMask} tables.
+ *
+ * <p>For every allowed duration the template keeps the mask of the window starting at
+ * each slot and the mask of its valid starts. Checking a window is one AND against the
+ * cleaner's blocked slots, however many durations and starts the template has, and the
+ * start positions of a duration take {@code log2(duration)} shift-ANDs.</p>
+ *
+ * <p>Steps, durations and breaks are whole {@link SlotMask#SLOT_MINUTES} slots, the
+ * resolution of every occupancy mask.</p>
+ */
+public final class SlotTemplate {
+
+    /** 30-minute steps, 2- and 4-hour jobs, 30-minute break. */
+    public static final SlotTemplate DEFAULT = new SlotTemplate(30, List.of(120, 240), 30);
+
+    private final int stepMinutes;
+    private final int breakMinutes;
+    private final int breakSlots;
+    private final List<Integer> durations;
+
+    // Indexed by duration slots; -1 when the duration is not offered
+    private final int[] durationIndex = new int[SlotMask.SLOTS_PER_DAY + 1];
+    private final int[] durationSlots;
+    private final long[] starts;
+    private final long[][] windows;
+    private final String[][] labels;
+
+    public SlotTemplate(int stepMinutes, List<Integer> durations, int breakMinutes) {
+        if (stepMinutes <= 0 || stepMinutes % SlotMask.SLOT_MINUTES != 0) {
+            throw new IllegalArgumentException("Slot step must be a multiple of " + SlotMask.SLOT_MINUTES + " minutes, got " + stepMinutes);
+        }
+        if (breakMinutes < 0 || breakMinutes % SlotMask.SLOT_MINUTES != 0) {
+            throw new IllegalArgumentException("Break must be a multiple of " + SlotMask.SLOT_MINUTES + " minutes, got " + breakMinutes);
+        }
+        List<Integer> sorted = durations.stream().distinct().sorted().toList();
+        if (sorted.isEmpty()) {
+            throw new IllegalArgumentException("A slot template needs at least one duration");
+        }
+        for (int minutes : sorted) {
+            if (minutes <= 0 || minutes % SlotMask.SLOT_MINUTES != 0 || minutes / SlotMask.SLOT_MINUTES > SlotMask.SLOTS_PER_DAY) {
+                throw new IllegalArgumentException("Durations must be multiples of " + SlotMask.SLOT_MINUTES
+                        + " minutes within the working day, got " + minutes);
+            }
+        }
+
+        this.stepMinutes = stepMinutes;
+        this.breakMinutes = breakMinutes;
+        this.breakSlots = breakMinutes / SlotMask.SLOT_MINUTES;
+        this.durations = sorted;
+
+        int stepSlots = stepMinutes / SlotMask.SLOT_MINUTES;
+        Arrays.fill(durationIndex, -1);
+        durationSlots = new int[sorted.size()];
+        starts = new long[sorted.size()];
+        windows = new long[sorted.size()][SlotMask.SLOTS_PER_DAY];
+        labels = new String[sorted.size()][SlotMask.SLOTS_PER_DAY];
+
+        for (int i = 0; i < sorted.size(); i++) {
+            int slots = sorted.get(i) / SlotMask.SLOT_MINUTES;
+            durationIndex[slots] = i;
+            durationSlots[i] = slots;
+            for (int start = 0; start + slots <= SlotMask.SLOTS_PER_DAY; start += stepSlots) {
+                starts[i] |= 1L << start;
+                windows[i][start] = SlotMask.range(start, start + slots);
+                labels[i][start] = SlotMask.slotStart(start) + " - " + SlotMask.slotStart(start + slots);
+            }
+        }
+    }
+
+    /** Offered durations in minutes, shortest first. */
+    public List<Integer> durations() {
+        return durations;
+    }
+
+    public int stepMinutes() {
+        return stepMinutes;
+    }
+
+    public int breakMinutes() {
+        return breakMinutes;
+    }
+
+    /** Whether the duration is offered. */
+    public boolean allows(int durationMinutes) {
+        return index(durationMinutes) >= 0;
+    }
+
+    /** Offered durations for messages, e.g. {@code "60, 120 or 240"}. */
+    public String durationsText() {
+        if (durations.size() == 1) {
+            return durations.get(0).toString();
+        }
+        return durations.subList(0, durations.size() - 1).stream().map(String::valueOf).collect(Collectors.joining(", "))
+                + " or " + durations.get(durations.size() - 1);
+    }
+
+    /** Valid start slots of an offered duration ({@code 0} when it is not offered). */
+    public long starts(int durationMinutes) {
+        int i = index(durationMinutes);
+        return i < 0 ? 0L : starts[i];
+    }
+
+    /** Whether an offered duration may start at the given time, i.e. on one of its valid start slots. */
+    public boolean startsAt(LocalTime start, int durationMinutes) {
+        int slot = SlotMask.slotIndex(start);
+        return slot < SlotMask.SLOTS_PER_DAY && SlotMask.slotStart(slot).equals(start)
+                && (starts(durationMinutes) & (1L << slot)) != 0;
+    }
+
+    /** Message for a start time that is not on the template's steps. */
+    public String startsText() {
+        return "Start time must be on a " + stepMinutes + "-minute step from " + SlotMask.slotStart(0) + ".";
+    }
+
+    /** Slots a window may not touch: the occupancy grown by the break, and everything outside {@code open}. */
+    public long blocked(long occupancy, long open) {
+        return (SlotMask.withBreak(occupancy, breakSlots) | ~open) & SlotMask.FULL_DAY;
+    }
+
+    /** Checks whether a window lies inside the open slots and keeps the break to the occupancy. */
+    public boolean fits(long occupancy, long open, long window) {
+        return (blocked(occupancy, open) & window) == 0;
+    }
+
+    /** Checks whether a window keeps the break to the occupancy. */
+    public boolean fits(long occupancy, long window) {
+        return fits(occupancy, SlotMask.FULL_DAY, window);
+    }
+
+    /**
+     * Valid start positions of an offered duration that fit into the occupancy and the
+     * open slots: bit {@code i} is set when the window starting at slot {@code i} is free.
+     */
+    public long startMask(long occupancy, long open, int durationMinutes) {
+        int i = index(durationMinutes);
+        if (i < 0) {
+            return 0L;
+        }
+        // Bit j of run: slots j .. j+covered-1 are all free; doubling covered each step
+        long run = ~blocked(occupancy, open) & SlotMask.FULL_DAY;
+        int slots = durationSlots[i];
+        for (int covered = 1; covered < slots && run != 0; ) {
+            int shift = Math.min(covered, slots - covered);
+            run &= run >>> shift;
+            covered += shift;
+        }
+        return run & starts[i];
+    }
+
+    /**
+     * Free windows of every offered duration as {@code "HH:mm - HH:mm"}, ordered by start
+     * and then by duration.
+     */
+    public List<String> availableSlots(long occupancy, long open) {
+        long blocked = blocked(occupancy, open);
+        List<String> available = new ArrayList<>();
+        if (blocked == SlotMask.FULL_DAY) {
+            return available;
+        }
+        for (int start = 0; start < SlotMask.SLOTS_PER_DAY; start++) {
+            for (int i = 0; i < windows.length; i++) {
+                long window = windows[i][start];
+                if (window != 0 && (window & blocked) == 0) {
+                    available.add(labels[i][start]);
+                }
+            }
+        }
+        return available;
+    }
+
+    private int index(int durationMinutes) {
+        if (durationMinutes <= 0 || durationMinutes % SlotMask.SLOT_MINUTES != 0) {
+            return -1;
+        }
+        int slots = durationMinutes / SlotMask.SLOT_MINUTES;
+        return slots < durationIndex.length ? durationIndex[slots] : -1;
+    }
+
+    @Override
+    public String toString() {
+        return "SlotTemplate[step=" + stepMinutes + "m, durations=" + durations + ", break=" + breakMinutes + "m]";
+    }
+}
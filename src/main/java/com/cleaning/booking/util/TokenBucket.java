@@ -0,0 +1,49 @@
+package com.cleaning.booking.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * <p>Implemented as a generic cell rate algorithm: the whole bucket state is one
+ * "theoretical arrival time" updated by CAS, which is equivalent to a bucket of
+ * {@code burst} tokens refilled at {@code permitsPerSecond}. No lock is taken
+ * on the request path.</p>
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 when admitted, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = tat - nowNanos > 0 ? tat : nowNanos;
+            long next = base + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /** True when the bucket is full again, i.e. it holds no state worth keeping. */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -14,7 +14,7 @@ public final class WorkHoursValidator {
 
     private WorkHoursValidator() {}
 
-    /** Friday is non-working day */
+    /** Friday is non-working day (the default {@code calendar.closed-days}; see WorkingCalendarService) */
     public static boolean isWorkingDay(LocalDate date) {
         return date.getDayOfWeek() != DayOfWeek.FRIDAY;
     }
@@ -28,9 +28,4 @@ public final class WorkHoursValidator {
     public static boolean isValidEndTime(LocalTime time) {
         return !time.isAfter(END);
     }
-
-    /** Duration must be 2 or 4 hours */
-    public static boolean isValidDuration(int durationMinutes) {
-        return durationMinutes == 120 || durationMinutes == 240;
-    }
 }
\ No newline at end of file
@@ -1,12 +1,23 @@
+DROP TABLE IF EXISTS booking_journal_outcome;
+DROP TABLE IF EXISTS calendar_rule;
+DROP TABLE IF EXISTS cache_version;
+DROP TABLE IF EXISTS booking_outbox_cursor;
+DROP TABLE IF EXISTS booking_outbox;
+DROP TABLE IF EXISTS booking_change;
+DROP TABLE IF EXISTS booking_idempotency;
 DROP TABLE IF EXISTS booking;
 DROP TABLE IF EXISTS cleaner_professional;
 DROP TABLE IF EXISTS vehicle;
 
 CREATE TABLE vehicle (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    name VARCHAR(50) NOT NULL
+    name VARCHAR(50) NOT NULL,
+    region VARCHAR(32) NOT NULL DEFAULT 'default'
 );
 
+-- Region-scoped reads start here: region -> vehicles -> cleaners -> idx_booking_cleaner_schedule
+CREATE INDEX idx_vehicle_region ON vehicle (region);
+
 CREATE TABLE cleaner_professional (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     name VARCHAR(50) NOT NULL,
@@ -21,4 +32,88 @@ CREATE TABLE booking (
     start_time TIME NOT NULL,
     end_time TIME NOT NULL,
     FOREIGN KEY (cleaner_id) REFERENCES cleaner_professional(id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX idx_booking_date ON booking (date);
+-- Covers the per-cleaner schedule seek (and the per-cleaner overlap checks by prefix)
+CREATE INDEX idx_booking_cleaner_schedule ON booking (cleaner_id, date, start_time, id, end_time);
+
+CREATE TABLE booking_idempotency (
+    idempotency_key VARCHAR(64) PRIMARY KEY,
+    request_hash CHAR(64) NOT NULL,
+    booking_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    cleaner_ids VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_booking_idempotency_created_at ON booking_idempotency (created_at);
+
+CREATE TABLE booking_change (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    date DATE NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_booking_change_created_at ON booking_change (created_at);
+
+CREATE TABLE booking_outbox (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    type VARCHAR(16) NOT NULL,
+    booking_id BIGINT NOT NULL,
+    previous_booking_id BIGINT,
+    date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    cleaner_ids VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_booking_outbox_created_at ON booking_outbox (created_at);
+
+CREATE TABLE booking_outbox_cursor (
+    sink VARCHAR(64) PRIMARY KEY,
+    seq BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    claimed_by VARCHAR(36),
+    claimed_until TIMESTAMP
+);
+
+CREATE TABLE cache_version (
+    scope VARCHAR(32) PRIMARY KEY,
+    version BIGINT NOT NULL,
+    cleaner_ids VARCHAR(255) NOT NULL,
+    origin VARCHAR(36) NOT NULL,
+    updated_at TIMESTAMP(3) NOT NULL
+);
+
+CREATE INDEX idx_cache_version_updated_at ON cache_version (updated_at);
+
+CREATE TABLE calendar_rule (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    type VARCHAR(16) NOT NULL,
+    region VARCHAR(32),
+    cleaner_id BIGINT,
+    date_from DATE,
+    date_to DATE,
+    day_of_week VARCHAR(9),
+    open_time TIME,
+    close_time TIME,
+    description VARCHAR(100)
+);
+
+CREATE TABLE booking_journal_outcome (
+    entry_key VARCHAR(64) PRIMARY KEY,
+    state VARCHAR(16) NOT NULL,
+    booking_id BIGINT,
+    date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    cleaner_ids VARCHAR(255) NOT NULL,
+    reason VARCHAR(255),
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_booking_journal_outcome_created_at ON booking_journal_outcome (created_at);
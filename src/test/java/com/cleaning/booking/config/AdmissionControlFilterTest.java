@@ -0,0 +1,147 @@
+package com.cleaning.booking.config;
+
+import com.cleaning.booking.util.TokenBucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ForwardedHeaderFilter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        // availability: 1 permit/s, burst 3; concurrency: 2 in flight, 1 reserved for booking writes
+        filter = new AdmissionControlFilter(new ObjectMapper().registerModule(new JavaTimeModule()), registry,
+                true, 1, 3, 1, 3, 2, 1);
+    }
+
+    private MockHttpServletResponse call(String method, String uri, String apiKey, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (apiKey != null) {
+            request.addHeader(AdmissionControlFilter.API_KEY_HEADER, apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void tokenBucket_allowsBurstThenRefills() {
+        long t0 = 1_000L;
+        TokenBucket bucket = new TokenBucket(2, 2, t0);
+
+        assertEquals(0, bucket.tryAcquire(t0));
+        assertEquals(0, bucket.tryAcquire(t0));
+        long wait = bucket.tryAcquire(t0);
+        assertEquals(500_000_000L, wait);
+
+        assertEquals(0, bucket.tryAcquire(t0 + wait));
+        assertFalse(bucket.isIdle(t0 + wait));
+        assertTrue(bucket.isIdle(t0 + 2_000_000_000L));
+    }
+
+    @Test
+    void rateLimit_isPerApiKeyAndShedsWithRetryAfter() throws Exception {
+        FilterChain ok = (req, res) -> ((HttpServletResponse) res).setStatus(200);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, call("GET", "/api/availability", "partner-a", ok).getStatus());
+        }
+        MockHttpServletResponse shed = call("GET", "/api/availability", "partner-a", ok);
+        assertEquals(429, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("rate limit"));
+
+        // other clients and other endpoint groups have their own buckets
+        assertEquals(200, call("GET", "/api/availability", "partner-b", ok).getStatus());
+        assertEquals(200, call("POST", "/api/bookings", "partner-a", ok).getStatus());
+        // non-API paths are not filtered
+        assertEquals(200, call("GET", "/swagger-ui.html", "partner-a", ok).getStatus());
+
+        assertEquals(1.0, registry.get("admission.shed")
+                .tag("group", "availability").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void concurrencyLimit_reservesCapacityForBookingWrites() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        FilterChain ok = (req, res) -> ((HttpServletResponse) res).setStatus(200);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger firstStatus = new AtomicInteger();
+        executor.submit(() -> {
+            firstStatus.set(call("GET", "/api/vehicles", "poller", blocking).getStatus());
+            return null;
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // one of two permits is used; the remaining one is reserved for booking writes
+        MockHttpServletResponse shed = call("GET", "/api/vehicles", "poller", ok);
+        assertEquals(429, shed.getStatus());
+        assertEquals(200, call("POST", "/api/bookings", "customer", ok).getStatus());
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, filter.inFlight());
+        assertEquals(1.0, registry.get("admission.shed")
+                .tag("group", "other").tag("reason", "concurrency").counter().count());
+    }
+
+    @Test
+    void rateLimit_keysAnonymousClientsByForwardedAddress() throws Exception {
+        FilterChain ok = (req, res) -> ((HttpServletResponse) res).setStatus(200);
+        ForwardedHeaderFilter forwarded = new ForwardedHeaderFilter();
+
+        for (int i = 0; i < 4; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/availability");
+            request.setRemoteAddr("10.0.0.1");
+            request.addHeader("X-Forwarded-For", "203.0.113." + i);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            forwarded.doFilter(request, response, (req, res) -> filter.doFilter(req, res, ok));
+            // every client behind the proxy has its own bucket
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    @Test
+    void asyncRequest_holdsPermitUntilCompleted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/export");
+        request.setAsyncSupported(true);
+        FilterChain startsAsync = (req, res) -> req.startAsync();
+
+        filter.doFilter(request, new MockHttpServletResponse(), startsAsync);
+        assertEquals(1, filter.inFlight());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, filter.inFlight());
+    }
+}
@@ -0,0 +1,212 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.IdempotencyRecordRepository;
+import com.cleaning.booking.repository.VehicleRepository;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.time.DayOfWeek;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AvailabilityControllerIntegrationTest {
+
+    private final LocalDate date = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @BeforeEach
+    void setup() {
+        idempotencyRecordRepository.deleteAll();
+        bookingRepository.deleteAll();
+        cleanerRepository.deleteAll();
+        vehicleRepository.deleteAll();
+
+        Vehicle v = new Vehicle();
+        v.setName("Van-ETag");
+        Vehicle savedVehicle = vehicleRepository.save(v);
+
+        CleanerProfessional c = new CleanerProfessional();
+        c.setName("Jane Cleaner");
+        c.setVehicle(savedVehicle);
+        cleanerRepository.save(c);
+    }
+
+    @Test
+    void testGetAvailability_NotModifiedUntilBookingChanges() throws Exception {
+
+        String etag = mockMvc.perform(get("/api/availability").param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.availableTimeSlots").isNotEmpty())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/availability").param("date", date.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        BookingRequest booking = new BookingRequest(date, LocalTime.of(10, 0), 120, 1);
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(booking)))
+                .andExpect(status().isCreated());
+
+        String newEtag = mockMvc.perform(get("/api/availability").param("date", date.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    void testGetVehicles_NotModifiedUntilRosterChanges() throws Exception {
+
+        String etag = mockMvc.perform(get("/api/vehicles"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/vehicles").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/vehicles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Van-New\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/vehicles").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void testGetAvailability_GzipRepresentation() throws Exception {
+
+        String plainTag = mockMvc.perform(get("/api/availability").param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        String gzipTag = mockMvc.perform(get("/api/availability").param("date", date.toString())
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotEquals(plainTag, gzipTag);
+
+        // gzip refused explicitly, or only through a refused wildcard, is not used
+        for (String refused : new String[]{"gzip;q=0", "deflate, *;q=0", "*, gzip;q=0.0", "br;q=1, gzip;q=bad"}) {
+            mockMvc.perform(get("/api/availability").param("date", date.toString())
+                            .header("Accept-Encoding", refused))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"));
+        }
+        for (String accepted : new String[]{"*", "br, *;q=0.5", "GZIP;Q=0.3", "x-gzip"}) {
+            mockMvc.perform(get("/api/availability").param("date", date.toString())
+                            .header("Accept-Encoding", accepted))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"));
+        }
+    }
+
+    @Test
+    void testGetAvailability_CompactV2Negotiated() throws Exception {
+
+        mockMvc.perform(get("/api/availability").param("date", date.toString())
+                        .accept("application/vnd.cleaning.availability.v2+json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/vnd.cleaning.availability.v2+json"))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(jsonPath("$.slotMinutes").value(15))
+                .andExpect(jsonPath("$.startMasks.120").value(SlotTemplate.DEFAULT.starts(120)));
+
+        mockMvc.perform(get("/api/availability").param("date", date.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andExpect(jsonPath("$.availableTimeSlots").isArray());
+    }
+
+    @Test
+    void testStreamAvailability_PushesDeltaWhenBookingCommits() throws Exception {
+
+        MvcResult stream = mockMvc.perform(get("/api/availability/stream").param("date", date.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String snapshot = awaitEvent(stream, "snapshot");
+        assertEquals(SlotTemplate.DEFAULT.starts(120), objectMapper.readTree(snapshot).get("startMasks").get("120").asLong());
+
+        BookingRequest booking = new BookingRequest(date, LocalTime.of(10, 0), 120, 1);
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(booking)))
+                .andExpect(status().isCreated());
+
+        JsonNode delta = objectMapper.readTree(awaitEvent(stream, "delta"));
+        assertEquals(date.toString(), delta.get("date").asText());
+        assertEquals(SlotMask.SLOT_MINUTES, delta.get("slotMinutes").asInt());
+        // With the only cleaner busy, 10:00 can no longer start a 2h job
+        assertNotEquals(0L, delta.get("taken").get("120").asLong() & (1L << SlotMask.slotIndex(LocalTime.of(10, 0))));
+        assertFalse(delta.get("freed").has("120"));
+    }
+
+    /** Waits for the first event with the given name on an SSE response and returns its data. */
+    private static String awaitEvent(MvcResult stream, String name) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = stream.getResponse().getContentAsString();
+            int event = content.indexOf("event:" + name + "\n");
+            int data = event < 0 ? -1 : content.indexOf("data:", event);
+            int end = data < 0 ? -1 : content.indexOf('\n', data);
+            if (end >= 0) {
+                return content.substring(data + "data:".length(), end);
+            }
+            Thread.sleep(20);
+        }
+        return fail("No " + name + " event within 5 s");
+    }
+}
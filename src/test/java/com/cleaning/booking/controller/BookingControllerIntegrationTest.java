@@ -3,7 +3,9 @@ package com.cleaning.booking.controller;
 import com.cleaning.booking.dto.BookingRequest;
 import com.cleaning.booking.entity.CleanerProfessional;
 import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.repository.BookingRepository;
 import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.IdempotencyRecordRepository;
 import com.cleaning.booking.repository.VehicleRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -16,8 +18,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,10 +43,18 @@ class BookingControllerIntegrationTest {
     @Autowired
     private CleanerRepository cleanerRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
     @BeforeEach
     void setup() {
 
         // Clear previous data (important for @SpringBootTest)
+        idempotencyRecordRepository.deleteAll();
+        bookingRepository.deleteAll();
         cleanerRepository.deleteAll();
         vehicleRepository.deleteAll();
 
@@ -78,4 +90,28 @@ class BookingControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateBooking_IdempotencyKeyReplaysResult() throws Exception {
+        // A working day, whatever day the suite runs on
+        LocalDate date = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+        BookingRequest request = new BookingRequest(date, LocalTime.of(14,0), 120, 1);
+        String body = objectMapper.writeValueAsString(request);
+
+        String first = mockMvc.perform(post("/api/bookings")
+                        .header("Idempotency-Key", "retry-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        Long bookingId = objectMapper.readTree(first).get("bookingId").asLong();
+
+        mockMvc.perform(post("/api/bookings")
+                        .header("Idempotency-Key", "retry-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.bookingId").value(bookingId));
+    }
+}
@@ -0,0 +1,172 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.dto.CalendarRuleRequest;
+import com.cleaning.booking.dto.CalendarRuleResponse;
+import com.cleaning.booking.dto.CalendarRuleType;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.IdempotencyRecordRepository;
+import com.cleaning.booking.repository.VehicleRepository;
+import com.cleaning.booking.service.WorkingCalendarService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class CalendarControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private WorkingCalendarService workingCalendarService;
+
+    // Far enough out not to collide with the dates other tests book
+    private final LocalDate date = LocalDate.now().plusWeeks(30).with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+
+    private long firstCleanerId;
+    private long secondCleanerId;
+
+    @BeforeEach
+    void setup() {
+        idempotencyRecordRepository.deleteAll();
+        bookingRepository.deleteAll();
+        cleanerRepository.deleteAll();
+        vehicleRepository.deleteAll();
+
+        Vehicle v = new Vehicle();
+        v.setName("Van-01");
+        Vehicle savedVehicle = vehicleRepository.save(v);
+
+        firstCleanerId = cleaner("John Cleaner", savedVehicle);
+        secondCleanerId = cleaner("Jane Cleaner", savedVehicle);
+    }
+
+    @AfterEach
+    void removeRules() {
+        workingCalendarService.getRules().forEach(rule -> workingCalendarService.deleteRule(rule.id()));
+    }
+
+    private long cleaner(String name, Vehicle vehicle) {
+        CleanerProfessional c = new CleanerProfessional();
+        c.setName(name);
+        c.setVehicle(vehicle);
+        return cleanerRepository.save(c).getId();
+    }
+
+    private CalendarRuleResponse addRule(CalendarRuleRequest rule) throws Exception {
+        String body = mockMvc.perform(post("/api/calendar/rules")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rule)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, CalendarRuleResponse.class);
+    }
+
+    private String booking(LocalTime start) throws Exception {
+        return objectMapper.writeValueAsString(new BookingRequest(date, start, 120, 1));
+    }
+
+    @Test
+    void holiday_closesAvailabilityAndBookingUntilRemoved() throws Exception {
+        CalendarRuleResponse holiday = addRule(new CalendarRuleRequest(CalendarRuleType.CLOSED, null, null,
+                date, date, null, null, null, "Company day"));
+
+        mockMvc.perform(get("/api/availability").param("date", date.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(date + " is not a working day."));
+        mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content(booking(LocalTime.of(10, 0))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/api/calendar/rules/" + holiday.id()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/availability").param("date", date.toString()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/calendar/rules"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void regionHours_limitBookableStarts() throws Exception {
+        addRule(new CalendarRuleRequest(CalendarRuleType.HOURS, "default", null, date, date, null,
+                LocalTime.of(10, 0), LocalTime.of(14, 0), null));
+
+        mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content(booking(LocalTime.of(8, 0))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Booking must be within working hours 10:00-14:00."));
+
+        // Five 2-hour windows from 10:00 to 12:00 and the single 4-hour one
+        mockMvc.perform(get("/api/availability").param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTimeSlots.length()").value(6))
+                .andExpect(jsonPath("$.availableTimeSlots[0]").value("10:00 - 12:00"));
+
+        mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content(booking(LocalTime.of(12, 0))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void dayOff_keepsTheCleanerOutOfAssignments() throws Exception {
+        addRule(new CalendarRuleRequest(CalendarRuleType.DAY_OFF, null, firstCleanerId, date, date, null,
+                null, null, "Vacation"));
+
+        mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content(booking(LocalTime.of(10, 0))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.assignedCleaners[0]").value(secondCleanerId));
+
+        mockMvc.perform(get("/api/availability")
+                        .param("date", date.toString())
+                        .param("startTime", "15:00")
+                        .param("durationMinutes", "120"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableCleanerIds.length()").value(1))
+                .andExpect(jsonPath("$.availableCleanerIds[0]").value(secondCleanerId));
+    }
+
+    @Test
+    void createRule_rejectsHoursOffTheSlotGrid() throws Exception {
+        mockMvc.perform(post("/api/calendar/rules")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CalendarRuleRequest(CalendarRuleType.HOURS, null,
+                                null, null, null, null, LocalTime.of(9, 10), LocalTime.of(17, 0), null))))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,226 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.dto.BookingEvent;
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.IdempotencyRecordRepository;
+import com.cleaning.booking.repository.OutboxCursorRepository;
+import com.cleaning.booking.repository.VehicleRepository;
+import com.cleaning.booking.service.impl.BookingOutboxServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+class ChangeFeedControllerIntegrationTest {
+
+    /** Local stand-in for a webhook receiver; answers with {@link #stubStatus}. */
+    private static final HttpServer stub;
+    private static final List<String> stubBodies = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger stubStatus = new AtomicInteger(204);
+    private static final Path eventFile;
+
+    static {
+        try {
+            stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            stub.createContext("/booking-events", exchange -> {
+                stubBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                exchange.sendResponseHeaders(stubStatus.get(), -1);
+                exchange.close();
+            });
+            stub.start();
+            eventFile = Files.createTempDirectory("outbox").resolve("booking-events.jsonl");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @DynamicPropertySource
+    static void outboxProperties(DynamicPropertyRegistry registry) {
+        registry.add("outbox.sink.webhook.url", () -> "http://localhost:" + stub.getAddress().getPort() + "/booking-events");
+        registry.add("outbox.sink.file.enabled", () -> "true");
+        registry.add("outbox.sink.file.path", eventFile::toString);
+        // Relayed from the test thread only, and H2 sequences have no in-flight gaps
+        registry.add("outbox.relay.interval-ms", () -> "3600000");
+        registry.add("outbox.commit-grace-seconds", () -> "0");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private OutboxCursorRepository outboxCursorRepository;
+
+    @Autowired
+    private BookingOutboxServiceImpl outboxService;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private final LocalDate date = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+
+    private long after;
+
+    @BeforeEach
+    void setup() throws Exception {
+        idempotencyRecordRepository.deleteAll();
+        bookingRepository.deleteAll();
+        cleanerRepository.deleteAll();
+        vehicleRepository.deleteAll();
+
+        Vehicle v = new Vehicle();
+        v.setName("Van-01");
+        Vehicle savedVehicle = vehicleRepository.save(v);
+
+        CleanerProfessional c = new CleanerProfessional();
+        c.setName("John Cleaner");
+        c.setVehicle(savedVehicle);
+        cleanerRepository.save(c);
+
+        // Catch every sink and the reader up with what earlier tests wrote
+        outboxService.relay();
+        stubBodies.clear();
+        stubStatus.set(204);
+        after = outboxService.changes(0, 1000).nextSeq();
+    }
+
+    private long book(LocalTime start) throws Exception {
+        String body = mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingRequest(date, start, 120, 1))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("bookingId").asLong();
+    }
+
+    @Test
+    void changes_listCreateAndUpdateInOrderAndResume() throws Exception {
+        long created = book(LocalTime.of(10, 0));
+
+        String moved = mockMvc.perform(put("/api/bookings/" + created)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingRequest(date, LocalTime.of(14, 0), 120, 1))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long updated = objectMapper.readTree(moved).get("bookingId").asLong();
+
+        String page = mockMvc.perform(get("/api/changes").param("after", String.valueOf(after)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events.length()").value(2))
+                .andExpect(jsonPath("$.events[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.events[0].bookingId").value(created))
+                .andExpect(jsonPath("$.events[0].previousBookingId").doesNotExist())
+                .andExpect(jsonPath("$.events[1].type").value("UPDATED"))
+                .andExpect(jsonPath("$.events[1].bookingId").value(updated))
+                .andExpect(jsonPath("$.events[1].previousBookingId").value(created))
+                .andExpect(jsonPath("$.events[1].startTime").value("14:00:00"))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode feed = objectMapper.readTree(page);
+        long nextSeq = feed.get("nextSeq").asLong();
+        assertEquals(feed.get("events").get(1).get("seq").asLong(), nextSeq);
+
+        mockMvc.perform(get("/api/changes").param("after", String.valueOf(nextSeq)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events.length()").value(0))
+                .andExpect(jsonPath("$.nextSeq").value(nextSeq));
+    }
+
+    @Test
+    void changes_rejectsInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/changes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void relay_deliversToEverySink() throws Exception {
+        long bookingId = book(LocalTime.of(10, 0));
+
+        outboxService.relay();
+
+        assertEquals(1, stubBodies.size());
+        BookingEvent[] posted = objectMapper.readValue(stubBodies.get(0), BookingEvent[].class);
+        assertEquals(bookingId, posted[0].bookingId());
+
+        List<String> lines = Files.readAllLines(eventFile);
+        assertEquals(bookingId, objectMapper.readValue(lines.get(lines.size() - 1), BookingEvent.class).bookingId());
+
+        assertTrue(applicationEvents.stream(BookingEvent.class).anyMatch(e -> e.bookingId() == bookingId));
+    }
+
+    @Test
+    void relay_failingWebhookIsRetriedWithoutHoldingBackOtherSinks() throws Exception {
+        stubStatus.set(503);
+        long bookingId = book(LocalTime.of(10, 0));
+
+        outboxService.relay();
+
+        assertEquals(after, outboxCursorRepository.findById("webhook").orElseThrow().getSeq());
+        assertTrue(outboxCursorRepository.findById("file").orElseThrow().getSeq() > after);
+
+        stubStatus.set(204);
+        outboxService.relay();
+
+        BookingEvent[] retried = objectMapper.readValue(stubBodies.get(stubBodies.size() - 1), BookingEvent[].class);
+        assertEquals(bookingId, retried[0].bookingId());
+        assertTrue(outboxCursorRepository.findById("webhook").orElseThrow().getSeq() > after);
+    }
+}
@@ -0,0 +1,144 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.entity.Booking;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.IdempotencyRecordRepository;
+import com.cleaning.booking.repository.VehicleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class CleanerControllerIntegrationTest {
+
+    private final LocalDate date = LocalDate.of(2030, 1, 8);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private Long cleanerId;
+
+    @BeforeEach
+    void setup() {
+        idempotencyRecordRepository.deleteAll();
+        bookingRepository.deleteAll();
+        cleanerRepository.deleteAll();
+        vehicleRepository.deleteAll();
+
+        Vehicle v = new Vehicle();
+        v.setName("Van-Schedule");
+        Vehicle savedVehicle = vehicleRepository.save(v);
+
+        CleanerProfessional c = new CleanerProfessional();
+        c.setName("Jane Cleaner");
+        c.setVehicle(savedVehicle);
+        CleanerProfessional cleaner = cleanerRepository.save(c);
+        cleanerId = cleaner.getId();
+
+        // inserted out of order to check the (date, start time) ordering
+        saveBooking(cleaner, date.plusDays(1), 12);
+        saveBooking(cleaner, date, 12);
+        saveBooking(cleaner, date.plusDays(1), 8);
+        saveBooking(cleaner, date, 8);
+        saveBooking(cleaner, date.plusDays(2), 8);
+        saveBooking(cleaner, date.plusDays(30), 8);
+    }
+
+    private void saveBooking(CleanerProfessional cleaner, LocalDate day, int hour) {
+        bookingRepository.save(Booking.builder()
+                .date(day)
+                .startTime(LocalTime.of(hour, 0))
+                .endTime(LocalTime.of(hour + 2, 0))
+                .cleaner(cleaner)
+                .build());
+    }
+
+    @Test
+    void testGetSchedule_pagesThroughRangeInOrder() throws Exception {
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            var request = get("/api/cleaners/" + cleanerId + "/bookings")
+                    .param("from", date.toString())
+                    .param("to", date.plusDays(2).toString())
+                    .param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            JsonNode page = objectMapper.readTree(body);
+            page.get("bookings").forEach(b -> seen.add(b.get("date").asText() + " " + b.get("startTime").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of(
+                "2030-01-08 08:00:00", "2030-01-08 12:00:00",
+                "2030-01-09 08:00:00", "2030-01-09 12:00:00",
+                "2030-01-10 08:00:00"), seen);
+    }
+
+    @Test
+    void testGetSchedule_errors() throws Exception {
+
+        mockMvc.perform(get("/api/cleaners/" + (cleanerId + 1000) + "/bookings")
+                        .param("from", date.toString())
+                        .param("to", date.toString()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/cleaners/" + cleanerId + "/bookings")
+                        .param("from", date.toString())
+                        .param("to", date.toString())
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/cleaners/" + cleanerId + "/bookings")
+                        .param("from", date.toString())
+                        .param("to", date.toString())
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
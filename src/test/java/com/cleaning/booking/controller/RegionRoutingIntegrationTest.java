@@ -0,0 +1,146 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.IdempotencyRecordRepository;
+import com.cleaning.booking.repository.VehicleRepository;
+import com.cleaning.booking.service.RegionRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "fleet.node-id=a",
+        "fleet.nodes=a=http://node-a:8080,b=http://node-b:8080"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class RegionRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private RegionRouter regionRouter;
+
+    private final LocalDate date = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+
+    private String north;
+    private String south;
+    private String remote;
+    private long northCleanerId;
+
+    @BeforeEach
+    void setup() {
+        idempotencyRecordRepository.deleteAll();
+        bookingRepository.deleteAll();
+        cleanerRepository.deleteAll();
+        vehicleRepository.deleteAll();
+
+        // Two regions this node serves and one it does not, whatever the ring decides
+        List<String> local = IntStream.range(0, 100).mapToObj(i -> "city-" + i).filter(regionRouter::isLocal).toList();
+        north = local.get(0);
+        south = local.get(1);
+        remote = IntStream.range(0, 100).mapToObj(i -> "city-" + i)
+                .filter(r -> !regionRouter.isLocal(r)).findFirst().orElseThrow();
+
+        northCleanerId = vehicleWithCleaner("Van-North", north);
+        vehicleWithCleaner("Van-South", south);
+    }
+
+    private long vehicleWithCleaner(String name, String region) {
+        Vehicle v = new Vehicle();
+        v.setName(name);
+        v.setRegion(region);
+        Vehicle saved = vehicleRepository.save(v);
+
+        CleanerProfessional c = new CleanerProfessional();
+        c.setName(name + " Cleaner");
+        c.setVehicle(saved);
+        return cleanerRepository.save(c).getId();
+    }
+
+    @Test
+    void booking_usesOnlyTheRegionsFleet() throws Exception {
+        BookingRequest request = new BookingRequest(date, LocalTime.of(10, 0), 120, 1, north);
+
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.assignedCleaners[0]").value(northCleanerId));
+
+        // The region's only cleaner is busy; the other region is untouched
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/availability")
+                        .param("date", date.toString())
+                        .param("startTime", "10:00")
+                        .param("durationMinutes", "120")
+                        .param("region", south))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableCleanerIds.length()").value(1));
+    }
+
+    @Test
+    void remoteRegion_isRedirectedToItsOwner() throws Exception {
+        mockMvc.perform(get("/api/availability?date={date}&region={region}", date, remote))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string("Location",
+                        "http://node-b:8080/api/availability?date=" + date + "&region=" + remote));
+
+        BookingRequest request = new BookingRequest(date, LocalTime.of(10, 0), 120, 1, remote);
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string("Location", "http://node-b:8080/api/bookings"));
+    }
+
+    @Test
+    void vehicles_canBeListedPerRegion() throws Exception {
+        mockMvc.perform(get("/api/vehicles").param("region", south))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Van-South"))
+                .andExpect(jsonPath("$[0].region").value(south));
+    }
+}
@@ -0,0 +1,137 @@
+package com.cleaning.booking.controller;
+
+import com.cleaning.booking.entity.Booking;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.IdempotencyRecordRepository;
+import com.cleaning.booking.repository.VehicleRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ReportControllerIntegrationTest {
+
+    private final LocalDate date = LocalDate.of(2030, 1, 8);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @BeforeEach
+    void setup() {
+        idempotencyRecordRepository.deleteAll();
+        bookingRepository.deleteAll();
+        cleanerRepository.deleteAll();
+        vehicleRepository.deleteAll();
+
+        Vehicle v = new Vehicle();
+        v.setName("Van-Export");
+        Vehicle savedVehicle = vehicleRepository.save(v);
+
+        CleanerProfessional c = new CleanerProfessional();
+        c.setName("=Smith, Jane");
+        c.setVehicle(savedVehicle);
+        CleanerProfessional cleaner = cleanerRepository.save(c);
+
+        // five rows over three days, so a chunk size of 2 has to page across a date boundary
+        saveBooking(cleaner, date, 8);
+        saveBooking(cleaner, date, 12);
+        saveBooking(cleaner, date.plusDays(1), 8);
+        saveBooking(cleaner, date.plusDays(1), 12);
+        saveBooking(cleaner, date.plusDays(2), 8);
+    }
+
+    private void saveBooking(CleanerProfessional cleaner, LocalDate day, int hour) {
+        bookingRepository.save(Booking.builder()
+                .date(day)
+                .startTime(LocalTime.of(hour, 0))
+                .endTime(LocalTime.of(hour + 2, 0))
+                .cleaner(cleaner)
+                .build());
+    }
+
+    @Test
+    void testExportCsv_streamsAllRowsAcrossChunks() throws Exception {
+
+        MvcResult started = mockMvc.perform(get("/api/reports/bookings/export")
+                        .param("from", date.toString())
+                        .param("to", date.plusDays(2).toString())
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(600_000L, started.getRequest().getAsyncContext().getTimeout());
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"bookings-2030-01-08-2030-01-10.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(6, lines.length);
+        assertTrue(lines[0].startsWith("booking_id,date"));
+        assertTrue(lines[1].contains(",\"'=Smith, Jane\","));
+        assertTrue(lines[5].contains(",2030-01-10,08:00,10:00,"));
+    }
+
+    @Test
+    void testExportNdjson_respectsDateRange() throws Exception {
+
+        MvcResult started = mockMvc.perform(get("/api/reports/bookings/export")
+                        .param("from", date.plusDays(1).toString())
+                        .param("to", date.plusDays(1).toString())
+                        .param("format", "NDJSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"date\":\"2030-01-09\""));
+        assertTrue(lines[1].contains("\"startTime\":\"12:00:00\""));
+    }
+
+    @Test
+    void testExport_rejectsInvertedRange() throws Exception {
+
+        mockMvc.perform(get("/api/reports/bookings/export")
+                        .param("from", date.plusDays(1).toString())
+                        .param("to", date.toString()))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,200 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.AvailabilityRequest;
+import com.cleaning.booking.entity.Booking;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CalendarRuleRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.VehicleRepository;
+import com.cleaning.booking.service.impl.AvailabilityServiceImpl;
+import com.cleaning.booking.service.impl.BestFitAssignmentStrategy;
+import com.cleaning.booking.service.impl.ConsistentHashRegionRouter;
+import com.cleaning.booking.service.impl.FirstFitAssignmentStrategy;
+import com.cleaning.booking.service.impl.ReservationOverlayImpl;
+import com.cleaning.booking.service.impl.WorkingCalendarServiceImpl;
+import com.cleaning.booking.util.AvailabilityUtil;
+import com.cleaning.booking.util.CircuitBreaker;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
+import com.cleaning.booking.util.TimeWindow;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation-budget guard for availability and assignment hot paths, run with
+ * {@code ./mvnw -Pbenchmark test}.
+ *
+ * Each operation is warmed up so the JIT has compiled it, then run many times while
+ * the thread's allocated bytes are read from {@link com.sun.management.ThreadMXBean}.
+ * The average bytes per call must stay within the budget in
+ * {@code allocation-budgets.properties}. Repositories are in-memory proxies returning
+ * fixed data, so the numbers measure application code only. The counts depend on
+ * what the JIT managed to scalar-replace, so the guard stays out of the default build.
+ */
+@Slf4j
+@Tag("benchmark")
+class AllocationBudgetTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 5_000;
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 14); // Tuesday
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Properties budgets;
+
+    private static List<CleanerProfessional> fleet;
+    private static List<Booking> dayBookings;
+    private static Map<Long, List<Booking>> bookingsByCleaner;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "per-thread allocation counters not available on this JVM");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            budgets.load(in);
+        }
+
+        // 5 vehicles x 5 cleaners, each cleaner with two bookings on the day
+        fleet = new ArrayList<>();
+        dayBookings = new ArrayList<>();
+        bookingsByCleaner = new HashMap<>();
+        long id = 1;
+        for (long v = 1; v <= 5; v++) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId(v);
+            for (int i = 0; i < 5; i++) {
+                CleanerProfessional c = new CleanerProfessional();
+                c.setId(id++);
+                c.setVehicle(vehicle);
+                fleet.add(c);
+
+                int offset = (i % 3) * 30;
+                List<Booking> own = List.of(
+                        booking(c, LocalTime.of(8, 0).plusMinutes(offset), 120),
+                        booking(c, LocalTime.of(14, 0).plusMinutes(offset), 240));
+                bookingsByCleaner.put(c.getId(), own);
+                dayBookings.addAll(own);
+            }
+        }
+    }
+
+    private static Booking booking(CleanerProfessional c, LocalTime start, int minutes) {
+        Booking b = new Booking();
+        b.setCleaner(c);
+        b.setDate(DATE);
+        b.setStartTime(start);
+        b.setEndTime(start.plusMinutes(minutes));
+        return b;
+    }
+
+    /** Interface proxy answering the few repository reads the availability code uses. */
+    @SuppressWarnings("unchecked")
+    private static <T> T inMemory(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "findAllWithVehicleInRegion" -> fleet;
+                    case "findByDateInRegion" -> dayBookings;
+                    case "findBookingsForCleaner" -> bookingsByCleaner.getOrDefault((Long) args[0], List.of());
+                    case "isCleanerAvailable" -> AvailabilityUtil.isWindowFree(
+                            bookingsByCleaner.getOrDefault((Long) args[0], List.of()),
+                            new TimeWindow((LocalTime) args[2], (LocalTime) args[3]));
+                    case "getTransaction" -> new SimpleTransactionStatus();
+                    case "commit", "rollback" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + "(in-memory)";
+                    default -> throw new UnsupportedOperationException(
+                            type.getSimpleName() + "." + method.getName() + " is not supported by the in-memory proxy");
+                });
+    }
+
+    private static long bytesPerCall(Runnable operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED; i++) {
+            operation.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED;
+    }
+
+    private static void assertWithinBudget(String name, Runnable operation) {
+        long budget = Long.parseLong(System.getProperty("allocation.budget." + name, budgets.getProperty(name)));
+        long measured = bytesPerCall(operation);
+        log.info("allocation {}: {} B/op (budget {})", name, measured, budget);
+        assertTrue(measured <= budget,
+                name + " allocates " + measured + " B/op, budget is " + budget + " B/op");
+    }
+
+    @Test
+    void generateAvailableSlots_withinBudget() {
+        List<Booking> bookings = bookingsByCleaner.get(1L);
+        assertWithinBudget("generateAvailableSlots", () -> AvailabilityUtil.generateAvailableSlots(bookings));
+    }
+
+    @Test
+    void checkAvailability_withinBudget() {
+        AvailabilityServiceImpl service = new AvailabilityServiceImpl(
+                inMemory(CleanerRepository.class), inMemory(BookingRepository.class), (region, date) -> null,
+                new CircuitBreaker("availability", 5, 1000, 10_000),
+                new ConsistentHashRegionRouter(inMemory(VehicleRepository.class), "local", List.of(), 1),
+                new WorkingCalendarServiceImpl(inMemory(CalendarRuleRepository.class), inMemory(CleanerRepository.class),
+                        event -> {}, Set.of(DayOfWeek.FRIDAY), 90), SlotTemplate.DEFAULT,
+                new ReservationOverlayImpl(SlotTemplate.DEFAULT), inMemory(PlatformTransactionManager.class));
+
+        AvailabilityRequest daily = new AvailabilityRequest(DATE, null, null);
+        AvailabilityRequest slot = new AvailabilityRequest(DATE, LocalTime.of(11, 0), 120);
+
+        assertWithinBudget("checkAvailability.daily", () -> service.checkAvailability(daily));
+        assertWithinBudget("checkAvailability.slot", () -> service.checkAvailability(slot));
+        assertWithinBudget("checkCompactAvailability.daily", () -> service.checkCompactAvailability(daily));
+    }
+
+    @Test
+    void assignmentStrategies_withinBudget() {
+        TimeWindow window = new TimeWindow(LocalTime.of(11, 0), LocalTime.of(13, 0));
+        long windowMask = SlotMask.of(window);
+        Map<Long, Long> occupancy = SlotMask.occupancyByCleaner(dayBookings);
+        List<CleanerProfessional> available = fleet.stream()
+                .filter(c -> SlotTemplate.DEFAULT.fits(occupancy.getOrDefault(c.getId(), 0L), windowMask))
+                .toList();
+        assertFalse(available.isEmpty());
+
+        AssignmentStrategy bestFit = new BestFitAssignmentStrategy(SlotTemplate.DEFAULT);
+        AssignmentStrategy firstFit = new FirstFitAssignmentStrategy();
+
+        assertWithinBudget("pick.bestFit", () -> bestFit.pick(available, 2, window, occupancy));
+        assertWithinBudget("pick.firstFit", () -> firstFit.pick(available, 2, window, occupancy));
+    }
+}
@@ -0,0 +1,137 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.service.impl.BestFitAssignmentStrategy;
+import com.cleaning.booking.service.impl.FirstFitAssignmentStrategy;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
+import com.cleaning.booking.util.TimeWindow;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulation benchmark for assignment strategies.
+ *
+ * Replays the same random stream of requests against an in-memory fleet for every
+ * strategy and reports daily utilization and rejected-request rate.
+ */
+@Slf4j
+class AssignmentStrategySimulationTest {
+
+    private static final int VEHICLES = 5;
+    private static final int CLEANERS_PER_VEHICLE = 5;
+    private static final int DAYS = 200;
+    private static final int REQUESTS_PER_DAY = 45;
+    private static final long SEED = 42L;
+
+    private List<CleanerProfessional> fleet() {
+        List<CleanerProfessional> cleaners = new ArrayList<>();
+        long id = 1;
+        for (long v = 1; v <= VEHICLES; v++) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId(v);
+            for (int i = 0; i < CLEANERS_PER_VEHICLE; i++) {
+                CleanerProfessional c = new CleanerProfessional();
+                c.setId(id++);
+                c.setVehicle(vehicle);
+                cleaners.add(c);
+            }
+        }
+        return cleaners;
+    }
+
+    private SimulationResult simulate(AssignmentStrategy strategy) {
+        List<CleanerProfessional> cleaners = fleet();
+        Random random = new Random(SEED);
+
+        long requests = 0;
+        long rejected = 0;
+        long bookedSlots = 0;
+
+        for (int day = 0; day < DAYS; day++) {
+            Map<Long, Long> occupancy = new HashMap<>();
+
+            for (int r = 0; r < REQUESTS_PER_DAY; r++) {
+                int durationSlots = (random.nextBoolean() ? 120 : 240) / SlotMask.SLOT_MINUTES;
+                int stepSlots = SlotTemplate.DEFAULT.stepMinutes() / SlotMask.SLOT_MINUTES;
+                int startSlot = stepSlots * random.nextInt((SlotMask.SLOTS_PER_DAY - durationSlots) / stepSlots + 1);
+                int count = 1 + random.nextInt(3);
+
+                LocalTime start = LocalTime.of(8, 0).plusMinutes((long) startSlot * SlotMask.SLOT_MINUTES);
+                TimeWindow window = new TimeWindow(start, start.plusMinutes((long) durationSlots * SlotMask.SLOT_MINUTES));
+                long windowMask = SlotMask.of(window);
+
+                List<CleanerProfessional> available = cleaners.stream()
+                        .filter(c -> SlotTemplate.DEFAULT.fits(occupancy.getOrDefault(c.getId(), 0L), windowMask))
+                        .toList();
+
+                requests++;
+                List<CleanerProfessional> chosen = strategy.pick(available, count, window, occupancy);
+                if (chosen.isEmpty()) {
+                    rejected++;
+                    continue;
+                }
+                for (CleanerProfessional c : chosen) {
+                    occupancy.merge(c.getId(), windowMask, (x, y) -> x | y);
+                    bookedSlots += durationSlots;
+                }
+            }
+        }
+
+        double utilization = (double) bookedSlots / ((long) DAYS * cleaners.size() * SlotMask.SLOTS_PER_DAY);
+        double rejectionRate = (double) rejected / requests;
+        return new SimulationResult(utilization, rejectionRate);
+    }
+
+    @Test
+    void bestFit_rejectsNoMoreRequestsThanFirstFit() {
+
+        SimulationResult firstFit = simulate(new FirstFitAssignmentStrategy());
+        SimulationResult bestFit = simulate(new BestFitAssignmentStrategy(SlotTemplate.DEFAULT));
+
+        log.info("first-fit: utilization={}% rejected={}%",
+                percent(firstFit.utilization()), percent(firstFit.rejectionRate()));
+        log.info("best-fit : utilization={}% rejected={}%",
+                percent(bestFit.utilization()), percent(bestFit.rejectionRate()));
+
+        assertTrue(bestFit.rejectionRate() <= firstFit.rejectionRate());
+        assertTrue(bestFit.utilization() >= firstFit.utilization());
+    }
+
+    @Test
+    void bestFit_prefersTightGapOverStrandedSlots() {
+
+        List<CleanerProfessional> cleaners = fleet();
+        CleanerProfessional a = cleaners.get(0);
+        CleanerProfessional b = cleaners.get(1);
+
+        // a is booked 08:00-10:00 and b 08:00-09:00; a new 10:30 job leaves no usable
+        // gap for a, but would strand 09:30-10:30 for b.
+        Map<Long, Long> occupancy = new HashMap<>();
+        occupancy.put(a.getId(), SlotMask.of(new TimeWindow(LocalTime.of(8, 0), LocalTime.of(10, 0))));
+        occupancy.put(b.getId(), SlotMask.of(new TimeWindow(LocalTime.of(8, 0), LocalTime.of(9, 0))));
+
+        TimeWindow window = new TimeWindow(LocalTime.of(10, 30), LocalTime.of(12, 30));
+
+        List<CleanerProfessional> chosen = new BestFitAssignmentStrategy(SlotTemplate.DEFAULT)
+                .pick(List.of(b, a), 1, window, occupancy);
+
+        assertEquals(List.of(a), chosen);
+    }
+
+    private static String percent(double ratio) {
+        return String.format("%.1f", ratio * 100);
+    }
+
+    private record SimulationResult(double utilization, double rejectionRate) {}
+}
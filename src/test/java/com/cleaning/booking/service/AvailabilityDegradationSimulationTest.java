@@ -0,0 +1,138 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.AvailabilityRequest;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CalendarRuleRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.service.impl.AvailabilityServiceImpl;
+import com.cleaning.booking.service.impl.ReservationOverlayImpl;
+import com.cleaning.booking.service.impl.WorkingCalendarServiceImpl;
+import com.cleaning.booking.util.CircuitBreaker;
+import com.cleaning.booking.util.SlotTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Latency-injection harness for degraded-database behaviour.
+ *
+ * A semaphore stands in for the connection pool. Availability reads hold a permit
+ * for an injected delay, as they would on a slow MySQL, while a booking workload
+ * needs a permit for a short write. The same load runs with the breaker effectively
+ * disabled and with it enabled, and booking throughput is compared.
+ */
+@Slf4j
+class AvailabilityDegradationSimulationTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final long INJECTED_LATENCY_MS = 100;
+    private static final int AVAILABILITY_CLIENTS = 12;
+    private static final int BOOKING_CLIENTS = 2;
+    private static final long RUN_MS = 1000;
+
+    private final LocalDate date = LocalDate.of(2025, 1, 14); // Tuesday
+
+    private long bookingsCompleted(CircuitBreaker breaker) throws Exception {
+        Semaphore pool = new Semaphore(POOL_SIZE, true);
+
+        Answer<Object> slowRead = invocation -> {
+            pool.acquire();
+            try {
+                Thread.sleep(INJECTED_LATENCY_MS);
+            } finally {
+                pool.release();
+            }
+            return invocation.getMethod().getName().equals("findAllWithVehicleInRegion") ? fleet() : List.of();
+        };
+        CleanerRepository cleanerRepository = mock(CleanerRepository.class);
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(cleanerRepository.findAllWithVehicleInRegion(any())).thenAnswer(slowRead);
+        when(bookingRepository.findByDateInRegion(any(), any())).thenAnswer(slowRead);
+
+        AvailabilityServiceImpl service = new AvailabilityServiceImpl(cleanerRepository, bookingRepository, (region, date) -> null, breaker,
+                mock(RegionRouter.class), new WorkingCalendarServiceImpl(mock(CalendarRuleRepository.class), mock(CleanerRepository.class), event -> {},
+                Set.of(DayOfWeek.FRIDAY), 90), SlotTemplate.DEFAULT, new ReservationOverlayImpl(SlotTemplate.DEFAULT),
+                mock(PlatformTransactionManager.class));
+        AvailabilityRequest request = new AvailabilityRequest(date, null, null);
+
+        AtomicLong bookings = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RUN_MS);
+        ExecutorService executor = Executors.newFixedThreadPool(AVAILABILITY_CLIENTS + BOOKING_CLIENTS);
+
+        for (int i = 0; i < AVAILABILITY_CLIENTS; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        service.checkCompactAvailability(request);
+                    } catch (RuntimeException ex) {
+                        // 503 without a snapshot; the client just polls again
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < BOOKING_CLIENTS; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    pool.acquireUninterruptibly();
+                    try {
+                        Thread.sleep(1);
+                        bookings.incrementAndGet();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } finally {
+                        pool.release();
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(RUN_MS * 5, TimeUnit.MILLISECONDS));
+        return bookings.get();
+    }
+
+    private List<CleanerProfessional> fleet() {
+        Vehicle v = new Vehicle();
+        v.setId(1L);
+        List<CleanerProfessional> cleaners = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            CleanerProfessional c = new CleanerProfessional();
+            c.setId(id);
+            c.setVehicle(v);
+            cleaners.add(c);
+        }
+        return cleaners;
+    }
+
+    @Test
+    void breaker_preservesBookingThroughputUnderSlowReads() throws Exception {
+
+        long withoutBreaker = bookingsCompleted(new CircuitBreaker("off", Integer.MAX_VALUE, 60_000, 60_000));
+        long withBreaker = bookingsCompleted(new CircuitBreaker("on", 3, 50, 60_000));
+
+        log.info("bookings in {} ms with slow availability reads: breaker off={}, breaker on={}",
+                RUN_MS, withoutBreaker, withBreaker);
+
+        assertTrue(withBreaker > withoutBreaker * 3,
+                "breaker should free the pool for bookings: off=" + withoutBreaker + " on=" + withBreaker);
+    }
+}
@@ -0,0 +1,66 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.AvailabilityResponse;
+import com.cleaning.booking.service.impl.AvailabilityPayloadCacheImpl;
+import com.cleaning.booking.util.CachedPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityPayloadCacheImplTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AvailabilityResponse response =
+            new AvailabilityResponse(List.of(), List.of("08:00 - 10:00", "08:00 - 12:00"));
+
+    @Test
+    void get_rendersOnceThenServesBytes() {
+        AvailabilityPayloadCacheImpl cache = new AvailabilityPayloadCacheImpl(objectMapper, 10, true);
+        AtomicInteger loads = new AtomicInteger();
+
+        CachedPayload first = cache.get("k", () -> { loads.incrementAndGet(); return response; });
+        CachedPayload second = cache.get("k", () -> { loads.incrementAndGet(); return response; });
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertTrue(new String(first.json(), StandardCharsets.UTF_8).contains("08:00 - 12:00"));
+    }
+
+    @Test
+    void get_gzipDecodesToJson() throws Exception {
+        AvailabilityPayloadCacheImpl cache = new AvailabilityPayloadCacheImpl(objectMapper, 10, true);
+
+        CachedPayload payload = cache.get("k", () -> response);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload.gzip()))) {
+            assertArrayEquals(payload.json(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void get_withoutGzip() {
+        AvailabilityPayloadCacheImpl cache = new AvailabilityPayloadCacheImpl(objectMapper, 10, false);
+
+        assertNull(cache.get("k", () -> response).gzip());
+        assertFalse(cache.gzipEnabled());
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsed() {
+        AvailabilityPayloadCacheImpl cache = new AvailabilityPayloadCacheImpl(objectMapper, 1, false);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", () -> { loads.incrementAndGet(); return response; });
+        cache.get("b", () -> { loads.incrementAndGet(); return response; });
+        cache.get("a", () -> { loads.incrementAndGet(); return response; });
+
+        assertEquals(3, loads.get());
+    }
+}
@@ -2,20 +2,37 @@ package com.cleaning.booking.service;
 
 import com.cleaning.booking.dto.AvailabilityRequest;
 import com.cleaning.booking.dto.AvailabilityResponse;
+import com.cleaning.booking.dto.BulkAvailabilityRequest;
+import com.cleaning.booking.dto.BulkAvailabilityResponse;
+import com.cleaning.booking.dto.CompactAvailabilityResponse;
+import com.cleaning.booking.dto.NextAvailableRequest;
+import com.cleaning.booking.dto.NextAvailableResponse;
+import com.cleaning.booking.dto.SlotQuery;
 import com.cleaning.booking.entity.Booking;
 import com.cleaning.booking.entity.CleanerProfessional;
 import com.cleaning.booking.entity.Vehicle;
 import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.ServiceUnavailableException;
 import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CalendarRuleRepository;
 import com.cleaning.booking.repository.CleanerRepository;
 import com.cleaning.booking.service.impl.AvailabilityServiceImpl;
+import com.cleaning.booking.service.impl.ReservationOverlayImpl;
+import com.cleaning.booking.service.impl.WorkingCalendarServiceImpl;
 import com.cleaning.booking.util.AvailabilityUtil;
+import com.cleaning.booking.util.CircuitBreaker;
+import com.cleaning.booking.util.Regions;
+import com.cleaning.booking.util.SlotTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +41,7 @@ class AvailabilityServiceImplTest {
 
     private CleanerRepository cleanerRepository;
     private BookingRepository bookingRepository;
+    private CircuitBreaker breaker;
     private AvailabilityServiceImpl availabilityService;
 
     private final LocalDate validDate = LocalDate.of(2025, 1, 14); // Tuesday
@@ -32,7 +50,11 @@ class AvailabilityServiceImplTest {
     void setup() {
         cleanerRepository = mock(CleanerRepository.class);
         bookingRepository = mock(BookingRepository.class);
-        availabilityService = new AvailabilityServiceImpl(cleanerRepository, bookingRepository);
+        breaker = new CircuitBreaker("availability", 2, 1000, 60_000);
+        availabilityService = new AvailabilityServiceImpl(cleanerRepository, bookingRepository, (region, date) -> null, breaker,
+                mock(RegionRouter.class), new WorkingCalendarServiceImpl(mock(CalendarRuleRepository.class), mock(CleanerRepository.class), event -> {},
+                Set.of(DayOfWeek.FRIDAY), 90), SlotTemplate.DEFAULT, new ReservationOverlayImpl(SlotTemplate.DEFAULT),
+                mock(PlatformTransactionManager.class));
     }
 
     private CleanerProfessional cleaner(long id, long vehicleId) {
@@ -69,7 +91,7 @@ class AvailabilityServiceImplTest {
         CleanerProfessional c1 = cleaner(1L, 10L);
         CleanerProfessional c2 = cleaner(2L, 10L);
 
-        when(cleanerRepository.findAllWithVehicle())
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
                 .thenReturn(List.of(c1, c2));
 
         Booking b1 = new Booking();
@@ -112,7 +134,7 @@ class AvailabilityServiceImplTest {
         CleanerProfessional c1 = cleaner(1L, 10L);
         CleanerProfessional c2 = cleaner(2L, 10L);
 
-        when(cleanerRepository.findAllWithVehicle())
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
                 .thenReturn(List.of(c1, c2));
 
         when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any()))
@@ -135,7 +157,7 @@ class AvailabilityServiceImplTest {
 
         CleanerProfessional c1 = cleaner(1L, 10L);
 
-        when(cleanerRepository.findAllWithVehicle())
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
                 .thenReturn(List.of(c1));
 
         when(bookingRepository.findBookingsForCleaner(1L, validDate))
@@ -147,4 +169,192 @@ class AvailabilityServiceImplTest {
         assertTrue(res.availableCleanerIds().isEmpty());
         assertFalse(res.availableTimeSlots().isEmpty()); // AvailabilityUtil will generate full-day slots
     }
+
+    // ------------------------------------------------------------------------------------
+    // 5. NEXT AVAILABLE — first chunk has capacity → one bookings query only
+    // ------------------------------------------------------------------------------------
+    @Test
+    void findNextAvailable_stopsAfterFirstChunk() {
+
+        NextAvailableRequest req = new NextAvailableRequest(validDate, 240, 2, 3, 60);
+
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
+                .thenReturn(List.of(cleaner(1L, 10L), cleaner(2L, 10L), cleaner(3L, 20L)));
+
+        // Cleaner 1 is busy all morning, so the first options are 13:30 onwards
+        Booking morning = new Booking();
+        morning.setCleaner(cleaner(1L, 10L));
+        morning.setDate(validDate);
+        morning.setStartTime(LocalTime.of(8, 0));
+        morning.setEndTime(LocalTime.of(13, 0));
+
+        when(bookingRepository.findBookingsBetweenInRegion(any(), any(), any()))
+                .thenReturn(List.of(morning));
+
+        NextAvailableResponse res = availabilityService.findNextAvailable(req);
+
+        assertEquals(3, res.options().size());
+        assertEquals(validDate, res.options().get(0).date());
+        assertEquals(LocalTime.of(13, 30), res.options().get(0).startTime());
+        assertEquals(LocalTime.of(17, 30), res.options().get(0).endTime());
+        assertEquals(10L, res.options().get(0).vehicleId());
+        assertEquals(LocalTime.of(14, 0), res.options().get(1).startTime());
+
+        verify(bookingRepository, times(1)).findBookingsBetweenInRegion(validDate, validDate.plusDays(6), Regions.DEFAULT);
+    }
+
+    // ------------------------------------------------------------------------------------
+    // 6. NEXT AVAILABLE — no vehicle large enough → no DB scan at all
+    // ------------------------------------------------------------------------------------
+    @Test
+    void findNextAvailable_noVehicleLargeEnough() {
+
+        NextAvailableRequest req = new NextAvailableRequest(validDate, 120, 3, 5, 30);
+
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
+                .thenReturn(List.of(cleaner(1L, 10L), cleaner(2L, 20L)));
+
+        NextAvailableResponse res = availabilityService.findNextAvailable(req);
+
+        assertTrue(res.options().isEmpty());
+        verify(bookingRepository, never()).findBookingsBetweenInRegion(any(), any(), any());
+    }
+
+    // ------------------------------------------------------------------------------------
+    // 7. BULK — each date loaded once, results in request order
+    // ------------------------------------------------------------------------------------
+    @Test
+    void checkBulkAvailability_loadsEachDateOnceAndKeepsOrder() {
+
+        LocalDate nextDay = validDate.plusDays(1);
+
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
+                .thenReturn(List.of(cleaner(1L, 10L), cleaner(2L, 10L)));
+
+        Booking b = new Booking();
+        b.setCleaner(cleaner(1L, 10L));
+        b.setDate(validDate);
+        b.setStartTime(LocalTime.of(10, 0));
+        b.setEndTime(LocalTime.of(12, 0));
+
+        when(bookingRepository.findByDateInRegion(validDate, Regions.DEFAULT)).thenReturn(List.of(b));
+        when(bookingRepository.findByDateInRegion(nextDay, Regions.DEFAULT)).thenReturn(List.of());
+
+        BulkAvailabilityRequest req = new BulkAvailabilityRequest(List.of(
+                new SlotQuery(validDate, LocalTime.of(10, 0), 120, 2),
+                new SlotQuery(nextDay, LocalTime.of(10, 0), 120, 2),
+                new SlotQuery(validDate, LocalTime.of(15, 0), 120, 2),
+                new SlotQuery(LocalDate.of(2025, 1, 17), LocalTime.of(10, 0), 120, 1), // Friday
+                new SlotQuery(validDate, LocalTime.of(12, 0), 120, 1)
+        ));
+
+        BulkAvailabilityResponse res = availabilityService.checkBulkAvailability(req);
+
+        assertEquals(5, res.results().size());
+
+        assertFalse(res.results().get(0).bookable());
+        assertEquals(List.of(2L), res.results().get(0).availableCleanerIds());
+
+        assertTrue(res.results().get(1).bookable());
+        assertEquals(nextDay, res.results().get(1).date());
+
+        assertTrue(res.results().get(2).bookable());
+
+        assertFalse(res.results().get(3).bookable());
+        assertNotNull(res.results().get(3).error());
+
+        // 12:00 start violates the 30-minute break after cleaner 1's booking
+        assertEquals(List.of(2L), res.results().get(4).availableCleanerIds());
+
+        verify(cleanerRepository, times(1)).findAllWithVehicleInRegion(Regions.DEFAULT);
+        verify(bookingRepository, times(1)).findByDateInRegion(validDate, Regions.DEFAULT);
+        verify(bookingRepository, times(1)).findByDateInRegion(nextDay, Regions.DEFAULT);
+    }
+
+    @Test
+    void checkBulkAvailability_rejectsStartsOffTheTemplateStep() {
+
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
+                .thenReturn(List.of(cleaner(1L, 10L)));
+        when(bookingRepository.findByDateInRegion(validDate, Regions.DEFAULT)).thenReturn(List.of());
+
+        BulkAvailabilityResponse res = availabilityService.checkBulkAvailability(new BulkAvailabilityRequest(List.of(
+                new SlotQuery(validDate, LocalTime.of(10, 15), 120, 1),
+                new SlotQuery(validDate, LocalTime.of(10, 30), 120, 1)
+        )));
+
+        assertFalse(res.results().get(0).bookable());
+        assertEquals(SlotTemplate.DEFAULT.startsText(), res.results().get(0).error());
+        assertTrue(res.results().get(1).bookable());
+    }
+
+    // ------------------------------------------------------------------------------------
+    // 8. COMPACT (v2) — per-duration start masks from one bookings query
+    // ------------------------------------------------------------------------------------
+    @Test
+    void checkCompactAvailability_dailyStartMasks() {
+
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
+                .thenReturn(List.of(cleaner(1L, 10L)));
+
+        // 12:00-14:00 booked → with breaks, slots 11:30-14:30 are blocked
+        Booking b = new Booking();
+        b.setCleaner(cleaner(1L, 10L));
+        b.setDate(validDate);
+        b.setStartTime(LocalTime.of(12, 0));
+        b.setEndTime(LocalTime.of(14, 0));
+
+        when(bookingRepository.findByDateInRegion(validDate, Regions.DEFAULT)).thenReturn(List.of(b));
+
+        CompactAvailabilityResponse res = availabilityService.checkCompactAvailability(
+                new AvailabilityRequest(validDate, null, null));
+
+        long twoHour = res.startMasks().get(120);
+
+        assertEquals(15, res.slotMinutes());
+        assertEquals(LocalTime.of(8, 0), res.dayStart());
+        assertTrue((twoHour & 1L) != 0);          // 08:00-10:00
+        assertTrue((twoHour & (1L << 6)) != 0);   // 09:30-11:30
+        assertEquals(0, twoHour & (1L << 8));     // 10:00-12:00 would touch the break
+        assertTrue((twoHour & (1L << 26)) != 0);  // 14:30-16:30
+        assertTrue((twoHour & (1L << 48)) != 0);  // 20:00-22:00
+        assertEquals(0, twoHour >>> 49);          // nothing ends after 22:00
+        assertEquals(0, twoHour & (1L << 1));     // 08:15 is not on the 30-minute step
+
+        assertEquals(0, res.startMasks().get(240) >>> 41);
+        verify(bookingRepository, never()).findBookingsForCleaner(any(), any());
+    }
+
+    // ------------------------------------------------------------------------------------
+    // 9. DEGRADED — breaker opens on timeouts, last snapshot is served as stale
+    // ------------------------------------------------------------------------------------
+    @Test
+    void checkCompactAvailability_servesStaleSnapshotWhileBreakerOpen() {
+
+        AvailabilityRequest req = new AvailabilityRequest(validDate, null, null);
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT)).thenReturn(List.of(cleaner(1L, 10L)));
+        when(bookingRepository.findByDateInRegion(validDate, Regions.DEFAULT)).thenReturn(List.of());
+
+        CompactAvailabilityResponse fresh = availabilityService.checkCompactAvailability(req);
+        assertFalse(fresh.stale());
+
+        when(bookingRepository.findByDateInRegion(validDate, Regions.DEFAULT)).thenThrow(new QueryTimeoutException("timeout"));
+
+        // two timeouts open the breaker; each is still answered from the snapshot
+        assertTrue(availabilityService.checkCompactAvailability(req).stale());
+        assertTrue(availabilityService.checkCompactAvailability(req).stale());
+        assertTrue(breaker.isOpen());
+
+        CompactAvailabilityResponse stale = availabilityService.checkCompactAvailability(req);
+        assertTrue(stale.stale());
+        assertEquals(fresh.startMasks(), stale.startMasks());
+        // the open breaker short-circuits: no third database read
+        verify(bookingRepository, times(3)).findByDateInRegion(validDate, Regions.DEFAULT);
+
+        // nothing to fall back to for a request never answered before, or for multi-date reads
+        assertThrows(ServiceUnavailableException.class, () -> availabilityService.checkCompactAvailability(
+                new AvailabilityRequest(validDate.plusDays(1), null, null)));
+        assertThrows(ServiceUnavailableException.class, () -> availabilityService.findNextAvailable(
+                new NextAvailableRequest(validDate, 120, 1, 1, 7)));
+    }
 }
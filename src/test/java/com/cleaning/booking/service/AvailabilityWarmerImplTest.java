@@ -0,0 +1,188 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.AvailabilityRequest;
+import com.cleaning.booking.dto.AvailabilityResponse;
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.event.RosterChangedEvent;
+import com.cleaning.booking.service.impl.AvailabilityPayloadCacheImpl;
+import com.cleaning.booking.service.impl.AvailabilityWarmerImpl;
+import com.cleaning.booking.util.CircuitBreaker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AvailabilityWarmerImplTest {
+
+    private static final long WAIT_MS = 5_000;
+
+    private final AvailabilityResponse response = new AvailabilityResponse(List.of(), List.of("08:00 - 10:00"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AvailabilityPayloadCache payloadCache = new AvailabilityPayloadCacheImpl(new ObjectMapper(), 100, false);
+
+    private AvailabilityService availabilityService;
+    private DataVersionService dataVersionService;
+    private RegionRouter regionRouter;
+    private WorkingCalendarService workingCalendar;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private CircuitBreaker circuitBreaker;
+    private AdmissionLoad admissionLoad;
+    private AvailabilityWarmerImpl warmer;
+
+    @BeforeEach
+    void setup() {
+        availabilityService = mock(AvailabilityService.class);
+        when(availabilityService.checkAvailability(any())).thenReturn(response);
+        dataVersionService = mock(DataVersionService.class);
+        when(dataVersionService.availabilityTag(any())).thenAnswer(inv -> "v1-" + inv.getArgument(0));
+        regionRouter = mock(RegionRouter.class);
+        when(regionRouter.localRegions()).thenReturn(List.of("berlin"));
+        when(regionRouter.isLocal(any())).thenReturn(true);
+        workingCalendar = mock(WorkingCalendarService.class);
+        when(workingCalendar.isWorkingDay(anyString(), any()))
+                .thenAnswer(inv -> inv.<LocalDate>getArgument(1).getDayOfWeek() != DayOfWeek.FRIDAY);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        when(cacheInvalidationBus.isCoherent()).thenReturn(true);
+        circuitBreaker = mock(CircuitBreaker.class);
+        admissionLoad = mock(AdmissionLoad.class);
+    }
+
+    @AfterEach
+    void close() {
+        if (warmer != null) {
+            warmer.close();
+        }
+    }
+
+    private AvailabilityWarmerImpl warmer(int days, int maxQueued) {
+        return warmer(days, maxQueued, 0);
+    }
+
+    private AvailabilityWarmerImpl warmer(int days, int maxQueued, long refreshDelayMs) {
+        warmer = new AvailabilityWarmerImpl(availabilityService, payloadCache, dataVersionService, regionRouter,
+                workingCalendar, cacheInvalidationBus, circuitBreaker, admissionLoad, meterRegistry,
+                true, days, 1, 8, maxQueued, refreshDelayMs, 10);
+        return warmer;
+    }
+
+    private List<LocalDate> warmedDates(int times) {
+        ArgumentCaptor<AvailabilityRequest> requests = ArgumentCaptor.forClass(AvailabilityRequest.class);
+        verify(availabilityService, timeout(WAIT_MS).times(times)).checkAvailability(requests.capture());
+        return requests.getAllValues().stream().map(AvailabilityRequest::date).toList();
+    }
+
+    private double counter(String outcome) {
+        return meterRegistry.get("availability.warmup").tag("outcome", outcome).counter().count();
+    }
+
+    /** Waits until a queued date was deferred at least twice, so it has certainly been looked at. */
+    private void awaitDeferred() {
+        verify(circuitBreaker, timeout(WAIT_MS).atLeast(2)).isOpen();
+    }
+
+    @Test
+    void warmUpcoming_fillsPayloadCacheForNextWorkingDays_skippingFridays() {
+        warmer(7, 100).warmUpcoming();
+
+        List<LocalDate> dates = warmedDates(7);
+        assertEquals(7, Set.copyOf(dates).size());
+        assertTrue(dates.stream().noneMatch(d -> d.getDayOfWeek() == DayOfWeek.FRIDAY));
+        assertTrue(dates.stream().allMatch(d -> !d.isBefore(LocalDate.now()) && d.isBefore(LocalDate.now().plusDays(8))));
+
+        // A user read of a warmed date is served without computing it again
+        LocalDate date = dates.get(0);
+        AvailabilityRequest request = new AvailabilityRequest(date, null, null, "berlin");
+        AtomicInteger loads = new AtomicInteger();
+        payloadCache.get(AvailabilityPayloadCache.key(dataVersionService.availabilityTag(date), request),
+                () -> { loads.incrementAndGet(); return response; });
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void warm_waitsWhileBreakerIsOpen() {
+        when(circuitBreaker.isOpen()).thenReturn(true);
+        warmer(3, 100).warmUpcoming();
+
+        awaitDeferred();
+        verifyNoInteractions(availabilityService);
+        assertEquals(3, warmer.pending());
+
+        when(circuitBreaker.isOpen()).thenReturn(false);
+        warmedDates(3);
+    }
+
+    @Test
+    void warm_waitsWhileLiveTrafficIsHigh() {
+        when(admissionLoad.inFlight()).thenReturn(8);
+        warmer(2, 100).warmUpcoming();
+
+        verify(admissionLoad, timeout(WAIT_MS).atLeast(2)).inFlight();
+        verifyNoInteractions(availabilityService);
+
+        when(admissionLoad.inFlight()).thenReturn(0);
+        warmedDates(2);
+    }
+
+    @Test
+    void warm_skipsWhileCacheBusIsIncoherent() {
+        when(cacheInvalidationBus.isCoherent()).thenReturn(false);
+        warmer(3, 100).warmUpcoming();
+
+        verify(cacheInvalidationBus, timeout(WAIT_MS).times(3)).isCoherent();
+        verifyNoInteractions(availabilityService);
+        assertEquals(0, warmer.pending());
+    }
+
+    @Test
+    void bookingChange_rewarmsTheDateUnderItsNewTag() {
+        warmer(3, 100).warmUpcoming();
+        LocalDate date = warmedDates(3).get(0);
+
+        when(dataVersionService.availabilityTag(date)).thenReturn("v2-" + date);
+        warmer.onBookingChanged(new BookingChangedEvent(Set.of(date, LocalDate.now().minusDays(1)), List.of(1L)));
+
+        List<LocalDate> dates = warmedDates(4);
+        assertEquals(date, dates.get(3));
+        // The counter moves just after the read returns
+        await().atMost(WAIT_MS, TimeUnit.MILLISECONDS).until(() -> counter("warmed") == 4.0);
+    }
+
+    @Test
+    void rosterChange_plansOnceAfterTheRefreshDelay() {
+        warmer(2, 100, 1_000);
+        warmer.onRosterChanged(new RosterChangedEvent(1L));
+        warmer.onRemoteChange(new CacheInvalidatedEvent(Set.of(), List.of(), true));
+
+        // Planning at once could key the dates by the roster version before the change
+        verifyNoInteractions(regionRouter, availabilityService);
+
+        warmedDates(2);
+        verify(regionRouter, times(1)).localRegions();
+    }
+
+    @Test
+    void queue_isBounded() {
+        when(circuitBreaker.isOpen()).thenReturn(true);
+        warmer(5, 2).warmUpcoming();
+
+        await().atMost(WAIT_MS, TimeUnit.MILLISECONDS).until(() -> counter("dropped") == 3.0);
+        assertEquals(2, warmer.pending());
+        assertEquals(3.0, counter("dropped"));
+    }
+}
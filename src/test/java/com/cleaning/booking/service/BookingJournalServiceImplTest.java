@@ -0,0 +1,370 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.dto.JournalReceipt;
+import com.cleaning.booking.dto.JournalState;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.JournalOutcome;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.OverlapException;
+import com.cleaning.booking.exception.RegionNotLocalException;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CalendarRuleRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.repository.JournalOutcomeRepository;
+import com.cleaning.booking.service.impl.BestFitAssignmentStrategy;
+import com.cleaning.booking.service.impl.BookingJournalServiceImpl;
+import com.cleaning.booking.service.impl.BookingServiceImpl;
+import com.cleaning.booking.service.impl.ReservationOverlayImpl;
+import com.cleaning.booking.service.impl.WorkingCalendarServiceImpl;
+import com.cleaning.booking.util.Regions;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
+import com.cleaning.booking.util.TimeWindow;
+import com.cleaning.booking.util.WorkHoursValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookingJournalServiceImplTest {
+
+    @TempDir
+    Path dir;
+
+    private BookingService bookingService;
+    private CleanerRepository cleanerRepository;
+    /** Outcome table shared by every service instance, like the database across restarts and nodes. */
+    private final Map<String, JournalOutcome> outcomeRows = new HashMap<>();
+    private final JournalOutcomeRepository outcomeRepository = mock(JournalOutcomeRepository.class);
+    private final WorkingCalendarService calendar = new WorkingCalendarServiceImpl(mock(CalendarRuleRepository.class),
+            mock(CleanerRepository.class), event -> {}, Set.of(DayOfWeek.FRIDAY), 90);
+
+    private final LocalDate date = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+    private final BookingRequest request = new BookingRequest(date, LocalTime.of(10, 0), 120, 1);
+
+    @BeforeEach
+    void setup() {
+        bookingService = mock(BookingService.class);
+        cleanerRepository = mock(CleanerRepository.class);
+        when(outcomeRepository.save(any())).thenAnswer(inv -> {
+            JournalOutcome outcome = inv.getArgument(0);
+            outcomeRows.put(outcome.getKey(), outcome);
+            return outcome;
+        });
+        when(outcomeRepository.findById(any())).thenAnswer(inv -> Optional.ofNullable(outcomeRows.get(inv.<String>getArgument(0))));
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT)).thenReturn(List.of(cleaner(1L), cleaner(2L)));
+        when(bookingService.createReservedBooking(any(), any(), any())).thenAnswer(inv -> {
+            BookingRequest r = inv.getArgument(0);
+            return new BookingResponse(100L, r.date(), r.startTime(),
+                    r.startTime().plusMinutes(r.durationMinutes()), inv.getArgument(1));
+        });
+    }
+
+    private CleanerProfessional cleaner(long id) {
+        Vehicle v = new Vehicle();
+        v.setId(10L);
+        CleanerProfessional c = new CleanerProfessional();
+        c.setId(id);
+        c.setVehicle(v);
+        return c;
+    }
+
+    private BookingJournalServiceImpl service(boolean enabled, int batchSize) {
+        return service(enabled, batchSize, new ReservationOverlayImpl(SlotTemplate.DEFAULT));
+    }
+
+    private BookingJournalServiceImpl service(boolean enabled, int batchSize, ReservationOverlay overlay) {
+        return new BookingJournalServiceImpl(bookingService, cleanerRepository, outcomeRepository, (region, d) -> Map.of(), overlay,
+                new BestFitAssignmentStrategy(SlotTemplate.DEFAULT), calendar, SlotTemplate.DEFAULT, mock(DataVersionService.class), event -> {},
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), enabled,
+                dir.resolve("booking.journal").toString(), 1, batchSize, 3, 168);
+    }
+
+    /** Synchronous booking service sharing the overlay, over a database without bookings. */
+    private BookingServiceImpl syncBookingService(ReservationOverlay overlay, BookingRepository bookingRepository) {
+        when(bookingRepository.findByDateInRegion(any(), any())).thenReturn(List.of());
+        when(bookingRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any())).thenReturn(true);
+        when(cleanerRepository.lockCleanersForUpdate(any())).thenAnswer(inv ->
+                inv.<List<Long>>getArgument(0).stream().map(this::cleaner).toList());
+        return new BookingServiceImpl(cleanerRepository, bookingRepository, new BestFitAssignmentStrategy(SlotTemplate.DEFAULT),
+                mock(IdempotencyService.class), event -> {}, mock(RegionRouter.class), calendar, SlotTemplate.DEFAULT, overlay);
+    }
+
+    @Test
+    void submit_acknowledgesBeforeDrainAndBooksReservedCleaners() {
+        BookingJournalServiceImpl service = service(true, 10);
+
+        JournalReceipt receipt = service.submit(request);
+
+        assertEquals(JournalState.ACCEPTED, receipt.state());
+        assertEquals(1, receipt.assignedCleaners().size());
+        verifyNoInteractions(bookingService);
+
+        service.drain();
+
+        verify(bookingService).createReservedBooking(eq(request), eq(receipt.assignedCleaners()),
+                argThat(key -> key.startsWith("journal-") && key.endsWith("-" + receipt.seq())));
+        JournalReceipt status = service.status(null, receipt.seq()).orElseThrow();
+        assertEquals(JournalState.BOOKED, status.state());
+        assertEquals(100L, status.booking().bookingId());
+    }
+
+    @Test
+    void submit_reservesAgainstUndrainedEntries() {
+        BookingJournalServiceImpl service = service(true, 10);
+
+        List<Long> first = service.submit(request).assignedCleaners();
+        List<Long> second = service.submit(request).assignedCleaners();
+
+        assertNotEquals(first, second);
+        assertThrows(BadRequestException.class, () -> service.submit(request));
+    }
+
+    @Test
+    void syncBooking_cannotTakeCleanersOfPendingEntry() {
+        ReservationOverlay overlay = new ReservationOverlayImpl(SlotTemplate.DEFAULT);
+        bookingService = syncBookingService(overlay, mock(BookingRepository.class));
+        BookingJournalServiceImpl journal = service(true, 10, overlay);
+
+        JournalReceipt accepted = journal.submit(new BookingRequest(date, LocalTime.of(10, 0), 120, 2));
+
+        assertThrows(BadRequestException.class, () -> bookingService.createBooking(request));
+        assertThrows(BadRequestException.class, () -> bookingService.createBooking(
+                new BookingRequest(date, LocalTime.of(12, 0), 120, 1)));
+        assertEquals(1, bookingService.createBooking(new BookingRequest(date, LocalTime.of(12, 30), 120, 1))
+                .assignedCleaners().size());
+
+        journal.drain();
+
+        JournalReceipt status = journal.status(null, accepted.seq()).orElseThrow();
+        assertEquals(JournalState.BOOKED, status.state());
+        assertEquals(accepted.assignedCleaners(), status.booking().assignedCleaners());
+        assertEquals(Map.of(), overlay.reserved(Regions.DEFAULT, date));
+    }
+
+    @Test
+    void syncBooking_racingPendingEntryLosesUnderLock() {
+        ReservationOverlay overlay = new ReservationOverlayImpl(SlotTemplate.DEFAULT);
+        bookingService = syncBookingService(overlay, mock(BookingRepository.class));
+        BookingJournalServiceImpl journal = service(true, 10, overlay);
+
+        // The journaled request is accepted while the synchronous one waits for its cleaner locks
+        List<JournalReceipt> accepted = new ArrayList<>();
+        doAnswer(inv -> {
+            if (accepted.isEmpty()) {
+                accepted.add(journal.submit(new BookingRequest(date, LocalTime.of(10, 0), 120, 2)));
+            }
+            return inv.<List<Long>>getArgument(0).stream().map(this::cleaner).toList();
+        }).when(cleanerRepository).lockCleanersForUpdate(any());
+
+        assertThrows(OverlapException.class, () -> bookingService.createBooking(request));
+
+        journal.drain();
+
+        JournalReceipt status = journal.status(null, accepted.get(0).seq()).orElseThrow();
+        assertEquals(JournalState.BOOKED, status.state());
+        assertEquals(List.of(1L, 2L), status.booking().assignedCleaners());
+    }
+
+    @Test
+    void submit_avoidsCleanersOfOpenSyncBooking() {
+        ReservationOverlay overlay = new ReservationOverlayImpl(SlotTemplate.DEFAULT);
+        BookingJournalServiceImpl journal = service(true, 10, overlay);
+        overlay.tryReserve("booking-open", Regions.DEFAULT, date,
+                SlotMask.of(new TimeWindow(LocalTime.of(10, 0), LocalTime.of(12, 0))), List.of(1L));
+
+        assertEquals(List.of(2L), journal.submit(request).assignedCleaners());
+        assertThrows(BadRequestException.class, () -> journal.submit(request));
+    }
+
+    @Test
+    void restart_replaysOnlyUndrainedEntries() {
+        BookingJournalServiceImpl service = service(true, 1);
+        long drained = service.submit(request).seq();
+        long undrained = service.submit(new BookingRequest(date, LocalTime.of(15, 0), 120, 1)).seq();
+        service.drain();
+        clearInvocations(bookingService);
+
+        BookingJournalServiceImpl restarted = service(true, 10);
+
+        assertEquals(JournalState.BOOKED, restarted.status(null, drained).orElseThrow().state());
+        assertEquals(JournalState.ACCEPTED, restarted.status(null, undrained).orElseThrow().state());
+
+        restarted.drain();
+
+        verify(bookingService, times(1)).createReservedBooking(any(), any(), argThat(key -> key.endsWith("-" + undrained)));
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void drain_failedBatchRejectsOnlyTheBookingThatCannotBeMade() {
+        BookingJournalServiceImpl service = service(true, 10);
+        long bad = service.submit(request).seq();
+        long good = service.submit(request).seq();
+        doThrow(new OverlapException("taken"))
+                .when(bookingService).createReservedBooking(any(), any(), argThat(key -> key.endsWith("-" + bad)));
+
+        service.drain();
+
+        assertEquals(JournalState.REJECTED, service.status(null, bad).orElseThrow().state());
+        assertEquals(JournalState.BOOKED, service.status(null, good).orElseThrow().state());
+    }
+
+    @Test
+    void drain_rejectsEntryOfRegionServedElsewhere() {
+        BookingJournalServiceImpl service = service(true, 10);
+        long seq = service.submit(request).seq();
+        doThrow(new RegionNotLocalException(Regions.DEFAULT, "http://node-b"))
+                .when(bookingService).createReservedBooking(any(), any(), any());
+
+        service.drain();
+
+        JournalReceipt status = service.status(null, seq).orElseThrow();
+        assertEquals(JournalState.REJECTED, status.state());
+        assertTrue(status.reason().contains("http://node-b"));
+    }
+
+    @Test
+    void drain_rejectsPoisonEntryAfterMaxAttempts_unblockingTheRest() {
+        BookingJournalServiceImpl service = service(true, 10);
+        long poison = service.submit(request).seq();
+        long next = service.submit(request).seq();
+        doThrow(new IllegalStateException("corrupt row"))
+                .when(bookingService).createReservedBooking(any(), any(), argThat(key -> key.endsWith("-" + poison)));
+
+        service.drain();
+        service.drain();
+        assertEquals(JournalState.ACCEPTED, service.status(null, poison).orElseThrow().state());
+        assertEquals(JournalState.ACCEPTED, service.status(null, next).orElseThrow().state());
+
+        service.drain();
+
+        JournalReceipt rejected = service.status(null, poison).orElseThrow();
+        assertEquals(JournalState.REJECTED, rejected.state());
+        assertTrue(rejected.reason().contains("corrupt row"));
+        assertEquals(JournalState.BOOKED, service.status(null, next).orElseThrow().state());
+    }
+
+    @Test
+    void status_isReadFromStoredOutcomesOnAnotherNode() {
+        BookingJournalServiceImpl service = service(true, 10);
+        JournalReceipt accepted = service.submit(request);
+        service.drain();
+
+        JournalReceipt status = service(false, 10).status(accepted.journal(), accepted.seq()).orElseThrow();
+
+        assertEquals(JournalState.BOOKED, status.state());
+        assertEquals(100L, status.booking().bookingId());
+        assertEquals(accepted.assignedCleaners(), status.booking().assignedCleaners());
+        assertTrue(service(false, 10).status(null, accepted.seq()).isEmpty());
+    }
+
+    @Test
+    void restart_drainsRegionlessFormatBeforeJournalingAgain() throws Exception {
+        BookingJournalServiceImpl service = service(true, 10);
+        long seq = service.submit(request).seq();
+        // Records of the older format end after the cleaners; the region bytes are never read
+        try (FileChannel channel = FileChannel.open(dir.resolve("booking.journal"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 1), 4);
+        }
+        when(bookingService.createBooking(any()))
+                .thenReturn(new BookingResponse(7L, date, LocalTime.of(10, 0), LocalTime.of(12, 0), List.of(2L)));
+
+        BookingJournalServiceImpl restarted = service(true, 10);
+
+        assertEquals(JournalState.ACCEPTED, restarted.status(null, seq).orElseThrow().state());
+        assertEquals(JournalState.BOOKED, restarted.submit(request).state());
+
+        restarted.drain();
+
+        verify(bookingService).createReservedBooking(argThat(r -> r.region().equals(Regions.DEFAULT)), any(),
+                argThat(key -> key.endsWith("-" + seq)));
+        assertEquals(JournalState.ACCEPTED, restarted.submit(request).state());
+    }
+
+    @Test
+    void drain_keepsEntriesWhileDatabaseIsDown() {
+        BookingJournalServiceImpl service = service(true, 10);
+        long seq = service.submit(request).seq();
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(bookingService).createReservedBooking(any(), any(), any());
+
+        service.drain();
+
+        assertEquals(JournalState.ACCEPTED, service.status(null, seq).orElseThrow().state());
+        service.drain();
+        service.drain();
+        service.drain();
+        assertEquals(JournalState.ACCEPTED, service.status(null, seq).orElseThrow().state());
+        assertTrue(service(true, 10).status(null, seq).isPresent());
+    }
+
+    @Test
+    void submit_disabledBooksSynchronously() {
+        when(bookingService.createBooking(request))
+                .thenReturn(new BookingResponse(7L, date, LocalTime.of(10, 0), LocalTime.of(12, 0), List.of(1L)));
+
+        JournalReceipt receipt = service(false, 10).submit(request);
+
+        assertEquals(JournalState.BOOKED, receipt.state());
+        assertNull(receipt.seq());
+    }
+
+    @Test
+    void submit_concurrentRequestsShareGroupCommitsAndSurviveRestart() throws Exception {
+        BookingJournalServiceImpl service = service(true, 10);
+
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate d = date; dates.size() < 200; d = d.plusDays(1)) {
+            if (WorkHoursValidator.isWorkingDay(d)) {
+                dates.add(d);
+            }
+        }
+
+        Set<Long> seqs = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (LocalDate d : dates) {
+                futures.add(pool.submit(() -> seqs.add(service.submit(new BookingRequest(d, LocalTime.of(8, 0), 240, 2)).seq())));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(200, seqs.size());
+        BookingJournalServiceImpl restarted = service(true, 10);
+        assertTrue(seqs.stream().allMatch(seq -> restarted.status(null, seq).isPresent()));
+    }
+}
@@ -0,0 +1,169 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.BookingEvent;
+import com.cleaning.booking.dto.BookingEventType;
+import com.cleaning.booking.dto.ChangeFeedResponse;
+import com.cleaning.booking.entity.OutboxCursor;
+import com.cleaning.booking.entity.OutboxEvent;
+import com.cleaning.booking.repository.OutboxCursorRepository;
+import com.cleaning.booking.repository.OutboxEventRepository;
+import com.cleaning.booking.service.impl.BookingOutboxServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookingOutboxServiceImplTest {
+
+    private OutboxEventRepository eventRepository;
+    private OutboxCursorRepository cursorRepository;
+    private PlatformTransactionManager transactionManager;
+    private final List<List<BookingEvent>> delivered = new ArrayList<>();
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private RuntimeException sinkFailure;
+
+    @BeforeEach
+    void setup() {
+        eventRepository = mock(OutboxEventRepository.class);
+        cursorRepository = mock(OutboxCursorRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> {
+            inTransaction.set(true);
+            return mock(TransactionStatus.class);
+        });
+        doAnswer(inv -> {
+            inTransaction.set(false);
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(inv -> {
+            inTransaction.set(false);
+            return null;
+        }).when(transactionManager).rollback(any());
+    }
+
+    private BookingOutboxServiceImpl service() {
+        OutboxSink sink = new OutboxSink() {
+            @Override
+            public String name() {
+                return "test";
+            }
+
+            @Override
+            public void publish(List<BookingEvent> events) {
+                assertFalse(inTransaction.get(), "published inside a transaction");
+                if (sinkFailure != null) {
+                    throw sinkFailure;
+                }
+                delivered.add(events);
+            }
+        };
+        return new BookingOutboxServiceImpl(eventRepository, cursorRepository, List.of(sink),
+                transactionManager, 100, 30, 168, 60_000);
+    }
+
+    private OutboxEvent row(long seq, LocalDateTime createdAt) {
+        return OutboxEvent.builder()
+                .seq(seq)
+                .type(BookingEventType.CREATED)
+                .bookingId(100 + seq)
+                .date(LocalDate.now())
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .cleanerIds("1,2")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Test
+    void changes_stopBeforeGapThatMayStillCommit() {
+        LocalDateTime now = LocalDateTime.now();
+        when(eventRepository.findAfter(eq(4L), any())).thenReturn(List.of(row(5, now), row(7, now)));
+
+        ChangeFeedResponse page = service().changes(4, 10);
+
+        assertEquals(List.of(5L), page.events().stream().map(BookingEvent::seq).toList());
+        assertEquals(List.of(1L, 2L), page.events().get(0).cleanerIds());
+        assertEquals(5L, page.nextSeq());
+    }
+
+    @Test
+    void changes_skipSettledGap() {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(5);
+        when(eventRepository.findAfter(eq(4L), any())).thenReturn(List.of(row(5, old), row(7, old)));
+
+        assertEquals(7L, service().changes(4, 10).nextSeq());
+    }
+
+    @Test
+    void changes_emptyPageKeepsPosition() {
+        when(eventRepository.findAfter(eq(9L), any())).thenReturn(List.of());
+
+        ChangeFeedResponse page = service().changes(9, 10);
+
+        assertTrue(page.events().isEmpty());
+        assertEquals(9L, page.nextSeq());
+    }
+
+    private void cursorAt(long seq) {
+        when(cursorRepository.claim(eq("test"), any(), any(), any())).thenReturn(1);
+        when(cursorRepository.findById("test")).thenReturn(Optional.of(
+                OutboxCursor.builder().sink("test").seq(seq).updatedAt(LocalDateTime.now()).build()));
+        when(cursorRepository.advance(eq("test"), anyLong(), anyLong(), any())).thenReturn(1);
+    }
+
+    @Test
+    void relay_movesCursorOnlyPastDeliveredEvents_publishingOutsideTransactions() {
+        cursorAt(4L);
+        LocalDateTime old = LocalDateTime.now().minusMinutes(5);
+        when(eventRepository.findAfter(eq(4L), any())).thenReturn(List.of(row(5, old), row(6, old)));
+
+        service().relay();
+
+        assertEquals(1, delivered.size());
+        verify(cursorRepository).advance(eq("test"), eq(4L), eq(6L), any());
+    }
+
+    @Test
+    void relay_skipsSinkClaimedByAnotherNode() {
+        when(cursorRepository.claim(eq("test"), any(), any(), any())).thenReturn(0);
+        when(cursorRepository.existsById("test")).thenReturn(true);
+
+        service().relay();
+
+        assertTrue(delivered.isEmpty());
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void relay_failedSinkReleasesClaimWithoutMovingCursor() {
+        cursorAt(4L);
+        LocalDateTime old = LocalDateTime.now().minusMinutes(5);
+        when(eventRepository.findAfter(eq(4L), any())).thenReturn(List.of(row(5, old)));
+        sinkFailure = new IllegalStateException("webhook down");
+
+        service().relay();
+
+        verify(cursorRepository).release(eq("test"), any());
+        verify(cursorRepository, never()).advance(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void purge_waitsForEverySinkCursor() {
+        when(cursorRepository.findAllById(List.of("test"))).thenReturn(List.of());
+
+        service().purge();
+
+        verify(eventRepository, never()).deleteDeliveredBefore(anyLong(), any());
+    }
+}
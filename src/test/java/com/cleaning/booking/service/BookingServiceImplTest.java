@@ -1,21 +1,37 @@
 package com.cleaning.booking.service;
 
+import com.cleaning.booking.dto.BookingEventType;
 import com.cleaning.booking.dto.BookingRequest;
 import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.dto.RecurringBookingRequest;
+import com.cleaning.booking.dto.RecurringBookingResponse;
 import com.cleaning.booking.entity.Booking;
 import com.cleaning.booking.entity.CleanerProfessional;
 import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.event.BookingLifecycleEvent;
 import com.cleaning.booking.exception.*;
+import com.cleaning.booking.exception.BadRequestException;
 import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CalendarRuleRepository;
 import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.service.impl.BestFitAssignmentStrategy;
 import com.cleaning.booking.service.impl.BookingServiceImpl;
+import com.cleaning.booking.service.impl.ReservationOverlayImpl;
+import com.cleaning.booking.service.impl.WorkingCalendarServiceImpl;
+import com.cleaning.booking.util.Regions;
+import com.cleaning.booking.util.SlotTemplate;
 import com.cleaning.booking.util.WorkHoursValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +40,8 @@ class BookingServiceImplTest {
 
     private CleanerRepository cleanerRepository;
     private BookingRepository bookingRepository;
+    private IdempotencyService idempotencyService;
+    private ApplicationEventPublisher eventPublisher;
     private BookingServiceImpl bookingService;
 
     private final LocalDate validDate = LocalDate.of(2025, 1, 14); // Tuesday
@@ -33,7 +51,38 @@ class BookingServiceImplTest {
     void setup() {
         cleanerRepository = mock(CleanerRepository.class);
         bookingRepository = mock(BookingRepository.class);
-        bookingService = new BookingServiceImpl(cleanerRepository, bookingRepository);
+        idempotencyService = mock(IdempotencyService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        bookingService = bookingService(SlotTemplate.DEFAULT);
+    }
+
+    private BookingServiceImpl bookingService(SlotTemplate slotTemplate) {
+        return new BookingServiceImpl(
+                cleanerRepository, bookingRepository, new BestFitAssignmentStrategy(slotTemplate), idempotencyService, eventPublisher,
+                mock(RegionRouter.class), new WorkingCalendarServiceImpl(mock(CalendarRuleRepository.class), mock(CleanerRepository.class), event -> {},
+                Set.of(DayOfWeek.FRIDAY), 90), slotTemplate, new ReservationOverlayImpl(slotTemplate));
+    }
+
+    private Booking booking(CleanerProfessional cleaner, LocalTime start, LocalTime end) {
+        return Booking.builder().cleaner(cleaner).date(validDate).startTime(start).endTime(end).build();
+    }
+
+    /**
+     * Books cleaner 1 at 10:00-12:00 next to its 08:00-10:00 booking, and returns the
+     * window the locked recheck looked for overlaps in.
+     */
+    private BookingResponse bookNextToEarlierBooking(SlotTemplate slotTemplate) {
+        CleanerProfessional c1 = cleaner(1L, 10L);
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT)).thenReturn(List.of(c1));
+        when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any())).thenReturn(true);
+        when(bookingRepository.findByDateInRegion(validDate, Regions.DEFAULT))
+                .thenReturn(List.of(booking(c1, LocalTime.of(8, 0), LocalTime.of(10, 0))));
+        when(cleanerRepository.lockCleanersForUpdate(List.of(1L))).thenReturn(List.of(c1));
+        Booking saved = new Booking();
+        saved.setId(99L);
+        when(bookingRepository.save(any())).thenReturn(saved);
+
+        return bookingService(slotTemplate).createBooking(new BookingRequest(validDate, validStart, 120, 1));
     }
 
     private CleanerProfessional cleaner(long id, long vehicleId) {
@@ -60,7 +109,7 @@ class BookingServiceImplTest {
 
         CleanerProfessional c1 = cleaner(1L, 10L);
 
-        when(cleanerRepository.findAllWithVehicle())
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
                 .thenReturn(List.of(c1));
 
         when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any()))
@@ -85,8 +134,85 @@ class BookingServiceImplTest {
         assertEquals(1, response.assignedCleaners().size());
         assertEquals(1L, response.assignedCleaners().get(0));
 
-        verify(cleanerRepository, times(1)).findAllWithVehicle();
+        verify(cleanerRepository, times(1)).findAllWithVehicleInRegion(Regions.DEFAULT);
         verify(bookingRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(new BookingChangedEvent(Set.of(validDate), List.of(1L)));
+        verify(eventPublisher, times(1)).publishEvent(new BookingLifecycleEvent(BookingEventType.CREATED, response, null));
+    }
+
+    /**
+     * SUCCESS — without a break, a booking may start when the cleaner's previous one ends
+     */
+    @Test
+    void createBooking_breakOfZero_booksBackToBackAndRechecksTheBareWindow() {
+
+        BookingResponse response = bookNextToEarlierBooking(new SlotTemplate(30, List.of(120, 240), 0));
+
+        assertEquals(List.of(1L), response.assignedCleaners());
+        verify(bookingRepository).hasOverlap(1L, validDate, LocalTime.of(10, 0), LocalTime.of(12, 0));
+    }
+
+    /**
+     * SUCCESS — the locked recheck widens the window by the configured break
+     */
+    @Test
+    void createBooking_breakOfSixty_rechecksAnHourAroundTheWindow() {
+
+        CleanerProfessional c1 = cleaner(1L, 10L);
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT)).thenReturn(List.of(c1));
+        when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any())).thenReturn(true);
+        when(cleanerRepository.lockCleanersForUpdate(List.of(1L))).thenReturn(List.of(c1));
+        Booking saved = new Booking();
+        saved.setId(99L);
+        when(bookingRepository.save(any())).thenReturn(saved);
+
+        bookingService(new SlotTemplate(30, List.of(120, 240), 60))
+                .createBooking(new BookingRequest(validDate, validStart, 120, 1));
+
+        verify(bookingRepository).hasOverlap(1L, validDate, LocalTime.of(9, 0), LocalTime.of(13, 0));
+    }
+
+    /**
+     * FAIL — a booking that ends within the configured break of the window blocks the cleaner
+     */
+    @Test
+    void createBooking_breakOfSixty_rejectsCleanerBookedUntilTheWindowStarts() {
+
+        assertThrows(BadRequestException.class,
+                () -> bookNextToEarlierBooking(new SlotTemplate(30, List.of(120, 240), 60)));
+        verify(cleanerRepository, never()).lockCleanersForUpdate(any());
+    }
+
+    /**
+     * FAIL — a booking written between the occupancy read and the lock is caught by the recheck
+     */
+    @Test
+    void createBooking_breakOfSixty_recheckRejectsBookingWithinTheBreak() {
+
+        CleanerProfessional c1 = cleaner(1L, 10L);
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT)).thenReturn(List.of(c1));
+        when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any())).thenReturn(true);
+        when(cleanerRepository.lockCleanersForUpdate(List.of(1L))).thenReturn(List.of(c1));
+        when(bookingRepository.hasOverlap(1L, validDate, LocalTime.of(9, 0), LocalTime.of(13, 0))).thenReturn(true);
+
+        assertThrows(OverlapException.class, () -> bookingService(new SlotTemplate(30, List.of(120, 240), 60))
+                .createBooking(new BookingRequest(validDate, validStart, 120, 1)));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    /**
+     * FAIL — start times must be on one of the template's steps
+     */
+    @Test
+    void createBooking_rejectsStartOffTheTemplateStep() {
+
+        BookingServiceImpl hourly = bookingService(new SlotTemplate(60, List.of(120, 240), 30));
+
+        assertThrows(BadRequestException.class,
+                () -> bookingService.createBooking(new BookingRequest(validDate, LocalTime.of(10, 15), 120, 1)));
+        assertThrows(BadRequestException.class,
+                () -> hourly.createBooking(new BookingRequest(validDate, LocalTime.of(10, 30), 120, 1)));
+        verifyNoInteractions(cleanerRepository);
     }
 
     /**
@@ -104,7 +230,7 @@ class BookingServiceImplTest {
 
         CleanerProfessional c1 = cleaner(1L, 10L);
 
-        when(cleanerRepository.findAllWithVehicle())
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
                 .thenReturn(List.of(c1)); // only 1 cleaner available
 
         when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any()))
@@ -130,7 +256,7 @@ class BookingServiceImplTest {
         CleanerProfessional c1 = cleaner(1L, 10L);
         CleanerProfessional c2 = cleaner(2L, 20L); // different vehicle
 
-        when(cleanerRepository.findAllWithVehicle())
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
                 .thenReturn(List.of(c1, c2));
 
         when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any()))
@@ -155,7 +281,7 @@ class BookingServiceImplTest {
 
         CleanerProfessional c1 = cleaner(1L, 10L);
 
-        when(cleanerRepository.findAllWithVehicle())
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
                 .thenReturn(List.of(c1));
 
         when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any()))
@@ -245,13 +371,14 @@ class BookingServiceImplTest {
 
         Booking existing = new Booking();
         existing.setId(99L);
+        existing.setDate(validDate);
 
         BookingRequest req = new BookingRequest(validDate, validStart, 120, 1);
 
         when(bookingRepository.lockBookingForUpdate(99L))
                 .thenReturn(existing);
 
-        when(cleanerRepository.findAllWithVehicle())
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
                 .thenReturn(List.of(cleaner(1L, 10L)));
 
         when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any()))
@@ -273,6 +400,8 @@ class BookingServiceImplTest {
 
         assertNotNull(response);
         assertEquals(77L, response.bookingId());
+        verify(eventPublisher).publishEvent(new BookingLifecycleEvent(BookingEventType.UPDATED, response, 99L));
+        verify(eventPublisher, times(1)).publishEvent(any(BookingLifecycleEvent.class));
     }
 
     /**
@@ -289,4 +418,142 @@ class BookingServiceImplTest {
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.updateBooking(99L, req));
     }
+
+    /**
+     * FAIL — update cannot move a booking to another region
+     */
+    @Test
+    void updateBooking_rejectsRegionMismatch() {
+
+        Booking existing = new Booking();
+        existing.setId(99L);
+        existing.setDate(validDate);
+        CleanerProfessional assigned = cleaner(1L, 10L);
+        assigned.getVehicle().setRegion("berlin");
+        existing.setCleaner(assigned);
+
+        when(bookingRepository.lockBookingForUpdate(99L))
+                .thenReturn(existing);
+
+        BookingRequest req = new BookingRequest(validDate, validStart, 120, 1);
+
+        assertThrows(BadRequestException.class,
+                () -> bookingService.updateBooking(99L, req));
+        verify(bookingRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    /**
+     * SUCCESS — replayed Idempotency-Key returns stored response without touching cleaners
+     */
+    @Test
+    void createBooking_replayedIdempotencyKeySkipsBooking() {
+
+        BookingRequest req = new BookingRequest(validDate, validStart, 120, 1);
+        BookingResponse stored = new BookingResponse(55L, validDate, validStart, LocalTime.of(12, 0), List.of(1L));
+
+        when(idempotencyService.find("key-1", req))
+                .thenReturn(Optional.of(stored));
+
+        BookingResponse response = bookingService.createBooking(req, "key-1");
+
+        assertSame(stored, response);
+        verifyNoInteractions(cleanerRepository, bookingRepository);
+        verify(idempotencyService, never()).remember(any(), any(), any());
+    }
+
+    /**
+     * SUCCESS — first use of an Idempotency-Key books and stores the response
+     */
+    @Test
+    void createBooking_newIdempotencyKeyIsRemembered() {
+
+        BookingRequest req = new BookingRequest(validDate, validStart, 120, 1);
+        CleanerProfessional c1 = cleaner(1L, 10L);
+
+        when(idempotencyService.find("key-2", req))
+                .thenReturn(Optional.empty());
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
+                .thenReturn(List.of(c1));
+        when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any()))
+                .thenReturn(true);
+        when(cleanerRepository.lockCleanersForUpdate(List.of(1L)))
+                .thenReturn(List.of(c1));
+
+        Booking saved = new Booking();
+        saved.setId(12L);
+        when(bookingRepository.save(any()))
+                .thenReturn(saved);
+
+        BookingResponse response = bookingService.createBooking(req, "key-2");
+
+        assertEquals(12L, response.bookingId());
+        verify(idempotencyService, times(1)).remember("key-2", req, response);
+    }
+
+    /**
+     * SUCCESS — recurring booking books free weeks and reports the conflicting one
+     */
+    @Test
+    void createRecurringBooking_reportsConflictingOccurrence() {
+
+        RecurringBookingRequest req = new RecurringBookingRequest(validDate, validStart, 120, 1, 1, 3);
+
+        CleanerProfessional c1 = cleaner(1L, 10L);
+
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT))
+                .thenReturn(List.of(c1));
+        when(cleanerRepository.lockCleanersForUpdate(List.of(1L)))
+                .thenReturn(List.of(c1));
+
+        // Second week already has a 09:00-11:00 booking for the only cleaner
+        Booking taken = new Booking();
+        taken.setCleaner(c1);
+        taken.setDate(validDate.plusWeeks(1));
+        taken.setStartTime(LocalTime.of(9, 0));
+        taken.setEndTime(LocalTime.of(11, 0));
+
+        when(bookingRepository.findBookingsForVehicleBetween(10L, validDate, validDate.plusWeeks(2)))
+                .thenReturn(List.of(taken));
+        when(bookingRepository.saveAll(any()))
+                .thenAnswer(invocation -> {
+                    List<Booking> rows = invocation.getArgument(0);
+                    long id = 500;
+                    for (Booking b : rows) {
+                        b.setId(id++);
+                    }
+                    return rows;
+                });
+
+        RecurringBookingResponse response = bookingService.createRecurringBooking(req);
+
+        assertEquals(2, response.bookings().size());
+        assertEquals(validDate, response.bookings().get(0).date());
+        assertEquals(validDate.plusWeeks(2), response.bookings().get(1).date());
+        assertEquals(501L, response.bookings().get(1).bookingId());
+
+        assertEquals(1, response.conflicts().size());
+        assertEquals(validDate.plusWeeks(1), response.conflicts().get(0).date());
+
+        verify(bookingRepository, times(1)).findBookingsForVehicleBetween(any(), any(), any());
+        verify(bookingRepository, times(1)).saveAll(any());
+    }
+
+    /**
+     * SUCCESS — recurring booking on a Friday skips every occurrence
+     */
+    @Test
+    void createRecurringBooking_skipsFridays() {
+
+        RecurringBookingRequest req = new RecurringBookingRequest(
+                LocalDate.of(2025, 1, 17), // FRIDAY
+                validStart, 120, 1, 2, 4
+        );
+
+        RecurringBookingResponse response = bookingService.createRecurringBooking(req);
+
+        assertTrue(response.bookings().isEmpty());
+        assertEquals(4, response.conflicts().size());
+        verifyNoInteractions(cleanerRepository);
+    }
 }
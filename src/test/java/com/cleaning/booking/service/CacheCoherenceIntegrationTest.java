@@ -0,0 +1,131 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.CleanerBookingSystemApplication;
+import com.cleaning.booking.dto.AvailabilityRequest;
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.dto.CleanerCreateRequest;
+import com.cleaning.booking.dto.VehicleCreateRequest;
+import com.cleaning.booking.service.impl.DbPollingInvalidationTransport;
+import com.cleaning.booking.util.Regions;
+import com.cleaning.booking.util.SlotMask;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application nodes in one JVM sharing one H2 database, coordinated only by the
+ * database-polling invalidation bus.
+ */
+class CacheCoherenceIntegrationTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:coherence;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final long MAX_STALENESS_MS = 2000;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private final LocalDate date = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = node();
+        // The second node must not recreate the schema under the first one
+        nodeB = node("spring.sql.init.mode=never",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "spring.jpa.properties.hibernate.hbm2ddl.auto=none");
+    }
+
+    private static ConfigurableApplicationContext node(String... extraProperties) {
+        return new SpringApplicationBuilder(CleanerBookingSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=" + DB_URL,
+                        "spring.jmx.enabled=false",
+                        "cache.bus.poll-ms=100",
+                        "cache.bus.max-staleness-ms=" + MAX_STALENESS_MS)
+                .properties(extraProperties)
+                // The test profile runs the local transport; arguments outrank profile files
+                .run("--cache.bus.transport=db");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    private static void awaitWithinStaleness(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + MAX_STALENESS_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail(what + " not visible on the other node within " + MAX_STALENESS_MS + " ms");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void bookingOnOneNodeInvalidatesTheOthersCaches() throws Exception {
+        VehicleService vehiclesA = nodeA.getBean(VehicleService.class);
+        DataVersionService versionsB = nodeB.getBean(DataVersionService.class);
+        AvailabilityService availabilityB = nodeB.getBean(AvailabilityService.class);
+        OccupancyStore occupancyB = nodeB.getBean(OccupancyStore.class);
+
+        String rosterTag = versionsB.rosterTag();
+        Long vehicleId = vehiclesA.createVehicle(new VehicleCreateRequest("Van-Coherence")).id();
+        vehiclesA.addCleanerToVehicle(vehicleId, new CleanerCreateRequest("Node Cleaner"));
+        awaitWithinStaleness("Roster change", () -> !versionsB.rosterTag().equals(rosterTag));
+
+        awaitWithinStaleness("Coherent bus", () -> occupancyB.occupancy(Regions.DEFAULT, date) != null);
+        assertEquals(Map.of(), occupancyB.occupancy(Regions.DEFAULT, date));
+        long before = availabilityB.checkCompactAvailability(new AvailabilityRequest(date, null, null))
+                .startMasks().get(120);
+        String availabilityTag = versionsB.availabilityTag(date);
+
+        BookingResponse booking = nodeA.getBean(BookingService.class)
+                .createBooking(new BookingRequest(date, LocalTime.of(10, 0), 120, 1));
+
+        awaitWithinStaleness("Booking", () -> !versionsB.availabilityTag(date).equals(availabilityTag));
+        assertTrue(occupancyB.occupancy(Regions.DEFAULT, date).containsKey(booking.assignedCleaners().get(0)));
+        long after = availabilityB.checkCompactAvailability(new AvailabilityRequest(date, null, null))
+                .startMasks().get(120);
+        long tenOClock = 1L << SlotMask.slotIndex(LocalTime.of(10, 0));
+        assertNotEquals(0L, before & tenOClock);
+        assertEquals(0L, after & tenOClock);
+    }
+
+    @Test
+    void purgeDropsOnlyPastDatesUnchangedForTheRetention() {
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+        Timestamp twoDaysAgo = Timestamp.valueOf(LocalDateTime.now().minusDays(2));
+        for (String scope : new String[]{"date:2020-01-07#0", "date:" + date.plusWeeks(1) + "#0"}) {
+            jdbc.update("INSERT INTO cache_version (scope, version, cleaner_ids, origin, updated_at) "
+                    + "VALUES (?, 1, '', 'test', ?)", scope, twoDaysAgo);
+        }
+        jdbc.update("INSERT INTO cache_version (scope, version, cleaner_ids, origin, updated_at) "
+                + "VALUES ('date:2020-01-08#0', 1, '', 'test', LOCALTIMESTAMP(3))");
+
+        nodeA.getBean(DbPollingInvalidationTransport.class).purge();
+
+        assertEquals(List.of("date:2020-01-08#0", "date:" + date.plusWeeks(1) + "#0"), jdbc.queryForList(
+                "SELECT scope FROM cache_version WHERE scope LIKE 'date:2020-%' OR scope = ? ORDER BY scope",
+                String.class, "date:" + date.plusWeeks(1) + "#0"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.service.impl.CacheInvalidationBusImpl;
+import com.cleaning.booking.service.impl.DataVersionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationBusImplTest {
+
+    private InvalidationTransport transport;
+    private ApplicationEventPublisher eventPublisher;
+
+    private final LocalDate date = LocalDate.of(2030, 1, 8);
+
+    @BeforeEach
+    void setup() {
+        transport = mock(InvalidationTransport.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+    }
+
+    @Test
+    void poll_republishesRemoteChangesAndBecomesCoherent() {
+        CacheInvalidatedEvent remote = new CacheInvalidatedEvent(Set.of(date), List.of(3L), false);
+        when(transport.poll()).thenReturn(List.of(remote));
+        CacheInvalidationBusImpl bus = new CacheInvalidationBusImpl(transport, eventPublisher, 5000);
+        assertFalse(bus.isCoherent());
+
+        bus.poll();
+
+        verify(eventPublisher).publishEvent(remote);
+        assertTrue(bus.isCoherent());
+    }
+
+    @Test
+    void poll_failingTransportLosesCoherenceAfterStalenessBound() throws Exception {
+        CacheInvalidationBusImpl bus = new CacheInvalidationBusImpl(transport, eventPublisher, 50);
+        when(transport.poll()).thenReturn(List.of());
+        bus.poll();
+        assertTrue(bus.isCoherent());
+
+        when(transport.poll()).thenThrow(new IllegalStateException("database down"));
+        Thread.sleep(60);
+        bus.poll();
+
+        assertFalse(bus.isCoherent());
+    }
+
+    @Test
+    void onBookingChanged_announcesDatesAndCleaners() {
+        CacheInvalidationBusImpl bus = new CacheInvalidationBusImpl(transport, eventPublisher, 5000);
+
+        bus.onBookingChanged(new BookingChangedEvent(Set.of(date), List.of(1L, 2L)));
+
+        verify(transport).publish(new CacheInvalidatedEvent(Set.of(date), List.of(1L, 2L), false));
+    }
+
+    @Test
+    void dataVersions_areNotCacheableWhileIncoherent() {
+        CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+        DataVersionServiceImpl versions = new DataVersionServiceImpl(bus);
+
+        when(bus.isCoherent()).thenReturn(true);
+        String tag = versions.availabilityTag(date);
+        assertTrue(versions.cacheable());
+
+        // tags stay stable, so cached entries are reusable once the bus recovers
+        when(bus.isCoherent()).thenReturn(false);
+        assertFalse(versions.cacheable());
+        assertEquals(tag, versions.availabilityTag(date));
+
+        when(bus.isCoherent()).thenReturn(true);
+        versions.onRemoteChange(new CacheInvalidatedEvent(Set.of(date), List.of(), false));
+        assertNotEquals(tag, versions.availabilityTag(date));
+    }
+}
@@ -0,0 +1,95 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.exception.RegionNotLocalException;
+import com.cleaning.booking.repository.VehicleRepository;
+import com.cleaning.booking.service.impl.ConsistentHashRegionRouter;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConsistentHashRegionRouterTest {
+
+    private static final List<String> THREE_NODES =
+            List.of("a=http://node-a:8080", "b=http://node-b:8080", "c=http://node-c:8080");
+
+    private final VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+
+    private final List<String> regions = IntStream.range(0, 1000).mapToObj(i -> "city-" + i).toList();
+
+    private ConsistentHashRegionRouter router(String nodeId, List<String> nodes) {
+        return new ConsistentHashRegionRouter(vehicleRepository, nodeId, nodes, 128);
+    }
+
+    /** Node that serves each region, as seen from the first node of the list. */
+    private Map<String, String> owners(List<String> nodes) {
+        Map<String, String> owners = new HashMap<>();
+        for (String node : nodes) {
+            ConsistentHashRegionRouter router = router(node.substring(0, node.indexOf('=')), nodes);
+            regions.stream().filter(router::isLocal).forEach(r -> assertNull(owners.put(r, node), r + " has two owners"));
+        }
+        return owners;
+    }
+
+    @Test
+    void withoutNodes_servesEveryRegion() {
+        ConsistentHashRegionRouter router = router("local", List.of());
+
+        assertTrue(router.ownsAll());
+        assertTrue(regions.stream().allMatch(router::isLocal));
+        assertDoesNotThrow(() -> router.requireLocal("anywhere"));
+    }
+
+    @Test
+    void everyRegionHasExactlyOneOwnerAndLoadIsSpread() {
+        Map<String, String> owners = owners(THREE_NODES);
+
+        assertEquals(regions.size(), owners.size());
+        Map<String, Long> perNode = new HashMap<>();
+        owners.values().forEach(n -> perNode.merge(n, 1L, Long::sum));
+        assertTrue(perNode.values().stream().allMatch(n -> n > 200 && n < 466), perNode.toString());
+    }
+
+    @Test
+    void addingNode_movesOnlyTheRegionsItTakesOver() {
+        Map<String, String> before = owners(THREE_NODES);
+        List<String> four = List.of(THREE_NODES.get(0), THREE_NODES.get(1), THREE_NODES.get(2), "d=http://node-d:8080");
+        Map<String, String> after = owners(four);
+
+        long moved = regions.stream().filter(r -> !before.get(r).equals(after.get(r))).count();
+        assertTrue(regions.stream().allMatch(r -> before.get(r).equals(after.get(r)) || after.get(r).startsWith("d=")));
+        assertTrue(moved < regions.size() / 3, moved + " regions moved");
+    }
+
+    @Test
+    void requireLocal_namesTheOwner() {
+        ConsistentHashRegionRouter a = router("a", THREE_NODES);
+        String remote = regions.stream().filter(r -> !a.isLocal(r)).findFirst().orElseThrow();
+
+        RegionNotLocalException ex = assertThrows(RegionNotLocalException.class, () -> a.requireLocal(remote));
+
+        assertTrue(ex.getOwnerUrl().startsWith("http://node-"));
+        assertNotEquals("http://node-a:8080", ex.getOwnerUrl());
+    }
+
+    @Test
+    void localRegions_filtersTheFleet() {
+        ConsistentHashRegionRouter a = router("a", THREE_NODES);
+        when(vehicleRepository.findRegions()).thenReturn(regions.subList(0, 30));
+
+        List<String> local = a.localRegions();
+
+        assertFalse(local.isEmpty());
+        assertTrue(local.stream().allMatch(a::isLocal));
+    }
+
+    @Test
+    void unknownNodeId_failsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> router("z", THREE_NODES));
+    }
+}
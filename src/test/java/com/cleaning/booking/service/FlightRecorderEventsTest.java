@@ -0,0 +1,128 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.AvailabilityRequest;
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.entity.Booking;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CalendarRuleRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.service.impl.AvailabilityServiceImpl;
+import com.cleaning.booking.service.impl.BestFitAssignmentStrategy;
+import com.cleaning.booking.service.impl.BookingServiceImpl;
+import com.cleaning.booking.service.impl.ReservationOverlayImpl;
+import com.cleaning.booking.service.impl.WorkingCalendarServiceImpl;
+import com.cleaning.booking.util.CircuitBreaker;
+import com.cleaning.booking.util.Regions;
+import com.cleaning.booking.util.SlotTemplate;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that the booking pipeline emits its custom JFR events with meaningful fields.
+ */
+class FlightRecorderEventsTest {
+
+    private final LocalDate validDate = LocalDate.of(2025, 1, 14); // Tuesday
+
+    private CleanerRepository cleanerRepository;
+    private BookingRepository bookingRepository;
+    private BookingServiceImpl bookingService;
+    private AvailabilityServiceImpl availabilityService;
+    private final WorkingCalendarService calendar = new WorkingCalendarServiceImpl(mock(CalendarRuleRepository.class),
+            mock(CleanerRepository.class), event -> {}, Set.of(DayOfWeek.FRIDAY), 90);
+
+    @BeforeEach
+    void setup() {
+        cleanerRepository = mock(CleanerRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        bookingService = new BookingServiceImpl(cleanerRepository, bookingRepository, new BestFitAssignmentStrategy(SlotTemplate.DEFAULT),
+                mock(IdempotencyService.class), mock(ApplicationEventPublisher.class), mock(RegionRouter.class),
+                calendar, SlotTemplate.DEFAULT, new ReservationOverlayImpl(SlotTemplate.DEFAULT));
+        availabilityService = new AvailabilityServiceImpl(cleanerRepository, bookingRepository, (region, date) -> null,
+                new CircuitBreaker("availability", 5, 1000, 10_000), mock(RegionRouter.class), calendar, SlotTemplate.DEFAULT,
+                new ReservationOverlayImpl(SlotTemplate.DEFAULT), mock(PlatformTransactionManager.class));
+
+        Vehicle v = new Vehicle();
+        v.setId(10L);
+        CleanerProfessional c1 = new CleanerProfessional();
+        c1.setId(1L);
+        c1.setVehicle(v);
+
+        Booking saved = new Booking();
+        saved.setId(99L);
+
+        when(cleanerRepository.findAllWithVehicleInRegion(Regions.DEFAULT)).thenReturn(List.of(c1));
+        when(cleanerRepository.isCleanerAvailable(any(), any(), any(), any())).thenReturn(true);
+        when(cleanerRepository.lockCleanersForUpdate(List.of(1L))).thenReturn(List.of(c1));
+        when(bookingRepository.hasOverlap(any(), any(), any(), any())).thenReturn(false);
+        when(bookingRepository.findByDateInRegion(validDate, Regions.DEFAULT)).thenReturn(List.of());
+        when(bookingRepository.save(any())).thenReturn(saved);
+    }
+
+    private List<RecordedEvent> record(Runnable workload, Path dir) throws Exception {
+        Path file = dir.resolve("booking.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.cleaning.booking.BookingAttempt").withoutThreshold();
+            recording.enable("com.cleaning.booking.AvailabilityComputation").withoutThreshold();
+            recording.enable("com.cleaning.booking.RosterLoad").withoutThreshold();
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+
+    @Test
+    void bookingAndAvailability_emitCustomEvents(@TempDir Path dir) throws Exception {
+
+        List<RecordedEvent> events = record(() -> {
+            bookingService.createBooking(new BookingRequest(validDate, LocalTime.of(10, 0), 120, 1));
+            assertThrows(BadRequestException.class, () -> bookingService.createBooking(
+                    new BookingRequest(validDate, LocalTime.of(10, 0), 120, 2)));
+            availabilityService.checkCompactAvailability(new AvailabilityRequest(validDate, null, null));
+        }, dir);
+
+        List<RecordedEvent> attempts = ofType(events, "com.cleaning.booking.BookingAttempt");
+        assertEquals(2, attempts.size());
+        assertEquals("BOOKED", attempts.get(0).getString("outcome"));
+        assertEquals(10L, attempts.get(0).getLong("vehicleId"));
+        assertEquals(1, attempts.get(0).getInt("candidatesScanned"));
+        assertEquals("2025-01-14", attempts.get(0).getString("date"));
+        assertEquals("BadRequestException", attempts.get(1).getString("outcome"));
+
+        List<RecordedEvent> computations = ofType(events, "com.cleaning.booking.AvailabilityComputation");
+        assertEquals(1, computations.size());
+        assertEquals("COMPACT_DAILY", computations.get(0).getString("mode"));
+        assertEquals(1, computations.get(0).getInt("cleaners"));
+        assertTrue(computations.get(0).getInt("slotsProduced") > 0);
+        assertFalse(computations.get(0).getBoolean("stale"));
+
+        List<RecordedEvent> rosterLoads = ofType(events, "com.cleaning.booking.RosterLoad");
+        assertEquals(3, rosterLoads.size());
+        assertEquals("availability", rosterLoads.get(2).getString("caller"));
+    }
+}
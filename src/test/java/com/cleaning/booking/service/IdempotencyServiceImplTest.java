@@ -0,0 +1,128 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.BookingRequest;
+import com.cleaning.booking.dto.BookingResponse;
+import com.cleaning.booking.entity.IdempotencyRecord;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.IdempotencyConflictException;
+import com.cleaning.booking.repository.IdempotencyRecordRepository;
+import com.cleaning.booking.service.impl.IdempotencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceImplTest {
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyServiceImpl service;
+
+    private final LocalDate date = LocalDate.of(2025, 1, 14);
+    private final BookingRequest request = new BookingRequest(date, LocalTime.of(10, 0), 120, 2);
+    private final BookingResponse response =
+            new BookingResponse(7L, date, LocalTime.of(10, 0), LocalTime.of(12, 0), List.of(1L, 2L));
+
+    @BeforeEach
+    void setup() {
+        repository = mock(IdempotencyRecordRepository.class);
+        service = new IdempotencyServiceImpl(repository, 2, 24);
+    }
+
+    @Test
+    void find_unknownKeyReturnsEmpty() {
+        when(repository.findById("k")).thenReturn(Optional.empty());
+
+        assertTrue(service.find("k", request).isEmpty());
+    }
+
+    @Test
+    void remember_thenFind_servedFromMemory() {
+        service.remember("k", request, response);
+
+        assertEquals(response, service.find("k", request).orElseThrow());
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void find_fallsBackToStoredRecord() {
+        service.remember("k", request, response);
+        IdempotencyRecord stored = captureSaved();
+
+        IdempotencyServiceImpl restarted = new IdempotencyServiceImpl(repository, 2, 24);
+        when(repository.findById("k")).thenReturn(Optional.of(stored));
+
+        assertEquals(response, restarted.find("k", request).orElseThrow());
+    }
+
+    @Test
+    void find_expiredCacheEntryFallsBackToStore() {
+        IdempotencyServiceImpl expiring = new IdempotencyServiceImpl(repository, 2, 0);
+        expiring.remember("k", request, response);
+        when(repository.findById("k")).thenReturn(Optional.empty());
+
+        // the row was purged with the same TTL, so the key is free again
+        assertTrue(expiring.find("k", request).isEmpty());
+        verify(repository).findById("k");
+    }
+
+    @Test
+    void remember_storesSha256OfTheWholeRequest() {
+        service.remember("k", request, response);
+
+        assertTrue(captureSaved().getRequestHash().matches("[0-9a-f]{64}"));
+        assertTrue(service.find("k", new BookingRequest(date, LocalTime.of(10, 0), 120, 2)).isPresent());
+        assertThrows(BadRequestException.class,
+                () -> service.find("k", new BookingRequest(date, LocalTime.of(10, 0), 120, 3)));
+        assertThrows(BadRequestException.class,
+                () -> service.find("k", new BookingRequest(date, LocalTime.of(10, 0), 120, 2, "north")));
+    }
+
+    @Test
+    void find_rejectsKeyReuseWithDifferentRequest() {
+        service.remember("k", request, response);
+
+        BookingRequest other = new BookingRequest(date, LocalTime.of(14, 0), 120, 2);
+
+        assertThrows(BadRequestException.class, () -> service.find("k", other));
+    }
+
+    @Test
+    void find_rejectsOverlongKey() {
+        assertThrows(BadRequestException.class, () -> service.find("x".repeat(65), request));
+    }
+
+    @Test
+    void remember_concurrentDuplicateRaisesConflict() {
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(IdempotencyConflictException.class, () -> service.remember("k", request, response));
+    }
+
+    @Test
+    void cache_isBoundedLru() {
+        service.remember("a", request, response);
+        service.remember("b", request, response);
+        service.find("a", request);
+        service.remember("c", request, response);
+
+        when(repository.findById("b")).thenReturn(Optional.empty());
+
+        // "b" was least recently used and got evicted; "a" is still cached
+        assertTrue(service.find("b", request).isEmpty());
+        assertTrue(service.find("a", request).isPresent());
+        verify(repository, never()).findById("a");
+    }
+
+    private IdempotencyRecord captureSaved() {
+        var captor = org.mockito.ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(captor.capture());
+        return captor.getValue();
+    }
+}
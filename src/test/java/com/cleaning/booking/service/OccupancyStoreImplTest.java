@@ -0,0 +1,200 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.BookingSlotRow;
+import com.cleaning.booking.entity.BookingChange;
+import com.cleaning.booking.event.BookingChangedEvent;
+import com.cleaning.booking.repository.BookingChangeRepository;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.service.impl.OccupancyStoreImpl;
+import com.cleaning.booking.util.Regions;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.TimeWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OccupancyStoreImplTest {
+
+    private static final int HORIZON_DAYS = 30;
+
+    @TempDir
+    Path dir;
+
+    private BookingRepository bookingRepository;
+    private BookingChangeRepository changeRepository;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private RegionRouter regionRouter;
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate horizonEnd = today.plusDays(HORIZON_DAYS - 1);
+    private final LocalDate later = today.plusDays(3);
+
+    @BeforeEach
+    void setup() {
+        bookingRepository = mock(BookingRepository.class);
+        changeRepository = mock(BookingChangeRepository.class);
+        // every change is settled unless a test says otherwise
+        when(changeRepository.findMaxSeqBefore(any())).thenReturn(Long.MAX_VALUE);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        when(cacheInvalidationBus.isCoherent()).thenReturn(true);
+        regionRouter = mock(RegionRouter.class);
+        when(regionRouter.ownsAll()).thenReturn(true);
+        when(regionRouter.isLocal(any())).thenReturn(true);
+    }
+
+    private OccupancyStoreImpl store(int graceSeconds) {
+        return new OccupancyStoreImpl(bookingRepository, changeRepository, cacheInvalidationBus, regionRouter,
+                mock(PlatformTransactionManager.class),
+                HORIZON_DAYS, graceSeconds, 24, true, dir.resolve("occupancy.snapshot").toString());
+    }
+
+    private BookingSlotRow row(LocalDate date, long cleanerId, int startHour, int endHour) {
+        return new BookingSlotRow(date, cleanerId, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0));
+    }
+
+    private long hours(int startHour, int endHour) {
+        return SlotMask.of(new TimeWindow(LocalTime.of(startHour, 0), LocalTime.of(endHour, 0)));
+    }
+
+    private BookingChange change(long seq, LocalDate date, LocalDateTime createdAt) {
+        return BookingChange.builder().seq(seq).date(date).createdAt(createdAt).build();
+    }
+
+    @Test
+    void warmStart_withoutSnapshot_readsWholeHorizon() {
+        when(changeRepository.findMaxSeq()).thenReturn(5L);
+        when(bookingRepository.findSlotRowsBetween(today, horizonEnd))
+                .thenReturn(List.of(row(later, 1L, 8, 10), row(later, 1L, 14, 16)));
+
+        OccupancyStoreImpl store = store(0);
+        store.warmStart();
+
+        assertEquals(hours(8, 10) | hours(14, 16), store.occupancy(Regions.DEFAULT, later).get(1L));
+        assertEquals(Map.of(), store.occupancy(Regions.DEFAULT, today));
+        assertNull(store.occupancy(Regions.DEFAULT, horizonEnd.plusDays(1)));
+        assertEquals(5L, store.watermark());
+    }
+
+    @Test
+    void restart_replaysOnlyDatesChangedAfterCheckpoint() throws Exception {
+        when(changeRepository.findMaxSeq()).thenReturn(5L);
+        when(bookingRepository.findSlotRowsBetween(today, horizonEnd))
+                .thenReturn(List.of(row(later, 1L, 8, 10), row(today, 3L, 20, 22)));
+
+        OccupancyStoreImpl first = store(0);
+        first.warmStart();
+        first.checkpoint();
+        assertTrue(Files.size(dir.resolve("occupancy.snapshot")) > 0);
+
+        // While "down", the booking on `later` moved to another cleaner
+        when(changeRepository.findMaxSeq()).thenReturn(6L);
+        when(changeRepository.findAfter(eq(5L), any()))
+                .thenReturn(List.of(change(6L, later, LocalDateTime.now().minusMinutes(1))));
+        when(bookingRepository.findSlotRowsBetween(later, later))
+                .thenReturn(List.of(row(later, 2L, 8, 10)));
+        clearInvocations(bookingRepository);
+
+        OccupancyStoreImpl restarted = store(0);
+        restarted.warmStart();
+
+        assertEquals(Map.of(2L, hours(8, 10)), restarted.occupancy(Regions.DEFAULT, later));
+        // Evening slots lie above bit 31 and come back from the snapshot intact
+        assertEquals(Map.of(3L, hours(20, 22)), restarted.occupancy(Regions.DEFAULT, today));
+        assertEquals(6L, restarted.watermark());
+        verify(bookingRepository, never()).findSlotRowsBetween(today, horizonEnd);
+    }
+
+    @Test
+    void corruptSnapshot_fallsBackToRebuild() throws Exception {
+        Files.write(dir.resolve("occupancy.snapshot"), new byte[64]);
+        when(changeRepository.findMaxSeq()).thenReturn(0L);
+
+        store(0).warmStart();
+
+        verify(bookingRepository).findSlotRowsBetween(today, horizonEnd);
+    }
+
+    @Test
+    void snapshotAheadOfChangeLog_isRebuilt() {
+        when(changeRepository.findMaxSeq()).thenReturn(9L);
+        OccupancyStoreImpl first = store(0);
+        first.warmStart();
+        first.checkpoint();
+
+        // e.g. the database was recreated
+        when(changeRepository.findMaxSeq()).thenReturn(2L);
+        clearInvocations(bookingRepository);
+
+        OccupancyStoreImpl restarted = store(0);
+        restarted.warmStart();
+
+        verify(bookingRepository).findSlotRowsBetween(today, horizonEnd);
+        assertEquals(2L, restarted.watermark());
+    }
+
+    @Test
+    void rebuild_startsWatermarkBelowUnsettledChanges() {
+        when(changeRepository.findMaxSeq()).thenReturn(8L);
+        when(changeRepository.findMaxSeqBefore(any())).thenReturn(6L);
+        OccupancyStoreImpl store = store(60);
+        store.warmStart();
+
+        // seq 7 may still commit after the horizon was read, so it must be replayed later
+        assertEquals(6L, store.watermark());
+    }
+
+    @Test
+    void catchUp_holdsWatermarkBeforeUnsettledChanges() {
+        when(changeRepository.findMaxSeq()).thenReturn(5L);
+        OccupancyStoreImpl store = store(60);
+        store.warmStart();
+
+        when(changeRepository.findAfter(eq(5L), any())).thenReturn(List.of(
+                change(6L, later, LocalDateTime.now().minusMinutes(5)),
+                change(8L, later, LocalDateTime.now())));
+        when(changeRepository.findAfter(eq(6L), any())).thenReturn(List.of(
+                change(8L, later, LocalDateTime.now())));
+        when(bookingRepository.findSlotRowsBetween(later, later))
+                .thenReturn(List.of(row(later, 1L, 12, 14)));
+
+        store.catchUp();
+        store.catchUp();
+
+        // seq 7 may still commit, so the watermark stops at 6; seq 8 is not reloaded twice
+        assertEquals(6L, store.watermark());
+        assertEquals(hours(12, 14), store.occupancy(Regions.DEFAULT, later).get(1L));
+        verify(bookingRepository, times(1)).findSlotRowsBetween(later, later);
+    }
+
+    @Test
+    void recordChange_writesOneRowPerDate() {
+        store(0).recordChange(new BookingChangedEvent(Set.of(today, later), List.of(1L, 2L)));
+
+        verify(changeRepository).saveAll(argThat(rows -> ((List<?>) rows).size() == 2));
+    }
+
+    @Test
+    void occupancy_sendsReadsToDatabaseWhileBusIsIncoherent() {
+        when(changeRepository.findMaxSeq()).thenReturn(0L);
+        OccupancyStoreImpl store = store(0);
+        store.warmStart();
+        assertNotNull(store.occupancy(Regions.DEFAULT, later));
+
+        when(cacheInvalidationBus.isCoherent()).thenReturn(false);
+
+        assertNull(store.occupancy(Regions.DEFAULT, later));
+    }
+}
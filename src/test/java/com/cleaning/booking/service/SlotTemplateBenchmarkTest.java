@@ -0,0 +1,130 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
+import com.cleaning.booking.util.TimeWindow;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Micro-benchmark for precompiled slot templates, run with {@code ./mvnw -Pbenchmark test}.
+ *
+ * A fixed set of cleaner-days is evaluated for templates offering 1 to 8 durations, and
+ * the cost per (cleaner, duration) is reported next to a plain per-window loop over the
+ * day's bookings. Timings are only reported; they depend too much on the machine to fail
+ * a build.
+ */
+@Slf4j
+@Tag("benchmark")
+class SlotTemplateBenchmarkTest {
+
+    private static final int CLEANER_DAYS = 2_000;
+    private static final int ROUNDS = 7;
+    private static final long SEED = 42L;
+
+    private final long[] occupancies = new long[CLEANER_DAYS];
+    private final long[] opens = new long[CLEANER_DAYS];
+    private final List<List<TimeWindow>> bookings = new ArrayList<>();
+
+    private long sink;
+
+    SlotTemplateBenchmarkTest() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < CLEANER_DAYS; i++) {
+            List<TimeWindow> day = new ArrayList<>();
+            long occupancy = 0L;
+            for (int b = random.nextInt(4); b > 0; b--) {
+                int start = random.nextInt(SlotMask.SLOTS_PER_DAY - 4);
+                int slots = random.nextBoolean() ? 4 : 8;
+                int end = Math.min(SlotMask.SLOTS_PER_DAY, start + slots);
+                day.add(new TimeWindow(SlotMask.slotStart(start), SlotMask.slotStart(end)));
+                occupancy |= SlotMask.range(start, end);
+            }
+            bookings.add(day);
+            occupancies[i] = occupancy;
+            opens[i] = random.nextInt(5) == 0 ? SlotMask.range(4, 20) : SlotMask.FULL_DAY;
+        }
+    }
+
+    /** Nanoseconds per (cleaner, duration), best of {@link #ROUNDS}. */
+    private double nanosPerCheck(SlotTemplate template, boolean masks) {
+        int checks = CLEANER_DAYS * template.durations().size();
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CLEANER_DAYS; i++) {
+                for (int minutes : template.durations()) {
+                    sink += masks
+                            ? template.startMask(occupancies[i], opens[i], minutes)
+                            : windowLoop(template, bookings.get(i), opens[i], minutes);
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / checks;
+    }
+
+    /** The per-window loop the templates replace: every start compared against every booking. */
+    private static long windowLoop(SlotTemplate template, List<TimeWindow> day, long open, int minutes) {
+        long starts = 0L;
+        int slots = minutes / SlotMask.SLOT_MINUTES;
+        int step = template.stepMinutes() / SlotMask.SLOT_MINUTES;
+        for (int start = 0; start + slots <= SlotMask.SLOTS_PER_DAY; start += step) {
+            TimeWindow window = new TimeWindow(SlotMask.slotStart(start), SlotMask.slotStart(start + slots));
+            boolean free = SlotMask.within(open, SlotMask.of(window));
+            for (TimeWindow booked : day) {
+                if (!free) {
+                    break;
+                }
+                free = !window.start().isBefore(booked.end().plusMinutes(template.breakMinutes()))
+                        || !window.end().isAfter(booked.start().minusMinutes(template.breakMinutes()));
+            }
+            if (free) {
+                starts |= 1L << start;
+            }
+        }
+        return starts;
+    }
+
+    @Test
+    void costPerDuration_asTemplatesGrow() {
+        List<SlotTemplate> growing = List.of(
+                new SlotTemplate(30, List.of(120), 30),
+                new SlotTemplate(30, List.of(120, 240), 30),
+                new SlotTemplate(30, List.of(60, 120, 180, 240), 30),
+                new SlotTemplate(30, List.of(60, 120, 180, 240, 300, 360, 420, 480), 30),
+                new SlotTemplate(15, List.of(60, 120, 180, 240, 300, 360, 420, 480), 15));
+
+        // Both paths must agree, or the comparison means nothing
+        for (SlotTemplate template : growing) {
+            for (int i = 0; i < CLEANER_DAYS; i++) {
+                for (int minutes : template.durations()) {
+                    assertEquals(windowLoop(template, bookings.get(i), opens[i], minutes),
+                            template.startMask(occupancies[i], opens[i], minutes), template + " " + minutes);
+                }
+            }
+        }
+
+        // Warm up both paths so the JIT has compiled them
+        for (int i = 0; i < 5; i++) {
+            growing.forEach(t -> {
+                nanosPerCheck(t, true);
+                nanosPerCheck(t, false);
+            });
+        }
+
+        for (SlotTemplate template : growing) {
+            double mask = nanosPerCheck(template, true);
+            double loop = nanosPerCheck(template, false);
+            log.info("{}: {} ns/check compiled, {} ns/check window loop",
+                    template, String.format("%.1f", mask), String.format("%.1f", loop));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.SlotTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Correctness check for precompiled slot templates: the template's start masks and
+ * listings are compared with a brute-force scan over every window of a fixed set of
+ * cleaner-days. Their cost is measured by {@link SlotTemplateBenchmarkTest}.
+ */
+class SlotTemplateTest {
+
+    private static final int CLEANER_DAYS = 2_000;
+    private static final long SEED = 42L;
+
+    private static final List<SlotTemplate> TEMPLATES = List.of(
+            SlotTemplate.DEFAULT,
+            new SlotTemplate(30, List.of(60, 120, 180, 240, 360), 30),
+            new SlotTemplate(60, List.of(60, 180, 360), 30),
+            new SlotTemplate(30, List.of(120), 0),
+            new SlotTemplate(30, List.of(120, 240), 60),
+            new SlotTemplate(15, List.of(45, 60, 90), 15));
+
+    private final long[] occupancies = new long[CLEANER_DAYS];
+    private final long[] opens = new long[CLEANER_DAYS];
+
+    SlotTemplateTest() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < CLEANER_DAYS; i++) {
+            long occupancy = 0L;
+            for (int b = random.nextInt(4); b > 0; b--) {
+                int start = random.nextInt(SlotMask.SLOTS_PER_DAY - 4);
+                int slots = random.nextBoolean() ? 4 : 8;
+                occupancy |= SlotMask.range(start, Math.min(SlotMask.SLOTS_PER_DAY, start + slots));
+            }
+            occupancies[i] = occupancy;
+            opens[i] = random.nextInt(5) == 0 ? SlotMask.range(4, 20) : SlotMask.FULL_DAY;
+        }
+    }
+
+    /** Start mask by checking every window on its own. */
+    private static long bruteForceStarts(SlotTemplate template, long occupancy, long open, int minutes) {
+        int slots = minutes / SlotMask.SLOT_MINUTES;
+        int step = template.stepMinutes() / SlotMask.SLOT_MINUTES;
+        long busy = SlotMask.withBreak(occupancy, template.breakMinutes() / SlotMask.SLOT_MINUTES);
+        long starts = 0L;
+        for (int start = 0; start + slots <= SlotMask.SLOTS_PER_DAY; start += step) {
+            long window = SlotMask.range(start, start + slots);
+            if ((window & busy) == 0 && SlotMask.within(open, window)) {
+                starts |= 1L << start;
+            }
+        }
+        return starts;
+    }
+
+    @Test
+    void startMasksAndListings_matchBruteForce() {
+        for (SlotTemplate template : TEMPLATES) {
+            for (int i = 0; i < CLEANER_DAYS; i++) {
+                List<String> expected = new ArrayList<>();
+                for (int start = 0; start < SlotMask.SLOTS_PER_DAY; start++) {
+                    for (int minutes : template.durations()) {
+                        long starts = bruteForceStarts(template, occupancies[i], opens[i], minutes);
+                        if ((starts & (1L << start)) != 0) {
+                            expected.add(SlotMask.slotStart(start) + " - "
+                                    + SlotMask.slotStart(start + minutes / SlotMask.SLOT_MINUTES));
+                        }
+                    }
+                }
+                for (int minutes : template.durations()) {
+                    assertEquals(bruteForceStarts(template, occupancies[i], opens[i], minutes),
+                            template.startMask(occupancies[i], opens[i], minutes), template + " " + minutes);
+                }
+                assertEquals(expected, template.availableSlots(occupancies[i], opens[i]), template.toString());
+            }
+        }
+    }
+
+    @Test
+    void template_rejectsDurationsOffTheSlotGrid() {
+        assertThrows(IllegalArgumentException.class, () -> new SlotTemplate(10, List.of(60), 30));
+        assertThrows(IllegalArgumentException.class, () -> new SlotTemplate(30, List.of(120), 20));
+        assertThrows(IllegalArgumentException.class, () -> new SlotTemplate(30, List.of(90, 100), 30));
+        assertThrows(IllegalArgumentException.class, () -> new SlotTemplate(30, List.of(900), 30));
+        assertFalse(SlotTemplate.DEFAULT.allows(180));
+        assertEquals("60, 180 or 360", new SlotTemplate(60, List.of(360, 60, 180), 30).durationsText());
+    }
+
+    @Test
+    void template_offersQuarterHourSteps() {
+        SlotTemplate quarterHours = new SlotTemplate(15, List.of(45, 60), 15);
+
+        assertTrue(quarterHours.allows(45));
+        assertTrue(quarterHours.startsAt(LocalTime.of(10, 15), 45));
+        assertTrue(quarterHours.startsAt(LocalTime.of(21, 0), 60));
+        assertFalse(quarterHours.startsAt(LocalTime.of(21, 15), 60));
+        assertFalse(SlotTemplate.DEFAULT.startsAt(LocalTime.of(10, 15), 120));
+        assertTrue(quarterHours.availableSlots(0L, SlotMask.FULL_DAY).contains("09:15 - 10:00"));
+    }
+}
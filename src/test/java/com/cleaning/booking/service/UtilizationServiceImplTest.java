@@ -0,0 +1,116 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.CleanerSlotUsage;
+import com.cleaning.booking.dto.DailySlotUsage;
+import com.cleaning.booking.dto.UtilizationReport;
+import com.cleaning.booking.entity.CleanerProfessional;
+import com.cleaning.booking.entity.Vehicle;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.repository.BookingRepository;
+import com.cleaning.booking.repository.CalendarRuleRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.service.impl.UtilizationServiceImpl;
+import com.cleaning.booking.service.impl.WorkingCalendarServiceImpl;
+import com.cleaning.booking.util.SlotMask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UtilizationServiceImplTest {
+
+    // Monday 2025-01-13 .. Sunday 2025-01-19: six working days (Friday is off)
+    private final LocalDate from = LocalDate.of(2025, 1, 13);
+    private final LocalDate to = LocalDate.of(2025, 1, 19);
+
+    private BookingRepository bookingRepository;
+    private CleanerRepository cleanerRepository;
+    private DataVersionService dataVersionService;
+    private UtilizationServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        bookingRepository = mock(BookingRepository.class);
+        cleanerRepository = mock(CleanerRepository.class);
+        dataVersionService = mock(DataVersionService.class);
+        service = new UtilizationServiceImpl(bookingRepository, cleanerRepository, dataVersionService,
+                new WorkingCalendarServiceImpl(mock(CalendarRuleRepository.class), mock(CleanerRepository.class), event -> {},
+                Set.of(DayOfWeek.FRIDAY), 90), 8);
+
+        Vehicle v = new Vehicle();
+        v.setId(1L);
+        v.setName("Van-1");
+        when(cleanerRepository.findAllWithVehicle()).thenReturn(List.of(cleaner(10L, v), cleaner(11L, v)));
+
+        // cleaner 10: 2-hour jobs at 08:00 Mon-Wed; cleaner 11: one 4-hour job at 10:00 on Thursday
+        when(bookingRepository.countByCleanerAndWindow(from, to)).thenReturn(List.of(
+                new CleanerSlotUsage(10L, LocalTime.of(8, 0), LocalTime.of(10, 0), 3L),
+                new CleanerSlotUsage(11L, LocalTime.of(10, 0), LocalTime.of(14, 0), 1L)));
+        when(bookingRepository.countByDateAndWindow(from, to)).thenReturn(List.of(
+                new DailySlotUsage(from, LocalTime.of(8, 0), LocalTime.of(10, 0), 1L),
+                new DailySlotUsage(from.plusDays(1), LocalTime.of(8, 0), LocalTime.of(10, 0), 1L),
+                new DailySlotUsage(from.plusDays(2), LocalTime.of(8, 0), LocalTime.of(10, 0), 1L),
+                new DailySlotUsage(from.plusDays(3), LocalTime.of(10, 0), LocalTime.of(14, 0), 1L)));
+    }
+
+    private CleanerProfessional cleaner(Long id, Vehicle v) {
+        CleanerProfessional c = new CleanerProfessional();
+        c.setId(id);
+        c.setName("C" + id);
+        c.setVehicle(v);
+        return c;
+    }
+
+    @Test
+    void utilization_aggregatesCleanersVehiclesAndSlots() {
+
+        UtilizationReport report = service.utilization(from, to);
+
+        assertEquals(6, report.workingDays());
+        assertEquals(10L, report.cleaners().get(0).cleanerId());
+        assertEquals(360, report.cleaners().get(0).bookedMinutes());
+        assertEquals(240, report.cleaners().get(1).bookedMinutes());
+
+        assertEquals(1, report.vehicles().size());
+        assertEquals(600, report.vehicles().get(0).bookedMinutes());
+        // 40 booked slots out of 2 cleaners * 6 days * 56 slots
+        assertEquals(0.06, report.vehicles().get(0).utilization(), 1e-9);
+        assertEquals(0.06, report.overallUtilization(), 1e-9);
+
+        // slot 0 (08:00): 3 bookings over 2 cleaners * 6 days
+        assertEquals(0.25, report.slotUtilization()[0], 1e-9);
+        assertEquals(0.0, report.slotUtilization()[SlotMask.SLOTS_PER_DAY - 1], 1e-9);
+
+        // one of two cleaners busy at 08:00 on the single Monday
+        assertEquals(0.5, report.heatmap().get(DayOfWeek.MONDAY)[0], 1e-9);
+        assertEquals(0.5, report.heatmap().get(DayOfWeek.THURSDAY)[SlotMask.slotIndex(LocalTime.of(10, 0))], 1e-9);
+        assertEquals(0.0, report.heatmap().get(DayOfWeek.THURSDAY)[0], 1e-9);
+        assertFalse(report.heatmap().containsKey(DayOfWeek.FRIDAY));
+    }
+
+    @Test
+    void utilization_closedPeriodServedFromCacheUntilVersionChanges() {
+
+        UtilizationReport first = service.utilization(from, to);
+        assertSame(first, service.utilization(from, to));
+        verify(bookingRepository, times(1)).countByCleanerAndWindow(from, to);
+
+        when(dataVersionService.bookingVersion(from)).thenReturn(1L);
+        assertNotSame(first, service.utilization(from, to));
+        verify(bookingRepository, times(2)).countByCleanerAndWindow(from, to);
+    }
+
+    @Test
+    void utilization_rejectsInvalidRange() {
+
+        assertThrows(BadRequestException.class, () -> service.utilization(to, from));
+        assertThrows(BadRequestException.class, () -> service.utilization(from, from.plusDays(366)));
+    }
+}
@@ -14,6 +14,7 @@ import com.cleaning.booking.repository.VehicleRepository;
 import com.cleaning.booking.service.impl.VehicleServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +33,7 @@ class VehicleServiceImplTest {
     void setup() {
         vehicleRepository = mock(VehicleRepository.class);
         cleanerRepository = mock(CleanerRepository.class);
-        service = new VehicleServiceImpl(vehicleRepository, cleanerRepository);
+        service = new VehicleServiceImpl(vehicleRepository, cleanerRepository, mock(ApplicationEventPublisher.class));
     }
 
     // Utility builders --------------------------------------------------------
@@ -0,0 +1,207 @@
+package com.cleaning.booking.service;
+
+import com.cleaning.booking.dto.CalendarRuleRequest;
+import com.cleaning.booking.dto.CalendarRuleType;
+import com.cleaning.booking.entity.CalendarRule;
+import com.cleaning.booking.event.CacheInvalidatedEvent;
+import com.cleaning.booking.event.RosterChangedEvent;
+import com.cleaning.booking.exception.BadRequestException;
+import com.cleaning.booking.exception.EntityNotFoundException;
+import com.cleaning.booking.repository.CalendarRuleRepository;
+import com.cleaning.booking.repository.CleanerRepository;
+import com.cleaning.booking.service.impl.WorkingCalendarServiceImpl;
+import com.cleaning.booking.util.CompiledCalendar;
+import com.cleaning.booking.util.SlotMask;
+import com.cleaning.booking.util.TimeWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WorkingCalendarServiceImplTest {
+
+    private CalendarRuleRepository ruleRepository;
+    private CleanerRepository cleanerRepository;
+    private final List<Object> published = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private final LocalDate tuesday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+    private WorkingCalendarServiceImpl calendar;
+
+    @BeforeEach
+    void setup() {
+        ruleRepository = mock(CalendarRuleRepository.class);
+        cleanerRepository = mock(CleanerRepository.class);
+        when(cleanerRepository.existsById(anyLong())).thenReturn(true);
+        when(ruleRepository.save(any())).thenAnswer(inv -> {
+            CalendarRule rule = inv.getArgument(0);
+            rule.setId(ids.incrementAndGet());
+            return rule;
+        });
+        calendar = new WorkingCalendarServiceImpl(ruleRepository, cleanerRepository, published::add,
+                Set.of(DayOfWeek.FRIDAY), 90);
+    }
+
+    private CalendarRuleRequest rule(CalendarRuleType type, String region, Long cleanerId, LocalDate from, LocalDate to,
+                                     DayOfWeek dayOfWeek, LocalTime open, LocalTime close) {
+        return new CalendarRuleRequest(type, region, cleanerId, from, to, dayOfWeek, open, close, null);
+    }
+
+    @Test
+    void withoutRules_closesConfiguredWeekdaysOnly() {
+        LocalDate friday = tuesday.plusDays(3);
+
+        assertEquals(SlotMask.FULL_DAY, calendar.openSlots("north", tuesday));
+        assertFalse(calendar.isWorkingDay("north", friday));
+        assertEquals("Friday is not a working day.", calendar.closedReason("north", friday, null));
+    }
+
+    @Test
+    void holidayAndRegionHours_applyOnlyWhereTheyMatch() {
+        calendar.createRule(rule(CalendarRuleType.CLOSED, null, null, tuesday, tuesday, null, null, null));
+        calendar.createRule(rule(CalendarRuleType.HOURS, "north", null, null, null, DayOfWeek.WEDNESDAY,
+                LocalTime.of(10, 0), LocalTime.of(14, 0)));
+        LocalDate wednesday = tuesday.plusDays(1);
+
+        assertFalse(calendar.isWorkingDay("south", tuesday));
+        assertEquals(tuesday + " is not a working day.", calendar.closedReason("south", tuesday, null));
+        assertEquals(SlotMask.of(new TimeWindow(LocalTime.of(10, 0), LocalTime.of(14, 0))), calendar.openSlots("north", wednesday));
+        assertEquals(SlotMask.FULL_DAY, calendar.openSlots("south", wednesday));
+        assertEquals(SlotMask.FULL_DAY, calendar.openSlots("north", wednesday.plusDays(1)));
+        assertEquals("Booking must be within working hours 10:00-14:00.",
+                calendar.closedReason("north", wednesday, new TimeWindow(LocalTime.of(13, 0), LocalTime.of(15, 0))));
+        assertNull(calendar.closedReason("north", wednesday, new TimeWindow(LocalTime.of(10, 0), LocalTime.of(14, 0))));
+        assertEquals(2, published.stream().filter(RosterChangedEvent.class::isInstance).count());
+    }
+
+    @Test
+    void dayOff_removesOnlyThatCleaner() {
+        calendar.createRule(rule(CalendarRuleType.DAY_OFF, null, 7L, tuesday, tuesday.plusDays(7), null, null, null));
+
+        assertEquals(0L, calendar.cleanerSlots("north", 7L, tuesday));
+        assertEquals(SlotMask.FULL_DAY, calendar.cleanerSlots("north", 8L, tuesday));
+        assertEquals(SlotMask.FULL_DAY, calendar.cleanerSlots("north", 7L, tuesday.plusDays(8)));
+        assertTrue(calendar.isWorkingDay("north", tuesday));
+    }
+
+    @Test
+    void deleteRule_restoresTheDays() {
+        long id = calendar.createRule(rule(CalendarRuleType.CLOSED, "north", null, null, null, DayOfWeek.TUESDAY,
+                null, null)).id();
+        CalendarRule stored = CalendarRule.builder().id(id).type(CalendarRuleType.CLOSED).region("north")
+                .dayOfWeek(DayOfWeek.TUESDAY).build();
+        when(ruleRepository.findById(id)).thenReturn(Optional.of(stored));
+
+        assertFalse(calendar.isWorkingDay("north", tuesday.plusWeeks(3)));
+        calendar.deleteRule(id);
+
+        assertTrue(calendar.isWorkingDay("north", tuesday.plusWeeks(3)));
+        assertTrue(calendar.getRules().isEmpty());
+    }
+
+    @Test
+    void refresh_picksUpRulesWrittenByOtherNodes() {
+        when(ruleRepository.findAllIds()).thenReturn(Set.of(99L));
+        when(ruleRepository.findAllById(List.of(99L))).thenReturn(List.of(CalendarRule.builder().id(99L)
+                .type(CalendarRuleType.CLOSED).dateFrom(tuesday).dateTo(tuesday).build()));
+
+        calendar.refresh();
+
+        assertFalse(calendar.isWorkingDay("north", tuesday));
+        assertEquals(List.of(99L), calendar.getRules().stream().map(r -> r.id()).toList());
+    }
+
+    @Test
+    void remoteChange_loadsOnlyTheRulesItDoesNotHold() {
+        long local = calendar.createRule(rule(CalendarRuleType.CLOSED, null, null, tuesday, tuesday, null, null, null)).id();
+        LocalDate wednesday = tuesday.plusDays(1);
+        when(ruleRepository.findAllIds()).thenReturn(Set.of(local, 99L));
+        when(ruleRepository.findAllById(List.of(99L))).thenReturn(List.of(CalendarRule.builder().id(99L)
+                .type(CalendarRuleType.CLOSED).dateFrom(wednesday).dateTo(wednesday).build()));
+
+        calendar.onRemoteChange(new CacheInvalidatedEvent(Set.of(), List.of(), true));
+
+        assertFalse(calendar.isWorkingDay("north", tuesday));
+        assertFalse(calendar.isWorkingDay("north", wednesday));
+        verify(ruleRepository, never()).findAll();
+
+        // a rule deleted elsewhere is dropped without reading any rule
+        when(ruleRepository.findAllIds()).thenReturn(Set.of(99L));
+        calendar.onRemoteChange(new CacheInvalidatedEvent(Set.of(), List.of(), true));
+
+        assertTrue(calendar.isWorkingDay("north", tuesday));
+        verify(ruleRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void createRule_recompilesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            calendar.createRule(rule(CalendarRuleType.CLOSED, null, null, tuesday, tuesday, null, null, null));
+
+            assertTrue(calendar.isWorkingDay("north", tuesday));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertFalse(calendar.isWorkingDay("north", tuesday));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void incrementalRecompile_matchesFullCompileAndRuleEvaluation() {
+        List<CalendarRule> rules = new ArrayList<>(List.of(
+                CalendarRule.builder().id(1L).type(CalendarRuleType.CLOSED).dateFrom(tuesday.plusDays(10)).dateTo(tuesday.plusDays(12)).build(),
+                CalendarRule.builder().id(2L).type(CalendarRuleType.HOURS).region("north").dayOfWeek(DayOfWeek.MONDAY)
+                        .openTime(LocalTime.of(9, 0)).closeTime(LocalTime.of(18, 0)).build(),
+                CalendarRule.builder().id(3L).type(CalendarRuleType.DAY_OFF).cleanerId(5L).dayOfWeek(DayOfWeek.THURSDAY)
+                        .dateTo(tuesday.plusDays(40)).build()));
+        LocalDate from = LocalDate.now();
+        CompiledCalendar compiled = CompiledCalendar.compile(rules, Set.of(DayOfWeek.FRIDAY), from, 60);
+
+        CalendarRule added = CalendarRule.builder().id(4L).type(CalendarRuleType.HOURS).dateFrom(tuesday.plusDays(20))
+                .openTime(LocalTime.of(8, 0)).closeTime(LocalTime.of(20, 0)).build();
+        CalendarRule removed = rules.remove(0);
+        rules.add(added);
+        CompiledCalendar incremental = compiled.withRules(rules, List.of(added, removed));
+
+        CompiledCalendar full = CompiledCalendar.compile(rules, Set.of(DayOfWeek.FRIDAY), from, 60);
+        CompiledCalendar evaluated = CompiledCalendar.compile(rules, Set.of(DayOfWeek.FRIDAY), from, 0);
+        for (LocalDate d = from.minusDays(5); d.isBefore(from.plusDays(70)); d = d.plusDays(1)) {
+            for (String region : List.of("north", "south")) {
+                assertEquals(full.openSlots(region, d), incremental.openSlots(region, d), region + " " + d);
+                assertEquals(evaluated.openSlots(region, d), incremental.openSlots(region, d), region + " " + d);
+            }
+            assertEquals(evaluated.isDayOff(5L, d), incremental.isDayOff(5L, d), d.toString());
+        }
+    }
+
+    @Test
+    void createRule_rejectsInvalidRules() {
+        assertThrows(BadRequestException.class, () -> calendar.createRule(rule(CalendarRuleType.HOURS, "north", null,
+                null, null, null, LocalTime.of(9, 10), LocalTime.of(17, 0))));
+        assertThrows(BadRequestException.class, () -> calendar.createRule(rule(CalendarRuleType.HOURS, "north", null,
+                null, null, null, LocalTime.of(7, 0), LocalTime.of(17, 0))));
+        assertThrows(BadRequestException.class, () -> calendar.createRule(rule(CalendarRuleType.CLOSED, "north", null,
+                null, null, null, null, null)));
+        assertThrows(BadRequestException.class, () -> calendar.createRule(rule(CalendarRuleType.DAY_OFF, "north", 7L,
+                tuesday, null, null, null, null)));
+
+        when(cleanerRepository.existsById(404L)).thenReturn(false);
+        assertThrows(EntityNotFoundException.class, () -> calendar.createRule(rule(CalendarRuleType.DAY_OFF, null, 404L,
+                tuesday, null, null, null, null)));
+        verify(ruleRepository, never()).save(any());
+    }
+}